@@ -0,0 +1,30 @@
+package com.example.fitnesstracker.config;
+
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Límites de costo del endpoint GraphQL: un query demasiado profundo o demasiado caro se rechaza
+ * antes de ejecutar nada contra la base. Spring Boot agrega las Instrumentation declaradas como bean.
+ */
+@Configuration
+public class GraphQlConfig {
+
+    @Bean
+    public MaxQueryDepthInstrumentation maxQueryDepthInstrumentation(@Value("${graphql.limits.max-depth:8}") int maxDepth) {
+        return new MaxQueryDepthInstrumentation(maxDepth);
+    }
+
+    // Cada campo cuesta 1 más sus hijos; un campo con limit devuelve hasta limit filas y multiplica el costo de sus hijos
+    @Bean
+    public MaxQueryComplexityInstrumentation maxQueryComplexityInstrumentation(
+            @Value("${graphql.limits.max-complexity:300}") int maxComplexity) {
+        return new MaxQueryComplexityInstrumentation(maxComplexity, (environment, childComplexity) ->
+                environment.getArguments().get("limit") instanceof Integer limit
+                        ? 1 + childComplexity * Math.max(limit, 1)
+                        : 1 + childComplexity);
+    }
+}
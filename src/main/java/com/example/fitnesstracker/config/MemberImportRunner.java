@@ -0,0 +1,73 @@
+package com.example.fitnesstracker.config;
+
+import com.example.fitnesstracker.dto.response.MemberImportErrorDTO;
+import com.example.fitnesstracker.dto.response.MemberImportResultDTO;
+import com.example.fitnesstracker.enums.MemberImportFormat;
+import com.example.fitnesstracker.service.MemberImportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Importación de members por línea de comandos. Se activa con {@code --import.members.file}, corre
+ * la importación, escribe el reporte en el log y termina la aplicación (código 1 si hubo filas con error):
+ * <pre>
+ * java -jar fitnesstracker.jar --spring.main.web-application-type=none \
+ *      --import.members.file=socios.csv [--import.members.format=NDJSON] [--import.members.dry-run=true]
+ * </pre>
+ * Si no se indica formato se deduce de la extensión (.ndjson / .jsonl, o CSV).
+ */
+@Component
+@ConditionalOnProperty(name = "import.members.file")
+@RequiredArgsConstructor
+@Slf4j
+public class MemberImportRunner implements ApplicationRunner {
+
+    private final MemberImportService memberImportService;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${import.members.file}")
+    private Path file;
+
+    @Value("${import.members.format:}")
+    private String format;
+
+    @Value("${import.members.dry-run:false}")
+    private boolean dryRun;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        MemberImportFormat importFormat = resolveFormat();
+        log.info("Importando members desde {} ({})", file, importFormat);
+
+        MemberImportResultDTO result;
+        try (InputStream input = Files.newInputStream(file)) {
+            result = memberImportService.importMembers(input, importFormat, dryRun);
+        }
+        for (MemberImportErrorDTO error : result.getErrors()) {
+            log.warn("Línea {}{}: {}", error.getLine(),
+                    error.getField() != null ? " [" + error.getField() + "]" : "", error.getMessage());
+        }
+        int exitCode = result.getFailed() > 0 ? 1 : 0;
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+
+    private MemberImportFormat resolveFormat() {
+        if (!format.isBlank()) {
+            return MemberImportFormat.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        }
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".ndjson") || name.endsWith(".jsonl") ? MemberImportFormat.NDJSON : MemberImportFormat.CSV;
+    }
+}
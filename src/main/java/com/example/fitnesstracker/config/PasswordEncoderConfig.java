@@ -1,16 +1,26 @@
 package com.example.fitnesstracker.config;
 
+import com.example.fitnesstracker.security.AdaptivePasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 
 @Configuration
 public class PasswordEncoderConfig {
 
     @Bean
-    public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public AdaptivePasswordEncoder passwordEncoder(
+            @Value("${security.hashing.strength:0}") int strength,
+            @Value("${security.hashing.target-ms:250}") long targetMs,
+            @Value("${security.hashing.min-strength:10}") int minStrength,
+            @Value("${security.hashing.max-strength:14}") int maxStrength,
+            @Value("${security.hashing.threads:0}") int threads,
+            @Value("${security.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${security.hashing.timeout-ms:3000}") long timeoutMs) {
+        // strength > 0 fija el costo y evita la calibración (útil para que todas las instancias coincidan)
+        int cost = strength > 0 ? strength : AdaptivePasswordEncoder.calibrate(targetMs, minStrength, maxStrength);
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors());
+        return new AdaptivePasswordEncoder(cost, poolSize, queueCapacity, timeoutMs);
     }
 }
-
@@ -0,0 +1,36 @@
+package com.example.fitnesstracker.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Representaciones de las respuestas además de JSON. Con Accept: application/cbor o
+ * application/x-jackson-smile (la app móvil) se serializan los mismos DTOs; los mappers salen del
+ * builder de Spring Boot, así que fechas, inclusión de nulos y módulos son los mismos que en JSON.
+ */
+@Configuration
+public class SerializationConfig {
+
+    // Spring Boot agrega los Module declarados como bean a todos los mappers de su builder:
+    // reemplaza la reflexión de getters/setters por lambdas generadas
+    @Bean
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
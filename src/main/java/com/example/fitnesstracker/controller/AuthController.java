@@ -1,5 +1,6 @@
 package com.example.fitnesstracker.controller;
 
+import com.example.fitnesstracker.dto.request.RefreshTokenDTO;
 import com.example.fitnesstracker.dto.request.UserLoginDTO;
 import com.example.fitnesstracker.dto.request.member.RegisterMemberDTO;
 import com.example.fitnesstracker.dto.request.trainer.RegisterTrainerDTO;
@@ -55,8 +56,25 @@ public class AuthController {
         return ResponseEntity.status(HttpStatus.CREATED).body(authResponse);
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(
+            @Valid @RequestBody RefreshTokenDTO dto,
+            HttpServletResponse response
+    ) {
+        AuthResponse authResponse = authService.refresh(dto.getRefreshToken());
+        cookieUtils.addAuthCookie(response, authResponse.getToken());
+        return ResponseEntity.ok(authResponse);
+    }
+
+    // Con refresh token se revoca la sesión; sin él solo se borra la cookie
     @PostMapping("/logout")
-    public ResponseEntity<Void> logout(HttpServletResponse response) {
+    public ResponseEntity<Void> logout(
+            @RequestBody(required = false) RefreshTokenDTO dto,
+            HttpServletResponse response
+    ) {
+        if (dto != null && dto.getRefreshToken() != null) {
+            authService.logout(dto.getRefreshToken());
+        }
         cookieUtils.clearAuthCookie(response);
         return ResponseEntity.noContent().build();
     }
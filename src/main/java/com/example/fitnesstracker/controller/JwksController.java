@@ -0,0 +1,30 @@
+package com.example.fitnesstracker.controller;
+
+import com.example.fitnesstracker.security.JwtKeyStore;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "JWKS", description = "Claves públicas para verificar los access tokens")
+public class JwksController {
+
+    private final JwtKeyStore jwtKeyStore;
+
+    // Cache corto: una clave recién rotada tiene que aparecer antes de que venza el anterior
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "JWKS", description = "Claves públicas ES256 vigentes, identificadas por kid")
+    public ResponseEntity<String> getJwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic())
+                .body(jwtKeyStore.jwksJson());
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.fitnesstracker.controller;
+
+import com.example.fitnesstracker.dto.response.leaderboard.LeaderboardDTO;
+import com.example.fitnesstracker.dto.response.leaderboard.MemberRankDTO;
+import com.example.fitnesstracker.enums.LeaderboardMetric;
+import com.example.fitnesstracker.service.LeaderboardService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/leaderboards")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Leaderboards", description = "Rankings de members por volumen, entrenamientos y racha")
+public class LeaderboardController {
+
+    private final LeaderboardService leaderboardService;
+
+    @GetMapping
+    @Operation(summary = "Ranking del gimnasio", description = "Top de members de todo el gimnasio para la métrica")
+    public ResponseEntity<LeaderboardDTO> getGymLeaderboard(
+            @RequestParam(defaultValue = "WEEKLY_VOLUME") LeaderboardMetric metric,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "10") int limit) {
+        log.info("GET /api/leaderboards - metric: {}", metric);
+        return ResponseEntity.ok(leaderboardService.getLeaderboard(metric, null, offset, limit));
+    }
+
+    @GetMapping("/trainers/{trainerId}")
+    @Operation(summary = "Ranking del trainer", description = "Top de los members asignados al trainer para la métrica")
+    public ResponseEntity<LeaderboardDTO> getTrainerLeaderboard(
+            @PathVariable Long trainerId,
+            @RequestParam(defaultValue = "WEEKLY_VOLUME") LeaderboardMetric metric,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "10") int limit) {
+        log.info("GET /api/leaderboards/trainers/{} - metric: {}", trainerId, metric);
+        return ResponseEntity.ok(leaderboardService.getLeaderboard(metric, trainerId, offset, limit));
+    }
+
+    @GetMapping("/members/{memberId}")
+    @Operation(summary = "Posición del member", description = "Posición en el ranking del gimnasio y en el de su trainer")
+    public ResponseEntity<MemberRankDTO> getMemberRank(
+            @PathVariable Long memberId,
+            @RequestParam(defaultValue = "WEEKLY_VOLUME") LeaderboardMetric metric) {
+        log.info("GET /api/leaderboards/members/{} - metric: {}", memberId, metric);
+        return ResponseEntity.ok(leaderboardService.getMemberRank(metric, memberId));
+    }
+}
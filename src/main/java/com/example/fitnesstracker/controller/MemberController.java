@@ -3,20 +3,37 @@ package com.example.fitnesstracker.controller;
 import com.example.fitnesstracker.dto.request.member.RegisterMemberDTO;
 import com.example.fitnesstracker.dto.request.member.UpdateMemberDTO;
 import com.example.fitnesstracker.dto.response.MemberDTO;
+import com.example.fitnesstracker.dto.response.MemberImportResultDTO;
+import com.example.fitnesstracker.dto.response.MembershipExpiryRunDTO;
+import com.example.fitnesstracker.dto.response.workout.StreakDTO;
+import com.example.fitnesstracker.dto.response.workout.TrainingCalendarDTO;
+import com.example.fitnesstracker.enums.MemberImportFormat;
+import com.example.fitnesstracker.mapper.MemberMapper;
+import com.example.fitnesstracker.service.MemberImportService;
 import com.example.fitnesstracker.service.MemberService;
+import com.example.fitnesstracker.service.MembershipExpiryService;
+import com.example.fitnesstracker.service.TrainingCalendarService;
+import com.example.fitnesstracker.util.ETags;
+import com.example.fitnesstracker.util.FieldSelection;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
 import java.net.URI;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 
 @RestController
@@ -28,23 +45,31 @@ import java.util.List;
 public class MemberController {
 
     private final MemberService memberService;
+    private final TrainingCalendarService trainingCalendarService;
+    private final MembershipExpiryService membershipExpiryService;
+    private final MemberImportService memberImportService;
 
     @GetMapping
     // @PreAuthorize("hasAnyRole('ADMIN','USER')")
     @Operation(summary = "Listar todos los miembros", description = "Obtiene lista de miembros activos")
-    public ResponseEntity<List<MemberDTO>> getAllMembers() {
+    public ResponseEntity<List<MemberDTO>> getAllMembers(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String include) {
         log.info("GET /api/members - Listando miembros");
-        List<MemberDTO> members = memberService.getAllMembers();
+        List<MemberDTO> members = memberService.getAllMembers(selection(fields, include));
         return ResponseEntity.ok(members);
     }
 
     @GetMapping("/{id}")
     // @PreAuthorize("hasAnyRole('ADMIN','USER')")
     @Operation(summary = "Obtener miembro por ID", description = "Busca un miembro por su ID")
-    public ResponseEntity<MemberDTO> getMemberById(@PathVariable Long id) {
+    public ResponseEntity<MemberDTO> getMemberById(
+            @PathVariable Long id,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String include) {
         log.info("GET /api/members/{} - Obteniendo miembro", id);
-        MemberDTO member = memberService.getMemberById(id);
-        return ResponseEntity.ok(member);
+        MemberDTO member = memberService.getMemberById(id, selection(fields, include));
+        return ETags.ok(member, member.getVersion());
     }
 
     @GetMapping("/external/{externalId}")
@@ -69,10 +94,11 @@ public class MemberController {
     @PutMapping("/{id}")
     // @PreAuthorize("hasAnyRole('ADMIN','USER')")
     @Operation(summary = "Actualizar miembro", description = "Actualiza los datos de un miembro")
-    public ResponseEntity<MemberDTO> updateMember(@PathVariable Long id, @Valid @RequestBody UpdateMemberDTO dto) {
+    public ResponseEntity<MemberDTO> updateMember(@PathVariable Long id, @Valid @RequestBody UpdateMemberDTO dto,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("PUT /api/members/{} - Actualizando miembro", id);
-        MemberDTO updatedMember = memberService.updateMember(id, dto);
-        return ResponseEntity.ok(updatedMember);
+        MemberDTO updatedMember = memberService.updateMember(id, dto, ETags.parseIfMatch(ifMatch));
+        return ETags.ok(updatedMember, updatedMember.getVersion());
     }
 
     @DeleteMapping("/{id}")
@@ -102,9 +128,12 @@ public class MemberController {
     @GetMapping("/trainer/{trainerId}")
     //  @PreAuthorize("hasAnyRole('ADMIN','USER')")
     @Operation(summary = "Listar miembros de un trainer", description = "Obtiene miembros asignados a un entrenador")
-    public ResponseEntity<List<MemberDTO>> getMembersByTrainer(@PathVariable Long trainerId) {
+    public ResponseEntity<List<MemberDTO>> getMembersByTrainer(
+            @PathVariable Long trainerId,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String include) {
         log.info("GET /api/members/trainer/{} - Obteniendo miembros del trainer", trainerId);
-        List<MemberDTO> members = memberService.getMembersByTrainer(trainerId);
+        List<MemberDTO> members = memberService.getMembersByTrainer(trainerId, selection(fields, include));
         return ResponseEntity.ok(members);
     }
 
@@ -116,4 +145,54 @@ public class MemberController {
         List<MemberDTO> expiredMembers = memberService.getExpiredMemberships();
         return ResponseEntity.ok(expiredMembers);
     }
+
+    @PostMapping("/expiry/run")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Procesar vencimientos", description = "Ejecuta ahora el procesamiento nocturno de membresías vencidas")
+    public ResponseEntity<MembershipExpiryRunDTO> runMembershipExpiry() {
+        log.info("POST /api/members/expiry/run - Procesando vencimientos");
+        return ResponseEntity.ok(membershipExpiryService.run());
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson", "text/plain", "application/octet-stream"})
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Importar members",
+            description = "Alta masiva desde CSV (con encabezado) o NDJSON enviado como cuerpo. "
+                    + "Devuelve el reporte por fila; con dryRun=true solo valida")
+    public ResponseEntity<MemberImportResultDTO> importMembers(
+            @RequestParam(defaultValue = "CSV") MemberImportFormat format,
+            @RequestParam(defaultValue = "false") boolean dryRun,
+            HttpServletRequest request) throws IOException {
+        log.info("POST /api/members/import - formato: {}, dryRun: {}", format, dryRun);
+        return ResponseEntity.ok(memberImportService.importMembers(request.getInputStream(), format, dryRun));
+    }
+
+    @GetMapping("/{id}/streak")
+    @Operation(summary = "Racha de entrenamiento", description = "Racha actual, racha más larga y total de días entrenados")
+    public ResponseEntity<StreakDTO> getStreak(@PathVariable Long id) {
+        log.info("GET /api/members/{}/streak", id);
+        return ResponseEntity.ok(trainingCalendarService.getStreak(id));
+    }
+
+    @GetMapping("/{id}/calendar")
+    @Operation(summary = "Calendario de entrenamiento",
+            description = "Días entrenados en un rango (from/to) o en un mes (month=yyyy-MM); por defecto el último año")
+    public ResponseEntity<TrainingCalendarDTO> getCalendar(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        log.info("GET /api/members/{}/calendar", id);
+        if (month != null) {
+            return ResponseEntity.ok(trainingCalendarService.getCalendar(id, month.atDay(1), month.atEndOfMonth()));
+        }
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusYears(1).plusDays(1);
+        return ResponseEntity.ok(trainingCalendarService.getCalendar(id, start, end));
+    }
+
+    // include=trainer agrega el trainer asignado completo
+    private static FieldSelection selection(String fields, String include) {
+        return FieldSelection.parse(fields, include, MemberDTO.class, MemberMapper.INCLUDES);
+    }
 }
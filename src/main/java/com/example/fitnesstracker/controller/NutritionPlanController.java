@@ -4,18 +4,27 @@ import com.example.fitnesstracker.dto.request.nutrition.AddNutritionMealDTO;
 import com.example.fitnesstracker.dto.request.nutrition.CreateNutritionPlanDTO;
 import com.example.fitnesstracker.dto.response.nutrition.NutritionMealDTO;
 import com.example.fitnesstracker.dto.response.nutrition.NutritionPlanDTO;
+import com.example.fitnesstracker.enums.NutritionPlanStatus;
+import com.example.fitnesstracker.mapper.NutritionPlanMapper;
+import com.example.fitnesstracker.repository.PlanVersionProjection;
 import com.example.fitnesstracker.service.NutritionPlanService;
+import com.example.fitnesstracker.util.ETags;
+import com.example.fitnesstracker.util.FieldSelection;
+import com.example.fitnesstracker.util.OptimisticRetry;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -27,6 +36,10 @@ import java.util.List;
 public class NutritionPlanController {
 
     private final NutritionPlanService nutritionPlanService;
+    private final OptimisticRetry optimisticRetry;
+
+    @Value("${plans.cache.max-age:5m}")
+    private Duration planMaxAge;
 
     @PostMapping
     @PreAuthorize("hasRole('USER')")
@@ -41,7 +54,7 @@ public class NutritionPlanController {
 
     @PostMapping("/{planId}/meals")
     @PreAuthorize("hasRole('USER')")
-    @Operation(summary = "Agregar comida al plan", description = "Trainer agrega una comida al plan nutricional")
+    @Operation(summary = "Agregar comida al plan", description = "Trainer agrega una comida al plan nutricional (solo en borrador)")
     public ResponseEntity<NutritionMealDTO> addMeal(
             @PathVariable Long planId,
             @RequestParam Long trainerId,
@@ -56,41 +69,69 @@ public class NutritionPlanController {
     @Operation(summary = "Activar plan", description = "Trainer activa el plan para que el miembro pueda verlo")
     public ResponseEntity<NutritionPlanDTO> activatePlan(
             @PathVariable Long planId,
-            @RequestParam Long trainerId) {
+            @RequestParam Long trainerId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("POST /api/nutrition-plans/{}/activate - Trainer {}", planId, trainerId);
-        return ResponseEntity.ok(nutritionPlanService.activatePlan(planId, trainerId));
+        Long expectedVersion = ETags.parseIfMatch(ifMatch);
+        NutritionPlanDTO plan = optimisticRetry.call("activateNutritionPlan",
+                () -> nutritionPlanService.activatePlan(planId, trainerId, expectedVersion));
+        return ETags.ok(plan, plan.getVersion());
     }
 
     @GetMapping("/{planId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
-    @Operation(summary = "Obtener plan por ID", description = "Detalle completo del plan con comidas")
-    public ResponseEntity<NutritionPlanDTO> getPlanById(@PathVariable Long planId) {
+    @Operation(summary = "Obtener plan por ID", description = "Detalle completo del plan con comidas. "
+            + "fields limita los campos del plan e include=meals trae las comidas")
+    public ResponseEntity<NutritionPlanDTO> getPlanById(
+            @PathVariable Long planId,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String include,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("GET /api/nutrition-plans/{}", planId);
-        return ResponseEntity.ok(nutritionPlanService.getPlanById(planId));
+        FieldSelection selection = selection(fields, include, "meals");
+        if (ifNoneMatch != null) {
+            PlanVersionProjection current = nutritionPlanService.getPlanVersion(planId);
+            if (ETags.matchesIfNoneMatch(ifNoneMatch, current.getVersion())) {
+                return ETags.notModified(current.getVersion(), ETags.cacheControl(current.getDraft(), planMaxAge));
+            }
+        }
+        NutritionPlanDTO plan = nutritionPlanService.getPlanById(planId, selection);
+        // Sin status en fields se revalida siempre, como un borrador
+        boolean draft = plan.getStatus() == null || plan.getStatus() == NutritionPlanStatus.DRAFT;
+        return ETags.ok(plan, plan.getVersion(), ETags.cacheControl(draft, planMaxAge));
     }
 
     @GetMapping("/members/{memberId}/active")
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @Operation(summary = "Planes activos del miembro", description = "Obtiene planes activos con detalle completo")
-    public ResponseEntity<List<NutritionPlanDTO>> getActivePlansByMember(@PathVariable Long memberId) {
+    public ResponseEntity<List<NutritionPlanDTO>> getActivePlansByMember(
+            @PathVariable Long memberId,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String include) {
         log.info("GET /api/nutrition-plans/members/{}/active", memberId);
-        return ResponseEntity.ok(nutritionPlanService.getActivePlansByMember(memberId));
+        return ResponseEntity.ok(nutritionPlanService.getActivePlansByMember(memberId, selection(fields, include, "meals")));
     }
 
     @GetMapping("/members/{memberId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @Operation(summary = "Todos los planes del miembro", description = "Historial completo de planes")
-    public ResponseEntity<List<NutritionPlanDTO>> getAllPlansByMember(@PathVariable Long memberId) {
+    public ResponseEntity<List<NutritionPlanDTO>> getAllPlansByMember(
+            @PathVariable Long memberId,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String include) {
         log.info("GET /api/nutrition-plans/members/{}", memberId);
-        return ResponseEntity.ok(nutritionPlanService.getAllPlansByMember(memberId));
+        return ResponseEntity.ok(nutritionPlanService.getAllPlansByMember(memberId, selection(fields, include)));
     }
 
     @GetMapping("/trainers/{trainerId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @Operation(summary = "Planes del trainer", description = "Todos los planes creados por el trainer")
-    public ResponseEntity<List<NutritionPlanDTO>> getPlansByTrainer(@PathVariable Long trainerId) {
+    public ResponseEntity<List<NutritionPlanDTO>> getPlansByTrainer(
+            @PathVariable Long trainerId,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String include) {
         log.info("GET /api/nutrition-plans/trainers/{}", trainerId);
-        return ResponseEntity.ok(nutritionPlanService.getPlansByTrainer(trainerId));
+        return ResponseEntity.ok(nutritionPlanService.getPlansByTrainer(trainerId, selection(fields, include)));
     }
     @GetMapping("/trainers/{trainerId}/stats/active-count")
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
@@ -111,7 +152,7 @@ public class NutritionPlanController {
     }
     @DeleteMapping("/meals/{mealId}")
     @PreAuthorize("hasRole('USER')")
-    @Operation(summary = "Eliminar comida", description = "Trainer elimina una comida del plan")
+    @Operation(summary = "Eliminar comida", description = "Trainer elimina una comida del plan (solo en borrador)")
     public ResponseEntity<Void> removeMeal(
             @PathVariable Long mealId,
             @RequestParam Long trainerId) {
@@ -124,9 +165,15 @@ public class NutritionPlanController {
     @Operation(summary = "Cancelar plan", description = "Trainer cancela un plan nutricional")
     public ResponseEntity<Void> cancelPlan(
             @PathVariable Long planId,
-            @RequestParam Long trainerId) {
+            @RequestParam Long trainerId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("POST /api/nutrition-plans/{}/cancel - Trainer {}", planId, trainerId);
-        nutritionPlanService.cancelPlan(planId, trainerId);
+        Long expectedVersion = ETags.parseIfMatch(ifMatch);
+        optimisticRetry.run("cancelNutritionPlan", () -> nutritionPlanService.cancelPlan(planId, trainerId, expectedVersion));
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    private static FieldSelection selection(String fields, String include, String... defaultIncludes) {
+        return FieldSelection.parse(fields, include, NutritionPlanDTO.class, NutritionPlanMapper.INCLUDES, defaultIncludes);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.fitnesstracker.controller;
+
+import com.example.fitnesstracker.dto.response.report.ExerciseProgressionDTO;
+import com.example.fitnesstracker.dto.response.report.MemberAdherenceDTO;
+import com.example.fitnesstracker.dto.response.report.SnapshotInfoDTO;
+import com.example.fitnesstracker.dto.response.report.WeeklyVolumeDTO;
+import com.example.fitnesstracker.service.TrainerReportService;
+import com.example.fitnesstracker.service.TrainingSnapshotService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/reports")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Reports", description = "Reportes de entrenadores sobre el snapshot de análisis")
+@SecurityRequirement(name = "bearerAuth")
+public class ReportController {
+
+    private static final int DEFAULT_WEEKS = 12;
+
+    private final TrainerReportService trainerReportService;
+    private final TrainingSnapshotService trainingSnapshotService;
+
+    @GetMapping("/trainers/{trainerId}/volume")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Volumen semanal", description = "Sesiones, series, repeticiones y volumen por member y semana")
+    public ResponseEntity<List<WeeklyVolumeDTO>> getWeeklyVolume(
+            @PathVariable Long trainerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            Authentication authentication) {
+        log.info("GET /api/reports/trainers/{}/volume - Usuario: {}", trainerId, authentication.getName());
+        return ResponseEntity.ok(trainerReportService.getWeeklyVolume(authentication.getName(), trainerId, fromOrDefault(from), toOrDefault(to)));
+    }
+
+    @GetMapping("/trainers/{trainerId}/adherence")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Adherencia", description = "Sesiones realizadas frente a las sesiones objetivo por semana")
+    public ResponseEntity<List<MemberAdherenceDTO>> getAdherence(
+            @PathVariable Long trainerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "3") int targetSessionsPerWeek,
+            Authentication authentication) {
+        log.info("GET /api/reports/trainers/{}/adherence - Usuario: {}", trainerId, authentication.getName());
+        return ResponseEntity.ok(trainerReportService.getAdherence(authentication.getName(), trainerId, fromOrDefault(from), toOrDefault(to), targetSessionsPerWeek));
+    }
+
+    @GetMapping("/trainers/{trainerId}/progression")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Progresión", description = "Cambio del 1RM estimado por member y ejercicio")
+    public ResponseEntity<List<ExerciseProgressionDTO>> getProgression(
+            @PathVariable Long trainerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            Authentication authentication) {
+        log.info("GET /api/reports/trainers/{}/progression - Usuario: {}", trainerId, authentication.getName());
+        return ResponseEntity.ok(trainerReportService.getProgression(authentication.getName(), trainerId, fromOrDefault(from), toOrDefault(to)));
+    }
+
+    @GetMapping("/snapshot")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Estado del snapshot", description = "Fecha de generación y tamaño del snapshot de análisis")
+    public ResponseEntity<SnapshotInfoDTO> getSnapshotInfo() {
+        log.info("GET /api/reports/snapshot");
+        return ResponseEntity.ok(trainingSnapshotService.getInfo());
+    }
+
+    @PostMapping("/snapshot")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Regenerar snapshot", description = "Exporta de nuevo el historial al snapshot columnar (ADMIN)")
+    public ResponseEntity<SnapshotInfoDTO> refreshSnapshot() {
+        log.info("POST /api/reports/snapshot - Regenerando snapshot");
+        return ResponseEntity.ok(trainingSnapshotService.export());
+    }
+
+    private LocalDate fromOrDefault(LocalDate from) {
+        return from != null ? from : LocalDate.now().minusWeeks(DEFAULT_WEEKS);
+    }
+
+    private LocalDate toOrDefault(LocalDate to) {
+        return to != null ? to : LocalDate.now();
+    }
+}
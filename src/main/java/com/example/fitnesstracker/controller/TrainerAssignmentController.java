@@ -2,18 +2,27 @@ package com.example.fitnesstracker.controller;
 
 import com.example.fitnesstracker.dto.request.assignment.RequestTrainerDTO;
 import com.example.fitnesstracker.dto.request.assignment.RespondRequestDTO;
+import com.example.fitnesstracker.dto.request.assignment.TrainerMatchingRequestDTO;
 import com.example.fitnesstracker.dto.response.assignment.TrainerAssignmentRequestDTO;
+import com.example.fitnesstracker.dto.response.assignment.TrainerMatchingResultDTO;
 import com.example.fitnesstracker.service.TrainerAssignmentService;
+import com.example.fitnesstracker.service.TrainerMatchingService;
+import com.example.fitnesstracker.service.TrainerNotificationService;
+import com.example.fitnesstracker.util.ETags;
+import com.example.fitnesstracker.util.OptimisticRetry;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -26,6 +35,9 @@ import java.util.List;
 public class TrainerAssignmentController {
 
     private final TrainerAssignmentService assignmentService;
+    private final TrainerNotificationService trainerNotificationService;
+    private final OptimisticRetry optimisticRetry;
+    private final TrainerMatchingService trainerMatchingService;
 
     @PostMapping("/request")
     @PreAuthorize("hasRole('USER')")
@@ -34,7 +46,7 @@ public class TrainerAssignmentController {
             @RequestParam Long memberId,
             @Valid @RequestBody RequestTrainerDTO dto) {
         log.info("POST /api/trainer-assignments/request - Member: {}, Trainer: {}", memberId, dto.getTrainerId());
-        TrainerAssignmentRequestDTO request = assignmentService.requestTrainer(memberId, dto);
+        TrainerAssignmentRequestDTO request = optimisticRetry.call("requestTrainer", () -> assignmentService.requestTrainer(memberId, dto));
         return ResponseEntity.status(HttpStatus.CREATED).body(request);
     }
 
@@ -44,10 +56,13 @@ public class TrainerAssignmentController {
     public ResponseEntity<TrainerAssignmentRequestDTO> acceptRequest(
             @PathVariable Long requestId,
             @RequestParam Long trainerId,
-            @Valid @RequestBody RespondRequestDTO dto) {
+            @Valid @RequestBody RespondRequestDTO dto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("POST /api/trainer-assignments/{}/accept - Trainer: {}", requestId, trainerId);
-        TrainerAssignmentRequestDTO request = assignmentService.acceptRequest(requestId, trainerId, dto);
-        return ResponseEntity.ok(request);
+        Long expectedVersion = ETags.parseIfMatch(ifMatch);
+        TrainerAssignmentRequestDTO request = optimisticRetry.call("acceptRequest",
+                () -> assignmentService.acceptRequest(requestId, trainerId, dto, expectedVersion));
+        return ETags.ok(request, request.getVersion());
     }
 
     @PostMapping("/{requestId}/reject")
@@ -56,10 +71,13 @@ public class TrainerAssignmentController {
     public ResponseEntity<TrainerAssignmentRequestDTO> rejectRequest(
             @PathVariable Long requestId,
             @RequestParam Long trainerId,
-            @Valid @RequestBody RespondRequestDTO dto) {
+            @Valid @RequestBody RespondRequestDTO dto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("POST /api/trainer-assignments/{}/reject - Trainer: {}", requestId, trainerId);
-        TrainerAssignmentRequestDTO request = assignmentService.rejectRequest(requestId, trainerId, dto);
-        return ResponseEntity.ok(request);
+        Long expectedVersion = ETags.parseIfMatch(ifMatch);
+        TrainerAssignmentRequestDTO request = optimisticRetry.call("rejectRequest",
+                () -> assignmentService.rejectRequest(requestId, trainerId, dto, expectedVersion));
+        return ETags.ok(request, request.getVersion());
     }
 
     @DeleteMapping("/{requestId}/cancel")
@@ -69,7 +87,7 @@ public class TrainerAssignmentController {
             @PathVariable Long requestId,
             @RequestParam Long memberId) {
         log.info("DELETE /api/trainer-assignments/{}/cancel - Member: {}", requestId, memberId);
-        assignmentService.cancelRequest(requestId, memberId);
+        optimisticRetry.run("cancelRequest", () -> assignmentService.cancelRequest(requestId, memberId));
         return ResponseEntity.noContent().build();
     }
 
@@ -78,10 +96,22 @@ public class TrainerAssignmentController {
     @Operation(summary = "Remover entrenador", description = "Member remueve su trainer actual")
     public ResponseEntity<Void> removeTrainer(@PathVariable Long memberId) {
         log.info("DELETE /api/trainer-assignments/members/{}/remove-trainer", memberId);
-        assignmentService.removeTrainer(memberId);
+        optimisticRetry.run("removeTrainer", () -> assignmentService.removeTrainer(memberId));
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/matching")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Asignación automática",
+            description = "Reparte los members sin trainer entre los trainers con cupo según carga y tarifa. "
+                    + "Con dryRun=true solo devuelve el plan sin crear solicitudes")
+    public ResponseEntity<TrainerMatchingResultDTO> runMatching(
+            @RequestParam(defaultValue = "false") boolean dryRun,
+            @Valid @RequestBody(required = false) TrainerMatchingRequestDTO dto) {
+        log.info("POST /api/trainer-assignments/matching - dryRun: {}", dryRun);
+        return ResponseEntity.ok(trainerMatchingService.run(dto, dryRun));
+    }
+
     @GetMapping("/trainers/{trainerId}/pending")
     @PreAuthorize("hasRole('USER')")
     @Operation(summary = "Solicitudes pendientes", description = "Obtiene solicitudes pendientes del trainer")
@@ -91,6 +121,18 @@ public class TrainerAssignmentController {
         return ResponseEntity.ok(requests);
     }
 
+    @GetMapping(value = "/trainers/{trainerId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Stream de notificaciones",
+            description = "SSE con solicitudes nuevas o canceladas y workouts completados de sus members. "
+                    + "Al reconectar envía Last-Event-ID para recibir lo que se perdió; si no se puede, llega RESYNC")
+    public SseEmitter streamNotifications(
+            @PathVariable Long trainerId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        log.info("GET /api/trainer-assignments/trainers/{}/stream - desde {}", trainerId, lastEventId);
+        return trainerNotificationService.subscribe(trainerId, lastEventId);
+    }
+
     @GetMapping("/trainers/{trainerId}")
     @PreAuthorize("hasRole('USER')")
     @Operation(summary = "Todas las solicitudes del trainer", description = "Obtiene historial completo de solicitudes")
@@ -115,7 +157,7 @@ public class TrainerAssignmentController {
     public ResponseEntity<TrainerAssignmentRequestDTO> getRequestById(@PathVariable Long requestId) {
         log.info("GET /api/trainer-assignments/{}", requestId);
         TrainerAssignmentRequestDTO request = assignmentService.getRequestById(requestId);
-        return ResponseEntity.ok(request);
+        return ETags.ok(request, request.getVersion());
     }
 
     @GetMapping("/trainers/{trainerId}/pending-count")
@@ -5,12 +5,15 @@ import com.example.fitnesstracker.dto.request.trainer.RegisterTrainerDTO;
 import com.example.fitnesstracker.dto.request.trainer.UpdateTrainerDTO;
 import com.example.fitnesstracker.dto.response.TrainerDTO;
 import com.example.fitnesstracker.service.TrainerService;
+import com.example.fitnesstracker.util.ETags;
+import com.example.fitnesstracker.util.FieldSelection;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -19,6 +22,7 @@ import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/trainers")
@@ -33,17 +37,18 @@ public class TrainerController {
     @GetMapping
     // @PreAuthorize("hasAnyRole('ADMIN','USER')")
     @Operation(summary = "Listar todos los entrenadores", description = "Obtiene lista de entrenadores activos")
-    public ResponseEntity<List<TrainerDTO>> getAllTrainers() {
+    public ResponseEntity<List<TrainerDTO>> getAllTrainers(@RequestParam(required = false) String fields) {
         log.info("GET /api/trainers - Listando entrenadores");
-        return ResponseEntity.ok(trainerService.getAllTrainers());
+        return ResponseEntity.ok(trainerService.getAllTrainers(selection(fields)));
     }
 
     @GetMapping("/{id}")
     // @PreAuthorize("hasAnyRole('ADMIN','USER')")
     @Operation(summary = "Obtener entrenador por ID", description = "Busca un entrenador por su ID")
-    public ResponseEntity<TrainerDTO> getTrainerById(@PathVariable Long id) {
+    public ResponseEntity<TrainerDTO> getTrainerById(@PathVariable Long id, @RequestParam(required = false) String fields) {
         log.info("GET /api/trainers/{} - Obteniendo entrenador", id);
-        return ResponseEntity.ok(trainerService.getTrainerById(id));
+        TrainerDTO trainer = trainerService.getTrainerById(id, selection(fields));
+        return ETags.ok(trainer, trainer.getVersion());
     }
     @GetMapping("/me")
     @Operation(summary = "Obtener mi perfil", description = "Retorna el perfil del trainer autenticado")
@@ -76,6 +81,17 @@ public class TrainerController {
         return ResponseEntity.ok(trainerService.searchTrainersBySpecialty(specialty));
     }
 
+    @GetMapping("/least-busy")
+    @Operation(summary = "Entrenadores menos ocupados",
+            description = "Trainers activos ordenados por members asignados, de menor a mayor. Filtra por especialidad y cupo libre")
+    public ResponseEntity<List<TrainerDTO>> getLeastBusyTrainers(
+            @RequestParam(required = false) String specialty,
+            @RequestParam(defaultValue = "true") boolean onlyAvailable,
+            @RequestParam(defaultValue = "10") int limit) {
+        log.info("GET /api/trainers/least-busy - especialidad: {}, limit: {}", specialty, limit);
+        return ResponseEntity.ok(trainerService.getLeastBusyTrainers(specialty, onlyAvailable, limit));
+    }
+
     @GetMapping("/most-busy")
     //  @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Entrenadores más ocupados", description = "Obtiene entrenadores ordenados por carga de trabajo")
@@ -97,9 +113,11 @@ public class TrainerController {
     @PutMapping("/{id}")
     // @PreAuthorize("hasAnyRole('ADMIN','USER')")
     @Operation(summary = "Actualizar entrenador", description = "Actualiza los datos de un entrenador")
-    public ResponseEntity<TrainerDTO> updateTrainer(@PathVariable Long id, @Valid @RequestBody UpdateTrainerDTO dto) {
+    public ResponseEntity<TrainerDTO> updateTrainer(@PathVariable Long id, @Valid @RequestBody UpdateTrainerDTO dto,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("PUT /api/trainers/{} - Actualizando entrenador", id);
-        return ResponseEntity.ok(trainerService.updateTrainer(id, dto));
+        TrainerDTO updated = trainerService.updateTrainer(id, dto, ETags.parseIfMatch(ifMatch));
+        return ETags.ok(updated, updated.getVersion());
     }
 
     @DeleteMapping("/{id}")
@@ -119,4 +137,9 @@ public class TrainerController {
         trainerService.restoreTrainer(id);
         return ResponseEntity.ok().build();
     }
+
+    // TrainerDTO no tiene relaciones para expandir: solo admite fields
+    private static FieldSelection selection(String fields) {
+        return FieldSelection.parse(fields, null, TrainerDTO.class, Set.of());
+    }
 }
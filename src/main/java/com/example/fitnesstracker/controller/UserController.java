@@ -3,14 +3,18 @@ package com.example.fitnesstracker.controller;
 import com.example.fitnesstracker.dto.request.ChangePasswordDTO;
 import com.example.fitnesstracker.dto.request.UserUpdateDTO;
 import com.example.fitnesstracker.dto.response.UserDTO;
+import com.example.fitnesstracker.dto.response.security.PasswordHashingStatsDTO;
 import com.example.fitnesstracker.enums.UserRole;
+import com.example.fitnesstracker.security.AdaptivePasswordEncoder;
 import com.example.fitnesstracker.service.UserService;
+import com.example.fitnesstracker.util.ETags;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -28,6 +32,7 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final AdaptivePasswordEncoder passwordEncoder;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -37,6 +42,13 @@ public class UserController {
         List<UserDTO> users = userService.getAllUsers();
         return ResponseEntity.ok(users);
     }
+    @GetMapping("/password-hashing/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Estado del hashing de passwords", description = "Costo, cola, rechazos y latencias del pool de hashing (solo ADMIN)")
+    public ResponseEntity<PasswordHashingStatsDTO> getPasswordHashingStats() {
+        return ResponseEntity.ok(passwordEncoder.stats());
+    }
+
     @GetMapping("/deleted")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Listar usuarios eliminados", description = "Obtiene usuarios con soft delete (solo ADMIN)")
@@ -51,7 +63,7 @@ public class UserController {
     public ResponseEntity<UserDTO> getUserById(@PathVariable Long id) {
         log.info("GET /api/users/{} - Obteniendo usuario", id);
         UserDTO user = userService.getUserById(id);
-        return ResponseEntity.ok(user);
+        return ETags.ok(user, user.getVersion());
     }
 
     @GetMapping("/external/{externalId}")
@@ -75,10 +87,11 @@ public class UserController {
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN','USER')")
     @Operation(summary = "Actualizar usuario", description = "Actualiza datos de un usuario")
-    public ResponseEntity<UserDTO> updateUser(@PathVariable Long id, @Valid @RequestBody UserUpdateDTO userUpdateDTO) {
+    public ResponseEntity<UserDTO> updateUser(@PathVariable Long id, @Valid @RequestBody UserUpdateDTO userUpdateDTO,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("PUT /api/users/{} - Actualizando usuario", id);
-        UserDTO updated = userService.updateUser(id, userUpdateDTO);
-        return ResponseEntity.ok(updated);
+        UserDTO updated = userService.updateUser(id, userUpdateDTO, ETags.parseIfMatch(ifMatch));
+        return ETags.ok(updated, updated.getVersion());
     }
     @PutMapping("/change-password")
     @PreAuthorize("hasAnyRole('ADMIN','USER')")
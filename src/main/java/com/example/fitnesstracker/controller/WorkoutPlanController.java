@@ -2,19 +2,30 @@ package com.example.fitnesstracker.controller;
 
 import com.example.fitnesstracker.dto.request.workout.*;
 import com.example.fitnesstracker.dto.response.workout.*;
+import com.example.fitnesstracker.enums.WorkoutPlanStatus;
+import com.example.fitnesstracker.mapper.WorkoutPlanMapper;
+import com.example.fitnesstracker.repository.PlanVersionProjection;
+import com.example.fitnesstracker.service.AdherenceService;
+import com.example.fitnesstracker.service.ExerciseProgressService;
 import com.example.fitnesstracker.service.WorkoutPlanService;
+import com.example.fitnesstracker.util.ETags;
+import com.example.fitnesstracker.util.FieldSelection;
+import com.example.fitnesstracker.util.OptimisticRetry;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -27,6 +38,12 @@ import java.util.List;
 public class WorkoutPlanController {
 
     private final WorkoutPlanService workoutPlanService;
+    private final ExerciseProgressService exerciseProgressService;
+    private final AdherenceService adherenceService;
+    private final OptimisticRetry optimisticRetry;
+
+    @Value("${plans.cache.max-age:5m}")
+    private Duration planMaxAge;
 
     // Trainer crea y gestiona planes
 
@@ -43,7 +60,7 @@ public class WorkoutPlanController {
 
     @PostMapping("/{planId}/days")
     @PreAuthorize("hasRole('USER')")
-    @Operation(summary = "Agregar día al plan", description = "Trainer agrega un día de entrenamiento al plan")
+    @Operation(summary = "Agregar día al plan", description = "Trainer agrega un día de entrenamiento al plan (solo en borrador)")
     public ResponseEntity<WorkoutDayDTO> addWorkoutDay(
             @PathVariable Long planId,
             @RequestParam Long trainerId,
@@ -55,7 +72,7 @@ public class WorkoutPlanController {
 
     @PostMapping("/days/{dayId}/exercises")
     @PreAuthorize("hasRole('USER')")
-    @Operation(summary = "Agregar ejercicio al día", description = "Trainer agrega un ejercicio a un día específico")
+    @Operation(summary = "Agregar ejercicio al día", description = "Trainer agrega un ejercicio a un día específico (solo en borrador)")
     public ResponseEntity<WorkoutExerciseDTO> addExerciseToDay(
             @PathVariable Long dayId,
             @RequestParam Long trainerId,
@@ -70,27 +87,48 @@ public class WorkoutPlanController {
     @Operation(summary = "Activar plan", description = "Trainer activa el plan para que el miembro pueda usarlo")
     public ResponseEntity<WorkoutPlanDTO> activateWorkoutPlan(
             @PathVariable Long planId,
-            @RequestParam Long trainerId) {
+            @RequestParam Long trainerId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("POST /api/workout-plans/{}/activate - Trainer {}", planId, trainerId);
-        WorkoutPlanDTO plan = workoutPlanService.activateWorkoutPlan(planId, trainerId);
-        return ResponseEntity.ok(plan);
+        Long expectedVersion = ETags.parseIfMatch(ifMatch);
+        WorkoutPlanDTO plan = optimisticRetry.call("activateWorkoutPlan",
+                () -> workoutPlanService.activateWorkoutPlan(planId, trainerId, expectedVersion));
+        return ETags.ok(plan, plan.getVersion());
     }
 
     @GetMapping("/{planId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
-    @Operation(summary = "Obtener plan por ID", description = "Obtiene detalle completo del plan con días y ejercicios")
-    public ResponseEntity<WorkoutPlanDTO> getWorkoutPlanById(@PathVariable Long planId) {
+    @Operation(summary = "Obtener plan por ID", description = "Obtiene detalle completo del plan con días y ejercicios. "
+            + "fields limita los campos del plan e include (days, days.exercises) las relaciones")
+    public ResponseEntity<WorkoutPlanDTO> getWorkoutPlanById(
+            @PathVariable Long planId,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String include,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("GET /api/workout-plans/{}", planId);
-        WorkoutPlanDTO plan = workoutPlanService.getWorkoutPlanById(planId);
-        return ResponseEntity.ok(plan);
+        FieldSelection selection = selection(fields, include, "days.exercises");
+        // El 304 se decide con la versión, sin cargar ni mapear el plan
+        if (ifNoneMatch != null) {
+            PlanVersionProjection current = workoutPlanService.getWorkoutPlanVersion(planId);
+            if (ETags.matchesIfNoneMatch(ifNoneMatch, current.getVersion())) {
+                return ETags.notModified(current.getVersion(), ETags.cacheControl(current.getDraft(), planMaxAge));
+            }
+        }
+        WorkoutPlanDTO plan = workoutPlanService.getWorkoutPlanById(planId, selection);
+        // Si no se pidió status no se sabe si es borrador: se trata como tal y el cliente revalida con el ETag
+        boolean draft = plan.getStatus() == null || plan.getStatus() == WorkoutPlanStatus.DRAFT;
+        return ETags.ok(plan, plan.getVersion(), ETags.cacheControl(draft, planMaxAge));
     }
 
     @GetMapping("/trainers/{trainerId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @Operation(summary = "Planes del trainer", description = "Obtiene todos los planes creados por un trainer")
-    public ResponseEntity<List<WorkoutPlanDTO>> getWorkoutPlansByTrainer(@PathVariable Long trainerId) {
+    public ResponseEntity<List<WorkoutPlanDTO>> getWorkoutPlansByTrainer(
+            @PathVariable Long trainerId,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String include) {
         log.info("GET /api/workout-plans/trainers/{}", trainerId);
-        List<WorkoutPlanDTO> plans = workoutPlanService.getWorkoutPlansByTrainer(trainerId);
+        List<WorkoutPlanDTO> plans = workoutPlanService.getWorkoutPlansByTrainer(trainerId, selection(fields, include));
         return ResponseEntity.ok(plans);
     }
 
@@ -109,9 +147,11 @@ public class WorkoutPlanController {
     @Operation(summary = "Cancelar plan", description = "Trainer cancela un plan de workout")
     public ResponseEntity<Void> cancelWorkoutPlan(
             @PathVariable Long planId,
-            @RequestParam Long trainerId) {
+            @RequestParam Long trainerId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("POST /api/workout-plans/{}/cancel - Trainer {}", planId, trainerId);
-        workoutPlanService.cancelWorkoutPlan(planId, trainerId);
+        Long expectedVersion = ETags.parseIfMatch(ifMatch);
+        optimisticRetry.run("cancelWorkoutPlan", () -> workoutPlanService.cancelWorkoutPlan(planId, trainerId, expectedVersion));
         return ResponseEntity.noContent().build();
     }
     // Member ve y completa workouts
@@ -119,18 +159,25 @@ public class WorkoutPlanController {
     @GetMapping("/members/{memberId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @Operation(summary = "Planes del miembro", description = "Obtiene todos los planes de un miembro")
-    public ResponseEntity<List<WorkoutPlanDTO>> getWorkoutPlansByMember(@PathVariable Long memberId) {
+    public ResponseEntity<List<WorkoutPlanDTO>> getWorkoutPlansByMember(
+            @PathVariable Long memberId,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String include) {
         log.info("GET /api/workout-plans/members/{}", memberId);
-        List<WorkoutPlanDTO> plans = workoutPlanService.getWorkoutPlansByMember(memberId);
+        List<WorkoutPlanDTO> plans = workoutPlanService.getWorkoutPlansByMember(memberId, selection(fields, include));
         return ResponseEntity.ok(plans);
     }
 
     @GetMapping("/members/{memberId}/active")
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @Operation(summary = "Planes activos del miembro", description = "Obtiene planes activos con detalle completo")
-    public ResponseEntity<List<WorkoutPlanDTO>> getActiveWorkoutPlansByMember(@PathVariable Long memberId) {
+    public ResponseEntity<List<WorkoutPlanDTO>> getActiveWorkoutPlansByMember(
+            @PathVariable Long memberId,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String include) {
         log.info("GET /api/workout-plans/members/{}/active", memberId);
-        List<WorkoutPlanDTO> plans = workoutPlanService.getActiveWorkoutPlansByMember(memberId);
+        List<WorkoutPlanDTO> plans = workoutPlanService.getActiveWorkoutPlansByMember(memberId,
+                selection(fields, include, "days.exercises"));
         return ResponseEntity.ok(plans);
     }
 
@@ -167,6 +214,46 @@ public class WorkoutPlanController {
         return ResponseEntity.ok(history);
     }
 
+    @GetMapping("/members/{memberId}/progress/exercises/{exerciseId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Progreso por ejercicio", description = "Curva semanal de 1RM estimado, mejor serie y volumen, reducida a maxPoints puntos")
+    public ResponseEntity<ExerciseProgressDTO> getExerciseProgress(
+            @PathVariable Long memberId,
+            @PathVariable Long exerciseId,
+            @RequestParam(defaultValue = "52") int maxPoints) {
+        log.info("GET /api/workout-plans/members/{}/progress/exercises/{}?maxPoints={}", memberId, exerciseId, maxPoints);
+        return ResponseEntity.ok(exerciseProgressService.getProgress(memberId, exerciseId, maxPoints));
+    }
+
+    // Adherencia
+
+    @GetMapping("/{planId}/adherence")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Adherencia del plan", description = "Puntaje semanal y total de cumplimiento de lo prescrito")
+    public ResponseEntity<PlanAdherenceDTO> getPlanAdherence(@PathVariable Long planId) {
+        log.info("GET /api/workout-plans/{}/adherence", planId);
+        return ResponseEntity.ok(adherenceService.getPlanAdherence(planId));
+    }
+
+    @GetMapping("/trainers/{trainerId}/adherence/falling-behind")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Members rezagados", description = "Members del trainer con menor adherencia en las últimas semanas")
+    public ResponseEntity<List<FallingBehindMemberDTO>> getMembersFallingBehind(
+            @PathVariable Long trainerId,
+            @RequestParam(defaultValue = "4") int weeks,
+            @RequestParam(defaultValue = "20") int limit) {
+        log.info("GET /api/workout-plans/trainers/{}/adherence/falling-behind?weeks={}&limit={}", trainerId, weeks, limit);
+        return ResponseEntity.ok(adherenceService.getMembersFallingBehind(trainerId, weeks, limit));
+    }
+
+    @PostMapping("/adherence/recompute")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Recalcular adherencia", description = "Recalcula los puntajes de todos los members")
+    public ResponseEntity<Integer> recomputeAdherence() {
+        log.info("POST /api/workout-plans/adherence/recompute");
+        return ResponseEntity.ok(adherenceService.recomputeAll());
+    }
+
     // Estadísticas
 
     @GetMapping("/members/{memberId}/stats/completed-count")
@@ -188,7 +275,7 @@ public class WorkoutPlanController {
     }
     @DeleteMapping("/exercises/{workoutExerciseId}")
     @PreAuthorize("hasRole('USER')")
-    @Operation(summary = "Eliminar ejercicio del día", description = "Trainer elimina un ejercicio de un día")
+    @Operation(summary = "Eliminar ejercicio del día", description = "Trainer elimina un ejercicio de un día (solo en borrador)")
     public ResponseEntity<Void> removeExerciseFromDay(
             @PathVariable Long workoutExerciseId,
             @RequestParam Long trainerId) {
@@ -196,4 +283,8 @@ public class WorkoutPlanController {
         workoutPlanService.removeExerciseFromDay(workoutExerciseId, trainerId);
         return ResponseEntity.noContent().build();
     }
+
+    private static FieldSelection selection(String fields, String include, String... defaultIncludes) {
+        return FieldSelection.parse(fields, include, WorkoutPlanDTO.class, WorkoutPlanMapper.INCLUDES, defaultIncludes);
+    }
 }
@@ -0,0 +1,126 @@
+package com.example.fitnesstracker.controller.graphql;
+
+import com.example.fitnesstracker.dto.response.MemberDTO;
+import com.example.fitnesstracker.dto.response.TrainerDTO;
+import com.example.fitnesstracker.dto.response.nutrition.NutritionPlanDTO;
+import com.example.fitnesstracker.dto.response.workout.WorkoutCompletionDTO;
+import com.example.fitnesstracker.dto.response.workout.WorkoutPlanDTO;
+import com.example.fitnesstracker.exception.InvalidUserDataException;
+import com.example.fitnesstracker.service.MemberService;
+import com.example.fitnesstracker.service.NutritionPlanService;
+import com.example.fitnesstracker.service.WorkoutPlanService;
+import lombok.extern.slf4j.Slf4j;
+import org.dataloader.DataLoader;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Mono;
+
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Members por GraphQL, pensado para la pantalla de inicio: perfil, trainer, planes activos e historial
+ * reciente en un solo request. Todo lo que cuelga de un member se resuelve por lote, así que un query
+ * con varios members hace una query por relación y no una por member.
+ */
+@Controller
+@Slf4j
+public class MemberGraphQlController {
+
+    static final String RECENT_WORKOUTS = "recentWorkouts";
+
+    private final MemberService memberService;
+    private final WorkoutPlanService workoutPlanService;
+    private final NutritionPlanService nutritionPlanService;
+
+    public MemberGraphQlController(MemberService memberService, WorkoutPlanService workoutPlanService,
+                                   NutritionPlanService nutritionPlanService, BatchLoaderRegistry registry) {
+        this.memberService = memberService;
+        this.workoutPlanService = workoutPlanService;
+        this.nutritionPlanService = nutritionPlanService;
+
+        registry.forTypePair(Long.class, MemberDTO.class)
+                .registerMappedBatchLoader((memberIds, environment) ->
+                        Mono.fromCallable(() -> memberService.getMembersByIds(List.copyOf(memberIds))));
+        registry.<RecentWorkoutsKey, List<WorkoutCompletionDTO>>forName(RECENT_WORKOUTS)
+                .registerMappedBatchLoader((keys, environment) -> Mono.fromCallable(() -> recentWorkouts(keys)));
+    }
+
+    @QueryMapping
+    public MemberDTO me(Principal principal) {
+        log.info("GraphQL me - Usuario: {}", principal.getName());
+        return memberService.getMemberByUsername(principal.getName());
+    }
+
+    @QueryMapping
+    public MemberDTO member(@Argument Long id) {
+        log.info("GraphQL member({})", id);
+        return memberService.getMemberById(id);
+    }
+
+    @SchemaMapping(typeName = "Member")
+    public CompletableFuture<TrainerDTO> trainer(MemberDTO member, DataLoader<Long, TrainerDTO> trainerLoader) {
+        return member.getAssignedTrainerId() != null
+                ? trainerLoader.load(member.getAssignedTrainerId())
+                : CompletableFuture.completedFuture(null);
+    }
+
+    @BatchMapping(typeName = "Member")
+    public List<List<WorkoutPlanDTO>> activeWorkoutPlans(List<MemberDTO> members) {
+        Map<Long, List<WorkoutPlanDTO>> plans = workoutPlanService.getActiveWorkoutPlansByMembers(
+                ids(members), WorkoutPlanGraphQlController.PLAN_FIELDS);
+        return members.stream()
+                .map(member -> plans.getOrDefault(member.getId(), List.of()))
+                .toList();
+    }
+
+    @BatchMapping(typeName = "Member")
+    public List<List<NutritionPlanDTO>> activeNutritionPlans(List<MemberDTO> members) {
+        Map<Long, List<NutritionPlanDTO>> plans = nutritionPlanService.getActivePlansByMembers(
+                ids(members), NutritionPlanGraphQlController.PLAN_FIELDS);
+        return members.stream()
+                .map(member -> plans.getOrDefault(member.getId(), List.of()))
+                .toList();
+    }
+
+    // El límite va en la clave: el mismo member pedido con dos límites distintos no comparte resultado en la caché
+    @SchemaMapping(typeName = "Member")
+    public CompletableFuture<List<WorkoutCompletionDTO>> recentWorkouts(MemberDTO member, @Argument int limit,
+                                                                        DataLoader<RecentWorkoutsKey, List<WorkoutCompletionDTO>> recentWorkouts) {
+        if (limit < 1) {
+            throw new InvalidUserDataException("El límite de workouts recientes debe ser mayor a 0");
+        }
+        return recentWorkouts.load(new RecentWorkoutsKey(member.getId(), limit));
+    }
+
+    /**
+     * Una query con el límite más alto del lote; cada clave se queda con sus primeros {@code limit}.
+     */
+    private Map<RecentWorkoutsKey, List<WorkoutCompletionDTO>> recentWorkouts(Set<RecentWorkoutsKey> keys) {
+        List<Long> memberIds = keys.stream().map(RecentWorkoutsKey::memberId).distinct().toList();
+        int maxLimit = keys.stream().mapToInt(RecentWorkoutsKey::limit).max().orElse(0);
+        Map<Long, List<WorkoutCompletionDTO>> recent = workoutPlanService.getRecentWorkoutsByMembers(memberIds, maxLimit);
+
+        Map<RecentWorkoutsKey, List<WorkoutCompletionDTO>> result = new HashMap<>();
+        for (RecentWorkoutsKey key : keys) {
+            List<WorkoutCompletionDTO> workouts = recent.getOrDefault(key.memberId(), List.of());
+            result.put(key, workouts.subList(0, Math.min(key.limit(), workouts.size())));
+        }
+        return result;
+    }
+
+    private static List<Long> ids(List<MemberDTO> members) {
+        return members.stream().map(MemberDTO::getId).toList();
+    }
+
+    record RecentWorkoutsKey(Long memberId, int limit) {
+    }
+}
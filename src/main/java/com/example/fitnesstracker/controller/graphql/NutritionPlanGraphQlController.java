@@ -0,0 +1,59 @@
+package com.example.fitnesstracker.controller.graphql;
+
+import com.example.fitnesstracker.dto.response.MemberDTO;
+import com.example.fitnesstracker.dto.response.TrainerDTO;
+import com.example.fitnesstracker.dto.response.nutrition.NutritionMealDTO;
+import com.example.fitnesstracker.dto.response.nutrition.NutritionPlanDTO;
+import com.example.fitnesstracker.mapper.NutritionPlanMapper;
+import com.example.fitnesstracker.service.NutritionPlanService;
+import com.example.fitnesstracker.util.FieldSelection;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dataloader.DataLoader;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.stereotype.Controller;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@Controller
+@RequiredArgsConstructor
+@Slf4j
+public class NutritionPlanGraphQlController {
+
+    // Solo los campos propios del plan: member, trainer y comidas se resuelven por lote en su propio campo
+    static final FieldSelection PLAN_FIELDS = FieldSelection.parse(
+            "externalId,name,description,memberId,trainerId,status,startDate,endDate,notes,createdAt,updatedAt",
+            "", NutritionPlanDTO.class, NutritionPlanMapper.INCLUDES);
+
+    private final NutritionPlanService nutritionPlanService;
+
+    @QueryMapping
+    public NutritionPlanDTO nutritionPlan(@Argument Long id) {
+        log.info("GraphQL nutritionPlan({})", id);
+        return nutritionPlanService.getPlanById(id, PLAN_FIELDS);
+    }
+
+    @SchemaMapping(typeName = "NutritionPlan")
+    public CompletableFuture<MemberDTO> member(NutritionPlanDTO plan, DataLoader<Long, MemberDTO> memberLoader) {
+        return memberLoader.load(plan.getMemberId());
+    }
+
+    @SchemaMapping(typeName = "NutritionPlan")
+    public CompletableFuture<TrainerDTO> trainer(NutritionPlanDTO plan, DataLoader<Long, TrainerDTO> trainerLoader) {
+        return trainerLoader.load(plan.getTrainerId());
+    }
+
+    @BatchMapping(typeName = "NutritionPlan")
+    public List<List<NutritionMealDTO>> meals(List<NutritionPlanDTO> plans) {
+        Map<Long, List<NutritionMealDTO>> meals = nutritionPlanService.getMealsByPlans(
+                plans.stream().map(NutritionPlanDTO::getId).toList());
+        return plans.stream()
+                .map(plan -> meals.getOrDefault(plan.getId(), List.of()))
+                .toList();
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.fitnesstracker.controller.graphql;
+
+import com.example.fitnesstracker.dto.response.TrainerDTO;
+import com.example.fitnesstracker.service.TrainerService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Trainers por GraphQL. Registra el DataLoader de trainers por id que comparten todos los campos
+ * que apuntan a un trainer (member, planes): cada trainer del query se pide una vez y todos juntos en un IN.
+ */
+@Controller
+@Slf4j
+public class TrainerGraphQlController {
+
+    private final TrainerService trainerService;
+
+    public TrainerGraphQlController(TrainerService trainerService, BatchLoaderRegistry registry) {
+        this.trainerService = trainerService;
+        registry.forTypePair(Long.class, TrainerDTO.class)
+                .registerMappedBatchLoader((trainerIds, environment) ->
+                        Mono.fromCallable(() -> trainerService.getTrainersByIds(List.copyOf(trainerIds))));
+    }
+
+    @QueryMapping
+    public TrainerDTO trainer(@Argument Long id) {
+        log.info("GraphQL trainer({})", id);
+        return trainerService.getTrainerById(id);
+    }
+}
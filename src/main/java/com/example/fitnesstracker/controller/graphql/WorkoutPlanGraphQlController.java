@@ -0,0 +1,59 @@
+package com.example.fitnesstracker.controller.graphql;
+
+import com.example.fitnesstracker.dto.response.MemberDTO;
+import com.example.fitnesstracker.dto.response.TrainerDTO;
+import com.example.fitnesstracker.dto.response.workout.WorkoutDayDTO;
+import com.example.fitnesstracker.dto.response.workout.WorkoutPlanDTO;
+import com.example.fitnesstracker.mapper.WorkoutPlanMapper;
+import com.example.fitnesstracker.service.WorkoutPlanService;
+import com.example.fitnesstracker.util.FieldSelection;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dataloader.DataLoader;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.stereotype.Controller;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@Controller
+@RequiredArgsConstructor
+@Slf4j
+public class WorkoutPlanGraphQlController {
+
+    // Solo los campos propios del plan: member, trainer y días se resuelven por lote en su propio campo
+    static final FieldSelection PLAN_FIELDS = FieldSelection.parse(
+            "externalId,name,description,memberId,trainerId,status,startDate,endDate,notes,createdAt,updatedAt",
+            "", WorkoutPlanDTO.class, WorkoutPlanMapper.INCLUDES);
+
+    private final WorkoutPlanService workoutPlanService;
+
+    @QueryMapping
+    public WorkoutPlanDTO workoutPlan(@Argument Long id) {
+        log.info("GraphQL workoutPlan({})", id);
+        return workoutPlanService.getWorkoutPlanById(id, PLAN_FIELDS);
+    }
+
+    @SchemaMapping(typeName = "WorkoutPlan")
+    public CompletableFuture<MemberDTO> member(WorkoutPlanDTO plan, DataLoader<Long, MemberDTO> memberLoader) {
+        return memberLoader.load(plan.getMemberId());
+    }
+
+    @SchemaMapping(typeName = "WorkoutPlan")
+    public CompletableFuture<TrainerDTO> trainer(WorkoutPlanDTO plan, DataLoader<Long, TrainerDTO> trainerLoader) {
+        return trainerLoader.load(plan.getTrainerId());
+    }
+
+    @BatchMapping(typeName = "WorkoutPlan")
+    public List<List<WorkoutDayDTO>> days(List<WorkoutPlanDTO> plans) {
+        Map<Long, List<WorkoutDayDTO>> days = workoutPlanService.getWorkoutDaysByPlans(
+                plans.stream().map(WorkoutPlanDTO::getId).toList());
+        return plans.stream()
+                .map(plan -> days.getOrDefault(plan.getId(), List.of()))
+                .toList();
+    }
+}
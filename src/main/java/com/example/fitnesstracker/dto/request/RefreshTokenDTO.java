@@ -0,0 +1,17 @@
+package com.example.fitnesstracker.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RefreshTokenDTO {
+
+    @NotBlank(message = "Refresh token es requerido")
+    private String refreshToken;
+}
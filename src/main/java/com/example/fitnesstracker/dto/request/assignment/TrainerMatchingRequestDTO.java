@@ -0,0 +1,30 @@
+package com.example.fitnesstracker.dto.request.assignment;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrainerMatchingRequestDTO {
+
+    // Solo trainers con esta especialidad (coincidencia parcial)
+    @Size(max = 100, message = "La especialidad no puede superar 100 caracteres")
+    private String specialty;
+
+    @DecimalMin(value = "0.01", message = "La tarifa máxima debe ser mayor a 0")
+    private BigDecimal maxHourlyRate;
+
+    @Min(value = 1, message = "Debe asignar al menos 1 member")
+    @Max(value = 50000, message = "No se pueden asignar más de 50000 members por corrida")
+    private Integer maxAssignments;
+}
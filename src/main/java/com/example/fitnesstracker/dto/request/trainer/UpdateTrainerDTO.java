@@ -32,4 +32,8 @@ public class UpdateTrainerDTO {
     private BigDecimal hourlyRate;
 
     private Boolean isActive;
+
+    @Min(value = 1, message = "El cupo máximo debe ser al menos 1")
+    @Max(value = 500, message = "El cupo máximo no puede superar 500")
+    private Integer maxMembers;
 }
\ No newline at end of file
@@ -16,6 +16,7 @@ import java.time.LocalDate;
 public class MemberDTO {
 
     private Long id;
+    private Long version;
     private String externalId;
     private String firstName;
     private String lastName;
@@ -31,4 +32,6 @@ public class MemberDTO {
     private Boolean isActive;
     private Long assignedTrainerId;
     private AssignmentStatus assignmentStatus;
+    // Solo con include=trainer
+    private TrainerDTO assignedTrainer;
 }
\ No newline at end of file
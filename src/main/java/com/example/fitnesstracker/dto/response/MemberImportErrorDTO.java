@@ -0,0 +1,18 @@
+package com.example.fitnesstracker.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MemberImportErrorDTO {
+
+    private Integer line;
+    private String username;
+    private String field;
+    private String message;
+}
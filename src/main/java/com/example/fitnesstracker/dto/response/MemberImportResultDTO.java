@@ -0,0 +1,25 @@
+package com.example.fitnesstracker.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MemberImportResultDTO {
+
+    private Boolean dryRun;
+    private Integer totalRows;
+    private Integer imported;
+    private Integer failed;
+    private Integer batches;
+    private Long durationMs;
+    private Double rowsPerSecond;
+    // Como mucho import.members.max-errors; failed sigue contando todas
+    private List<MemberImportErrorDTO> errors;
+}
@@ -0,0 +1,21 @@
+package com.example.fitnesstracker.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MembershipExpiryRunDTO {
+
+    private Integer scannedMembers;
+    private Integer chunks;
+    private Integer releasedAssignments;
+    private Integer cancelledRequests;
+    private Integer expiredNotifications;
+    private Integer expiringNotifications;
+    private Long durationMs;
+}
@@ -18,6 +18,7 @@ import java.util.List;
 public class TrainerDTO {
 
     private Long id;
+    private Long version;
     private String externalId;
     private String firstName;
     private String lastName;
@@ -27,4 +28,5 @@ public class TrainerDTO {
     private BigDecimal hourlyRate;
     private Boolean isActive;
     private Integer assignedMembersCount;
+    private Integer maxMembers;
 }
\ No newline at end of file
@@ -19,6 +19,7 @@ public class UserDTO {
 
     @Schema(description = "ID único del usuario", example = "1")
     private Long id;
+    private Long version;
 
     @Schema(description = "Identificador externo del usuario (UUID)", example = "550e8400-e29b-41d4-a716-446655440000")
     private String externalId;
@@ -17,6 +17,7 @@ import java.time.LocalDateTime;
 public class TrainerAssignmentRequestDTO {
 
     private Long id;
+    private Long version;
     private String externalId;
     private Long memberId;
     private String memberName;
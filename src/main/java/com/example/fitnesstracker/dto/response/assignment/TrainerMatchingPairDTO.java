@@ -0,0 +1,16 @@
+package com.example.fitnesstracker.dto.response.assignment;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrainerMatchingPairDTO {
+
+    private Long memberId;
+    private Long trainerId;
+}
@@ -0,0 +1,28 @@
+package com.example.fitnesstracker.dto.response.assignment;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TrainerMatchingResultDTO {
+
+    private Boolean dryRun;
+    private Integer candidateMembers;
+    private Integer matched;
+    private Integer unmatched;
+    // Solicitudes creadas; puede ser menor a matched si algún member cambió mientras corría
+    private Integer created;
+    private Long durationMs;
+    private List<TrainerMatchingSummaryDTO> trainers;
+    // Solo en dry run: el detalle member -> trainer
+    private List<TrainerMatchingPairDTO> assignments;
+}
@@ -0,0 +1,24 @@
+package com.example.fitnesstracker.dto.response.assignment;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrainerMatchingSummaryDTO {
+
+    private Long trainerId;
+    private String trainerName;
+    private String specialty;
+    private BigDecimal hourlyRate;
+    private Integer maxMembers;
+    private Integer assignedMembers;
+    private Integer pendingRequests;
+    private Integer planned;
+}
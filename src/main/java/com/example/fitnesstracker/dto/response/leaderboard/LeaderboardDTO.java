@@ -0,0 +1,23 @@
+package com.example.fitnesstracker.dto.response.leaderboard;
+
+import com.example.fitnesstracker.enums.LeaderboardMetric;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeaderboardDTO {
+
+    private LeaderboardMetric metric;
+    private Long trainerId;
+    private LocalDate weekStart;
+    private Integer totalMembers;
+    private List<LeaderboardEntryDTO> entries;
+}
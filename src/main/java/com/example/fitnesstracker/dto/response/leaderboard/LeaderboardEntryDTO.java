@@ -0,0 +1,18 @@
+package com.example.fitnesstracker.dto.response.leaderboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeaderboardEntryDTO {
+
+    private Integer rank;
+    private Long memberId;
+    private String memberName;
+    private Double score;
+}
@@ -0,0 +1,24 @@
+package com.example.fitnesstracker.dto.response.leaderboard;
+
+import com.example.fitnesstracker.enums.LeaderboardMetric;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MemberRankDTO {
+
+    private LeaderboardMetric metric;
+    private Long memberId;
+    private String memberName;
+    private Double score;
+    private Integer gymRank;
+    private Integer gymTotal;
+    private Long trainerId;
+    private Integer trainerRank;
+    private Integer trainerTotal;
+}
@@ -0,0 +1,25 @@
+package com.example.fitnesstracker.dto.response.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExerciseProgressionDTO {
+
+    private Long memberId;
+    private String memberName;
+    private Long exerciseId;
+    private String exerciseName;
+    private LocalDate firstWeek;
+    private Double firstEstimatedOneRepMax;
+    private LocalDate lastWeek;
+    private Double lastEstimatedOneRepMax;
+    private Double changePercent;
+}
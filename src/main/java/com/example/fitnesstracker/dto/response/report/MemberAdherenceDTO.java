@@ -0,0 +1,20 @@
+package com.example.fitnesstracker.dto.response.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MemberAdherenceDTO {
+
+    private Long memberId;
+    private String memberName;
+    private Integer sessions;
+    private Integer activeWeeks;
+    private Integer weeksInRange;
+    private Double adherencePercent;
+}
@@ -0,0 +1,20 @@
+package com.example.fitnesstracker.dto.response.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SnapshotInfoDTO {
+
+    private LocalDateTime generatedAt;
+    private Integer rows;
+    private Integer members;
+    private Integer exercises;
+}
@@ -0,0 +1,23 @@
+package com.example.fitnesstracker.dto.response.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WeeklyVolumeDTO {
+
+    private Long memberId;
+    private String memberName;
+    private LocalDate weekStart;
+    private Integer sessions;
+    private Integer totalSets;
+    private Integer totalReps;
+    private Double volume;
+}
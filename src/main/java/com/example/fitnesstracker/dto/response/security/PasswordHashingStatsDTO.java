@@ -0,0 +1,25 @@
+package com.example.fitnesstracker.dto.response.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PasswordHashingStatsDTO {
+
+    private Integer strength;
+    private Integer threads;
+    private Integer activeThreads;
+    private Integer queueDepth;
+    private Integer queueCapacity;
+    private Long completed;
+    private Long rejected;
+    // Sobre las últimas muestras: espera en cola + hash
+    private Double avgLatencyMs;
+    private Double p99LatencyMs;
+    private Double maxLatencyMs;
+}
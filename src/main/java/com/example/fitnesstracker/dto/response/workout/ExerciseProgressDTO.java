@@ -0,0 +1,22 @@
+package com.example.fitnesstracker.dto.response.workout;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExerciseProgressDTO {
+
+    private Long memberId;
+    private Long exerciseId;
+    private String exerciseName;
+    private Integer totalWeeks;
+    private Double bestEstimatedOneRepMax;
+    private List<ProgressPointDTO> points;
+}
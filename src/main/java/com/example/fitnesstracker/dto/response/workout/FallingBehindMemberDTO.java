@@ -0,0 +1,23 @@
+package com.example.fitnesstracker.dto.response.workout;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FallingBehindMemberDTO {
+
+    private Long memberId;
+    private String memberName;
+    private Long planId;
+    private Double score;
+    private Long completions;
+    private Long expectedSessions;
+    private LocalDate lastActiveWeek;
+}
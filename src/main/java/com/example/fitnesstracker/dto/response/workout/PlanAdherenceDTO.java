@@ -0,0 +1,22 @@
+package com.example.fitnesstracker.dto.response.workout;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlanAdherenceDTO {
+
+    private Long planId;
+    private Long memberId;
+    private Integer plannedSessionsPerWeek;
+    private Integer weeksElapsed;
+    private Double planScore;
+    private List<WeekAdherenceDTO> weeks;
+}
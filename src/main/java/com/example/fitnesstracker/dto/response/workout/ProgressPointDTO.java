@@ -0,0 +1,23 @@
+package com.example.fitnesstracker.dto.response.workout;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProgressPointDTO {
+
+    private LocalDate weekStart;
+    private Integer weeks;
+    private Double estimatedOneRepMax;
+    private Double bestWeight;
+    private Integer bestWeightReps;
+    private Double weeklyVolume;
+    private Integer sessions;
+}
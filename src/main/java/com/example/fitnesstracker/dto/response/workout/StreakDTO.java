@@ -0,0 +1,21 @@
+package com.example.fitnesstracker.dto.response.workout;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StreakDTO {
+
+    private Long memberId;
+    private Integer currentStreak;
+    private Integer longestStreak;
+    private Integer totalDaysTrained;
+    private LocalDate lastTrainedDate;
+}
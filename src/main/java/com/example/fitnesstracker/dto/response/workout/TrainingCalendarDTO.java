@@ -0,0 +1,22 @@
+package com.example.fitnesstracker.dto.response.workout;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrainingCalendarDTO {
+
+    private Long memberId;
+    private LocalDate from;
+    private LocalDate to;
+    private Integer daysTrained;
+    private List<LocalDate> trainedDates;
+}
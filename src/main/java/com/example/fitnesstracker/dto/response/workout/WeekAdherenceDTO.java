@@ -0,0 +1,20 @@
+package com.example.fitnesstracker.dto.response.workout;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WeekAdherenceDTO {
+
+    private LocalDate weekStart;
+    private Integer completions;
+    private Integer plannedSessions;
+    private Double score;
+}
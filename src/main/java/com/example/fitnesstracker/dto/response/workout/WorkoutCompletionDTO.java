@@ -25,6 +25,7 @@ public class WorkoutCompletionDTO {
     private String workoutDayName;
     private LocalDate completedAt;
     private Integer rating;
+    private Double adherenceScore;
     private String notes;
     private LocalDateTime createdAt;
     private List<ExerciseLogDetailDTO> exerciseLogs;
@@ -19,6 +19,7 @@ import java.util.List;
 public class WorkoutPlanDTO {
 
     private Long id;
+    private Long version;
     private String externalId;
     private String name;
     private String description;
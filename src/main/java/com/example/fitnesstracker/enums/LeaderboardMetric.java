@@ -0,0 +1,17 @@
+package com.example.fitnesstracker.enums;
+
+public enum LeaderboardMetric {
+    WEEKLY_VOLUME("Volumen semanal"),
+    WEEKLY_COMPLETIONS("Entrenamientos de la semana"),
+    STREAK("Racha actual");
+
+    private final String displayName;
+
+    LeaderboardMetric(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.fitnesstracker.enums;
+
+public enum MemberImportFormat {
+    CSV("CSV con encabezado"),
+    NDJSON("Un objeto JSON por línea");
+
+    private final String displayName;
+
+    MemberImportFormat(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
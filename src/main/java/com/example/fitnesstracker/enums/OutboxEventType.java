@@ -0,0 +1,23 @@
+package com.example.fitnesstracker.enums;
+
+public enum OutboxEventType {
+    MEMBERSHIP_EXPIRING("Membresía por vencer"),
+    MEMBERSHIP_EXPIRED("Membresía vencida"),
+    TRAINER_REQUEST_CREATED("Solicitud de entrenador creada"),
+    TRAINER_REQUEST_CANCELLED("Solicitud de entrenador cancelada"),
+    TRAINER_REQUEST_ACCEPTED("Solicitud de entrenador aceptada"),
+    TRAINER_REQUEST_REJECTED("Solicitud de entrenador rechazada"),
+    WORKOUT_PLAN_ACTIVATED("Plan de workout activado"),
+    WORKOUT_COMPLETED("Workout completado"),
+    NUTRITION_PLAN_ACTIVATED("Plan nutricional activado");
+
+    private final String displayName;
+
+    OutboxEventType(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.fitnesstracker.event;
+
+import com.example.fitnesstracker.model.OutboxEvent;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento tal como lo reciben los sinks. {@code id} es el id del outbox: la entrega es
+ * al-menos-una-vez, así que los consumidores pueden usarlo para descartar repetidos.
+ */
+public record DomainEvent(long id, String eventType, String aggregateType, long aggregateId,
+                          @JsonRawValue String payload, LocalDateTime occurredAt) {
+
+    public static DomainEvent from(OutboxEvent event) {
+        return new DomainEvent(event.getId(), event.getEventType(), event.getAggregateType(),
+                event.getAggregateId(), event.getPayload(), event.getCreatedAt());
+    }
+}
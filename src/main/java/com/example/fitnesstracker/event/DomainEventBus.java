@@ -0,0 +1,25 @@
+package com.example.fitnesstracker.event;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Bus de eventos en proceso: entrega cada lote a todos los sinks registrados, en orden.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DomainEventBus {
+
+    private final List<DomainEventSink> sinks;
+
+    public void publish(List<DomainEvent> events) {
+        for (DomainEventSink sink : sinks) {
+            sink.publish(events);
+            log.debug("{} eventos entregados a {}", events.size(), sink.name());
+        }
+    }
+}
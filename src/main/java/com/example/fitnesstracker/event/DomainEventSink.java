@@ -0,0 +1,14 @@
+package com.example.fitnesstracker.event;
+
+import java.util.List;
+
+/**
+ * Destino de los eventos publicados por el relay. Cada implementación es un bean que se activa por configuración.
+ * Si publish lanza una excepción el lote entero se reintenta en la próxima pasada.
+ */
+public interface DomainEventSink {
+
+    String name();
+
+    void publish(List<DomainEvent> events);
+}
@@ -0,0 +1,125 @@
+package com.example.fitnesstracker.event;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Broker local que reemplaza a uno externo mientras no haya: un tópico por tipo de evento,
+ * con offsets y retención acotada. Los suscriptores reciben los eventos en un hilo propio,
+ * así un consumidor lento no frena al relay.
+ */
+@Component
+@ConditionalOnProperty(name = "events.sink.local-broker.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class LocalBrokerEventSink implements DomainEventSink {
+
+    private final Map<String, Topic> topics = new ConcurrentHashMap<>();
+    private final Map<String, List<Consumer<DomainEvent>>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "local-broker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${events.sink.local-broker.retention:10000}")
+    private int retention = 10000;
+
+    @Override
+    public String name() {
+        return "local-broker";
+    }
+
+    @Override
+    public void publish(List<DomainEvent> events) {
+        for (DomainEvent event : events) {
+            topic(event.eventType()).append(event, retention);
+            List<Consumer<DomainEvent>> consumers = subscribers.getOrDefault(event.eventType(), List.of());
+            if (!consumers.isEmpty()) {
+                dispatcher.execute(() -> deliver(consumers, event));
+            }
+        }
+    }
+
+    public void subscribe(String topic, Consumer<DomainEvent> consumer) {
+        subscribers.computeIfAbsent(topic, t -> new CopyOnWriteArrayList<>()).add(consumer);
+    }
+
+    /**
+     * Hasta {@code max} eventos del tópico desde {@code fromOffset}. Si el offset ya salió de la retención
+     * se empieza por el evento más viejo que se conserva.
+     */
+    public List<DomainEvent> poll(String topic, long fromOffset, int max) {
+        Topic t = topics.get(topic);
+        return t != null ? t.read(fromOffset, max) : List.of();
+    }
+
+    public long endOffset(String topic) {
+        Topic t = topics.get(topic);
+        return t != null ? t.endOffset() : 0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdown();
+    }
+
+    private Topic topic(String name) {
+        return topics.computeIfAbsent(name, n -> new Topic());
+    }
+
+    private void deliver(List<Consumer<DomainEvent>> consumers, DomainEvent event) {
+        for (Consumer<DomainEvent> consumer : consumers) {
+            try {
+                consumer.accept(event);
+            } catch (RuntimeException e) {
+                log.warn("Un suscriptor del tópico {} falló con el evento {}: {}", event.eventType(), event.id(), e.getMessage());
+            }
+        }
+    }
+
+    private static final class Topic {
+        private final Deque<DomainEvent> events = new ArrayDeque<>();
+        private long startOffset;
+
+        private synchronized void append(DomainEvent event, int retention) {
+            events.addLast(event);
+            while (events.size() > retention) {
+                events.removeFirst();
+                startOffset++;
+            }
+        }
+
+        private synchronized List<DomainEvent> read(long fromOffset, int max) {
+            long from = Math.max(fromOffset, startOffset);
+            List<DomainEvent> result = new ArrayList<>();
+            long offset = startOffset;
+            for (DomainEvent event : events) {
+                if (result.size() >= max) {
+                    break;
+                }
+                if (offset++ >= from) {
+                    result.add(event);
+                }
+            }
+            return result;
+        }
+
+        private synchronized long endOffset() {
+            return startOffset + events.size();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.fitnesstracker.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Agrega cada evento como una línea JSON (NDJSON) al archivo configurado.
+ */
+@Component
+@ConditionalOnProperty(name = "events.sink.log-file.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class LogFileEventSink implements DomainEventSink {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${events.sink.log-file.path:data/domain-events.ndjson}")
+    private String path;
+
+    @Override
+    public String name() {
+        return "log-file";
+    }
+
+    @Override
+    public synchronized void publish(List<DomainEvent> events) {
+        Path file = Path.of(path);
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (DomainEvent event : events) {
+                    writer.write(objectMapper.writeValueAsString(event));
+                    writer.newLine();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudieron escribir los eventos en " + file, e);
+        }
+    }
+}
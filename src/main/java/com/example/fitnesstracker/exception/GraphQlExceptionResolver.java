@@ -0,0 +1,34 @@
+package com.example.fitnesstracker.exception;
+
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import graphql.schema.DataFetchingEnvironment;
+import org.springframework.graphql.execution.DataFetcherExceptionResolverAdapter;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Equivalente de {@link GlobalExceptionHandler} para GraphQL: las excepciones de negocio llegan al
+ * cliente como errores con su mensaje y un tipo; el resto queda como INTERNAL_ERROR sin detalle.
+ */
+@Component
+public class GraphQlExceptionResolver extends DataFetcherExceptionResolverAdapter {
+
+    @Override
+    protected GraphQLError resolveToSingleError(Throwable ex, DataFetchingEnvironment env) {
+        ErrorType errorType;
+        if (ex instanceof ResourceNotFoundException || ex instanceof UserNotFoundException) {
+            errorType = ErrorType.NOT_FOUND;
+        } else if (ex instanceof InvalidUserDataException) {
+            errorType = ErrorType.BAD_REQUEST;
+        } else if (ex instanceof UnauthorizedException) {
+            errorType = ErrorType.UNAUTHORIZED;
+        } else {
+            return null;
+        }
+        return GraphqlErrorBuilder.newError(env)
+                .errorType(errorType)
+                .message(ex.getMessage())
+                .build();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.fitnesstracker.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Pone un trace id en el MDC durante todo el request, así cada línea de log se puede correlacionar.
+ * Se respeta el que mande el cliente o el proxy (X-Request-Id o el trace-id de traceparent) y se
+ * devuelve en X-Request-Id.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestTraceFilter extends OncePerRequestFilter {
+
+    public static final String TRACE_ID = "traceId";
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+
+    private static final int MAX_LENGTH = 64;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String traceId = traceIdOf(request);
+        MDC.put(TRACE_ID, traceId);
+        response.setHeader(REQUEST_ID_HEADER, traceId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(TRACE_ID);
+        }
+    }
+
+    private static String traceIdOf(HttpServletRequest request) {
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (isValid(requestId)) {
+            return requestId;
+        }
+        // traceparent: version-traceid-parentid-flags
+        String traceparent = request.getHeader("traceparent");
+        if (traceparent != null && traceparent.length() >= 35 && traceparent.charAt(2) == '-') {
+            String traceId = traceparent.substring(3, 35);
+            if (isValid(traceId)) {
+                return traceId;
+            }
+        }
+        return newTraceId();
+    }
+
+    // Solo ids cortos de caracteres seguros: el valor termina en logs y en un header de respuesta
+    private static boolean isValid(String id) {
+        if (id == null || id.isEmpty() || id.length() > MAX_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '-' || c == '_')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 128 bits en hex, como un trace-id de W3C; no hace falta SecureRandom para correlacionar logs
+    static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        char[] id = new char[32];
+        long high = random.nextLong();
+        long low = random.nextLong();
+        for (int i = 0; i < 16; i++) {
+            id[i] = HEX[(int) (high >>> (60 - 4 * i)) & 0xF];
+            id[16 + i] = HEX[(int) (low >>> (60 - 4 * i)) & 0xF];
+        }
+        return new String(id);
+    }
+}
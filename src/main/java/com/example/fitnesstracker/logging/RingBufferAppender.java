@@ -0,0 +1,194 @@
+package com.example.fitnesstracker.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Appender asíncrono sobre un ring buffer sin locks: los hilos que loguean reservan un slot con CAS y
+ * un único hilo lo escribe en los appenders adjuntos. A diferencia de {@code AsyncAppender} no hay
+ * cola bloqueante: con el buffer lleno los eventos INFO o menores se descartan (y se cuentan), y los
+ * WARN/ERROR se escriben en el hilo que loguea para no perderlos.
+ */
+public class RingBufferAppender extends UnsynchronizedAppenderBase<ILoggingEvent> implements AppenderAttachable<ILoggingEvent> {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private int bufferSize = 8192;
+    private long maxFlushTimeMs = 1000;
+    private AtomicReferenceArray<ILoggingEvent> slots;
+    private int mask;
+    private Thread worker;
+    private volatile boolean running;
+    private volatile boolean parked;
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public void setMaxFlushTimeMs(long maxFlushTimeMs) {
+        this.maxFlushTimeMs = maxFlushTimeMs;
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public int getQueueSize() {
+        return (int) (tail.get() - head.get());
+    }
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (!appenders.iteratorForAppenders().hasNext()) {
+            addError("No hay appenders adjuntos a " + getName());
+            return;
+        }
+        // Potencia de dos para calcular el slot con una máscara
+        int capacity = Integer.highestOneBit(Math.max(2, bufferSize) - 1) << 1;
+        slots = new AtomicReferenceArray<>(capacity);
+        mask = capacity - 1;
+        running = true;
+        worker = new Thread(this::drainLoop, "log-ring-" + getName());
+        worker.setDaemon(true);
+        worker.start();
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        running = false;
+        LockSupport.unpark(worker);
+        try {
+            worker.join(maxFlushTimeMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            addWarn("No se vaciaron " + getQueueSize() + " eventos de " + getName() + " en " + maxFlushTimeMs + " ms");
+        }
+        if (dropped.get() > 0) {
+            addInfo(getName() + " descartó " + dropped.get() + " eventos con el buffer lleno");
+        }
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        // Mensaje formateado, MDC y nombre del hilo se fijan ahora: el evento se escribe en otro hilo
+        event.prepareForDeferredProcessing();
+        if (offer(event)) {
+            if (parked) {
+                LockSupport.unpark(worker);
+            }
+        } else if (event.getLevel().isGreaterOrEqual(Level.WARN)) {
+            appenders.appendLoopOnAppenders(event);
+        } else {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private boolean offer(ILoggingEvent event) {
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head.get() > mask) {
+                return false;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+        slots.set((int) sequence & mask, event);
+        return true;
+    }
+
+    private void drainLoop() {
+        while (running || head.get() < tail.get()) {
+            if (!drain() && running) {
+                parked = true;
+                // Revisar después de marcar: un productor pudo publicar sin ver parked
+                if (head.get() == tail.get()) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                parked = false;
+            }
+        }
+    }
+
+    private boolean drain() {
+        long sequence = head.get();
+        boolean drained = false;
+        while (sequence < tail.get()) {
+            int slot = (int) sequence & mask;
+            ILoggingEvent event = slots.get(slot);
+            if (event == null) {
+                // Slot reservado pero todavía sin publicar
+                Thread.onSpinWait();
+                continue;
+            }
+            slots.lazySet(slot, null);
+            head.lazySet(++sequence);
+            try {
+                appenders.appendLoopOnAppenders(event);
+            } catch (RuntimeException e) {
+                addError("Falló la escritura de un evento en " + getName(), e);
+            }
+            drained = true;
+        }
+        return drained;
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> appender) {
+        appenders.addAppender(appender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+}
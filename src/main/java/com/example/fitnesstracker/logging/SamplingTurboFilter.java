@@ -0,0 +1,84 @@
+package com.example.fitnesstracker.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deja pasar 1 de cada {@code rate} eventos de los loggers bajo {@code loggerPrefix} con nivel
+ * {@code level} o menor. Decide antes de crear el evento, así que lo descartado no formatea nada.
+ * <p>
+ * Con {@code key=message} cuenta por plantilla del mensaje: un mensaje raro no queda tapado por uno
+ * frecuente del mismo logger. Con {@code key=logger} cuenta por logger, para canales donde el mensaje
+ * es distinto cada vez (el SQL de Hibernate). Los eventos con excepción nunca se muestrean.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    private String loggerPrefix = "";
+    private Level level = Level.INFO;
+    private int rate = 10;
+    private boolean byMessage = true;
+    private int maxKeys = 1024;
+
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+
+    public void setLevel(String level) {
+        this.level = Level.toLevel(level, Level.INFO);
+    }
+
+    public void setRate(int rate) {
+        this.rate = rate;
+    }
+
+    public void setKey(String key) {
+        this.byMessage = !"logger".equalsIgnoreCase(key);
+    }
+
+    public void setMaxKeys(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    @Override
+    public void start() {
+        if (rate < 1) {
+            addError("rate debe ser al menos 1 en " + getName());
+            return;
+        }
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level eventLevel, String format, Object[] params, Throwable t) {
+        // format es null en isDebugEnabled()/isInfoEnabled(): el muestreo se aplica recién al loguear
+        if (!isStarted() || rate == 1 || format == null || t != null
+                || eventLevel.toInt() > level.toInt()
+                || !logger.getName().startsWith(loggerPrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+        return counter(byMessage ? format : logger.getName(), logger).getAndIncrement() % rate == 0
+                ? FilterReply.NEUTRAL
+                : FilterReply.DENY;
+    }
+
+    private AtomicLong counter(String key, Logger logger) {
+        AtomicLong counter = counters.get(key);
+        if (counter != null) {
+            return counter;
+        }
+        // Con demasiadas plantillas distintas se pasa a contar por logger para acotar la memoria
+        if (counters.size() >= maxKeys) {
+            key = logger.getName();
+        }
+        return counters.computeIfAbsent(key, k -> new AtomicLong());
+    }
+}
@@ -4,34 +4,49 @@ import com.example.fitnesstracker.dto.request.member.RegisterMemberDTO;
 import com.example.fitnesstracker.dto.request.member.UpdateMemberDTO;
 import com.example.fitnesstracker.dto.response.MemberDTO;
 import com.example.fitnesstracker.model.Member;
+import com.example.fitnesstracker.util.FieldSelection;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.Set;
 
 @Component
+@RequiredArgsConstructor
 public class MemberMapper {
 
+    public static final Set<String> INCLUDES = Set.of("trainer");
+
+    private final TrainerMapper trainerMapper;
+
     public MemberDTO toDTO(Member entity) {
+        return toDTO(entity, FieldSelection.ALL);
+    }
+
+    public MemberDTO toDTO(Member entity, FieldSelection selection) {
         if (entity == null) {
             return null;
         }
 
-        int remainingDays = 0;
-        LocalDate today = LocalDate.now();
-        if (entity.getMembershipEndDate() != null && entity.getMembershipEndDate().isAfter(today)) {
-            remainingDays = (int) ChronoUnit.DAYS.between(today, entity.getMembershipEndDate());
-        }
-
-        return MemberDTO.builder().id(entity.getId()).externalId(entity.getExternalId())
-                .firstName(entity.getFirstName()).lastName(entity.getLastName()).fullName(entity.getFullName())
-                .email(entity.getUser().getEmail())
-                .phone(entity.getPhone()).dateOfBirth(entity.getDateOfBirth())
-                .membershipStartDate(entity.getMembershipStartDate()).membershipEndDate(entity.getMembershipEndDate())
-                .remainingDays(remainingDays).height(entity.getHeight()).weight(entity.getWeight())
-                .isActive(entity.isActive())
-                .assignedTrainerId(entity.getAssignedTrainer() != null ? entity.getAssignedTrainer().getId() : null)
-                .assignmentStatus(entity.getAssignmentStatus())
+        return MemberDTO.builder().id(entity.getId()).version(entity.getVersion())
+                .externalId(selection.pick("externalId", entity::getExternalId))
+                .firstName(selection.pick("firstName", entity::getFirstName))
+                .lastName(selection.pick("lastName", entity::getLastName))
+                .fullName(selection.pick("fullName", entity::getFullName))
+                .email(selection.pick("email", () -> entity.getUser().getEmail()))
+                .phone(selection.pick("phone", entity::getPhone))
+                .dateOfBirth(selection.pick("dateOfBirth", entity::getDateOfBirth))
+                .membershipStartDate(selection.pick("membershipStartDate", entity::getMembershipStartDate))
+                .membershipEndDate(selection.pick("membershipEndDate", entity::getMembershipEndDate))
+                .remainingDays(selection.pick("remainingDays", () -> remainingDays(entity)))
+                .height(selection.pick("height", entity::getHeight))
+                .weight(selection.pick("weight", entity::getWeight))
+                .isActive(selection.pick("isActive", entity::isActive))
+                .assignedTrainerId(selection.pick("assignedTrainerId",
+                        () -> entity.getAssignedTrainer() != null ? entity.getAssignedTrainer().getId() : null))
+                .assignmentStatus(selection.pick("assignmentStatus", entity::getAssignmentStatus))
+                .assignedTrainer(selection.includes("trainer") ? trainerMapper.toDTO(entity.getAssignedTrainer()) : null)
                 .build();
     }
 
@@ -66,4 +81,12 @@ public class MemberMapper {
         }
 
     }
+
+    private static int remainingDays(Member entity) {
+        LocalDate today = LocalDate.now();
+        if (entity.getMembershipEndDate() != null && entity.getMembershipEndDate().isAfter(today)) {
+            return (int) ChronoUnit.DAYS.between(today, entity.getMembershipEndDate());
+        }
+        return 0;
+    }
 }
@@ -4,33 +4,40 @@ import com.example.fitnesstracker.dto.response.nutrition.NutritionMealDTO;
 import com.example.fitnesstracker.dto.response.nutrition.NutritionPlanDTO;
 import com.example.fitnesstracker.model.NutritionMeal;
 import com.example.fitnesstracker.model.NutritionPlan;
+import com.example.fitnesstracker.util.FieldSelection;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Component
 public class NutritionPlanMapper {
 
-    public NutritionPlanDTO toDTO(NutritionPlan plan, boolean withMeals) {
+    public static final Set<String> INCLUDES = Set.of("meals");
+
+    private static final FieldSelection WITH_MEALS = FieldSelection.of("meals");
+
+    public NutritionPlanDTO toDTO(NutritionPlan plan, FieldSelection selection) {
         NutritionPlanDTO.NutritionPlanDTOBuilder builder = NutritionPlanDTO.builder()
                 .id(plan.getId())
-                .externalId(plan.getExternalId() != null ? plan.getExternalId().toString() : null)
-                .name(plan.getName())
-                .description(plan.getDescription())
-                .memberId(plan.getMember().getId())
-                .memberName(plan.getMember().getFirstName() + " " + plan.getMember().getLastName())
-                .trainerId(plan.getTrainer().getId())
-                .trainerName(plan.getTrainer().getFirstName() + " " + plan.getTrainer().getLastName())
-                .status(plan.getStatus())
-                .startDate(plan.getStartDate())
-                .endDate(plan.getEndDate())
-                .notes(plan.getNotes())
-                .totalMeals(plan.getMeals() != null ? plan.getMeals().size() : 0)
-                .createdAt(plan.getCreatedAt())
-                .updatedAt(plan.getUpdatedAt());
-
-        if (withMeals && plan.getMeals() != null) {
+                .version(plan.getVersion())
+                .externalId(selection.pick("externalId", () -> plan.getExternalId() != null ? plan.getExternalId().toString() : null))
+                .name(selection.pick("name", plan::getName))
+                .description(selection.pick("description", plan::getDescription))
+                .memberId(selection.pick("memberId", () -> plan.getMember().getId()))
+                .memberName(selection.pick("memberName", () -> plan.getMember().getFirstName() + " " + plan.getMember().getLastName()))
+                .trainerId(selection.pick("trainerId", () -> plan.getTrainer().getId()))
+                .trainerName(selection.pick("trainerName", () -> plan.getTrainer().getFirstName() + " " + plan.getTrainer().getLastName()))
+                .status(selection.pick("status", plan::getStatus))
+                .startDate(selection.pick("startDate", plan::getStartDate))
+                .endDate(selection.pick("endDate", plan::getEndDate))
+                .notes(selection.pick("notes", plan::getNotes))
+                .totalMeals(selection.pick("totalMeals", () -> plan.getMeals() != null ? plan.getMeals().size() : 0))
+                .createdAt(selection.pick("createdAt", plan::getCreatedAt))
+                .updatedAt(selection.pick("updatedAt", plan::getUpdatedAt));
+
+        if (selection.includes("meals") && plan.getMeals() != null) {
             List<NutritionMealDTO> mealDTOs = plan.getMeals().stream()
                     .filter(m -> m.getDeletedAt() == null)
                     .map(this::toMealDTO)
@@ -41,6 +48,10 @@ public class NutritionPlanMapper {
         return builder.build();
     }
 
+    public NutritionPlanDTO toDTO(NutritionPlan plan, boolean withMeals) {
+        return toDTO(plan, withMeals ? WITH_MEALS : FieldSelection.ALL);
+    }
+
     public NutritionMealDTO toMealDTO(NutritionMeal meal) {
         return NutritionMealDTO.builder()
                 .id(meal.getId())
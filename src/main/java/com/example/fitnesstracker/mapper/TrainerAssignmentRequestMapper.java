@@ -17,6 +17,7 @@ public class TrainerAssignmentRequestMapper {
 
         return TrainerAssignmentRequestDTO.builder()
                 .id(entity.getId())
+                .version(entity.getVersion())
                 .externalId(entity.getExternalId())
                 .memberId(entity.getMember().getId())
                 .memberName(entity.getMember().getFullName())
@@ -4,6 +4,7 @@ import com.example.fitnesstracker.dto.request.trainer.RegisterTrainerDTO;
 import com.example.fitnesstracker.dto.request.trainer.UpdateTrainerDTO;
 import com.example.fitnesstracker.dto.response.TrainerDTO;
 import com.example.fitnesstracker.model.Trainer;
+import com.example.fitnesstracker.util.FieldSelection;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
@@ -15,26 +16,27 @@ import java.util.List;
 public class TrainerMapper {
 
     public TrainerDTO toDTO(Trainer entity) {
+        return toDTO(entity, FieldSelection.ALL);
+    }
+
+    public TrainerDTO toDTO(Trainer entity, FieldSelection selection) {
         if (entity == null) {
             return null;
         }
 
-        // Convertir certifications String a List
-        List<String> certificationsList = entity.getCertifications() != null && !entity.getCertifications().isEmpty()
-                ? Arrays.asList(entity.getCertifications().split(","))
-                : List.of();
-
         return TrainerDTO.builder()
                 .id(entity.getId())
-                .externalId(entity.getExternalId())
-                .firstName(entity.getFirstName())
-                .lastName(entity.getLastName())
-                .fullName(entity.getFullName())
-                .specialty(entity.getSpecialty())
-                .certifications(certificationsList)
-                .hourlyRate(entity.getHourlyRate())
-                .isActive(entity.getIsActive())
-                .assignedMembersCount(entity.getAssignedMembersCount())
+                .version(entity.getVersion())
+                .externalId(selection.pick("externalId", entity::getExternalId))
+                .firstName(selection.pick("firstName", entity::getFirstName))
+                .lastName(selection.pick("lastName", entity::getLastName))
+                .fullName(selection.pick("fullName", entity::getFullName))
+                .specialty(selection.pick("specialty", entity::getSpecialty))
+                .certifications(selection.pick("certifications", () -> certifications(entity)))
+                .hourlyRate(selection.pick("hourlyRate", entity::getHourlyRate))
+                .isActive(selection.pick("isActive", entity::getIsActive))
+                .assignedMembersCount(selection.pick("assignedMembersCount", entity::getAssignedMemberCount))
+                .maxMembers(selection.pick("maxMembers", entity::getMaxMembers))
                 .build();
     }
 
@@ -72,5 +74,15 @@ public class TrainerMapper {
         if (dto.getIsActive() != null) {
             entity.setIsActive(dto.getIsActive());
         }
+        if (dto.getMaxMembers() != null) {
+            entity.setMaxMembers(dto.getMaxMembers());
+        }
+    }
+
+    // Convertir certifications String a List
+    private static List<String> certifications(Trainer entity) {
+        return entity.getCertifications() != null && !entity.getCertifications().isEmpty()
+                ? Arrays.asList(entity.getCertifications().split(","))
+                : List.of();
     }
-}
\ No newline at end of file
+}
@@ -16,6 +16,7 @@ public class UserMapper {
 
         return UserDTO.builder()
                 .id(entity.getId())
+                .version(entity.getVersion())
                 .externalId(entity.getExternalId())
                 .username(entity.getUsername())
                 .email(entity.getEmail())
@@ -24,6 +24,7 @@ public class WorkoutCompletionMapper {
                 .workoutDayName(entity.getWorkoutDay().getDayName())
                 .completedAt(entity.getCompletedAt())
                 .rating(entity.getRating())
+                .adherenceScore(entity.getAdherenceScore())
                 .notes(entity.getNotes())
                 .createdAt(entity.getCreatedAt())
                 .exerciseLogs(entity.getExerciseLogs() != null
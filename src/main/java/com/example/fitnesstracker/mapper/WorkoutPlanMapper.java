@@ -2,52 +2,63 @@ package com.example.fitnesstracker.mapper;
 
 import com.example.fitnesstracker.dto.response.workout.WorkoutPlanDTO;
 import com.example.fitnesstracker.model.WorkoutPlan;
+import com.example.fitnesstracker.util.FieldSelection;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
 public class WorkoutPlanMapper {
 
+    public static final Set<String> INCLUDES = Set.of("days", "days.exercises");
+
+    private static final FieldSelection WITH_DAYS = FieldSelection.of("days.exercises");
+
     private final WorkoutDayMapper workoutDayMapper;
 
-    public WorkoutPlanDTO toDTO(WorkoutPlan entity, boolean includeWorkoutDays) {
+    public WorkoutPlanDTO toDTO(WorkoutPlan entity, FieldSelection selection) {
         if (entity == null) {
             return null;
         }
 
         return WorkoutPlanDTO.builder()
                 .id(entity.getId())
-                .externalId(entity.getExternalId())
-                .name(entity.getName())
-                .description(entity.getDescription())
-                .memberId(entity.getMember().getId())
-                .memberName(entity.getMember().getFullName())
-                .trainerId(entity.getTrainer().getId())
-                .trainerName(entity.getTrainer().getFullName())
-                .status(entity.getStatus())
-                .startDate(entity.getStartDate())
-                .endDate(entity.getEndDate())
-                .notes(entity.getNotes())
-                .totalDays(entity.getWorkoutDays() != null
+                .version(entity.getVersion())
+                .externalId(selection.pick("externalId", entity::getExternalId))
+                .name(selection.pick("name", entity::getName))
+                .description(selection.pick("description", entity::getDescription))
+                .memberId(selection.pick("memberId", () -> entity.getMember().getId()))
+                .memberName(selection.pick("memberName", () -> entity.getMember().getFullName()))
+                .trainerId(selection.pick("trainerId", () -> entity.getTrainer().getId()))
+                .trainerName(selection.pick("trainerName", () -> entity.getTrainer().getFullName()))
+                .status(selection.pick("status", entity::getStatus))
+                .startDate(selection.pick("startDate", entity::getStartDate))
+                .endDate(selection.pick("endDate", entity::getEndDate))
+                .notes(selection.pick("notes", entity::getNotes))
+                .totalDays(selection.pick("totalDays", () -> entity.getWorkoutDays() != null
                         ? (int) entity.getWorkoutDays().stream()
                         .filter(d -> d.getDeletedAt() == null)
                         .count()
-                        : 0)
-                .createdAt(entity.getCreatedAt())
-                .updatedAt(entity.getUpdatedAt())
-                .workoutDays(includeWorkoutDays && entity.getWorkoutDays() != null
+                        : 0))
+                .createdAt(selection.pick("createdAt", entity::getCreatedAt))
+                .updatedAt(selection.pick("updatedAt", entity::getUpdatedAt))
+                .workoutDays(selection.includes("days") && entity.getWorkoutDays() != null
                         ? entity.getWorkoutDays().stream()
                         .filter(day -> day.getDeletedAt() == null)
-                        .map(day -> workoutDayMapper.toDTO(day, true))
+                        .map(day -> workoutDayMapper.toDTO(day, selection.includes("days.exercises")))
                         .collect(Collectors.toList())
                         : null)
                 .build();
     }
 
+    public WorkoutPlanDTO toDTO(WorkoutPlan entity, boolean includeWorkoutDays) {
+        return toDTO(entity, includeWorkoutDays ? WITH_DAYS : FieldSelection.ALL);
+    }
+
     public WorkoutPlanDTO toDTO(WorkoutPlan entity) {
         return toDTO(entity, false);
     }
-}
\ No newline at end of file
+}
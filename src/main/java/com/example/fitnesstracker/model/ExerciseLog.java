@@ -5,6 +5,8 @@ import com.example.fitnesstracker.model.common.BaseEntity;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.LocalDate;
+
 @Entity
 @Table(name = "exercise_logs", indexes = {
         @Index(name = "idx_log_completion", columnList = "workout_completion_id"),
@@ -28,6 +30,10 @@ public class ExerciseLog extends BaseEntity {
     @JoinColumn(name = "workout_exercise_id", nullable = false)
     private WorkoutExercise workoutExercise;
 
+    // Copia de WorkoutCompletion.completedAt: clave de partición de exercise_logs
+    @Column(nullable = false)
+    private LocalDate completedAt;
+
     @Column(nullable = false)
     private Integer setsCompleted;
 
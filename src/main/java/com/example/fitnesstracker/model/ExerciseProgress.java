@@ -0,0 +1,65 @@
+package com.example.fitnesstracker.model;
+
+import com.example.fitnesstracker.model.common.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Filter;
+
+import java.time.LocalDate;
+
+/**
+ * Agregado semanal de un ejercicio para un member. Se actualiza al completar un workout,
+ * así la curva de progreso se lee sin volver a recorrer exercise_logs.
+ */
+@Entity
+@Filter(name = BaseEntity.SOFT_DELETE_FILTER)
+@Table(name = "exercise_progress",
+        uniqueConstraints = @UniqueConstraint(name = "uk_progress_member_exercise_week",
+                columnNames = {"member_id", "exercise_id", "week_start"}))
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+public class ExerciseProgress extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "member_id", nullable = false)
+    private Member member;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "exercise_id", nullable = false)
+    private Exercise exercise;
+
+    // Lunes de la semana
+    @Column(nullable = false)
+    private LocalDate weekStart;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Double bestEstimatedOneRepMax = 0.0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Double bestWeight = 0.0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer bestWeightReps = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer totalSets = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer totalReps = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Double volume = 0.0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer sessions = 0;
+}
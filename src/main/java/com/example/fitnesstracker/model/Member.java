@@ -5,26 +5,34 @@ import com.example.fitnesstracker.model.common.BaseEntity;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Filter;
 
 import java.time.LocalDate;
 import java.time.Period;
 
 @Entity
+@Filter(name = BaseEntity.SOFT_DELETE_FILTER)
 @Table(name = "members", indexes = {
         @Index(name = "idx_member_user", columnList = "user_id"),
         @Index(name = "idx_member_trainer", columnList = "trainer_id"),
         @Index(name = "idx_member_phone", columnList = "phone"),
-        @Index(name = "idx_member_membership_end", columnList = "membership_end_date")
+        @Index(name = "idx_member_membership_end", columnList = "membership_end_date"),
+        @Index(name = "idx_member_trainer_active", columnList = "trainer_id, deleted_at"),
+        @Index(name = "idx_member_end_active", columnList = "membership_end_date, deleted_at")
 })
 @NoArgsConstructor
 @AllArgsConstructor
 @SuperBuilder
 @Getter
 @Setter
-@EqualsAndHashCode(exclude = {"user", "assignedTrainer"}, callSuper = false)
+@EqualsAndHashCode(exclude = {"user", "assignedTrainer", "version"}, callSuper = false)
 @ToString(exclude = {"user", "assignedTrainer"})
 public class Member extends BaseEntity {
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false, unique = true)
     private User user;
@@ -4,16 +4,20 @@ import com.example.fitnesstracker.enums.NutritionPlanStatus;
 import com.example.fitnesstracker.model.common.BaseEntity;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Filter;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Filter(name = BaseEntity.SOFT_DELETE_FILTER)
 @Table(name = "nutrition_plans", indexes = {
         @Index(name = "idx_nutrition_member", columnList = "member_id"),
         @Index(name = "idx_nutrition_trainer", columnList = "trainer_id"),
-        @Index(name = "idx_nutrition_status", columnList = "status")
+        @Index(name = "idx_nutrition_status", columnList = "status"),
+        @Index(name = "idx_nutrition_member_active", columnList = "member_id, status, deleted_at"),
+        @Index(name = "idx_nutrition_trainer_active", columnList = "trainer_id, status, deleted_at")
 })
 @NoArgsConstructor
 @AllArgsConstructor
@@ -22,6 +26,10 @@ import java.util.List;
 @Setter
 public class NutritionPlan extends BaseEntity {
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @Column(nullable = false, length = 100)
     private String name;
 
@@ -0,0 +1,48 @@
+package com.example.fitnesstracker.model;
+
+import com.example.fitnesstracker.model.common.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento de dominio pendiente de publicar. Se inserta en la misma transacción que el cambio
+ * que lo origina y OutboxRelayService lo entrega al bus de eventos.
+ */
+@Entity
+@Table(name = "outbox_events",
+        uniqueConstraints = @UniqueConstraint(name = "uk_outbox_event_key", columnNames = "event_key"),
+        indexes = @Index(name = "idx_outbox_unpublished", columnList = "published_at, id"))
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+public class OutboxEvent extends BaseEntity {
+
+    public static final String AGGREGATE_MEMBER = "MEMBER";
+    public static final String AGGREGATE_WORKOUT_PLAN = "WORKOUT_PLAN";
+    public static final String AGGREGATE_NUTRITION_PLAN = "NUTRITION_PLAN";
+
+    @Column(nullable = false, length = 50)
+    private String aggregateType;
+
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    @Column(nullable = false, length = 50)
+    private String eventType;
+
+    @Column(nullable = false, length = 150)
+    private String eventKey;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    private LocalDateTime publishedAt;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+}
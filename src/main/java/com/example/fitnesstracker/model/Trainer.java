@@ -4,23 +4,34 @@ import com.example.fitnesstracker.model.common.BaseEntity;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.Filter;
 
 import java.math.BigDecimal;
 import java.util.Set;
 import java.util.HashSet;
 
 @Entity
+@Filter(name = BaseEntity.SOFT_DELETE_FILTER)
 @Table(name = "trainers", indexes = { @Index(name = "idx_trainer_user", columnList = "user_id"),
         @Index(name = "idx_trainer_specialty", columnList = "specialty"),
-        @Index(name = "idx_trainer_active", columnList = "is_active") })
+        @Index(name = "idx_trainer_active", columnList = "is_active"),
+        @Index(name = "idx_trainer_specialty_active", columnList = "specialty, deleted_at"),
+        @Index(name = "idx_trainer_name_deleted", columnList = "first_name, last_name, deleted_at") })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @SuperBuilder
-@EqualsAndHashCode(exclude = { "user", "assignedMembers" }, callSuper = false)
+@EqualsAndHashCode(exclude = { "user", "assignedMembers", "version" }, callSuper = false)
 @ToString(exclude = { "user", "assignedMembers" })
 public class Trainer extends BaseEntity {
 
+    public static final int DEFAULT_MAX_MEMBERS = 20;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @OneToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "user_id", nullable = false, unique = true)
     private User user;
@@ -43,6 +54,15 @@ public class Trainer extends BaseEntity {
     @Column(nullable = false)
     private Boolean isActive;
 
+    @Column(name = "max_members", nullable = false)
+    private Integer maxMembers;
+
+    // Lo mantienen reserveSlot/releaseSlot con UPDATE condicional; el entity nunca lo escribe
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(name = "assigned_member_count", nullable = false, insertable = false, updatable = false)
+    private Integer assignedMemberCount = 0;
+
     @Builder.Default
     @OneToMany(mappedBy = "assignedTrainer", fetch = FetchType.LAZY, cascade = CascadeType.REFRESH)
     private Set<Member> assignedMembers = new HashSet<>();
@@ -72,15 +92,14 @@ public class Trainer extends BaseEntity {
         }
     }
 
-    public int getAssignedMembersCount() {
-        return assignedMembers == null ? 0 : assignedMembers.size();
-    }
-
 @Override
     public void onCreate() {
         super.onCreate();
         if (isActive == null) {
             isActive = true;
         }
+        if (maxMembers == null) {
+            maxMembers = DEFAULT_MAX_MEMBERS;
+        }
     }
 }
@@ -0,0 +1,77 @@
+package com.example.fitnesstracker.model;
+
+import com.example.fitnesstracker.model.common.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+
+/**
+ * Días entrenados de un member como bitmap: el bit i corresponde a originDate + i días.
+ * Se persiste con BitSet.toByteArray() (little-endian, sin ceros finales): ~46 bytes por año.
+ */
+@Entity
+@Table(name = "training_calendars")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+public class TrainingCalendar extends BaseEntity {
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "member_id", nullable = false, unique = true)
+    private Member member;
+
+    @Column(nullable = false)
+    private LocalDate originDate;
+
+    @Lob
+    @Column(nullable = false)
+    @Builder.Default
+    private byte[] days = new byte[0];
+
+    public BitSet toBitSet() {
+        return BitSet.valueOf(days);
+    }
+
+    public int indexOf(LocalDate date) {
+        return (int) ChronoUnit.DAYS.between(originDate, date);
+    }
+
+    /**
+     * Marca el día como entrenado. Si es anterior al origen, corre el origen y desplaza los bits.
+     * Devuelve false si el día ya estaba marcado.
+     */
+    public boolean markTrained(LocalDate date) {
+        BitSet bits = toBitSet();
+        if (date.isBefore(originDate)) {
+            int shift = (int) ChronoUnit.DAYS.between(date, originDate);
+            BitSet shifted = new BitSet(bits.length() + shift);
+            for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+                shifted.set(i + shift);
+            }
+            bits = shifted;
+            originDate = date;
+        }
+        int index = indexOf(date);
+        if (bits.get(index)) {
+            return false;
+        }
+        bits.set(index);
+        days = bits.toByteArray();
+        return true;
+    }
+
+    /**
+     * Días seguidos entrenados hasta hoy. Si hoy todavía no entrenó, la racha sigue viva desde ayer.
+     */
+    public int currentStreak(LocalDate today) {
+        BitSet bits = toBitSet();
+        int index = indexOf(today);
+        int end = index >= 0 && bits.get(index) ? index : index - 1;
+        return end >= 0 && bits.get(end) ? end - bits.previousClearBit(end) : 0;
+    }
+}
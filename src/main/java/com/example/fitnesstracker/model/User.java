@@ -6,6 +6,7 @@ import com.example.fitnesstracker.model.common.BaseEntity;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Filter;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -14,6 +15,7 @@ import java.util.Collection;
 import java.util.List;
 
 @Entity
+@Filter(name = BaseEntity.SOFT_DELETE_FILTER)
 @Table(name = "users", indexes = {
         @Index(name = "idx_user_username", columnList = "username"),
         @Index(name = "idx_user_email", columnList = "email"),
@@ -25,10 +27,14 @@ import java.util.List;
 @SuperBuilder
 @Getter
 @Setter
-@EqualsAndHashCode(exclude = {"member", "trainer"}, callSuper = false)
+@EqualsAndHashCode(exclude = {"member", "trainer", "version"}, callSuper = false)
 @ToString(exclude = {"member", "trainer"})
 public class User extends BaseEntity implements UserDetails {
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @Column(nullable = false, unique = true, length = 50)
     private String username;
 
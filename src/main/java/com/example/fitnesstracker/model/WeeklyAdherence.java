@@ -0,0 +1,54 @@
+package com.example.fitnesstracker.model;
+
+import com.example.fitnesstracker.model.common.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Filter;
+
+import java.time.LocalDate;
+
+/**
+ * Adherencia acumulada de un member a su plan en una semana.
+ * scoreSum es la suma de los puntajes (0..1) de cada workout completado esa semana.
+ */
+@Entity
+@Filter(name = BaseEntity.SOFT_DELETE_FILTER)
+@Table(name = "weekly_adherence",
+        uniqueConstraints = @UniqueConstraint(name = "uk_adherence_member_plan_week",
+                columnNames = {"member_id", "workout_plan_id", "week_start"}),
+        indexes = @Index(name = "idx_adherence_plan_week", columnList = "workout_plan_id, week_start"))
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+public class WeeklyAdherence extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "member_id", nullable = false)
+    private Member member;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "workout_plan_id", nullable = false)
+    private WorkoutPlan workoutPlan;
+
+    // Lunes de la semana
+    @Column(nullable = false)
+    private LocalDate weekStart;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer completions = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Double scoreSum = 0.0;
+
+    // Días del plan al momento de registrar: sesiones esperadas en la semana
+    @Column(nullable = false)
+    private Integer plannedSessions;
+
+    public double getScore() {
+        return plannedSessions > 0 ? Math.min(1.0, scoreSum / plannedSessions) : 0.0;
+    }
+}
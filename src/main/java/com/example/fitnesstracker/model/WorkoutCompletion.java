@@ -3,16 +3,19 @@ package com.example.fitnesstracker.model;
 import com.example.fitnesstracker.model.common.BaseEntity;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Filter;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Filter(name = BaseEntity.SOFT_DELETE_FILTER)
 @Table(name = "workout_completions", indexes = {
         @Index(name = "idx_completion_member", columnList = "member_id"),
         @Index(name = "idx_completion_day", columnList = "workout_day_id"),
-        @Index(name = "idx_completion_date", columnList = "completed_at")
+        @Index(name = "idx_completion_date", columnList = "completed_at"),
+        @Index(name = "idx_completion_member_active", columnList = "member_id, deleted_at, completed_at")
 })
 @NoArgsConstructor
 @AllArgsConstructor
@@ -36,6 +39,9 @@ public class WorkoutCompletion extends BaseEntity {
 
     private Integer rating;
 
+    // Cumplimiento de lo prescrito (0..1), calculado por AdherenceService
+    private Double adherenceScore;
+
     @Column(columnDefinition = "TEXT")
     private String notes;
 
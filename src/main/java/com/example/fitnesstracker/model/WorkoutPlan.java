@@ -5,16 +5,20 @@ import com.example.fitnesstracker.model.common.BaseEntity;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Filter;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Filter(name = BaseEntity.SOFT_DELETE_FILTER)
 @Table(name = "workout_plans", indexes = {
         @Index(name = "idx_workout_member", columnList = "member_id"),
         @Index(name = "idx_workout_trainer", columnList = "trainer_id"),
-        @Index(name = "idx_workout_status", columnList = "status")
+        @Index(name = "idx_workout_status", columnList = "status"),
+        @Index(name = "idx_workout_member_active", columnList = "member_id, status, deleted_at"),
+        @Index(name = "idx_workout_trainer_active", columnList = "trainer_id, status, deleted_at")
 })
 @NoArgsConstructor
 @AllArgsConstructor
@@ -25,6 +29,10 @@ import java.util.List;
 //@ToString(exclude = {"member", "trainer", "workoutDays"})
 public class WorkoutPlan extends BaseEntity {
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @Column(nullable = false, length = 100)
     private String name;
 
@@ -4,12 +4,14 @@ import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.FilterDef;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @MappedSuperclass
+@FilterDef(name = BaseEntity.SOFT_DELETE_FILTER, defaultCondition = "deleted_at IS NULL", autoEnabled = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @SuperBuilder
@@ -17,6 +19,12 @@ import java.util.UUID;
 @Setter
 public abstract class BaseEntity {
 
+    /**
+     * Filtro global de soft delete: activo por defecto en cada sesión.
+     * Se desactiva puntualmente con {@link com.example.fitnesstracker.util.SoftDeleteFilter}.
+     */
+    public static final String SOFT_DELETE_FILTER = "softDeleteFilter";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -46,6 +54,14 @@ public abstract class BaseEntity {
         this.deletedAt = LocalDateTime.now();
     }
 
+    /**
+     * Marca la entidad como modificada aunque solo hayan cambiado sus hijos: el UPDATE que sigue
+     * incrementa @Version y updated_at, así el ETag del agregado cambia.
+     */
+    public void touch() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
     public void restore() {
         this.deletedAt = null;
     }
@@ -0,0 +1,19 @@
+package com.example.fitnesstracker.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Proyección para el ranking de adherencia de los members de un trainer
+ * Usado por WeeklyAdherenceRepository.findAdherenceByTrainer()
+ */
+public interface AdherenceRankProjection {
+    Long getMemberId();
+    String getFirstName();
+    String getLastName();
+    Long getPlanId();
+    LocalDate getPlanStartDate();
+    Long getPlannedSessionsPerWeek();
+    Double getScoreSum();
+    Long getCompletions();
+    LocalDate getLastActiveWeek();
+}
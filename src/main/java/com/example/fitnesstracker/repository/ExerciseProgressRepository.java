@@ -0,0 +1,44 @@
+package com.example.fitnesstracker.repository;
+
+import com.example.fitnesstracker.model.ExerciseProgress;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ExerciseProgressRepository extends JpaRepository<ExerciseProgress, Long> {
+
+    /**
+     * Crea la fila de la semana en cero si no existe. La clave única serializa dos inserts
+     * concurrentes: el segundo espera al primero y no hace nada.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO exercise_progress (external_id, member_id, exercise_id, week_start, best_estimated_one_rep_max,
+                                           best_weight, best_weight_reps, total_sets, total_reps, volume, sessions,
+                                           created_at, updated_at)
+            VALUES (UUID(), :memberId, :exerciseId, :weekStart, 0, 0, 0, 0, 0, 0, 0, NOW(), NOW())
+            ON DUPLICATE KEY UPDATE id = id
+            """, nativeQuery = true)
+    void insertWeekIfAbsent(@Param("memberId") Long memberId, @Param("exerciseId") Long exerciseId,
+                            @Param("weekStart") LocalDate weekStart);
+
+    // Lectura con lock: dos workouts de la misma semana suman uno detrás del otro
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM ExerciseProgress p WHERE p.member.id = :memberId AND p.exercise.id = :exerciseId AND p.weekStart = :weekStart")
+    Optional<ExerciseProgress> findWeekForUpdate(@Param("memberId") Long memberId, @Param("exerciseId") Long exerciseId,
+                                                 @Param("weekStart") LocalDate weekStart);
+
+    List<ExerciseProgress> findByMember_IdAndExercise_IdOrderByWeekStartAsc(Long memberId, Long exerciseId);
+
+    @Query("SELECT p.member.id AS memberId, SUM(p.volume) AS score FROM ExerciseProgress p WHERE p.weekStart = :weekStart GROUP BY p.member.id")
+    List<LeaderboardScoreProjection> findWeeklyVolumeScores(@Param("weekStart") LocalDate weekStart);
+}
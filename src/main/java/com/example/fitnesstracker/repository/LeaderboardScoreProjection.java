@@ -0,0 +1,10 @@
+package com.example.fitnesstracker.repository;
+
+/**
+ * Proyección de puntaje por member para reconstruir los rankings
+ * Usado por findWeeklyVolumeScores() y findWeeklyCompletionScores()
+ */
+public interface LeaderboardScoreProjection {
+    Long getMemberId();
+    Number getScore();
+}
@@ -0,0 +1,17 @@
+package com.example.fitnesstracker.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Proyección de trainer candidato para el matching automático
+ * Usado por findMatchingCandidates()
+ */
+public interface MatchingTrainerProjection {
+    Long getTrainerId();
+    String getFirstName();
+    String getLastName();
+    String getSpecialty();
+    BigDecimal getHourlyRate();
+    Integer getMaxMembers();
+    Integer getAssignedMemberCount();
+}
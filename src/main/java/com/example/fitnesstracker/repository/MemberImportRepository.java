@@ -0,0 +1,98 @@
+package com.example.fitnesstracker.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * SQL de la importación masiva de members. La unicidad se valida con un IN por lote y columna
+ * (incluye eliminados, porque las columnas son UNIQUE en la tabla) y las altas van en batch.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MemberImportRepository {
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public record NewMember(String username, String email, String passwordHash, String firstName,
+                            String lastName, String phone, LocalDate dateOfBirth) {
+    }
+
+    public Set<String> findExistingUsernames(Collection<String> usernames) {
+        return findExisting("SELECT LOWER(username) FROM users WHERE username IN (:values)", usernames);
+    }
+
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        return findExisting("SELECT LOWER(email) FROM users WHERE email IN (:values)", emails);
+    }
+
+    public Set<String> findExistingPhones(Collection<String> phones) {
+        return findExisting("SELECT phone FROM members WHERE phone IN (:values)", phones);
+    }
+
+    /**
+     * Inserta users y members del lote. Los ids de los users se leen de vuelta por username
+     * en una sola consulta, sin depender de las claves generadas por el driver en batch.
+     */
+    public int insertMembers(List<NewMember> members, LocalDate membershipStart, LocalDate membershipEnd) {
+        LocalDateTime now = LocalDateTime.now();
+        SqlParameterSource[] users = members.stream()
+                .map(member -> new MapSqlParameterSource()
+                        .addValue("externalId", UUID.randomUUID().toString())
+                        .addValue("username", member.username())
+                        .addValue("email", member.email())
+                        .addValue("password", member.passwordHash())
+                        .addValue("now", now))
+                .toArray(SqlParameterSource[]::new);
+        namedJdbcTemplate.batchUpdate("""
+                INSERT INTO users (external_id, username, email, password, enabled, role, user_type, created_at, updated_at, version)
+                VALUES (:externalId, :username, :email, :password, TRUE, 'USER', 'MEMBER', :now, :now, 0)
+                """, users);
+
+        Map<String, Long> userIds = new HashMap<>();
+        namedJdbcTemplate.query("SELECT id, username FROM users WHERE username IN (:usernames)",
+                new MapSqlParameterSource("usernames", members.stream().map(NewMember::username).toList()),
+                rs -> {
+                    userIds.put(rs.getString("username"), rs.getLong("id"));
+                });
+
+        SqlParameterSource[] rows = members.stream()
+                .map(member -> new MapSqlParameterSource()
+                        .addValue("externalId", UUID.randomUUID().toString())
+                        .addValue("userId", userIds.get(member.username()))
+                        .addValue("firstName", member.firstName())
+                        .addValue("lastName", member.lastName())
+                        .addValue("phone", member.phone())
+                        .addValue("dateOfBirth", member.dateOfBirth())
+                        .addValue("start", membershipStart)
+                        .addValue("end", membershipEnd)
+                        .addValue("now", now))
+                .toArray(SqlParameterSource[]::new);
+        return namedJdbcTemplate.batchUpdate("""
+                INSERT INTO members (external_id, user_id, first_name, last_name, phone, date_of_birth,
+                                     membership_start_date, membership_end_date, assignment_status,
+                                     created_at, updated_at, version)
+                VALUES (:externalId, :userId, :firstName, :lastName, :phone, :dateOfBirth,
+                        :start, :end, 'NO_TRAINER', :now, :now, 0)
+                """, rows).length;
+    }
+
+    private Set<String> findExisting(String sql, Collection<String> values) {
+        if (values.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(namedJdbcTemplate.queryForList(sql, new MapSqlParameterSource("values", values), String.class));
+    }
+}
@@ -88,6 +88,17 @@ public interface MemberRepository extends JpaRepository<Member, Long> {
     @Query("SELECT m FROM Member m WHERE m.deletedAt IS NULL")
     List<Member> findAllActiveMembersWithActiveMembership();
 
+    // Candidatos del matching: sin trainer ni solicitud pendiente, los que esperan hace más tiempo primero
+    @Query("""
+                SELECT m.id FROM Member m
+                WHERE m.assignedTrainer IS NULL
+                AND m.deletedAt IS NULL
+                AND m.membershipEndDate >= :today
+                AND m.assignmentStatus <> com.example.fitnesstracker.enums.AssignmentStatus.PENDING
+                ORDER BY m.membershipStartDate, m.id
+            """)
+    List<Long> findMemberIdsAwaitingTrainer(@Param("today") LocalDate today);
+
     @Query("SELECT COUNT(m) FROM Member m WHERE m.assignedTrainer.id = :trainerId AND m.deletedAt IS NULL")
     long countMembersByTrainer(@Param("trainerId") Long trainerId);
 
@@ -131,4 +142,27 @@ public interface MemberRepository extends JpaRepository<Member, Long> {
     boolean existsByPhoneAndDeletedAtIsNull(String phone);
 
     boolean existsByUser_IdAndDeletedAtIsNull(Long userId);
-}
\ No newline at end of file
+
+    @Query("SELECT m.id FROM Member m WHERE m.deletedAt IS NULL ORDER BY m.id")
+    List<Long> findAllActiveIds();
+
+    @Query("""
+                SELECT m.id AS memberId, m.firstName AS firstName, m.lastName AS lastName, t.id AS trainerId
+                FROM Member m LEFT JOIN m.assignedTrainer t
+                WHERE m.deletedAt IS NULL
+            """)
+    List<RankedMemberProjection> findRankedMembers();
+
+    // Inicializa el trainer de members ya cargados en la sesión (include=trainer); el resultado se descarta
+    @Query("""
+                SELECT m FROM Member m
+                LEFT JOIN FETCH m.assignedTrainer t
+                LEFT JOIN FETCH t.user
+                WHERE m.id IN :memberIds
+            """)
+    List<Member> fetchAssignedTrainers(@Param("memberIds") List<Long> memberIds);
+
+    // Lote del DataLoader de GraphQL: todos los members referenciados en un query en un solo IN
+    @Query("SELECT m FROM Member m JOIN FETCH m.user WHERE m.id IN :ids AND m.deletedAt IS NULL")
+    List<Member> findAllWithUserByIdIn(@Param("ids") List<Long> ids);
+}
@@ -0,0 +1,105 @@
+package com.example.fitnesstracker.repository;
+
+import com.example.fitnesstracker.enums.OutboxEventType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * SQL del procesamiento de vencimientos. Lee members por keyset sobre (membership_end_date, id),
+ * que resuelve idx_member_membership_end sin ordenar, y aplica los cambios con UPDATE/INSERT por lote.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MembershipExpiryRepository {
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public record ExpiryKey(long memberId, LocalDate membershipEndDate) {
+    }
+
+    /**
+     * Siguiente lote de members activos con vencimiento en [from, to), a partir del cursor (afterDate, afterId).
+     * Con {@code assignedOnly} solo los que todavía tienen trainer o solicitud pendiente.
+     */
+    public List<ExpiryKey> findChunk(LocalDate from, LocalDate to, boolean assignedOnly, LocalDate afterDate, long afterId, int limit) {
+        return namedJdbcTemplate.query("""
+                        SELECT id, membership_end_date FROM members
+                        WHERE deleted_at IS NULL
+                          AND membership_end_date >= :from AND membership_end_date < :to
+                        """
+                        + (assignedOnly ? "  AND assignment_status IN ('ACTIVE', 'PENDING')\n" : "")
+                        + """
+                          AND (membership_end_date > :afterDate OR (membership_end_date = :afterDate AND id > :afterId))
+                        ORDER BY membership_end_date, id
+                        LIMIT :limit
+                        """,
+                new MapSqlParameterSource()
+                        .addValue("from", from)
+                        .addValue("to", to)
+                        .addValue("afterDate", afterDate)
+                        .addValue("afterId", afterId)
+                        .addValue("limit", limit),
+                (rs, i) -> new ExpiryKey(rs.getLong("id"), rs.getDate("membership_end_date").toLocalDate()));
+    }
+
+    /**
+     * Encola una notificación por member en el outbox. La clave incluye la fecha de vencimiento:
+     * reprocesar el mismo lote no duplica eventos, pero una renovación que vuelve a vencer sí notifica.
+     */
+    public int insertNotifications(List<Long> memberIds, OutboxEventType type) {
+        return namedJdbcTemplate.update("""
+                        INSERT INTO outbox_events (external_id, aggregate_type, aggregate_id, event_type, event_key, payload, attempts, created_at)
+                        SELECT UUID(), 'MEMBER', m.id, :type, CONCAT(:type, ':', m.id, ':', m.membership_end_date),
+                               JSON_OBJECT('memberId', m.id, 'trainerId', m.trainer_id, 'membershipEndDate', m.membership_end_date),
+                               0, NOW()
+                        FROM members m
+                        WHERE m.id IN (:ids)
+                        ON DUPLICATE KEY UPDATE event_key = event_key
+                        """,
+                new MapSqlParameterSource()
+                        .addValue("type", type.name())
+                        .addValue("ids", memberIds));
+    }
+
+    public int cancelPendingRequests(List<Long> memberIds) {
+        return namedJdbcTemplate.update("""
+                        UPDATE trainer_assignment_requests
+                        SET status = 'CANCELLED', responded_at = NOW(), updated_at = NOW(), version = version + 1
+                        WHERE member_id IN (:ids) AND status = 'PENDING' AND deleted_at IS NULL
+                        """,
+                new MapSqlParameterSource("ids", memberIds));
+    }
+
+    /**
+     * Devuelve a cada trainer los cupos que ocupan los members del lote que se van a liberar.
+     * Tiene que correr antes de releaseAssignments, mientras los members todavía tienen trainer_id.
+     */
+    public int releaseTrainerSlots(List<Long> memberIds) {
+        return namedJdbcTemplate.update("""
+                        UPDATE trainers t
+                        JOIN (SELECT trainer_id, COUNT(*) AS released FROM members
+                              WHERE id IN (:ids) AND trainer_id IS NOT NULL AND deleted_at IS NULL
+                                AND assignment_status IN ('ACTIVE', 'PENDING')
+                              GROUP BY trainer_id) r ON r.trainer_id = t.id
+                        SET t.assigned_member_count = GREATEST(t.assigned_member_count - r.released, 0)
+                        """,
+                new MapSqlParameterSource("ids", memberIds));
+    }
+
+    /**
+     * Libera el trainer de los members vencidos. Los que ya no tenían trainer no se tocan.
+     */
+    public int releaseAssignments(List<Long> memberIds) {
+        return namedJdbcTemplate.update("""
+                        UPDATE members
+                        SET trainer_id = NULL, assignment_status = 'NO_TRAINER', updated_at = NOW(), version = version + 1
+                        WHERE id IN (:ids) AND assignment_status IN ('ACTIVE', 'PENDING')
+                        """,
+                new MapSqlParameterSource("ids", memberIds));
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface NutritionPlanRepository extends JpaRepository<NutritionPlan, Long> {
@@ -21,6 +22,20 @@ public interface NutritionPlanRepository extends JpaRepository<NutritionPlan, Lo
     @Query("SELECT np FROM NutritionPlan np WHERE np.member.id = :memberId AND np.status = 'ACTIVE' AND np.deletedAt IS NULL ORDER BY np.startDate DESC")
     List<NutritionPlan> findActivePlansByMember(@Param("memberId") Long memberId);
 
+    @Query("SELECT np FROM NutritionPlan np WHERE np.member.id IN :memberIds AND np.status = 'ACTIVE' AND np.deletedAt IS NULL ORDER BY np.startDate DESC")
+    List<NutritionPlan> findActivePlansByMembers(@Param("memberIds") List<Long> memberIds);
+
     @Query("SELECT COUNT(np) FROM NutritionPlan np WHERE np.trainer.id = :trainerId AND np.status = 'ACTIVE' AND np.deletedAt IS NULL")
     long countActivePlansByTrainer(@Param("trainerId") Long trainerId);
-}
\ No newline at end of file
+
+    @Query("SELECT np.version AS version, CASE WHEN np.status = 'DRAFT' THEN true ELSE false END AS draft "
+            + "FROM NutritionPlan np WHERE np.id = :planId AND np.deletedAt IS NULL")
+    Optional<PlanVersionProjection> findVersionById(@Param("planId") Long planId);
+
+    // Inicializan relaciones de planes ya cargados en la sesión; el resultado se descarta
+    @Query("SELECT np FROM NutritionPlan np JOIN FETCH np.member JOIN FETCH np.trainer t JOIN FETCH t.user WHERE np.id IN :planIds")
+    List<NutritionPlan> fetchMemberAndTrainer(@Param("planIds") List<Long> planIds);
+
+    @Query("SELECT np FROM NutritionPlan np LEFT JOIN FETCH np.meals WHERE np.id IN :planIds")
+    List<NutritionPlan> fetchMeals(@Param("planIds") List<Long> planIds);
+}
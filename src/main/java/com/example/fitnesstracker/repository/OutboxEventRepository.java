@@ -0,0 +1,57 @@
+package com.example.fitnesstracker.repository;
+
+import com.example.fitnesstracker.model.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Próximo lote sin publicar, bloqueado con SKIP LOCKED (timeout -2): si hay varias instancias
+     * cada una toma filas distintas en lugar de esperar a la otra.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.publishedAt IS NULL AND e.attempts < :maxAttempts ORDER BY e.id")
+    List<OutboxEvent> findUnpublishedForUpdate(@Param("maxAttempts") int maxAttempts, Pageable pageable);
+
+    @Query("SELECT e FROM OutboxEvent e WHERE e.publishedAt >= :since AND e.eventType IN :types ORDER BY e.publishedAt, e.id")
+    List<OutboxEvent> findPublishedSince(@Param("since") LocalDateTime since, @Param("types") Collection<String> types);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.publishedAt = :publishedAt WHERE e.id IN :ids")
+    int markPublished(@Param("ids") List<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1 WHERE e.id IN :ids")
+    int incrementAttempts(@Param("ids") List<Long> ids);
+
+    /**
+     * Borra eventos publicados antes de {@code before}; los de {@code dedupedTypes} solo si además se
+     * publicaron antes de {@code dedupedBefore}, porque su event_key evita que se vuelvan a encolar.
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM outbox_events
+            WHERE published_at < :before
+              AND (event_type NOT IN (:dedupedTypes) OR published_at < :dedupedBefore)
+            LIMIT :limit
+            """, nativeQuery = true)
+    int deletePublishedBefore(@Param("before") LocalDateTime before,
+                              @Param("dedupedTypes") List<String> dedupedTypes,
+                              @Param("dedupedBefore") LocalDateTime dedupedBefore,
+                              @Param("limit") int limit);
+}
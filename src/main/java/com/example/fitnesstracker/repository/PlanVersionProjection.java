@@ -0,0 +1,10 @@
+package com.example.fitnesstracker.repository;
+
+/**
+ * Versión y estado de un plan (workout o nutricional) sin cargar su contenido.
+ * Alcanza para decidir un 304 y el Cache-Control antes de armar el DTO.
+ */
+public interface PlanVersionProjection {
+    Long getVersion();
+    Boolean getDraft();
+}
@@ -0,0 +1,12 @@
+package com.example.fitnesstracker.repository;
+
+/**
+ * Proyección de members activos con su trainer para los rankings
+ * Usado por findRankedMembers()
+ */
+public interface RankedMemberProjection {
+    Long getMemberId();
+    String getFirstName();
+    String getLastName();
+    Long getTrainerId();
+}
@@ -0,0 +1,122 @@
+package com.example.fitnesstracker.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * SQL de refresh_tokens. Solo se guarda el SHA-256 del token; family_id agrupa las rotaciones
+ * de una misma sesión y es el "sid" que viaja en el access token.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RefreshTokenRepository {
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public record StoredRefreshToken(long id, long userId, String familyId, LocalDateTime expiresAt,
+                                     boolean used, boolean revoked) {
+    }
+
+    public void insert(long userId, String familyId, byte[] tokenHash, LocalDateTime expiresAt) {
+        namedJdbcTemplate.update("""
+                        INSERT INTO refresh_tokens (user_id, family_id, token_hash, expires_at, created_at)
+                        VALUES (:userId, :familyId, :tokenHash, :expiresAt, :now)
+                        """,
+                new MapSqlParameterSource()
+                        .addValue("userId", userId)
+                        .addValue("familyId", familyId)
+                        .addValue("tokenHash", tokenHash)
+                        .addValue("expiresAt", expiresAt)
+                        .addValue("now", LocalDateTime.now()));
+    }
+
+    public Optional<StoredRefreshToken> findByHash(byte[] tokenHash) {
+        return namedJdbcTemplate.query("""
+                                SELECT id, user_id, family_id, expires_at, used_at, revoked_at
+                                FROM refresh_tokens WHERE token_hash = :tokenHash
+                                """,
+                        new MapSqlParameterSource("tokenHash", tokenHash),
+                        (rs, i) -> new StoredRefreshToken(
+                                rs.getLong("id"),
+                                rs.getLong("user_id"),
+                                rs.getString("family_id"),
+                                rs.getTimestamp("expires_at").toLocalDateTime(),
+                                rs.getTimestamp("used_at") != null,
+                                rs.getTimestamp("revoked_at") != null))
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Marca el token como usado si todavía no lo estaba. Con dos refresh simultáneos del mismo
+     * token solo uno actualiza la fila; el otro recibe 0 y se trata como reutilización.
+     */
+    public boolean markUsed(long id) {
+        return namedJdbcTemplate.update("""
+                        UPDATE refresh_tokens SET used_at = :now
+                        WHERE id = :id AND used_at IS NULL AND revoked_at IS NULL
+                        """,
+                new MapSqlParameterSource()
+                        .addValue("id", id)
+                        .addValue("now", LocalDateTime.now())) == 1;
+    }
+
+    public int revokeFamily(String familyId) {
+        return namedJdbcTemplate.update("""
+                        UPDATE refresh_tokens SET revoked_at = :now
+                        WHERE family_id = :familyId AND revoked_at IS NULL
+                        """,
+                new MapSqlParameterSource()
+                        .addValue("familyId", familyId)
+                        .addValue("now", LocalDateTime.now()));
+    }
+
+    public List<String> findActiveFamilies(long userId) {
+        return namedJdbcTemplate.queryForList("""
+                        SELECT DISTINCT family_id FROM refresh_tokens
+                        WHERE user_id = :userId AND revoked_at IS NULL
+                        """,
+                new MapSqlParameterSource("userId", userId), String.class);
+    }
+
+    public int revokeUser(long userId) {
+        return namedJdbcTemplate.update("""
+                        UPDATE refresh_tokens SET revoked_at = :now
+                        WHERE user_id = :userId AND revoked_at IS NULL
+                        """,
+                new MapSqlParameterSource()
+                        .addValue("userId", userId)
+                        .addValue("now", LocalDateTime.now()));
+    }
+
+    public List<String> findFamiliesRevokedSince(LocalDateTime since) {
+        return namedJdbcTemplate.queryForList("""
+                        SELECT DISTINCT family_id FROM refresh_tokens WHERE revoked_at >= :since
+                        """,
+                new MapSqlParameterSource("since", Timestamp.valueOf(since)), String.class);
+    }
+
+    public boolean isFamilyRevoked(String familyId) {
+        Boolean revoked = namedJdbcTemplate.queryForObject("""
+                        SELECT EXISTS (SELECT 1 FROM refresh_tokens WHERE family_id = :familyId AND revoked_at IS NOT NULL)
+                        """,
+                new MapSqlParameterSource("familyId", familyId), Boolean.class);
+        return Boolean.TRUE.equals(revoked);
+    }
+
+    public int deleteExpiredBefore(LocalDateTime before, int limit) {
+        return namedJdbcTemplate.update("""
+                        DELETE FROM refresh_tokens WHERE expires_at < :before LIMIT :limit
+                        """,
+                new MapSqlParameterSource()
+                        .addValue("before", before)
+                        .addValue("limit", limit));
+    }
+}
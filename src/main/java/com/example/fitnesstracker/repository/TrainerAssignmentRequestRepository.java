@@ -2,7 +2,9 @@ package com.example.fitnesstracker.repository;
 
 import com.example.fitnesstracker.enums.RequestStatus;
 import com.example.fitnesstracker.model.TrainerAssignmentRequest;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -13,6 +15,11 @@ import java.util.Optional;
 @Repository
 public interface TrainerAssignmentRequestRepository extends JpaRepository<TrainerAssignmentRequest, Long> {
 
+    // Bloquea la fila: dos respuestas simultáneas a la misma solicitud se ejecutan de a una
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM TrainerAssignmentRequest r WHERE r.id = :id")
+    Optional<TrainerAssignmentRequest> findByIdForUpdate(@Param("id") Long id);
+
     // Buscar por member
     List<TrainerAssignmentRequest> findByMember_IdAndDeletedAtIsNull(Long memberId);
 
@@ -37,4 +44,7 @@ public interface TrainerAssignmentRequestRepository extends JpaRepository<Traine
     // Contar solicitudes pendientes del trainer
     @Query("SELECT COUNT(r) FROM TrainerAssignmentRequest r WHERE r.trainer.id = :trainerId AND r.status = 'PENDING' AND r.deletedAt IS NULL")
     long countPendingRequestsForTrainer(@Param("trainerId") Long trainerId);
-}
\ No newline at end of file
+
+    @Query("SELECT r.trainer.id AS trainerId, COUNT(r) AS pending FROM TrainerAssignmentRequest r WHERE r.status = 'PENDING' AND r.deletedAt IS NULL GROUP BY r.trainer.id")
+    List<TrainerPendingCountProjection> countPendingByTrainer();
+}
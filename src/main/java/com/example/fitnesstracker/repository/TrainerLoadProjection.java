@@ -0,0 +1,12 @@
+package com.example.fitnesstracker.repository;
+
+/**
+ * Carga actual de un trainer
+ * Usado por findLoadSnapshot() y findLoadById()
+ */
+public interface TrainerLoadProjection {
+    Long getTrainerId();
+    String getSpecialty();
+    Integer getMaxMembers();
+    Integer getAssignedMemberCount();
+}
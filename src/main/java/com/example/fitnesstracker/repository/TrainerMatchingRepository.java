@@ -0,0 +1,96 @@
+package com.example.fitnesstracker.repository;
+
+import com.example.fitnesstracker.enums.OutboxEventType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SQL del matching automático. Cada lote bloquea los members que va a tocar, descarta los que
+ * cambiaron desde el cálculo del plan y crea solicitudes, estados y eventos con un statement por paso.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TrainerMatchingRepository {
+
+    public static final String AUTO_MESSAGE = "Asignación automática";
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    /**
+     * Bloquea los members del lote que siguen sin trainer ni solicitud pendiente y devuelve sus ids.
+     */
+    public List<Long> lockEligible(List<Long> memberIds, LocalDate today) {
+        return namedJdbcTemplate.queryForList("""
+                        SELECT m.id FROM members m
+                        WHERE m.id IN (:ids)
+                          AND m.trainer_id IS NULL AND m.deleted_at IS NULL
+                          AND m.membership_end_date >= :today
+                          AND m.assignment_status <> 'PENDING'
+                          AND NOT EXISTS (SELECT 1 FROM trainer_assignment_requests r
+                                          WHERE r.member_id = m.id AND r.status = 'PENDING' AND r.deleted_at IS NULL)
+                        FOR UPDATE
+                        """,
+                new MapSqlParameterSource()
+                        .addValue("ids", memberIds)
+                        .addValue("today", today),
+                Long.class);
+    }
+
+    public int insertRequests(Map<Long, Long> trainerByMember, LocalDateTime requestedAt) {
+        SqlParameterSource[] batch = trainerByMember.entrySet().stream()
+                .map(pair -> new MapSqlParameterSource()
+                        .addValue("memberId", pair.getKey())
+                        .addValue("trainerId", pair.getValue())
+                        .addValue("message", AUTO_MESSAGE)
+                        .addValue("requestedAt", requestedAt))
+                .toArray(SqlParameterSource[]::new);
+        int[] rows = namedJdbcTemplate.batchUpdate("""
+                INSERT INTO trainer_assignment_requests
+                    (external_id, member_id, trainer_id, status, requested_at, member_message, created_at, updated_at, version)
+                VALUES (UUID(), :memberId, :trainerId, 'PENDING', :requestedAt, :message, :requestedAt, :requestedAt, 0)
+                """, batch);
+        return rows.length;
+    }
+
+    public int markPending(List<Long> memberIds) {
+        return namedJdbcTemplate.update("""
+                        UPDATE members
+                        SET assignment_status = 'PENDING', updated_at = NOW(), version = version + 1
+                        WHERE id IN (:ids)
+                        """,
+                new MapSqlParameterSource("ids", memberIds));
+    }
+
+    /**
+     * Encola TRAINER_REQUEST_CREATED por cada solicitud del lote, con el mismo payload que una
+     * solicitud hecha por el member, para que el trainer la reciba por su stream de notificaciones.
+     */
+    public int insertCreatedEvents(List<Long> memberIds, LocalDateTime requestedAt) {
+        return namedJdbcTemplate.update("""
+                        INSERT INTO outbox_events (external_id, aggregate_type, aggregate_id, event_type, event_key, payload, attempts, created_at)
+                        SELECT UUID(), 'MEMBER', m.id, :type, CONCAT(:type, ':', m.id, ':', r.id),
+                               JSON_OBJECT('requestId', r.id, 'memberId', m.id,
+                                           'memberName', CONCAT(m.first_name, ' ', m.last_name),
+                                           'trainerId', r.trainer_id, 'message', r.member_message,
+                                           'requestedAt', r.requested_at),
+                               0, NOW()
+                        FROM trainer_assignment_requests r
+                        JOIN members m ON m.id = r.member_id
+                        WHERE r.member_id IN (:ids) AND r.status = 'PENDING'
+                          AND r.requested_at = :requestedAt AND r.deleted_at IS NULL
+                        ON DUPLICATE KEY UPDATE event_key = event_key
+                        """,
+                new MapSqlParameterSource()
+                        .addValue("type", OutboxEventType.TRAINER_REQUEST_CREATED.name())
+                        .addValue("ids", memberIds)
+                        .addValue("requestedAt", requestedAt));
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.fitnesstracker.repository;
+
+/**
+ * Solicitudes pendientes por trainer
+ * Usado por countPendingByTrainer()
+ */
+public interface TrainerPendingCountProjection {
+    Long getTrainerId();
+    Long getPending();
+}
@@ -2,11 +2,13 @@ package com.example.fitnesstracker.repository;
 
 import com.example.fitnesstracker.model.Trainer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,6 +35,25 @@ public interface TrainerRepository extends JpaRepository<Trainer, Long> {
             """)
     Optional<Trainer> findByIdWithFullProfile(@Param("id") Long id);
 
+    @Query("""
+                SELECT t.id AS trainerId, t.specialty AS specialty,
+                       t.maxMembers AS maxMembers, t.assignedMemberCount AS assignedMemberCount
+                FROM Trainer t
+                WHERE t.deletedAt IS NULL
+                AND t.isActive = true
+            """)
+    List<TrainerLoadProjection> findLoadSnapshot();
+
+    @Query("""
+                SELECT t.id AS trainerId, t.specialty AS specialty,
+                       t.maxMembers AS maxMembers, t.assignedMemberCount AS assignedMemberCount
+                FROM Trainer t
+                WHERE t.id = :id
+                AND t.deletedAt IS NULL
+                AND t.isActive = true
+            """)
+    Optional<TrainerLoadProjection> findLoadById(@Param("id") Long id);
+
     @EntityGraph(attributePaths = {"user"})
     @Query("""
                 SELECT t FROM Trainer t
@@ -41,6 +62,10 @@ public interface TrainerRepository extends JpaRepository<Trainer, Long> {
             """)
     List<Trainer> findAllActiveWithUser();
 
+    // Lote del DataLoader de GraphQL; el user es EAGER y sin el join se cargaría trainer por trainer
+    @Query("SELECT t FROM Trainer t JOIN FETCH t.user WHERE t.id IN :ids AND t.deletedAt IS NULL")
+    List<Trainer> findAllWithUserByIdIn(@Param("ids") List<Long> ids);
+
     @Deprecated
     @Query("SELECT t FROM Trainer t WHERE t.deletedAt IS NULL ORDER BY t.createdAt DESC")
     List<Trainer> findAllActiveTrainers();
@@ -61,12 +86,10 @@ public interface TrainerRepository extends JpaRepository<Trainer, Long> {
                        t.firstName as firstName,
                        t.lastName as lastName,
                        t.specialty as specialty,
-                       COUNT(m.id) as memberCount
+                       CAST(t.assignedMemberCount AS Long) as memberCount
                 FROM Trainer t
-                LEFT JOIN t.assignedMembers m ON m.deletedAt IS NULL
                 WHERE t.deletedAt IS NULL
-                GROUP BY t.id, t.firstName, t.lastName, t.specialty
-                ORDER BY memberCount DESC, t.firstName
+                ORDER BY t.assignedMemberCount DESC, t.firstName
             """)
     List<TrainerStatProjection> findTrainersWithMemberCount();
 
@@ -74,24 +97,53 @@ public interface TrainerRepository extends JpaRepository<Trainer, Long> {
     @Query("""
                 SELECT t FROM Trainer t 
                 WHERE t.deletedAt IS NULL 
-                ORDER BY SIZE(t.assignedMembers) DESC
+                ORDER BY t.assignedMemberCount DESC, t.id
             """)
     List<Trainer> findMostBusyTrainers();
 
     @Query("""
                 SELECT t FROM Trainer t
                 WHERE t.deletedAt IS NULL
-                AND (SELECT COUNT(m) FROM Member m 
-                     WHERE m.assignedTrainer = t 
-                     AND m.deletedAt IS NULL) < :maxCapacity
+                AND t.assignedMemberCount < t.maxMembers
                 ORDER BY t.firstName, t.lastName
             """)
-    List<Trainer> findTrainersWithAvailability(@Param("maxCapacity") int maxCapacity);
+    List<Trainer> findTrainersWithAvailability();
+
+    @Query("""
+                SELECT t.id AS trainerId, t.firstName AS firstName, t.lastName AS lastName,
+                       t.specialty AS specialty, t.hourlyRate AS hourlyRate,
+                       t.maxMembers AS maxMembers, t.assignedMemberCount AS assignedMemberCount
+                FROM Trainer t
+                WHERE t.deletedAt IS NULL
+                AND t.isActive = true
+                AND t.assignedMemberCount < t.maxMembers
+                AND (:specialty IS NULL OR LOWER(t.specialty) LIKE LOWER(CONCAT('%', :specialty, '%')))
+                AND (:maxHourlyRate IS NULL OR t.hourlyRate <= :maxHourlyRate)
+            """)
+    List<MatchingTrainerProjection> findMatchingCandidates(@Param("specialty") String specialty,
+                                                           @Param("maxHourlyRate") BigDecimal maxHourlyRate);
+
+    /**
+     * Ocupa un cupo del trainer solo si le queda lugar. Es un único UPDATE condicional, así que dos
+     * aceptaciones simultáneas no pueden llevarse el último cupo: la segunda modifica 0 filas.
+     */
+    @Modifying
+    @Query("""
+                UPDATE Trainer t SET t.assignedMemberCount = t.assignedMemberCount + 1
+                WHERE t.id = :trainerId
+                AND t.assignedMemberCount < t.maxMembers
+                AND t.deletedAt IS NULL
+            """)
+    int reserveSlot(@Param("trainerId") Long trainerId);
+
+    @Modifying
+    @Query("UPDATE Trainer t SET t.assignedMemberCount = t.assignedMemberCount - 1 WHERE t.id = :trainerId AND t.assignedMemberCount > 0")
+    int releaseSlot(@Param("trainerId") Long trainerId);
 
     @Deprecated
     @Query("""
                 SELECT t FROM Trainer t 
-                WHERE SIZE(t.assignedMembers) = 0 
+                WHERE t.assignedMemberCount = 0
                 AND t.deletedAt IS NULL
             """)
     List<Trainer> findAvailableTrainersWithNoMembers();
@@ -118,11 +170,9 @@ public interface TrainerRepository extends JpaRepository<Trainer, Long> {
 
     @Query("""
                 SELECT t FROM Trainer t
-                LEFT JOIN t.assignedMembers m ON m.deletedAt IS NULL
-                WHERE t.specialty = :specialty 
+                WHERE t.specialty = :specialty
                 AND t.deletedAt IS NULL
-                GROUP BY t
-                ORDER BY COUNT(m) ASC, t.firstName
+                ORDER BY t.assignedMemberCount ASC, t.firstName
             """)
     List<Trainer> findTrainersBySpecialtyOrderedByLoad(@Param("specialty") String specialty);
 }
@@ -0,0 +1,24 @@
+package com.example.fitnesstracker.repository;
+
+import com.example.fitnesstracker.model.TrainingCalendar;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface TrainingCalendarRepository extends JpaRepository<TrainingCalendar, Long> {
+
+    Optional<TrainingCalendar> findByMember_Id(Long memberId);
+
+    boolean existsByMember_Id(Long memberId);
+
+    // Lectura con lock: ve la última versión confirmada y serializa dos workouts del mismo member
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM TrainingCalendar c WHERE c.member.id = :memberId")
+    Optional<TrainingCalendar> findByMemberIdForUpdate(@Param("memberId") Long memberId);
+}
@@ -0,0 +1,69 @@
+package com.example.fitnesstracker.repository;
+
+import com.example.fitnesstracker.util.TrainingSnapshot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+
+/**
+ * Lectura secuencial del historial completo (tablas calientes y archivo) para generar el snapshot de reportes.
+ * Usa su propio JdbcTemplate con fetch size para no cargar el resultado entero en memoria del driver.
+ */
+@Repository
+public class TrainingExportRepository {
+
+    // El archivado copia antes de borrar: una fila puede estar en las dos tablas y gana la caliente
+    private static final String TRAINING_ROWS_QUERY = """
+            SELECT COALESCE(m.trainer_id, 0) AS trainer_id, c.member_id, c.id AS completion_id, c.completed_at,
+                   we.exercise_id, l.sets_completed, l.reps_completed, l.weight_used
+            FROM (SELECT id, member_id, completed_at FROM workout_completions WHERE deleted_at IS NULL
+                  UNION ALL
+                  SELECT a.id, a.member_id, a.completed_at FROM workout_completions_archive a
+                  WHERE a.deleted_at IS NULL
+                    AND NOT EXISTS (SELECT 1 FROM workout_completions h WHERE h.id = a.id)) c
+            JOIN (SELECT workout_completion_id, workout_exercise_id, sets_completed, reps_completed, weight_used
+                  FROM exercise_logs WHERE deleted_at IS NULL
+                  UNION ALL
+                  SELECT a.workout_completion_id, a.workout_exercise_id, a.sets_completed, a.reps_completed, a.weight_used
+                  FROM exercise_logs_archive a
+                  WHERE a.deleted_at IS NULL
+                    AND NOT EXISTS (SELECT 1 FROM exercise_logs h WHERE h.id = a.id)) l ON l.workout_completion_id = c.id
+            JOIN members m ON m.id = c.member_id
+            JOIN workout_exercises we ON we.id = l.workout_exercise_id
+            ORDER BY trainer_id, c.member_id, c.completed_at, c.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TrainingExportRepository(DataSource dataSource, @Value("${reports.snapshot.fetch-size:5000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    public void exportInto(TrainingSnapshot.Builder builder) {
+        jdbcTemplate.query("SELECT id, first_name, last_name FROM members",
+                rs -> {
+                    builder.memberName(rs.getLong("id"), rs.getString("first_name") + " " + rs.getString("last_name"));
+                });
+        jdbcTemplate.query("SELECT id, name FROM exercises",
+                rs -> {
+                    builder.exerciseName(rs.getLong("id"), rs.getString("name"));
+                });
+        jdbcTemplate.query(TRAINING_ROWS_QUERY,
+                rs -> {
+                    Date completedAt = rs.getDate("completed_at");
+                    builder.addRow(
+                            rs.getLong("trainer_id"),
+                            rs.getLong("member_id"),
+                            rs.getLong("completion_id"),
+                            rs.getLong("exercise_id"),
+                            (int) completedAt.toLocalDate().toEpochDay(),
+                            rs.getInt("sets_completed"),
+                            rs.getInt("reps_completed"),
+                            (Double) rs.getObject("weight_used"));
+                });
+    }
+}
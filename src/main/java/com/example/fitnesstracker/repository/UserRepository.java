@@ -49,15 +49,15 @@ public interface UserRepository extends JpaRepository<User, Long> {
             """)
     Optional<User> findByEmailWithProfile(@Param("email") String email);
 
+    // Login: una sola consulta con el perfil. Solo por username (único); no filtra por enabled para poder informar "deshabilitado"
     @Query("""
                 SELECT u FROM User u
                 LEFT JOIN FETCH u.member m
                 LEFT JOIN FETCH u.trainer t
-                WHERE (u.username = :identifier OR u.email = :identifier)
+                WHERE u.username = :username
                 AND u.deletedAt IS NULL
-                AND u.enabled = true
             """)
-    Optional<User> findByUsernameOrEmailWithProfile(@Param("identifier") String identifier);
+    Optional<User> findForLoginByUsername(@Param("username") String username);
 
     List<User> findByUserTypeAndDeletedAtIsNull(UserType userType);
 
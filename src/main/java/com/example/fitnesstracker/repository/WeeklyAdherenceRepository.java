@@ -0,0 +1,46 @@
+package com.example.fitnesstracker.repository;
+
+import com.example.fitnesstracker.model.WeeklyAdherence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WeeklyAdherenceRepository extends JpaRepository<WeeklyAdherence, Long> {
+
+    Optional<WeeklyAdherence> findByMember_IdAndWorkoutPlan_IdAndWeekStart(Long memberId, Long workoutPlanId, LocalDate weekStart);
+
+    List<WeeklyAdherence> findByWorkoutPlan_IdOrderByWeekStartAsc(Long workoutPlanId);
+
+    @Modifying
+    @Query("DELETE FROM WeeklyAdherence a WHERE a.member.id = :memberId AND a.weekStart >= :from")
+    void deleteByMemberIdFrom(@Param("memberId") Long memberId, @Param("from") LocalDate from);
+
+    /**
+     * Una fila por member activo del trainer con plan ACTIVE, con lo acumulado desde {@code since}.
+     * Los members sin workouts en el período aparecen con scoreSum 0.
+     */
+    @Query("""
+                SELECT m.id AS memberId, m.firstName AS firstName, m.lastName AS lastName,
+                       p.id AS planId, p.startDate AS planStartDate,
+                       (SELECT COUNT(d) FROM WorkoutDay d WHERE d.workoutPlan = p AND d.deletedAt IS NULL) AS plannedSessionsPerWeek,
+                       COALESCE(SUM(a.scoreSum), 0.0) AS scoreSum,
+                       COALESCE(SUM(a.completions), 0) AS completions,
+                       MAX(a.weekStart) AS lastActiveWeek
+                FROM WorkoutPlan p
+                JOIN p.member m
+                LEFT JOIN WeeklyAdherence a ON a.workoutPlan = p AND a.weekStart >= :since AND a.deletedAt IS NULL
+                WHERE m.assignedTrainer.id = :trainerId
+                AND p.status = 'ACTIVE'
+                AND m.deletedAt IS NULL
+                AND p.deletedAt IS NULL
+                GROUP BY m.id, m.firstName, m.lastName, p.id, p.startDate
+            """)
+    List<AdherenceRankProjection> findAdherenceByTrainer(@Param("trainerId") Long trainerId, @Param("since") LocalDate since);
+}
@@ -0,0 +1,235 @@
+package com.example.fitnesstracker.repository;
+
+import com.example.fitnesstracker.dto.response.workout.ExerciseLogDetailDTO;
+import com.example.fitnesstracker.dto.response.workout.WorkoutCompletionDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Acceso SQL nativo al historial de entrenamientos particionado y a sus tablas de archivo.
+ * Las tablas *_archive no tienen entidad JPA: solo se escriben desde el job de archivado.
+ */
+@Repository
+@RequiredArgsConstructor
+public class WorkoutArchiveRepository {
+
+    private static final String COMPLETION_COLUMNS =
+            "id, external_id, member_id, workout_day_id, completed_at, rating, adherence_score, notes, "
+                    + "created_at, updated_at, deleted_at";
+    private static final String LOG_COLUMNS =
+            "id, external_id, workout_completion_id, workout_exercise_id, completed_at, sets_completed, "
+                    + "reps_completed, weight_used, notes, created_at, updated_at, deleted_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    // ========== Particiones (solo MySQL) ==========
+
+    /**
+     * Límite superior (exclusivo) de cada partición, por nombre. p_future tiene límite MAXVALUE → null.
+     */
+    public Map<String, String> findPartitionBounds(String table) {
+        Map<String, String> bounds = new LinkedHashMap<>();
+        jdbcTemplate.query("""
+                        SELECT PARTITION_NAME, PARTITION_DESCRIPTION
+                        FROM information_schema.PARTITIONS
+                        WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL
+                        ORDER BY PARTITION_ORDINAL_POSITION
+                        """,
+                rs -> {
+                    String description = rs.getString("PARTITION_DESCRIPTION");
+                    bounds.put(rs.getString("PARTITION_NAME"),
+                            "MAXVALUE".equalsIgnoreCase(description) ? null : description);
+                },
+                table);
+        return bounds;
+    }
+
+    /**
+     * Parte p_future en una partición nueva con límite {@code lessThan} más el p_future restante.
+     */
+    public void splitFuturePartition(String table, String partitionName, LocalDate lessThan) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " REORGANIZE PARTITION p_future INTO ("
+                + "PARTITION " + partitionName + " VALUES LESS THAN ('" + lessThan + "'), "
+                + "PARTITION p_future VALUES LESS THAN (MAXVALUE))");
+    }
+
+    public void dropPartition(String table, String partitionName) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " DROP PARTITION " + partitionName);
+    }
+
+    // ========== Archivado ==========
+
+    public LocalDate findOldestCompletionDate() {
+        Date oldest = jdbcTemplate.queryForObject("SELECT MIN(completed_at) FROM workout_completions", Date.class);
+        return oldest != null ? oldest.toLocalDate() : null;
+    }
+
+    /**
+     * Copia al archivo las filas de [from, to). Idempotente: ignora filas que ya estén archivadas.
+     */
+    public int copyToArchive(LocalDate from, LocalDate to) {
+        jdbcTemplate.update("INSERT INTO exercise_logs_archive (" + LOG_COLUMNS + ") "
+                        + "SELECT " + LOG_COLUMNS + " FROM exercise_logs l "
+                        + "WHERE l.completed_at >= ? AND l.completed_at < ? "
+                        + "AND NOT EXISTS (SELECT 1 FROM exercise_logs_archive a WHERE a.id = l.id)",
+                from, to);
+        return jdbcTemplate.update("INSERT INTO workout_completions_archive (" + COMPLETION_COLUMNS + ") "
+                        + "SELECT " + COMPLETION_COLUMNS + " FROM workout_completions c "
+                        + "WHERE c.completed_at >= ? AND c.completed_at < ? "
+                        + "AND NOT EXISTS (SELECT 1 FROM workout_completions_archive a WHERE a.id = c.id)",
+                from, to);
+    }
+
+    /**
+     * Completions de [from, to) que siguen en la tabla caliente sin su copia en el archivo.
+     */
+    public long countCompletionsNotArchived(LocalDate from, LocalDate to) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM workout_completions c "
+                        + "WHERE c.completed_at >= ? AND c.completed_at < ? "
+                        + "AND NOT EXISTS (SELECT 1 FROM workout_completions_archive a WHERE a.id = c.id)",
+                Long.class, from, to);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Logs de [from, to) que siguen en la tabla caliente sin su copia en el archivo.
+     */
+    public long countLogsNotArchived(LocalDate from, LocalDate to) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM exercise_logs l "
+                        + "WHERE l.completed_at >= ? AND l.completed_at < ? "
+                        + "AND NOT EXISTS (SELECT 1 FROM exercise_logs_archive a WHERE a.id = l.id)",
+                Long.class, from, to);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Deshace la copia de [from, to): borra del archivo las filas que todavía están en las tablas
+     * calientes, así cada fila queda en un solo sitio. Las ya liberadas en una pasada anterior se conservan.
+     */
+    public int deleteArchivedCopies(LocalDate from, LocalDate to) {
+        jdbcTemplate.update("DELETE FROM exercise_logs_archive "
+                        + "WHERE completed_at >= ? AND completed_at < ? "
+                        + "AND EXISTS (SELECT 1 FROM exercise_logs l WHERE l.id = exercise_logs_archive.id)",
+                from, to);
+        return jdbcTemplate.update("DELETE FROM workout_completions_archive "
+                        + "WHERE completed_at >= ? AND completed_at < ? "
+                        + "AND EXISTS (SELECT 1 FROM workout_completions c WHERE c.id = workout_completions_archive.id)",
+                from, to);
+    }
+
+    /**
+     * Borra de las tablas calientes un lote de filas ya archivadas. Devuelve las completions borradas.
+     */
+    public int deleteHotBatch(LocalDate from, LocalDate to, int batchSize) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM workout_completions WHERE completed_at >= ? AND completed_at < ? LIMIT " + batchSize,
+                Long.class, from, to);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("from", from)
+                .addValue("to", to);
+        namedJdbcTemplate.update("DELETE FROM exercise_logs WHERE workout_completion_id IN (:ids) "
+                + "AND completed_at >= :from AND completed_at < :to", params);
+        return namedJdbcTemplate.update("DELETE FROM workout_completions WHERE id IN (:ids) "
+                + "AND completed_at >= :from AND completed_at < :to", params);
+    }
+
+    // ========== Lectura del archivo ==========
+
+    public List<LocalDate> findArchivedCompletionDates(Long memberId) {
+        return jdbcTemplate.queryForList(
+                        "SELECT DISTINCT completed_at FROM workout_completions_archive WHERE member_id = ? AND deleted_at IS NULL",
+                        Date.class, memberId).stream()
+                .map(Date::toLocalDate)
+                .toList();
+    }
+
+    /**
+     * Cuenta lo archivado que ya salió de la tabla caliente; lo copiado pero aún no borrado se cuenta allá.
+     */
+    public long countArchivedNotHotByMember(Long memberId) {
+        Long count = jdbcTemplate.queryForObject("""
+                        SELECT COUNT(*) FROM workout_completions_archive a
+                        WHERE a.member_id = ? AND a.deleted_at IS NULL
+                        AND NOT EXISTS (SELECT 1 FROM workout_completions c WHERE c.id = a.id)
+                        """,
+                Long.class, memberId);
+        return count != null ? count : 0;
+    }
+
+    public List<WorkoutCompletionDTO> findArchivedByMemberAndDateRange(Long memberId, LocalDate startDate, LocalDate endDate) {
+        Map<Long, WorkoutCompletionDTO> completions = new LinkedHashMap<>();
+        jdbcTemplate.query("""
+                        SELECT c.id, c.external_id, c.member_id, m.first_name, m.last_name,
+                               c.workout_day_id, d.day_name, c.completed_at, c.rating, c.adherence_score, c.notes, c.created_at
+                        FROM workout_completions_archive c
+                        JOIN members m ON m.id = c.member_id
+                        JOIN workout_days d ON d.id = c.workout_day_id
+                        WHERE c.member_id = ?
+                        AND c.completed_at BETWEEN ? AND ?
+                        AND c.deleted_at IS NULL
+                        ORDER BY c.completed_at DESC
+                        """,
+                rs -> {
+                    Timestamp createdAt = rs.getTimestamp("created_at");
+                    completions.put(rs.getLong("id"), WorkoutCompletionDTO.builder()
+                            .id(rs.getLong("id"))
+                            .externalId(rs.getString("external_id"))
+                            .memberId(rs.getLong("member_id"))
+                            .memberName(rs.getString("first_name") + " " + rs.getString("last_name"))
+                            .workoutDayId(rs.getLong("workout_day_id"))
+                            .workoutDayName(rs.getString("day_name"))
+                            .completedAt(rs.getDate("completed_at").toLocalDate())
+                            .rating((Integer) rs.getObject("rating"))
+                            .adherenceScore((Double) rs.getObject("adherence_score"))
+                            .notes(rs.getString("notes"))
+                            .createdAt(createdAt != null ? createdAt.toLocalDateTime() : null)
+                            .exerciseLogs(new ArrayList<>())
+                            .build());
+                },
+                memberId, startDate, endDate);
+
+        if (completions.isEmpty()) {
+            return List.of();
+        }
+
+        namedJdbcTemplate.query("""
+                        SELECT l.id, l.workout_completion_id, e.name, l.sets_completed, l.reps_completed,
+                               l.weight_used, l.notes
+                        FROM exercise_logs_archive l
+                        JOIN workout_exercises we ON we.id = l.workout_exercise_id
+                        JOIN exercises e ON e.id = we.exercise_id
+                        WHERE l.workout_completion_id IN (:ids)
+                        AND l.deleted_at IS NULL
+                        """,
+                new MapSqlParameterSource("ids", completions.keySet()),
+                rs -> {
+                    completions.get(rs.getLong("workout_completion_id")).getExerciseLogs()
+                            .add(ExerciseLogDetailDTO.builder()
+                                    .id(rs.getLong("id"))
+                                    .exerciseName(rs.getString("name"))
+                                    .setsCompleted(rs.getInt("sets_completed"))
+                                    .repsCompleted(rs.getInt("reps_completed"))
+                                    .weightUsed((Double) rs.getObject("weight_used"))
+                                    .notes(rs.getString("notes"))
+                                    .build());
+                });
+
+        return new ArrayList<>(completions.values());
+    }
+}
@@ -19,4 +19,45 @@ public interface WorkoutCompletionRepository extends JpaRepository<WorkoutComple
 
     @Query("SELECT COUNT(wc) FROM WorkoutCompletion wc WHERE wc.member.id = :memberId AND wc.deletedAt IS NULL")
     long countCompletionsByMember(@Param("memberId") Long memberId);
-}
\ No newline at end of file
+
+    @Query("""
+                SELECT DISTINCT wc FROM WorkoutCompletion wc
+                JOIN FETCH wc.workoutDay d
+                JOIN FETCH d.workoutPlan
+                LEFT JOIN FETCH wc.exerciseLogs
+                WHERE wc.member.id = :memberId AND wc.completedAt >= :since AND wc.deletedAt IS NULL
+            """)
+    List<WorkoutCompletion> findWithLogsByMemberSince(@Param("memberId") Long memberId, @Param("since") LocalDate since);
+
+    // Los últimos :limit workouts de cada member, para todos los members en una query.
+    // El ranking por member va en una tabla derivada; los logs y sus ejercicios vienen en el mismo join
+    @Query("""
+                SELECT wc FROM WorkoutCompletion wc
+                JOIN FETCH wc.member
+                JOIN FETCH wc.workoutDay
+                LEFT JOIN FETCH wc.exerciseLogs l
+                LEFT JOIN FETCH l.workoutExercise we
+                LEFT JOIN FETCH we.exercise
+                WHERE wc.id IN (
+                    SELECT r.id FROM (
+                        SELECT c.id AS id,
+                               ROW_NUMBER() OVER (PARTITION BY c.member.id ORDER BY c.completedAt DESC, c.id DESC) AS position
+                        FROM WorkoutCompletion c
+                        WHERE c.member.id IN :memberIds AND c.deletedAt IS NULL
+                    ) r
+                    WHERE r.position <= :limit
+                )
+                ORDER BY wc.completedAt DESC, wc.id DESC
+            """)
+    List<WorkoutCompletion> findRecentByMembers(@Param("memberIds") List<Long> memberIds, @Param("limit") int limit);
+
+    @Query("SELECT DISTINCT wc.completedAt FROM WorkoutCompletion wc WHERE wc.member.id = :memberId AND wc.deletedAt IS NULL")
+    List<LocalDate> findCompletionDatesByMember(@Param("memberId") Long memberId);
+
+    @Query("""
+                SELECT wc.member.id AS memberId, COUNT(wc) AS score FROM WorkoutCompletion wc
+                WHERE wc.completedAt >= :weekStart AND wc.deletedAt IS NULL
+                GROUP BY wc.member.id
+            """)
+    List<LeaderboardScoreProjection> findWeeklyCompletionScores(@Param("weekStart") LocalDate weekStart);
+}
@@ -5,10 +5,13 @@ import com.example.fitnesstracker.model.WorkoutDay;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface WorkoutDayRepository extends JpaRepository<WorkoutDay, Long> {
 
     List<WorkoutDay> findByWorkoutPlan_IdAndDeletedAtIsNullOrderByDayNumberAsc(Long workoutPlanId);
+
+    List<WorkoutDay> findByWorkoutPlan_IdInAndDeletedAtIsNull(Collection<Long> workoutPlanIds);
 }
\ No newline at end of file
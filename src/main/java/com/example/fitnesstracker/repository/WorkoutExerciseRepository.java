@@ -4,10 +4,13 @@ import com.example.fitnesstracker.model.WorkoutExercise;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface WorkoutExerciseRepository extends JpaRepository<WorkoutExercise, Long> {
 
     List<WorkoutExercise> findByWorkoutDay_IdAndDeletedAtIsNullOrderByOrderInWorkoutAsc(Long workoutDayId);
+
+    List<WorkoutExercise> findByWorkoutDay_IdInAndDeletedAtIsNull(Collection<Long> workoutDayIds);
 }
\ No newline at end of file
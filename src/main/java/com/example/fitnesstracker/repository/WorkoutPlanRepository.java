@@ -1,6 +1,7 @@
 package com.example.fitnesstracker.repository;
 
 import com.example.fitnesstracker.enums.WorkoutPlanStatus;
+import com.example.fitnesstracker.model.WorkoutDay;
 import com.example.fitnesstracker.model.WorkoutPlan;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -8,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface WorkoutPlanRepository extends JpaRepository<WorkoutPlan, Long> {
@@ -21,6 +23,31 @@ public interface WorkoutPlanRepository extends JpaRepository<WorkoutPlan, Long>
     @Query("SELECT wp FROM WorkoutPlan wp WHERE wp.member.id = :memberId AND wp.status = 'ACTIVE' AND wp.deletedAt IS NULL ORDER BY wp.startDate DESC")
     List<WorkoutPlan> findActivePlansByMember(@Param("memberId") Long memberId);
 
+    @Query("SELECT wp FROM WorkoutPlan wp WHERE wp.member.id IN :memberIds AND wp.status = 'ACTIVE' AND wp.deletedAt IS NULL ORDER BY wp.startDate DESC")
+    List<WorkoutPlan> findActivePlansByMembers(@Param("memberIds") List<Long> memberIds);
+
     @Query("SELECT COUNT(wp) FROM WorkoutPlan wp WHERE wp.trainer.id = :trainerId AND wp.status = 'ACTIVE' AND wp.deletedAt IS NULL")
     long countActivePlansByTrainer(@Param("trainerId") Long trainerId);
-}
\ No newline at end of file
+
+    @Query("SELECT wp.version AS version, CASE WHEN wp.status = 'DRAFT' THEN true ELSE false END AS draft "
+            + "FROM WorkoutPlan wp WHERE wp.id = :planId AND wp.deletedAt IS NULL")
+    Optional<PlanVersionProjection> findVersionById(@Param("planId") Long planId);
+
+    // Inicializan relaciones de planes ya cargados en la sesión, una query para todos los planes.
+    // El resultado se descarta: lo que importa es que las entidades quedan completas en el contexto.
+    // El user del trainer es EAGER: si no viene en el join se carga aparte, con sus one-to-one inversos
+    @Query("SELECT wp FROM WorkoutPlan wp JOIN FETCH wp.member JOIN FETCH wp.trainer t JOIN FETCH t.user WHERE wp.id IN :planIds")
+    List<WorkoutPlan> fetchMemberAndTrainer(@Param("planIds") List<Long> planIds);
+
+    @Query("SELECT wp FROM WorkoutPlan wp LEFT JOIN FETCH wp.workoutDays WHERE wp.id IN :planIds")
+    List<WorkoutPlan> fetchWorkoutDays(@Param("planIds") List<Long> planIds);
+
+    // Días y ejercicios son listas: van en una query aparte para no traer dos bags en el mismo join
+    @Query("""
+                SELECT d FROM WorkoutDay d
+                LEFT JOIN FETCH d.exercises e
+                LEFT JOIN FETCH e.exercise
+                WHERE d.workoutPlan.id IN :planIds
+            """)
+    List<WorkoutDay> fetchExercises(@Param("planIds") List<Long> planIds);
+}
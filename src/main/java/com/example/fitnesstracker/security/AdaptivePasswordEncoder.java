@@ -0,0 +1,191 @@
+package com.example.fitnesstracker.security;
+
+import com.example.fitnesstracker.dto.response.security.PasswordHashingStatsDTO;
+import com.example.fitnesstracker.exception.TooManyRequestsException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt en un pool propio y acotado, para que una ráfaga de logins no ocupe los hilos de Tomcat.
+ * Si la cola está llena o el hash no empieza a tiempo responde 429 en lugar de encolar sin límite.
+ * El costo se calibra al arrancar para acercarse a un tiempo objetivo; los hashes guardados con un
+ * costo menor se marcan para rehashear en el próximo login ({@link #upgradeEncoding}).
+ */
+@Slf4j
+public class AdaptivePasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+    private static final int LATENCY_SAMPLES = 1024;
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final long timeoutMs;
+
+    // Se cuenta en el hilo que espera: getCompletedTaskCount del pool se actualiza después de entregar el resultado
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private int latencyCursor;
+    private long latencyCount;
+
+    public AdaptivePasswordEncoder(int strength, int threads, int queueCapacity, long timeoutMs) {
+        this.strength = strength;
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.queueCapacity = queueCapacity;
+        this.timeoutMs = timeoutMs;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Mayor costo entre {@code min} y {@code max} cuyo hash tarde como mucho {@code targetMs}.
+     * Mide el costo mínimo y extrapola: cada punto de costo duplica el tiempo.
+     */
+    public static int calibrate(long targetMs, int min, int max) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(min);
+        probe.encode("calibracion");
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibracion");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double measuredMs = Math.max(best / 1_000_000.0, 0.01);
+        int extra = (int) Math.floor(Math.log(targetMs / measuredMs) / Math.log(2));
+        int strength = Math.max(min, Math.min(max, min + extra));
+        log.info("Costo de BCrypt calibrado en {} (costo {} tarda {} ms, objetivo {} ms)",
+                strength, min, String.format("%.1f", measuredMs), targetMs);
+        return strength;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Hash en el hilo que llama, sin pasar por la cola. Para procesos por lotes que ya
+     * limitan su propia concurrencia y no deben recibir 429.
+     */
+    public String encodeInCallerThread(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    /**
+     * Solo sube el costo: con instancias calibradas en máquinas distintas, un hash más caro
+     * que el actual se deja como está en lugar de rehashear en cada login.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) < strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    public PasswordHashingStatsDTO stats() {
+        long[] window;
+        synchronized (latencies) {
+            window = Arrays.copyOf(latencies, (int) Math.min(latencyCount, LATENCY_SAMPLES));
+        }
+        Arrays.sort(window);
+        double avg = window.length == 0 ? 0 : Arrays.stream(window).average().orElse(0);
+        return PasswordHashingStatsDTO.builder()
+                .strength(strength)
+                .threads(executor.getMaximumPoolSize())
+                .activeThreads(executor.getActiveCount())
+                .queueDepth(executor.getQueue().size())
+                .queueCapacity(queueCapacity)
+                .completed(completed.get())
+                .rejected(rejected.get())
+                .avgLatencyMs(avg / 1_000_000.0)
+                .p99LatencyMs(window.length == 0 ? 0 : window[(int) Math.ceil(window.length * 0.99) - 1] / 1_000_000.0)
+                .maxLatencyMs(window.length == 0 ? 0 : window[window.length - 1] / 1_000_000.0)
+                .build();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private <T> T submit(Callable<T> hash) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(hash);
+        } catch (RejectedExecutionException e) {
+            throw saturated();
+        }
+        try {
+            T result = future.get(timeoutMs, TimeUnit.MILLISECONDS);
+            completed.incrementAndGet();
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw saturated();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Hash de contraseña interrumpido", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            recordLatency(System.nanoTime() - submitted);
+        }
+    }
+
+    private TooManyRequestsException saturated() {
+        rejected.incrementAndGet();
+        log.warn("Pool de hashing saturado ({} en cola), se rechaza la operación", executor.getQueue().size());
+        return new TooManyRequestsException("Demasiados intentos de autenticación en curso. Intenta de nuevo en unos segundos",
+                RETRY_AFTER_SECONDS);
+    }
+
+    private void recordLatency(long nanos) {
+        synchronized (latencies) {
+            latencies[latencyCursor] = nanos;
+            latencyCursor = (latencyCursor + 1) % LATENCY_SAMPLES;
+            latencyCount++;
+        }
+    }
+}
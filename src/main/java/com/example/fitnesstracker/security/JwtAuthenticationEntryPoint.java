@@ -1,39 +1,32 @@
 package com.example.fitnesstracker.security;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.MediaType;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.time.LocalDateTime;
-import java.util.Map;
 
 @Component
+@RequiredArgsConstructor
 public class JwtAuthenticationEntryPoint implements AuthenticationEntryPoint {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationEntryPoint.class);
+    private static final String MESSAGE = "Acceso no autorizado. Por favor, proporcione un token JWT válido.";
 
+    private final SecurityErrorWriter securityErrorWriter;
+
+    // Un 401 es un error del cliente y puede llegar en ráfagas: solo se registra en DEBUG
     @Override
     public void commence(HttpServletRequest request, HttpServletResponse response, AuthenticationException authException) throws IOException {
-        logger.error("Error de autenticación: {}", authException.getMessage());
-
-        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-
-        Map<String, Object> body = Map.of(
-                "timestamp", LocalDateTime.now().toString(),
-                "status", HttpServletResponse.SC_UNAUTHORIZED,
-                "error", "Unauthorized",
-                "message", "Acceso no autorizado. Por favor, proporcione un token JWT válido.",
-                "path", request.getServletPath()
-        );
-
-        new ObjectMapper().writeValue(response.getOutputStream(), body);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Error de autenticación en {}: {}", request.getServletPath(), authException.getMessage());
+        }
+        securityErrorWriter.write(request, response, HttpStatus.UNAUTHORIZED, MESSAGE);
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,9 @@
 package com.example.fitnesstracker.security;
 
+import com.example.fitnesstracker.enums.UserRole;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -8,77 +11,121 @@ import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
     private static final String COOKIE_NAME = "fitness_tracker_token";
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    // Rutas que no usan el token: documentación, login/registro/refresh y claves públicas
+    private static final String[] PUBLIC_PATH_PREFIXES = {
+            "/auth/", "/swagger-ui", "/v3/api-docs", "/api-docs", "/swagger-resources", "/webjars/", "/.well-known/"
+    };
+
+    private static final WebAuthenticationDetailsSource DETAILS_SOURCE = new WebAuthenticationDetailsSource();
+    private static final Map<String, List<GrantedAuthority>> AUTHORITIES_BY_ROLE = Arrays.stream(UserRole.values())
+            .collect(Collectors.toUnmodifiableMap(Enum::name, role -> List.of(new SimpleGrantedAuthority("ROLE_" + role.name()))));
 
     private final JwtTokenProvider jwtTokenProvider;
-    private final CustomUserDetailsService customUserDetailsService;
+    private final TokenRevocationList tokenRevocationList;
 
+    /**
+     * Autentica con los claims del token, sin consultar la base: los access tokens duran poco y
+     * las bajas, deshabilitaciones y logouts revocan la sesión ({@link TokenRevocationList}).
+     */
     @Override
-    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) {
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
         try {
-            String jwt = extractJwtFromRequest(request);
+            authenticate(request);
+        } catch (RuntimeException ex) {
+            log.warn("No se pudo establecer la autenticación: {}", ex.getMessage());
+        }
+        filterChain.doFilter(request, response);
+    }
 
-            if (StringUtils.hasText(jwt) && jwtTokenProvider.validateToken(jwt)) {
-                String username = jwtTokenProvider.getUsernameFromToken(jwt);
-                UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getServletPath();
+        if (path.isEmpty()) {
+            path = request.getRequestURI();
+        }
+        for (String prefix : PUBLIC_PATH_PREFIXES) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-                log.info("Usuario: {} | Authorities: {}", username, userDetails.getAuthorities());
+    private void authenticate(HttpServletRequest request) {
+        String jwt = extractJwtFromRequest(request);
+        Claims claims = jwt != null ? jwtTokenProvider.parseClaims(jwt) : null;
+        if (claims == null || !isActiveSession(claims)) {
+            log.debug("No se encontró token válido en la petición");
+            return;
+        }
 
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        String username = claims.getSubject();
+        List<GrantedAuthority> authorities = authoritiesOf(claims.get(JwtTokenProvider.ROLE_CLAIM, String.class));
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                username, null, authorities);
+        authentication.setDetails(DETAILS_SOURCE.buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-                log.debug("Usuario autenticado: {}", username);
-            } else {
-                log.debug("No se encontró token válido en la petición");
-            }
-        } catch (Exception ex) {
-            log.error("No se pudo establecer la autenticación: {}", ex.getMessage());
+        if (log.isDebugEnabled()) {
+            log.debug("Usuario autenticado: {} | Authorities: {}", username, authorities);
         }
+    }
 
-        try {
-            filterChain.doFilter(request, response);
-        } catch (Exception ex) {
-            log.error("Error en el filtro: {}", ex.getMessage());
-        }
+    private static List<GrantedAuthority> authoritiesOf(String role) {
+        List<GrantedAuthority> authorities = AUTHORITIES_BY_ROLE.get(role);
+        return authorities != null ? authorities : List.of(new SimpleGrantedAuthority("ROLE_" + role));
+    }
+
+    // Los tokens sin sesión son anteriores a los refresh tokens y no se pueden revocar: no se aceptan
+    private boolean isActiveSession(Claims claims) {
+        String sessionId = claims.get(JwtTokenProvider.SESSION_CLAIM, String.class);
+        return sessionId != null && !tokenRevocationList.isRevoked(sessionId);
     }
 
     private String extractJwtFromRequest(HttpServletRequest request) {
         // 1. Intentar desde el header Authorization
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken)) {
-            if (bearerToken.startsWith("Bearer ")) {
-                return bearerToken.substring(7);
+            if (bearerToken.startsWith(BEARER_PREFIX)) {
+                return bearerToken.substring(BEARER_PREFIX.length());
             }
             return bearerToken.trim();
         }
 
         // 2. Fallback: leer desde la cookie HttpOnly
-        if (request.getCookies() != null) {
-            for (Cookie cookie : request.getCookies()) {
-                if (COOKIE_NAME.equals(cookie.getName())) {
-                    String value = cookie.getValue();
-                    if (StringUtils.hasText(value)) {
-                        log.debug("Token extraído desde cookie");
-                        return value;
-                    }
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (COOKIE_NAME.equals(cookie.getName()) && StringUtils.hasText(cookie.getValue())) {
+                    log.debug("Token extraído desde cookie");
+                    return cookie.getValue();
                 }
             }
         }
 
         return null;
     }
-}
\ No newline at end of file
+}
@@ -1,75 +1,143 @@
 package com.example.fitnesstracker.security;
 
-import com.example.fitnesstracker.exception.UserNotFoundException;
 import com.example.fitnesstracker.model.User;
-import com.example.fitnesstracker.repository.UserRepository;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.ProtectedHeader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.LocalDateTime;
 import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Emite y valida los access tokens, firmados con ES256 ({@link JwtKeyStore}). El "kid" del header
+ * indica con qué clave verificar; otros servicios pueden hacer lo mismo con /.well-known/jwks.json.
+ * <p>
+ * Verificar ES256 cuesta bastante más que HS512 y el filtro lo hace en cada petición, así que los
+ * tokens ya verificados se guardan hasta que vencen: el mismo token (la cadena completa, firma
+ * incluida) no se vuelve a verificar. La revocación se sigue chequeando aparte en cada petición.
+ */
 @Component
 public class JwtTokenProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
-    private final UserRepository userRepository;
+    public static final String SESSION_CLAIM = "sid";
+    public static final String ROLE_CLAIM = "role";
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    private final JwtKeyStore keyStore;
+    private final JwtParser parser;
 
     @Value("${jwt.expiration}")
     private long jwtExpirationMs;
 
-    public JwtTokenProvider(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    @Value("${jwt.verified-cache.max-entries:10000}")
+    private int verifiedCacheMaxEntries = 10_000;
+
+    private final Map<String, Claims> verified = new ConcurrentHashMap<>();
+
+    private final String issuer;
+
+    public JwtTokenProvider(JwtKeyStore keyStore, @Value("${jwt.issuer}") String issuer) {
+        this.keyStore = keyStore;
+        this.issuer = issuer;
+        // El parser es inmutable y thread-safe: se arma una vez
+        this.parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(ProtectedHeader header) {
+                        return header.getKeyId() != null ? keyStore.verificationKey(header.getKeyId()) : null;
+                    }
+                })
+                .requireIssuer(issuer)
+                .build();
     }
 
-    public String generateToken(String username) {
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UserNotFoundException("Usuario no encontrado: " + username));
+    /**
+     * Emite el token con los datos del usuario ya cargado: no consulta la base.
+     * {@code sessionId} es la sesión de refresh a la que pertenece, para poder revocarlo.
+     */
+    public String generateToken(User user, String sessionId) {
+        JwtKeyStore.SigningKey key = keyStore.active();
+        long now = System.currentTimeMillis();
 
-        String token = Jwts.builder()
-                .setSubject(username)
-                .claim("role", user.getRole().name())
+        return Jwts.builder()
+                .header().keyId(key.kid()).and()
+                .issuer(issuer)
+                .subject(user.getUsername())
+                .claim(ROLE_CLAIM, user.getRole().name())
+                .claim(SESSION_CLAIM, sessionId)
                 .claim("userType", user.getUserType() != null ? user.getUserType().name() : "NONE")
                 .claim("email", user.getEmail())
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(key, SignatureAlgorithm.HS512)
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + jwtExpirationMs))
+                .signWith(key.privateKey(), Jwts.SIG.ES256)
                 .compact();
-
-        //  SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-        Claims claims = Jwts.parser().setSigningKey(key).build().parseClaimsJws(token).getBody();
-        return token;
     }
 
-    public String getUsernameFromToken(String token) {
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-        Claims claims = Jwts.parser().setSigningKey(key).build().parseClaimsJws(token).getBody();
-        return claims.getSubject();
+    // Vencimiento de un token emitido ahora, para informarlo en la respuesta
+    public LocalDateTime nextExpiration() {
+        return LocalDateTime.now().plusNanos(jwtExpirationMs * 1_000_000);
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Valida firma, emisor y vencimiento y devuelve los claims en un solo parseo, o null si el token no sirve.
+     */
+    public Claims parseClaims(String token) {
+        Claims cached = verified.get(token);
+        if (cached != null) {
+            if (!isExpired(cached, System.currentTimeMillis())) {
+                return cached;
+            }
+            verified.remove(token);
+            logger.debug("Token expirado: {}", cached.getExpiration());
+            return null;
+        }
         try {
-            SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-            Jwts.parser().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            remember(token, claims);
+            return claims;
         } catch (ExpiredJwtException ex) {
-            logger.error("Token expirado: {}", ex.getMessage());
+            logger.debug("Token expirado: {}", ex.getMessage());
         } catch (JwtException | IllegalArgumentException ex) {
             logger.error("Token inválido: {}", ex.getMessage());
         }
-        return false;
+        return null;
+    }
+
+    // Si el cache está lleno se descartan los vencidos; si sigue lleno, el token no se guarda
+    private void remember(String token, Claims claims) {
+        if (claims.getExpiration() == null || verifiedCacheMaxEntries <= 0) {
+            return;
+        }
+        if (verified.size() >= verifiedCacheMaxEntries) {
+            long now = System.currentTimeMillis();
+            verified.values().removeIf(c -> isExpired(c, now));
+            if (verified.size() >= verifiedCacheMaxEntries) {
+                return;
+            }
+        }
+        verified.put(token, claims);
+    }
+
+    private static boolean isExpired(Claims claims, long now) {
+        return claims.getExpiration().getTime() <= now;
+    }
+
+    public String getUsernameFromToken(String token) {
+        return parser.parseSignedClaims(token).getPayload().getSubject();
+    }
+
+    public boolean validateToken(String token) {
+        return parseClaims(token) != null;
     }
 }
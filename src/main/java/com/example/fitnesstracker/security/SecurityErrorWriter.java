@@ -0,0 +1,33 @@
+package com.example.fitnesstracker.security;
+
+import com.example.fitnesstracker.dto.response.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Escribe errores de la cadena de seguridad con el mismo formato que {@code GlobalExceptionHandler},
+ * que no interviene fuera del DispatcherServlet. El writer se arma una vez con el ObjectMapper de Spring.
+ */
+@Component
+public class SecurityErrorWriter {
+
+    private final ObjectWriter writer;
+
+    public SecurityErrorWriter(ObjectMapper objectMapper) {
+        this.writer = objectMapper.writerFor(ErrorResponse.class);
+    }
+
+    public void write(HttpServletRequest request, HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        writer.writeValue(response.getOutputStream(),
+                new ErrorResponse(status.value(), status.getReasonPhrase(), message, request.getServletPath()));
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.fitnesstracker.security;
+
+import com.example.fitnesstracker.repository.RefreshTokenRepository;
+import com.example.fitnesstracker.util.BloomFilter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sesiones revocadas, consultadas en cada request autenticado. Un filtro de Bloom descarta sin ir
+ * a la base la enorme mayoría de sesiones vigentes; solo un positivo (revocada de verdad o falso
+ * positivo) se confirma contra refresh_tokens.
+ * <p>
+ * Solo hace falta recordar las sesiones revocadas durante la vida de un access token: el filtro se
+ * rearma desde la base cada {@code jwt.revocation.reload-ms}, que es también la demora con la que
+ * esta instancia ve revocaciones hechas en otra. Las revocaciones locales se guardan aparte durante
+ * esa misma ventana y se vuelven a cargar en cada filtro nuevo: la consulta de la recarga puede no
+ * verlas todavía (transacción sin confirmar) o haber corrido antes de que llegaran.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationList {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    private volatile BloomFilter filter;
+
+    // Sesión revocada en esta instancia → cuándo
+    private final Map<String, LocalDateTime> localRevocations = new ConcurrentHashMap<>();
+
+    @Value("${jwt.expiration}")
+    private long accessTokenTtlMs;
+
+    @Value("${jwt.revocation.expected-revocations:100000}")
+    private long expectedRevocations;
+
+    @Value("${jwt.revocation.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.reload-ms:30000}", initialDelayString = "${jwt.revocation.reload-ms:30000}")
+    public void scheduledReload() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.error("Falló la recarga de sesiones revocadas", e);
+        }
+    }
+
+    /**
+     * Arma el filtro con las sesiones revocadas en la ventana de vida de un access token
+     * (más un minuto de margen por desfase de relojes) y lo reemplaza de una vez, sumando las
+     * revocaciones locales de la ventana.
+     */
+    public void reload() {
+        LocalDateTime since = LocalDateTime.now().minusNanos(accessTokenTtlMs * 1_000_000).minusMinutes(1);
+        localRevocations.values().removeIf(revokedAt -> revokedAt.isBefore(since));
+        List<String> revoked = refreshTokenRepository.findFamiliesRevokedSince(since);
+        BloomFilter fresh = new BloomFilter(Math.max(expectedRevocations, (revoked.size() + localRevocations.size()) * 2L), falsePositiveRate);
+        revoked.forEach(fresh::put);
+        localRevocations.keySet().forEach(fresh::put);
+        filter = fresh;
+        // Lo revocado mientras se armaba el filtro pudo ir al anterior: se vuelve a cargar en el nuevo
+        localRevocations.keySet().forEach(fresh::put);
+        log.debug("Sesiones revocadas recargadas: {} de la base, {} locales", revoked.size(), localRevocations.size());
+    }
+
+    public void revoke(Collection<String> sessionIds) {
+        LocalDateTime now = LocalDateTime.now();
+        sessionIds.forEach(sessionId -> localRevocations.put(sessionId, now));
+        BloomFilter current = current();
+        sessionIds.forEach(current::put);
+    }
+
+    public boolean isRevoked(String sessionId) {
+        if (!current().mightContain(sessionId)) {
+            return false;
+        }
+        return refreshTokenRepository.isFamilyRevoked(sessionId);
+    }
+
+    private BloomFilter current() {
+        BloomFilter current = filter;
+        if (current == null) {
+            synchronized (this) {
+                if (filter == null) {
+                    reload();
+                }
+                current = filter;
+            }
+        }
+        return current;
+    }
+}
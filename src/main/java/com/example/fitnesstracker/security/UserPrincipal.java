@@ -0,0 +1,30 @@
+package com.example.fitnesstracker.security;
+
+import com.example.fitnesstracker.model.User;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collections;
+
+/**
+ * Principal de Spring Security que conserva la entidad cargada (con member/trainer).
+ * Quien autentica puede emitir el token y armar la respuesta sin volver a buscar el usuario.
+ */
+public class UserPrincipal extends org.springframework.security.core.userdetails.User {
+
+    private final transient User account;
+
+    public UserPrincipal(User account) {
+        super(account.getUsername(),
+                account.getPassword(),
+                account.getEnabled(),
+                true,
+                true,
+                true,
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + account.getRole().name())));
+        this.account = account;
+    }
+
+    public User getAccount() {
+        return account;
+    }
+}
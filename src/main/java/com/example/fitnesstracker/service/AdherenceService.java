@@ -0,0 +1,319 @@
+package com.example.fitnesstracker.service;
+
+import com.example.fitnesstracker.dto.response.workout.FallingBehindMemberDTO;
+import com.example.fitnesstracker.dto.response.workout.PlanAdherenceDTO;
+import com.example.fitnesstracker.dto.response.workout.WeekAdherenceDTO;
+import com.example.fitnesstracker.exception.InvalidUserDataException;
+import com.example.fitnesstracker.exception.ResourceNotFoundException;
+import com.example.fitnesstracker.model.*;
+import com.example.fitnesstracker.repository.AdherenceRankProjection;
+import com.example.fitnesstracker.repository.MemberRepository;
+import com.example.fitnesstracker.repository.WeeklyAdherenceRepository;
+import com.example.fitnesstracker.repository.WorkoutCompletionRepository;
+import com.example.fitnesstracker.repository.WorkoutDayRepository;
+import com.example.fitnesstracker.repository.WorkoutExerciseRepository;
+import com.example.fitnesstracker.repository.WorkoutPlanRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+
+/**
+ * Compara lo prescrito en cada WorkoutExercise con lo registrado en ExerciseLog.
+ * El puntaje de cada workout (0..1) se guarda en la completion y se acumula por semana y plan.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdherenceService {
+
+    private static final int RECOMPUTE_BATCH_SIZE = 64;
+
+    private final WeeklyAdherenceRepository weeklyAdherenceRepository;
+    private final WorkoutCompletionRepository workoutCompletionRepository;
+    private final WorkoutPlanRepository workoutPlanRepository;
+    private final MemberRepository memberRepository;
+    private final WorkoutDayRepository workoutDayRepository;
+    private final WorkoutExerciseRepository workoutExerciseRepository;
+    private final WorkoutArchiveService workoutArchiveService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${adherence.recompute.parallelism:4}")
+    private int parallelism;
+
+    /**
+     * Promedio del cumplimiento de cada ejercicio prescrito. Por ejercicio se promedian
+     * series, repeticiones totales y peso (si estaba prescrito), cada uno topeado en 1.
+     * Un ejercicio sin log cuenta 0.
+     */
+    public static double scoreCompletion(List<WorkoutExercise> prescribed, List<ExerciseLog> logs) {
+        List<WorkoutExercise> active = prescribed.stream().filter(WorkoutExercise::isActive).toList();
+        if (active.isEmpty()) {
+            return 1.0;
+        }
+
+        Map<Long, List<ExerciseLog>> logsByExercise = logs.stream()
+                .filter(ExerciseLog::isActive)
+                .collect(Collectors.groupingBy(l -> l.getWorkoutExercise().getId()));
+
+        double total = 0;
+        for (WorkoutExercise exercise : active) {
+            List<ExerciseLog> exerciseLogs = logsByExercise.getOrDefault(exercise.getId(), List.of());
+            if (exerciseLogs.isEmpty()) {
+                continue;
+            }
+            int sets = 0;
+            int reps = 0;
+            double maxWeight = 0;
+            for (ExerciseLog exerciseLog : exerciseLogs) {
+                sets += exerciseLog.getSetsCompleted();
+                reps += exerciseLog.getSetsCompleted() * exerciseLog.getRepsCompleted();
+                if (exerciseLog.getWeightUsed() != null) {
+                    maxWeight = Math.max(maxWeight, exerciseLog.getWeightUsed());
+                }
+            }
+            double setsRatio = ratio(sets, exercise.getSets());
+            double repsRatio = ratio(reps, exercise.getSets() * exercise.getReps());
+            if (exercise.getWeight() != null && exercise.getWeight() > 0) {
+                total += (setsRatio + repsRatio + ratio(maxWeight, exercise.getWeight())) / 3;
+            } else {
+                total += (setsRatio + repsRatio) / 2;
+            }
+        }
+        return total / active.size();
+    }
+
+    /**
+     * Calcula el puntaje de una completion recién guardada y lo suma a su semana.
+     * Se llama dentro de la transacción de completeWorkout.
+     */
+    @Transactional
+    public void recordCompletion(WorkoutCompletion completion) {
+        WorkoutDay day = completion.getWorkoutDay();
+        WorkoutPlan plan = day.getWorkoutPlan();
+        double score = scoreCompletion(day.getExercises(), completion.getExerciseLogs());
+        completion.setAdherenceScore(score);
+
+        LocalDate weekStart = weekStart(completion.getCompletedAt());
+        WeeklyAdherence week = weeklyAdherenceRepository
+                .findByMember_IdAndWorkoutPlan_IdAndWeekStart(completion.getMember().getId(), plan.getId(), weekStart)
+                .orElseGet(() -> WeeklyAdherence.builder()
+                        .member(completion.getMember())
+                        .workoutPlan(plan)
+                        .weekStart(weekStart)
+                        .plannedSessions(plannedSessions(plan))
+                        .build());
+        week.setCompletions(week.getCompletions() + 1);
+        week.setScoreSum(week.getScoreSum() + score);
+        weeklyAdherenceRepository.save(week);
+        log.debug("Adherencia registrada: completion {} - puntaje {}", completion.getId(), score);
+    }
+
+    @Transactional(readOnly = true)
+    public PlanAdherenceDTO getPlanAdherence(Long planId) {
+        WorkoutPlan plan = workoutPlanRepository.findById(planId)
+                .filter(p -> !p.isDeleted())
+                .orElseThrow(() -> new ResourceNotFoundException("Plan no encontrado"));
+
+        List<WeeklyAdherence> weeks = weeklyAdherenceRepository.findByWorkoutPlan_IdOrderByWeekStartAsc(planId);
+        int plannedPerWeek = plannedSessions(plan);
+        LocalDate end = plan.getEndDate() != null && plan.getEndDate().isBefore(LocalDate.now()) ? plan.getEndDate() : LocalDate.now();
+        double weeksElapsed = Math.max(1, ChronoUnit.DAYS.between(plan.getStartDate(), end) + 1) / 7.0;
+        double scoreSum = weeks.stream().mapToDouble(WeeklyAdherence::getScoreSum).sum();
+
+        return PlanAdherenceDTO.builder()
+                .planId(planId)
+                .memberId(plan.getMember().getId())
+                .plannedSessionsPerWeek(plannedPerWeek)
+                .weeksElapsed((int) Math.ceil(weeksElapsed))
+                .planScore(plannedPerWeek > 0 ? Math.min(1.0, scoreSum / (plannedPerWeek * weeksElapsed)) : 0.0)
+                .weeks(weeks.stream()
+                        .map(w -> WeekAdherenceDTO.builder()
+                                .weekStart(w.getWeekStart())
+                                .completions(w.getCompletions())
+                                .plannedSessions(w.getPlannedSessions())
+                                .score(w.getScore())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    /**
+     * Members del trainer ordenados de menor a mayor adherencia en las últimas {@code weeks} semanas.
+     * Una sola consulta agregada sobre weekly_adherence; el orden se resuelve en memoria.
+     */
+    @Transactional(readOnly = true)
+    public List<FallingBehindMemberDTO> getMembersFallingBehind(Long trainerId, int weeks, int limit) {
+        if (weeks < 1 || limit < 1) {
+            throw new InvalidUserDataException("weeks y limit deben ser mayores a 0");
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate since = weekStart(today).minusWeeks(weeks - 1L);
+
+        return weeklyAdherenceRepository.findAdherenceByTrainer(trainerId, since).stream()
+                .map(row -> {
+                    LocalDate windowStart = row.getPlanStartDate().isAfter(since) ? row.getPlanStartDate() : since;
+                    double windowWeeks = Math.max(1, ChronoUnit.DAYS.between(windowStart, today) + 1) / 7.0;
+                    double expected = row.getPlannedSessionsPerWeek() * windowWeeks;
+                    return FallingBehindMemberDTO.builder()
+                            .memberId(row.getMemberId())
+                            .memberName(row.getFirstName() + " " + row.getLastName())
+                            .planId(row.getPlanId())
+                            .score(expected > 0 ? Math.min(1.0, row.getScoreSum() / expected) : 1.0)
+                            .completions(row.getCompletions())
+                            .expectedSessions(Math.round(expected))
+                            .lastActiveWeek(row.getLastActiveWeek())
+                            .build();
+                })
+                .sorted(Comparator.comparing(FallingBehindMemberDTO::getScore)
+                        .thenComparing(FallingBehindMemberDTO::getLastActiveWeek, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    // ========== Recalculo completo ==========
+
+    @Scheduled(cron = "${adherence.recompute.cron:0 0 4 * * SUN}")
+    public void scheduledRecompute() {
+        try {
+            recomputeAll();
+        } catch (RuntimeException e) {
+            log.error("Falló el recálculo de adherencia", e);
+        }
+    }
+
+    /**
+     * Recalcula puntajes y agregados semanales de todos los members (por ejemplo, tras editar prescripciones).
+     * Reparte los members en un ForkJoinPool; cada member se procesa en su propia transacción.
+     * Solo recorre el historial caliente desde {@link #recomputeFrom()}: lo archivado conserva el puntaje
+     * y las semanas con las que se archivó.
+     */
+    public int recomputeAll() {
+        long start = System.currentTimeMillis();
+        List<Long> memberIds = memberRepository.findAllActiveIds();
+        LocalDate from = recomputeFrom();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            int processed = pool.invoke(new RecomputeTask(memberIds, from, transactionTemplate));
+            log.info("Adherencia recalculada para {}/{} members en {} ms", processed, memberIds.size(), System.currentTimeMillis() - start);
+            return processed;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Primer lunes desde el corte del archivo: las semanas que empiezan ahí solo tienen días en la tabla caliente.
+     * La semana que cruza el corte y las anteriores se conservan tal como quedaron.
+     */
+    LocalDate recomputeFrom() {
+        return workoutArchiveService.archiveCutoff()
+                .map(cutoff -> cutoff.with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY)))
+                .orElse(LocalDate.EPOCH);
+    }
+
+    /**
+     * Rearma las semanas del member desde {@code from} con una query para las completions y sus logs,
+     * una para los ejercicios prescritos y una para los días de cada plan.
+     */
+    void recomputeMember(Long memberId, LocalDate from) {
+        weeklyAdherenceRepository.deleteByMemberIdFrom(memberId, from);
+
+        List<WorkoutCompletion> completions = workoutCompletionRepository.findWithLogsByMemberSince(memberId, from);
+        if (completions.isEmpty()) {
+            return;
+        }
+        Set<Long> dayIds = new HashSet<>();
+        Set<Long> planIds = new HashSet<>();
+        for (WorkoutCompletion completion : completions) {
+            dayIds.add(completion.getWorkoutDay().getId());
+            planIds.add(completion.getWorkoutDay().getWorkoutPlan().getId());
+        }
+        Map<Long, List<WorkoutExercise>> exercisesByDay = workoutExerciseRepository.findByWorkoutDay_IdInAndDeletedAtIsNull(dayIds).stream()
+                .collect(Collectors.groupingBy(exercise -> exercise.getWorkoutDay().getId()));
+        Map<Long, Long> daysByPlan = workoutDayRepository.findByWorkoutPlan_IdInAndDeletedAtIsNull(planIds).stream()
+                .collect(Collectors.groupingBy(day -> day.getWorkoutPlan().getId(), Collectors.counting()));
+
+        Map<String, WeeklyAdherence> weeks = new LinkedHashMap<>();
+        for (WorkoutCompletion completion : completions) {
+            WorkoutDay day = completion.getWorkoutDay();
+            WorkoutPlan plan = day.getWorkoutPlan();
+            double score = scoreCompletion(exercisesByDay.getOrDefault(day.getId(), List.of()), completion.getExerciseLogs());
+            completion.setAdherenceScore(score);
+
+            LocalDate weekStart = weekStart(completion.getCompletedAt());
+            WeeklyAdherence week = weeks.computeIfAbsent(plan.getId() + ":" + weekStart, key -> WeeklyAdherence.builder()
+                    .member(completion.getMember())
+                    .workoutPlan(plan)
+                    .weekStart(weekStart)
+                    .plannedSessions(daysByPlan.getOrDefault(plan.getId(), 0L).intValue())
+                    .build());
+            week.setCompletions(week.getCompletions() + 1);
+            week.setScoreSum(week.getScoreSum() + score);
+        }
+        weeklyAdherenceRepository.saveAll(weeks.values());
+    }
+
+    private final class RecomputeTask extends RecursiveTask<Integer> {
+
+        private final List<Long> memberIds;
+        private final LocalDate from;
+        private final TransactionTemplate transactionTemplate;
+
+        private RecomputeTask(List<Long> memberIds, LocalDate from, TransactionTemplate transactionTemplate) {
+            this.memberIds = memberIds;
+            this.from = from;
+            this.transactionTemplate = transactionTemplate;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (memberIds.size() > RECOMPUTE_BATCH_SIZE) {
+                int middle = memberIds.size() / 2;
+                RecomputeTask left = new RecomputeTask(memberIds.subList(0, middle), from, transactionTemplate);
+                RecomputeTask right = new RecomputeTask(memberIds.subList(middle, memberIds.size()), from, transactionTemplate);
+                left.fork();
+                return right.compute() + left.join();
+            }
+            int processed = 0;
+            for (Long memberId : memberIds) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> recomputeMember(memberId, from));
+                    processed++;
+                } catch (RuntimeException e) {
+                    log.warn("No se pudo recalcular la adherencia del member {}: {}", memberId, e.getMessage());
+                }
+            }
+            return processed;
+        }
+    }
+
+    // ========== Helpers ==========
+
+    private static int plannedSessions(WorkoutPlan plan) {
+        return (int) plan.getWorkoutDays().stream().filter(WorkoutDay::isActive).count();
+    }
+
+    private static LocalDate weekStart(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private static double ratio(double done, double planned) {
+        return planned > 0 ? Math.min(1.0, done / planned) : 1.0;
+    }
+}
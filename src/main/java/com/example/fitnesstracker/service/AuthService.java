@@ -35,17 +35,47 @@ public class AuthService {
     private final UserMapper userMapper;
     private final MemberMapper memberMapper;
     private final TrainerMapper trainerMapper;
+    private final RefreshTokenService refreshTokenService;
 
-    @Transactional(readOnly = true)
+    @Transactional
     public AuthResponse login(String username, String password) {
         log.info("Intentando login para usuario: {}", username);
 
         User user = validateCredentials(username, password);
 
-        String token = jwtTokenProvider.generateToken(user.getUsername());
+        RefreshTokenService.Session session = refreshTokenService.startSession(user);
+        String token = jwtTokenProvider.generateToken(user, session.sessionId());
         log.info("Login exitoso para usuario: {}", username);
 
-        return buildAuthResponse(user, token);
+        return buildAuthResponse(user, token, session.refreshToken());
+    }
+
+    /**
+     * Emite un access token nuevo y rota el refresh token de la sesión.
+     */
+    @Transactional(noRollbackFor = UnauthorizedException.class)
+    public AuthResponse refresh(String refreshToken) {
+        RefreshTokenService.RotatedSession session = refreshTokenService.rotate(refreshToken);
+
+        // Usuario dado de baja o deshabilitado después del login: se cierran todas sus sesiones
+        User user = userRepository.findByIdActive(session.userId()).orElse(null);
+        if (user == null || !user.getEnabled()) {
+            refreshTokenService.revokeAllForUser(session.userId());
+            throw new UnauthorizedException(USER_DISABLED);
+        }
+
+        return AuthResponse.builder()
+                .token(jwtTokenProvider.generateToken(user, session.sessionId()))
+                .type("Bearer")
+                .refreshToken(session.refreshToken())
+                .expiresAt(jwtTokenProvider.nextExpiration())
+                .user(userMapper.toDto(user))
+                .build();
+    }
+
+    @Transactional
+    public void logout(String refreshToken) {
+        refreshTokenService.revokeSession(refreshToken);
     }
 
     @Transactional(readOnly = true)
@@ -69,8 +99,9 @@ public class AuthService {
     }
 
     /* Métodos privados reutilizables */
+    // Única consulta del login: el usuario viene con member/trainer para el token y la respuesta
     private User validateCredentials(String username, String password) {
-        User user = userRepository.findByUsernameAndDeletedAtIsNull(username).orElseThrow(() -> {
+        User user = userRepository.findForLoginByUsername(username).orElseThrow(() -> {
             log.warn("Usuario no encontrado: {}", username);
             return new UserNotFoundException(USER_NOT_FOUND);
         });
@@ -85,10 +116,17 @@ public class AuthService {
             throw new UnauthorizedException(INVALID_CREDENTIALS);
         }
 
+        // Hash guardado con un costo menor al actual: se aprovecha el password en claro para subirlo
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            user.setPassword(passwordEncoder.encode(password));
+            userRepository.save(user);
+            log.info("Password rehasheado con el costo actual para usuario: {}", username);
+        }
+
         return user;
     }
 
-    private AuthResponse buildAuthResponse(User user, String token) {
+    private AuthResponse buildAuthResponse(User user, String token, String refreshToken) {
         UserDTO userDTO = userMapper.toDto(user);
         MemberDTO memberDTO = user.getMember() != null ? memberMapper.toDTO(user.getMember()) : null;
         TrainerDTO trainerDTO = user.getTrainer() != null ? trainerMapper.toDTO(user.getTrainer()) : null;
@@ -96,6 +134,8 @@ public class AuthService {
         return AuthResponse.builder()
                 .token(token)
                 .type("Bearer")
+                .refreshToken(refreshToken)
+                .expiresAt(jwtTokenProvider.nextExpiration())
                 .user(userDTO)
                 .member(memberDTO)
                 .trainer(trainerDTO)
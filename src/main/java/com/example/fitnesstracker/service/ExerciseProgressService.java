@@ -0,0 +1,142 @@
+package com.example.fitnesstracker.service;
+
+import com.example.fitnesstracker.dto.response.workout.ExerciseProgressDTO;
+import com.example.fitnesstracker.dto.response.workout.ProgressPointDTO;
+import com.example.fitnesstracker.exception.InvalidUserDataException;
+import com.example.fitnesstracker.exception.ResourceNotFoundException;
+import com.example.fitnesstracker.model.Exercise;
+import com.example.fitnesstracker.model.ExerciseLog;
+import com.example.fitnesstracker.model.ExerciseProgress;
+import com.example.fitnesstracker.model.Member;
+import com.example.fitnesstracker.repository.ExerciseProgressRepository;
+import com.example.fitnesstracker.repository.ExerciseRepository;
+import com.example.fitnesstracker.util.OneRepMax;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExerciseProgressService {
+
+    private static final int MAX_POINTS_LIMIT = 520;
+
+    private final ExerciseProgressRepository exerciseProgressRepository;
+    private final ExerciseRepository exerciseRepository;
+
+    /**
+     * Suma los logs de un workout completado al agregado semanal de cada ejercicio.
+     * Se llama dentro de la transacción de completeWorkout.
+     */
+    @Transactional
+    public void recordWorkout(Member member, LocalDate completedAt, List<ExerciseLog> logs) {
+        LocalDate weekStart = completedAt.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+
+        Map<Long, List<ExerciseLog>> byExercise = new LinkedHashMap<>();
+        for (ExerciseLog exerciseLog : logs) {
+            byExercise.computeIfAbsent(exerciseLog.getWorkoutExercise().getExercise().getId(), id -> new ArrayList<>()).add(exerciseLog);
+        }
+
+        byExercise.forEach((exerciseId, exerciseLogs) -> {
+            // Upsert de la fila vacía y lectura con lock: sin eso dos completions de la misma semana
+            // leen el mismo acumulado (una suma se pierde) o insertan dos veces la misma clave
+            exerciseProgressRepository.insertWeekIfAbsent(member.getId(), exerciseId, weekStart);
+            ExerciseProgress progress = exerciseProgressRepository.findWeekForUpdate(member.getId(), exerciseId, weekStart)
+                    .orElseThrow(() -> new ResourceNotFoundException("Progreso semanal no encontrado"));
+
+            progress.setSessions(progress.getSessions() + 1);
+            for (ExerciseLog exerciseLog : exerciseLogs) {
+                apply(progress, exerciseLog);
+            }
+            exerciseProgressRepository.save(progress);
+        });
+        log.debug("Progreso actualizado: member {} - {} ejercicios en la semana {}", member.getId(), byExercise.size(), weekStart);
+    }
+
+    /**
+     * Curva semanal del ejercicio. Si hay más semanas que {@code maxPoints} se agrupan en buckets
+     * consecutivos: se conserva el máximo de 1RM y de peso (los récords no se pierden al reducir)
+     * y el volumen se promedia por semana.
+     */
+    @Transactional(readOnly = true)
+    public ExerciseProgressDTO getProgress(Long memberId, Long exerciseId, int maxPoints) {
+        if (maxPoints < 2 || maxPoints > MAX_POINTS_LIMIT) {
+            throw new InvalidUserDataException("maxPoints debe estar entre 2 y " + MAX_POINTS_LIMIT);
+        }
+        Exercise exercise = exerciseRepository.findById(exerciseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Ejercicio no encontrado"));
+
+        List<ExerciseProgress> weeks = exerciseProgressRepository.findByMember_IdAndExercise_IdOrderByWeekStartAsc(memberId, exerciseId);
+        int bucketSize = (weeks.size() + maxPoints - 1) / maxPoints;
+        if (bucketSize < 1) {
+            bucketSize = 1;
+        }
+
+        List<ProgressPointDTO> points = new ArrayList<>();
+        double best = 0;
+        for (int start = 0; start < weeks.size(); start += bucketSize) {
+            ProgressPointDTO point = toPoint(weeks.subList(start, Math.min(weeks.size(), start + bucketSize)));
+            best = Math.max(best, point.getEstimatedOneRepMax());
+            points.add(point);
+        }
+
+        return ExerciseProgressDTO.builder()
+                .memberId(memberId)
+                .exerciseId(exerciseId)
+                .exerciseName(exercise.getName())
+                .totalWeeks(weeks.size())
+                .bestEstimatedOneRepMax(best)
+                .points(points)
+                .build();
+    }
+
+    private void apply(ExerciseProgress progress, ExerciseLog exerciseLog) {
+        int sets = exerciseLog.getSetsCompleted();
+        int reps = exerciseLog.getRepsCompleted();
+        double weight = exerciseLog.getWeightUsed() != null ? exerciseLog.getWeightUsed() : 0;
+
+        progress.setTotalSets(progress.getTotalSets() + sets);
+        progress.setTotalReps(progress.getTotalReps() + sets * reps);
+        progress.setVolume(progress.getVolume() + sets * reps * weight);
+        progress.setBestEstimatedOneRepMax(Math.max(progress.getBestEstimatedOneRepMax(), OneRepMax.estimate(weight, reps)));
+        if (weight > progress.getBestWeight()
+                || (weight == progress.getBestWeight() && reps > progress.getBestWeightReps())) {
+            progress.setBestWeight(weight);
+            progress.setBestWeightReps(reps);
+        }
+    }
+
+    private ProgressPointDTO toPoint(List<ExerciseProgress> bucket) {
+        ExerciseProgress heaviest = bucket.get(0);
+        double oneRepMax = 0;
+        double volume = 0;
+        int sessions = 0;
+        for (ExerciseProgress week : bucket) {
+            oneRepMax = Math.max(oneRepMax, week.getBestEstimatedOneRepMax());
+            volume += week.getVolume();
+            sessions += week.getSessions();
+            if (week.getBestWeight() > heaviest.getBestWeight()) {
+                heaviest = week;
+            }
+        }
+        return ProgressPointDTO.builder()
+                .weekStart(bucket.get(0).getWeekStart())
+                .weeks(bucket.size())
+                .estimatedOneRepMax(oneRepMax)
+                .bestWeight(heaviest.getBestWeight())
+                .bestWeightReps(heaviest.getBestWeightReps())
+                .weeklyVolume(volume / bucket.size())
+                .sessions(sessions)
+                .build();
+    }
+}
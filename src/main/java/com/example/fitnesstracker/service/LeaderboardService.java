@@ -0,0 +1,288 @@
+package com.example.fitnesstracker.service;
+
+import com.example.fitnesstracker.dto.response.leaderboard.LeaderboardDTO;
+import com.example.fitnesstracker.dto.response.leaderboard.LeaderboardEntryDTO;
+import com.example.fitnesstracker.dto.response.leaderboard.MemberRankDTO;
+import com.example.fitnesstracker.enums.LeaderboardMetric;
+import com.example.fitnesstracker.exception.InvalidUserDataException;
+import com.example.fitnesstracker.exception.ResourceNotFoundException;
+import com.example.fitnesstracker.model.ExerciseLog;
+import com.example.fitnesstracker.model.Member;
+import com.example.fitnesstracker.repository.ExerciseProgressRepository;
+import com.example.fitnesstracker.repository.LeaderboardScoreProjection;
+import com.example.fitnesstracker.repository.MemberRepository;
+import com.example.fitnesstracker.repository.RankedMemberProjection;
+import com.example.fitnesstracker.repository.WorkoutCompletionRepository;
+import com.example.fitnesstracker.util.RankingIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rankings de members (todo el gimnasio y por trainer) mantenidos en memoria con {@link RankingIndex}.
+ * completeWorkout los actualiza de a un member; se reconstruyen desde las tablas de estadísticas
+ * al arrancar y cada día, que es cuando vencen las semanas y las rachas.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LeaderboardService {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final MemberRepository memberRepository;
+    private final ExerciseProgressRepository exerciseProgressRepository;
+    private final WorkoutCompletionRepository workoutCompletionRepository;
+    private final TrainingCalendarService trainingCalendarService;
+
+    private volatile Boards boards;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(cron = "${leaderboard.rebuild.cron:0 5 0 * * *}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("Falló la reconstrucción de los rankings", e);
+        }
+    }
+
+    /**
+     * Arma los rankings desde cero y los reemplaza de una vez; las consultas siguen
+     * leyendo los anteriores mientras tanto.
+     */
+    public synchronized void rebuild() {
+        LocalDate today = LocalDate.now();
+        Boards fresh = new Boards(today);
+
+        for (RankedMemberProjection member : memberRepository.findRankedMembers()) {
+            fresh.members.put(member.getMemberId(),
+                    new RankedMember(member.getFirstName() + " " + member.getLastName(), member.getTrainerId()));
+        }
+        load(fresh, LeaderboardMetric.WEEKLY_VOLUME, exerciseProgressRepository.findWeeklyVolumeScores(fresh.weekStart));
+        load(fresh, LeaderboardMetric.WEEKLY_COMPLETIONS, workoutCompletionRepository.findWeeklyCompletionScores(fresh.weekStart));
+        trainingCalendarService.getCurrentStreaks().forEach((memberId, streak) -> {
+            if (fresh.members.containsKey(memberId)) {
+                fresh.put(LeaderboardMetric.STREAK, memberId, streak);
+            }
+        });
+
+        boards = fresh;
+        log.info("Rankings reconstruidos: {} members para la semana {}", fresh.members.size(), fresh.weekStart);
+    }
+
+    /**
+     * Suma el workout completado a los rankings del member. Si hay transacción activa
+     * se aplica recién después del commit, para no contar workouts que se deshacen.
+     */
+    public void recordCompletion(Member member, LocalDate completedAt, List<ExerciseLog> logs, int currentStreak) {
+        double volume = 0;
+        for (ExerciseLog exerciseLog : logs) {
+            double weight = exerciseLog.getWeightUsed() != null ? exerciseLog.getWeightUsed() : 0;
+            volume += exerciseLog.getSetsCompleted() * exerciseLog.getRepsCompleted() * weight;
+        }
+        Long memberId = member.getId();
+        String name = member.getFirstName() + " " + member.getLastName();
+        Long trainerId = member.getAssignedTrainer() != null ? member.getAssignedTrainer().getId() : null;
+        double workoutVolume = volume;
+
+        Runnable apply = () -> {
+            Boards current = current();
+            if (completedAt.isBefore(current.weekStart)) {
+                return;
+            }
+            synchronized (current) {
+                current.assign(memberId, new RankedMember(name, trainerId));
+                current.add(LeaderboardMetric.WEEKLY_VOLUME, memberId, workoutVolume);
+                current.add(LeaderboardMetric.WEEKLY_COMPLETIONS, memberId, 1);
+                current.put(LeaderboardMetric.STREAK, memberId, currentStreak);
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    public LeaderboardDTO getLeaderboard(LeaderboardMetric metric, Long trainerId, int offset, int limit) {
+        if (offset < 0 || limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidUserDataException("offset no puede ser negativo y limit debe estar entre 1 y " + MAX_LIMIT);
+        }
+        Boards current = current();
+        RankingIndex index = trainerId == null ? current.gym.get(metric) : current.trainerOrEmpty(metric, trainerId);
+
+        List<LeaderboardEntryDTO> entries = index.range(offset, limit).stream()
+                .map(entry -> LeaderboardEntryDTO.builder()
+                        .rank(entry.rank())
+                        .memberId(entry.id())
+                        .memberName(current.name(entry.id()))
+                        .score(entry.score())
+                        .build())
+                .toList();
+
+        return LeaderboardDTO.builder()
+                .metric(metric)
+                .trainerId(trainerId)
+                .weekStart(metric == LeaderboardMetric.STREAK ? null : current.weekStart)
+                .totalMembers(index.size())
+                .entries(entries)
+                .build();
+    }
+
+    /**
+     * Posición del member en el ranking del gimnasio y en el de su trainer.
+     * Un member sin puntaje en la métrica no tiene posición (rank null).
+     */
+    public MemberRankDTO getMemberRank(LeaderboardMetric metric, Long memberId) {
+        Boards current = current();
+        RankedMember member = current.members.get(memberId);
+        if (member == null) {
+            throw new ResourceNotFoundException("Miembro no encontrado");
+        }
+
+        RankingIndex gym = current.gym.get(metric);
+        Double score = gym.score(memberId);
+        MemberRankDTO.MemberRankDTOBuilder result = MemberRankDTO.builder()
+                .metric(metric)
+                .memberId(memberId)
+                .memberName(member.name())
+                .score(score != null ? score : 0.0)
+                .gymRank(nullIfZero(gym.rank(memberId)))
+                .gymTotal(gym.size())
+                .trainerId(member.trainerId());
+
+        if (member.trainerId() != null) {
+            RankingIndex trainer = current.trainerOrEmpty(metric, member.trainerId());
+            result.trainerRank(nullIfZero(trainer.rank(memberId)))
+                    .trainerTotal(trainer.size());
+        }
+        return result.build();
+    }
+
+    // La semana y las rachas cambian con el día: si el job diario todavía no corrió, se reconstruye acá
+    private Boards current() {
+        Boards current = boards;
+        if (current == null || !current.builtFor.equals(LocalDate.now())) {
+            synchronized (this) {
+                if (boards == null || !boards.builtFor.equals(LocalDate.now())) {
+                    rebuild();
+                }
+                current = boards;
+            }
+        }
+        return current;
+    }
+
+    private void load(Boards target, LeaderboardMetric metric, List<LeaderboardScoreProjection> scores) {
+        for (LeaderboardScoreProjection score : scores) {
+            if (target.members.containsKey(score.getMemberId())) {
+                target.put(metric, score.getMemberId(), score.getScore().doubleValue());
+            }
+        }
+    }
+
+    private static Integer nullIfZero(int rank) {
+        return rank == 0 ? null : rank;
+    }
+
+    private record RankedMember(String name, Long trainerId) {
+    }
+
+    private static final class Boards {
+        private static final RankingIndex EMPTY = new RankingIndex();
+
+        private final LocalDate builtFor;
+        private final LocalDate weekStart;
+        private final Map<Long, RankedMember> members = new ConcurrentHashMap<>();
+        private final Map<LeaderboardMetric, RankingIndex> gym = new EnumMap<>(LeaderboardMetric.class);
+        private final Map<LeaderboardMetric, Map<Long, RankingIndex>> byTrainer = new EnumMap<>(LeaderboardMetric.class);
+
+        private Boards(LocalDate builtFor) {
+            this.builtFor = builtFor;
+            this.weekStart = builtFor.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            for (LeaderboardMetric metric : LeaderboardMetric.values()) {
+                gym.put(metric, new RankingIndex());
+                byTrainer.put(metric, new ConcurrentHashMap<>());
+            }
+        }
+
+        private RankingIndex trainer(LeaderboardMetric metric, Long trainerId) {
+            return byTrainer.get(metric).computeIfAbsent(trainerId, id -> new RankingIndex());
+        }
+
+        // Para lecturas: no crea rankings vacíos por ids de trainer que no existen
+        private RankingIndex trainerOrEmpty(LeaderboardMetric metric, Long trainerId) {
+            return byTrainer.get(metric).getOrDefault(trainerId, EMPTY);
+        }
+
+        private String name(long memberId) {
+            RankedMember member = members.get(memberId);
+            return member != null ? member.name() : null;
+        }
+
+        private void put(LeaderboardMetric metric, long memberId, double score) {
+            gym.get(metric).put(memberId, score);
+            Long trainerId = members.get(memberId).trainerId();
+            if (trainerId != null) {
+                trainer(metric, trainerId).put(memberId, score);
+            }
+        }
+
+        private void add(LeaderboardMetric metric, long memberId, double delta) {
+            Double score = gym.get(metric).score(memberId);
+            put(metric, memberId, (score != null ? score : 0) + delta);
+        }
+
+        // Si el member cambió de trainer, sus puntajes pasan al ranking del trainer nuevo
+        private void assign(long memberId, RankedMember member) {
+            RankedMember previous = members.put(memberId, member);
+            Long previousTrainerId = previous != null ? previous.trainerId() : null;
+            if (Objects.equals(previousTrainerId, member.trainerId())) {
+                return;
+            }
+            if (previousTrainerId != null) {
+                for (LeaderboardMetric metric : LeaderboardMetric.values()) {
+                    trainer(metric, previousTrainerId).remove(memberId);
+                }
+            }
+            moveToTrainer(memberId, member.trainerId());
+        }
+
+        private void moveToTrainer(long memberId, Long trainerId) {
+            if (trainerId == null) {
+                return;
+            }
+            for (LeaderboardMetric metric : LeaderboardMetric.values()) {
+                Double score = gym.get(metric).score(memberId);
+                if (score != null) {
+                    trainer(metric, trainerId).put(memberId, score);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package com.example.fitnesstracker.service;
+
+import com.example.fitnesstracker.dto.request.member.RegisterMemberDTO;
+import com.example.fitnesstracker.dto.response.MemberImportErrorDTO;
+import com.example.fitnesstracker.dto.response.MemberImportResultDTO;
+import com.example.fitnesstracker.enums.MemberImportFormat;
+import com.example.fitnesstracker.exception.InvalidUserDataException;
+import com.example.fitnesstracker.repository.MemberImportRepository;
+import com.example.fitnesstracker.repository.MemberImportRepository.NewMember;
+import com.example.fitnesstracker.security.AdaptivePasswordEncoder;
+import com.example.fitnesstracker.util.CsvReader;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Alta masiva de members desde CSV o NDJSON. Lee la entrada en streaming y la procesa por lotes:
+ * valida las filas en paralelo, chequea unicidad con un IN por columna, hashea las contraseñas en
+ * un pool acotado e inserta users y members en batch, una transacción por lote. A diferencia de
+ * registerMember no genera tokens. Las filas con error se informan y no frenan al resto.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MemberImportService {
+
+    private static final List<String> CSV_COLUMNS = List.of(
+            "username", "email", "password", "firstName", "lastName", "phone", "dateOfBirth");
+    private static final int MINIMUM_AGE = 18;
+
+    private final MemberImportRepository memberImportRepository;
+    private final AdaptivePasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${import.members.batch-size:500}")
+    private int batchSize;
+
+    @Value("${import.members.threads:0}")
+    private int threads;
+
+    @Value("${import.members.max-errors:1000}")
+    private int maxErrors;
+
+    public MemberImportResultDTO importMembers(InputStream input, MemberImportFormat format, boolean dryRun) {
+        if (!running.compareAndSet(false, true)) {
+            throw new InvalidUserDataException("Ya hay una importación de members en curso");
+        }
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ExecutorService workers = newWorkerPool(poolSize);
+        try {
+            long start = System.currentTimeMillis();
+            ImportRun run = new ImportRun(dryRun);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            List<Row> batch = new ArrayList<>(batchSize);
+            Consumer<Row> collect = row -> {
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    processBatch(batch, run, workers);
+                    batch.clear();
+                }
+            };
+            if (format == MemberImportFormat.NDJSON) {
+                readNdjson(reader, collect);
+            } else {
+                readCsv(reader, collect);
+            }
+            if (!batch.isEmpty()) {
+                processBatch(batch, run, workers);
+            }
+
+            long durationMs = System.currentTimeMillis() - start;
+            MemberImportResultDTO result = MemberImportResultDTO.builder()
+                    .dryRun(dryRun)
+                    .totalRows(run.total)
+                    .imported(run.imported)
+                    .failed(run.failed)
+                    .batches(run.batches)
+                    .durationMs(durationMs)
+                    .rowsPerSecond(durationMs > 0 ? run.total * 1000.0 / durationMs : run.total)
+                    .errors(run.errors)
+                    .build();
+            log.info("Importación de members{}: {} filas, {} importadas, {} con error en {} ms ({} filas/s)",
+                    dryRun ? " (dry run)" : "", result.getTotalRows(), result.getImported(), result.getFailed(),
+                    durationMs, String.format(Locale.ROOT, "%.0f", result.getRowsPerSecond()));
+            return result;
+        } catch (UncheckedIOException e) {
+            throw new InvalidUserDataException("No se pudo leer el archivo: " + e.getCause().getMessage());
+        } finally {
+            workers.shutdownNow();
+            running.set(false);
+        }
+    }
+
+    // ========== Lectura ==========
+
+    private void readCsv(BufferedReader reader, Consumer<Row> collect) {
+        try {
+            CsvReader csv = new CsvReader(reader);
+            List<String> header = csv.next();
+            if (header == null) {
+                return;
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            List<String> missing = CSV_COLUMNS.stream()
+                    .filter(column -> !columns.containsKey(column.toLowerCase(Locale.ROOT)))
+                    .toList();
+            if (!missing.isEmpty()) {
+                throw new InvalidUserDataException("Faltan columnas en el encabezado del CSV: " + String.join(", ", missing));
+            }
+
+            List<String> fields;
+            while ((fields = csv.next()) != null) {
+                if (fields.size() == 1 && fields.get(0).isBlank()) {
+                    continue;
+                }
+                collect.accept(fromCsv(csv.getRecordLine(), fields, columns));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Row fromCsv(int line, List<String> fields, Map<String, Integer> columns) {
+        Row row = new Row(line);
+        RegisterMemberDTO dto = RegisterMemberDTO.builder()
+                .username(field(fields, columns, "username"))
+                .email(field(fields, columns, "email"))
+                .password(field(fields, columns, "password"))
+                .firstName(field(fields, columns, "firstName"))
+                .lastName(field(fields, columns, "lastName"))
+                .phone(field(fields, columns, "phone"))
+                .build();
+        row.dto = dto;
+        String dateOfBirth = field(fields, columns, "dateOfBirth");
+        if (dateOfBirth != null) {
+            try {
+                dto.setDateOfBirth(LocalDate.parse(dateOfBirth));
+            } catch (DateTimeParseException e) {
+                row.fail("dateOfBirth", "Fecha inválida, se espera YYYY-MM-DD");
+            }
+        }
+        return row;
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        int index = columns.get(name.toLowerCase(Locale.ROOT));
+        if (index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private void readNdjson(BufferedReader reader, Consumer<Row> collect) {
+        try {
+            String text;
+            int line = 0;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                Row row = new Row(line);
+                try {
+                    row.dto = objectMapper.readValue(text, RegisterMemberDTO.class);
+                } catch (JsonProcessingException e) {
+                    row.fail(null, "JSON inválido: " + e.getOriginalMessage());
+                }
+                collect.accept(row);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ========== Lotes ==========
+
+    private void processBatch(List<Row> batch, ImportRun run, ExecutorService workers) {
+        run.batches++;
+        run.total += batch.size();
+
+        inParallel(workers, batch, this::validate);
+        checkDuplicatesInFile(batch, run);
+        checkExisting(batch);
+
+        List<Row> valid = batch.stream().filter(row -> row.error == null).toList();
+        if (!run.dryRun && !valid.isEmpty()) {
+            inParallel(workers, valid, row -> row.passwordHash = passwordEncoder.encodeInCallerThread(row.dto.getPassword()));
+            insert(valid);
+        }
+
+        for (Row row : batch) {
+            if (row.error == null) {
+                run.imported++;
+            } else {
+                run.failed++;
+                if (run.errors.size() < maxErrors) {
+                    run.errors.add(row.error);
+                }
+            }
+        }
+    }
+
+    private void validate(Row row) {
+        if (row.error != null) {
+            return;
+        }
+        RegisterMemberDTO dto = row.dto;
+        ConstraintViolation<RegisterMemberDTO> violation = validator.validate(dto).stream()
+                .min(Comparator.comparing(v -> CSV_COLUMNS.indexOf(v.getPropertyPath().toString())))
+                .orElse(null);
+        if (violation != null) {
+            row.fail(violation.getPropertyPath().toString(), violation.getMessage());
+        } else if (dto.getDateOfBirth().isAfter(LocalDate.now().minusYears(MINIMUM_AGE))) {
+            row.fail("dateOfBirth", "Debes tener al menos 18 años para registrarte");
+        }
+    }
+
+    // Dos filas del mismo archivo con igual username, email o teléfono: se queda la primera
+    private void checkDuplicatesInFile(List<Row> batch, ImportRun run) {
+        for (Row row : batch) {
+            if (row.error != null) {
+                continue;
+            }
+            if (!run.usernames.add(row.username())) {
+                row.fail("username", "Username repetido en el archivo");
+            } else if (!run.emails.add(row.email())) {
+                row.fail("email", "Email repetido en el archivo");
+            } else if (!run.phones.add(row.dto.getPhone())) {
+                row.fail("phone", "Teléfono repetido en el archivo");
+            }
+        }
+    }
+
+    private void checkExisting(List<Row> batch) {
+        List<Row> pending = batch.stream().filter(row -> row.error == null).toList();
+        if (pending.isEmpty()) {
+            return;
+        }
+        Set<String> usernames = memberImportRepository.findExistingUsernames(pending.stream().map(Row::username).toList());
+        Set<String> emails = memberImportRepository.findExistingEmails(pending.stream().map(Row::email).toList());
+        Set<String> phones = memberImportRepository.findExistingPhones(pending.stream().map(row -> row.dto.getPhone()).toList());
+        for (Row row : pending) {
+            if (usernames.contains(row.username())) {
+                row.fail("username", "El nombre de usuario ya está registrado");
+            } else if (emails.contains(row.email())) {
+                row.fail("email", "El email ya está registrado");
+            } else if (phones.contains(row.dto.getPhone())) {
+                row.fail("phone", "El teléfono ya está registrado");
+            }
+        }
+    }
+
+    private void insert(List<Row> valid) {
+        List<NewMember> members = valid.stream()
+                .map(row -> new NewMember(row.dto.getUsername(), row.dto.getEmail(), row.passwordHash,
+                        row.dto.getFirstName(), row.dto.getLastName(), row.dto.getPhone(), row.dto.getDateOfBirth()))
+                .toList();
+        LocalDate today = LocalDate.now();
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    memberImportRepository.insertMembers(members, today, today.plusMonths(1)));
+        } catch (DataAccessException e) {
+            // Otra alta pudo tomar un username, email o teléfono después del chequeo: el lote entero se descarta
+            log.warn("Falló la inserción de un lote de {} members: {}", members.size(), e.getMessage());
+            valid.forEach(row -> row.fail(null, "No se pudo insertar el lote; vuelve a importar esta fila"));
+        }
+    }
+
+    private static void inParallel(ExecutorService workers, List<Row> rows, Consumer<Row> task) {
+        List<Callable<Void>> tasks = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            tasks.add(() -> {
+                task.accept(row);
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> future : workers.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Importación interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falló el procesamiento de una fila", e.getCause());
+        }
+    }
+
+    private ExecutorService newWorkerPool(int size) {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(Math.max(1, batchSize)),
+                r -> {
+                    Thread thread = new Thread(r, "member-import-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    private static final class Row {
+        private final int line;
+        private RegisterMemberDTO dto;
+        private String passwordHash;
+        private MemberImportErrorDTO error;
+
+        private Row(int line) {
+            this.line = line;
+        }
+
+        private String username() {
+            return dto.getUsername().toLowerCase(Locale.ROOT);
+        }
+
+        private String email() {
+            return dto.getEmail().toLowerCase(Locale.ROOT);
+        }
+
+        private void fail(String field, String message) {
+            error = MemberImportErrorDTO.builder()
+                    .line(line)
+                    .username(dto != null ? dto.getUsername() : null)
+                    .field(field)
+                    .message(message)
+                    .build();
+        }
+    }
+
+    private static final class ImportRun {
+        private final boolean dryRun;
+        private final Set<String> usernames = new HashSet<>();
+        private final Set<String> emails = new HashSet<>();
+        private final Set<String> phones = new HashSet<>();
+        private final List<MemberImportErrorDTO> errors = new ArrayList<>();
+        private int total;
+        private int imported;
+        private int failed;
+        private int batches;
+
+        private ImportRun(boolean dryRun) {
+            this.dryRun = dryRun;
+        }
+    }
+}
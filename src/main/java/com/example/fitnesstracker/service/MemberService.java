@@ -14,8 +14,12 @@ import com.example.fitnesstracker.mapper.UserMapper;
 import com.example.fitnesstracker.model.Member;
 import com.example.fitnesstracker.model.User;
 import com.example.fitnesstracker.repository.MemberRepository;
+import com.example.fitnesstracker.repository.TrainerRepository;
 import com.example.fitnesstracker.repository.UserRepository;
 import com.example.fitnesstracker.security.JwtTokenProvider;
+import com.example.fitnesstracker.util.ETags;
+import com.example.fitnesstracker.util.FieldSelection;
+import com.example.fitnesstracker.util.SoftDeleteFilter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -23,6 +27,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -40,6 +45,10 @@ public class MemberService {
     private final UserService userService;
     private final UserMapper userMapper;
     private final JwtTokenProvider jwtTokenProvider;
+    private final RefreshTokenService refreshTokenService;
+    private final SoftDeleteFilter softDeleteFilter;
+    private final TrainerRepository trainerRepository;
+    private final TrainerLoadService trainerLoadService;
 
     @Transactional
     public AuthResponse registerMember(RegisterMemberDTO dto) {
@@ -68,7 +77,8 @@ public class MemberService {
         Member savedMember = memberRepository.save(member);
 
         // 3. Generar token
-        String token = jwtTokenProvider.generateToken(user.getUsername());
+        RefreshTokenService.Session session = refreshTokenService.startSession(user);
+        String token = jwtTokenProvider.generateToken(user, session.sessionId());
 
         log.info("Miembro registrado: {}", user.getUsername());
 
@@ -76,6 +86,8 @@ public class MemberService {
         return AuthResponse.builder()
                 .token(token)
                 .type("Bearer")
+                .refreshToken(session.refreshToken())
+                .expiresAt(jwtTokenProvider.nextExpiration())
                 .user(userMapper.toDto(user))
                 .member(memberMapper.toDTO(savedMember))
                 .message("Miembro registrado exitosamente")
@@ -83,11 +95,23 @@ public class MemberService {
     }
 
     public MemberDTO getMemberById(Long memberId) {
+        return getMemberById(memberId, FieldSelection.ALL);
+    }
+
+    /**
+     * El perfil completo (user y trainer en joins) solo se trae si se va a mostrar el email o el trainer.
+     */
+    @Transactional(readOnly = true)
+    public MemberDTO getMemberById(Long memberId, FieldSelection selection) {
         log.debug("Buscando miembro por ID: {}", memberId);
-        Member member = memberRepository.findByIdWithFullProfile(memberId)
-                .orElseThrow(() -> new ResourceNotFoundException(MEMBER_NOT_FOUND));
-        return memberMapper.toDTO(member);
+        Member member = selection.has("email") || selection.includes("trainer")
+                ? memberRepository.findByIdWithFullProfile(memberId)
+                .orElseThrow(() -> new ResourceNotFoundException(MEMBER_NOT_FOUND))
+                : findExistingMemberById(memberId);
+        return memberMapper.toDTO(member, selection);
     }
+
+    @Transactional(readOnly = true)
     public MemberDTO getMemberByUsername(String username) {
         log.debug("Buscando member por username: {}", username);
         Member member = memberRepository.findByUserUsernameAndDeletedAtIsNull(username)
@@ -100,25 +124,38 @@ public class MemberService {
     }
 
     public List<MemberDTO> getAllMembers() {
+        return getAllMembers(FieldSelection.ALL);
+    }
+
+    @Transactional(readOnly = true)
+    public List<MemberDTO> getAllMembers(FieldSelection selection) {
         log.debug("Obteniendo todos los miembros activos");
-        return memberRepository.findAllActiveWithValidMembership(LocalDate.now())
-                .stream()
-                .map(memberMapper::toDTO)
-                .collect(Collectors.toList());
+        return toDTOs(memberRepository.findAllActiveWithValidMembership(LocalDate.now()), selection);
+    }
+
+    /**
+     * Lote del DataLoader de GraphQL. Los members inexistentes o borrados no vienen en el mapa.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, MemberDTO> getMembersByIds(List<Long> memberIds) {
+        log.debug("Cargando {} miembros por lote", memberIds.size());
+        return memberRepository.findAllWithUserByIdIn(memberIds).stream()
+                .collect(Collectors.toMap(Member::getId, memberMapper::toDTO));
     }
 
     @Transactional
-    public MemberDTO updateMember(Long memberId, UpdateMemberDTO dto) {
+    public MemberDTO updateMember(Long memberId, UpdateMemberDTO dto, Long expectedVersion) {
         log.info("Actualizando miembro: {}", memberId);
 
         Member member = findExistingMemberById(memberId);
+        ETags.checkVersion(expectedVersion, member.getVersion());
 
         if (dto.getPhone() != null && !dto.getPhone().equals(member.getPhone())) {
             validateUniquePhone(dto.getPhone());
         }
 
         memberMapper.updateFromDTO(dto, member);
-        Member updatedMember = memberRepository.save(member);
+        Member updatedMember = memberRepository.saveAndFlush(member);
 
         log.info("Miembro actualizado exitosamente: {}", memberId);
         return memberMapper.toDTO(updatedMember);
@@ -131,6 +168,11 @@ public class MemberService {
         Member member = findExistingMemberById(memberId);
         member.softDelete();
         member.getUser().softDelete();
+        refreshTokenService.revokeAllForUser(member.getUser().getId());
+        if (member.getAssignedTrainer() != null) {
+            trainerRepository.releaseSlot(member.getAssignedTrainer().getId());
+            trainerLoadService.refresh(member.getAssignedTrainer().getId());
+        }
 
         memberRepository.save(member);
         log.info("Miembro eliminado exitosamente: {}", memberId);
@@ -140,22 +182,33 @@ public class MemberService {
     public void restoreMember(Long memberId) {
         log.info("Restaurando miembro: {}", memberId);
 
-        Member member = memberRepository.findById(memberId)
+        Member member = softDeleteFilter.withDeleted(() -> memberRepository.findById(memberId))
                 .orElseThrow(() -> new ResourceNotFoundException(MEMBER_NOT_FOUND));
 
         member.restore();
         member.getUser().restore();
+        if (member.getAssignedTrainer() != null) {
+            trainerLoadService.refresh(member.getAssignedTrainer().getId());
+        }
+        // Mientras estuvo eliminado su lugar pudo ocuparse: si el trainer ya no tiene cupo, vuelve sin trainer
+        if (member.getAssignedTrainer() != null && trainerRepository.reserveSlot(member.getAssignedTrainer().getId()) == 0) {
+            log.warn("El trainer {} no tiene cupo para el miembro restaurado {}, se desasigna", member.getAssignedTrainer().getId(), memberId);
+            member.setAssignedTrainer(null);
+            member.setAssignmentStatus(AssignmentStatus.NO_TRAINER);
+        }
         memberRepository.save(member);
 
         log.info("Miembro restaurado exitosamente: {}", memberId);
     }
 
     public List<MemberDTO> getMembersByTrainer(Long trainerId) {
+        return getMembersByTrainer(trainerId, FieldSelection.ALL);
+    }
+
+    @Transactional(readOnly = true)
+    public List<MemberDTO> getMembersByTrainer(Long trainerId, FieldSelection selection) {
         log.debug("Obteniendo miembros del entrenador: {}", trainerId);
-        return memberRepository.findActiveByTrainerIdWithUser(trainerId)
-                .stream()
-                .map(memberMapper::toDTO)
-                .collect(Collectors.toList());
+        return toDTOs(memberRepository.findActiveByTrainerIdWithUser(trainerId), selection);
     }
 
     public List<MemberDTO> getExpiredMemberships() {
@@ -213,6 +266,16 @@ public class MemberService {
                 .build();
     }
 
+    // Con include=trainer los trainers de toda la lista se traen en una sola query
+    private List<MemberDTO> toDTOs(List<Member> members, FieldSelection selection) {
+        if (selection.includes("trainer") && !members.isEmpty()) {
+            memberRepository.fetchAssignedTrainers(members.stream().map(Member::getId).toList());
+        }
+        return members.stream()
+                .map(member -> memberMapper.toDTO(member, selection))
+                .collect(Collectors.toList());
+    }
+
     private Member findExistingMemberById(Long memberId) {
         return memberRepository.findById(memberId)
                 .filter(member -> !member.isDeleted())
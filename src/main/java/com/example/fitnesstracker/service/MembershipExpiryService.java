@@ -0,0 +1,145 @@
+package com.example.fitnesstracker.service;
+
+import com.example.fitnesstracker.dto.response.MembershipExpiryRunDTO;
+import com.example.fitnesstracker.enums.OutboxEventType;
+import com.example.fitnesstracker.exception.InvalidUserDataException;
+import com.example.fitnesstracker.repository.MembershipExpiryRepository;
+import com.example.fitnesstracker.repository.MembershipExpiryRepository.ExpiryKey;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Procesamiento nocturno de vencimientos de membresía.
+ * Recorre members por lotes con keyset y cada lote es una transacción corta:
+ * nunca hay más de un lote en memoria ni locks sobre más filas que las del lote.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MembershipExpiryService {
+
+    private final MembershipExpiryRepository membershipExpiryRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final TrainerLoadService trainerLoadService;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${membership.expiry.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${membership.expiry.notice-days:7}")
+    private int noticeDays;
+
+    @Value("${membership.expiry.lookback-days:30}")
+    private int lookbackDays;
+
+    @Scheduled(cron = "${membership.expiry.cron:0 1 0 * * *}")
+    public void scheduledRun() {
+        try {
+            run();
+        } catch (RuntimeException e) {
+            log.error("Falló el procesamiento de vencimientos de membresía", e);
+        }
+    }
+
+    /**
+     * Members vencidos: libera su trainer, cancela solicitudes pendientes y notifica los vencimientos
+     * de los últimos {@code lookbackDays} días. Members por vencer en {@code noticeDays} días: solo notifica.
+     */
+    public MembershipExpiryRunDTO run() {
+        if (!running.compareAndSet(false, true)) {
+            throw new InvalidUserDataException("Ya hay un procesamiento de vencimientos en curso");
+        }
+        try {
+            long start = System.currentTimeMillis();
+            LocalDate today = LocalDate.now();
+            LocalDate notifyFrom = today.minusDays(lookbackDays);
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            RunTotals totals = new RunTotals();
+
+            Consumer<List<ExpiryKey>> expire = chunk -> transactionTemplate.executeWithoutResult(status -> {
+                List<Long> ids = ids(chunk);
+                List<Long> recent = chunk.stream()
+                        .filter(key -> !key.membershipEndDate().isBefore(notifyFrom))
+                        .map(ExpiryKey::memberId)
+                        .toList();
+                // El evento se encola antes de liberar para que el payload conserve el trainer
+                if (!recent.isEmpty()) {
+                    totals.expiredNotifications += membershipExpiryRepository.insertNotifications(recent, OutboxEventType.MEMBERSHIP_EXPIRED);
+                }
+                totals.cancelledRequests += membershipExpiryRepository.cancelPendingRequests(ids);
+                membershipExpiryRepository.releaseTrainerSlots(ids);
+                totals.releasedAssignments += membershipExpiryRepository.releaseAssignments(ids);
+            });
+            // Antes de la ventana de aviso solo queda trabajo con los que siguen asignados: no se recorre todo el histórico
+            scan(LocalDate.EPOCH, notifyFrom, true, totals, expire);
+            scan(notifyFrom, today, false, totals, expire);
+
+            // Los cupos se liberaron con UPDATE masivo: más simple releer todo el índice que trainer por trainer
+            if (totals.releasedAssignments > 0) {
+                trainerLoadService.rebuild();
+            }
+
+            scan(today, today.plusDays(noticeDays + 1L), false, totals, chunk -> transactionTemplate.executeWithoutResult(status ->
+                    totals.expiringNotifications += membershipExpiryRepository.insertNotifications(ids(chunk), OutboxEventType.MEMBERSHIP_EXPIRING)));
+
+            MembershipExpiryRunDTO result = MembershipExpiryRunDTO.builder()
+                    .scannedMembers(totals.scanned)
+                    .chunks(totals.chunks)
+                    .releasedAssignments(totals.releasedAssignments)
+                    .cancelledRequests(totals.cancelledRequests)
+                    .expiredNotifications(totals.expiredNotifications)
+                    .expiringNotifications(totals.expiringNotifications)
+                    .durationMs(System.currentTimeMillis() - start)
+                    .build();
+            log.info("Vencimientos procesados: {} members en {} lotes, {} trainers liberados, {} notificaciones en {} ms",
+                    result.getScannedMembers(), result.getChunks(), result.getReleasedAssignments(),
+                    result.getExpiredNotifications() + result.getExpiringNotifications(), result.getDurationMs());
+            return result;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void scan(LocalDate from, LocalDate to, boolean assignedOnly, RunTotals totals, Consumer<List<ExpiryKey>> handler) {
+        LocalDate afterDate = from;
+        long afterId = 0;
+        List<ExpiryKey> chunk;
+        do {
+            chunk = membershipExpiryRepository.findChunk(from, to, assignedOnly, afterDate, afterId, chunkSize);
+            if (chunk.isEmpty()) {
+                return;
+            }
+            handler.accept(chunk);
+            totals.scanned += chunk.size();
+            totals.chunks++;
+
+            ExpiryKey last = chunk.get(chunk.size() - 1);
+            afterDate = last.membershipEndDate();
+            afterId = last.memberId();
+        } while (chunk.size() == chunkSize);
+    }
+
+    private static List<Long> ids(List<ExpiryKey> chunk) {
+        return chunk.stream().map(ExpiryKey::memberId).toList();
+    }
+
+    private static final class RunTotals {
+        private int scanned;
+        private int chunks;
+        private int releasedAssignments;
+        private int cancelledRequests;
+        private int expiredNotifications;
+        private int expiringNotifications;
+    }
+}
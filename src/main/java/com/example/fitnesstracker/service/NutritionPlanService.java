@@ -5,23 +5,29 @@ import com.example.fitnesstracker.dto.request.nutrition.CreateNutritionPlanDTO;
 import com.example.fitnesstracker.dto.response.nutrition.NutritionMealDTO;
 import com.example.fitnesstracker.dto.response.nutrition.NutritionPlanDTO;
 import com.example.fitnesstracker.enums.NutritionPlanStatus;
+import com.example.fitnesstracker.enums.OutboxEventType;
 import com.example.fitnesstracker.exception.InvalidUserDataException;
 import com.example.fitnesstracker.exception.ResourceNotFoundException;
 import com.example.fitnesstracker.mapper.NutritionPlanMapper;
 import com.example.fitnesstracker.model.Member;
 import com.example.fitnesstracker.model.NutritionMeal;
 import com.example.fitnesstracker.model.NutritionPlan;
+import com.example.fitnesstracker.model.OutboxEvent;
 import com.example.fitnesstracker.model.Trainer;
 import com.example.fitnesstracker.repository.MemberRepository;
 import com.example.fitnesstracker.repository.NutritionMealRepository;
 import com.example.fitnesstracker.repository.NutritionPlanRepository;
+import com.example.fitnesstracker.repository.PlanVersionProjection;
 import com.example.fitnesstracker.repository.TrainerRepository;
+import com.example.fitnesstracker.util.ETags;
+import com.example.fitnesstracker.util.FieldSelection;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,12 +36,14 @@ import java.util.stream.Collectors;
 public class NutritionPlanService {
 
     private static final String PLAN_NOT_FOUND = "Plan nutricional no encontrado";
+    private static final FieldSelection PLAN_DETAIL = FieldSelection.of("meals");
 
     private final NutritionPlanRepository nutritionPlanRepository;
     private final NutritionMealRepository nutritionMealRepository;
     private final MemberRepository memberRepository;
     private final TrainerRepository trainerRepository;
     private final NutritionPlanMapper nutritionPlanMapper;
+    private final OutboxService outboxService;
 
     @Transactional
     public NutritionPlanDTO createNutritionPlan(Long trainerId, CreateNutritionPlanDTO dto) {
@@ -84,6 +92,7 @@ public class NutritionPlanService {
         if (!plan.getTrainer().getId().equals(trainerId)) {
             throw new InvalidUserDataException("No tenés permiso para modificar este plan");
         }
+        requireDraft(plan);
 
         NutritionMeal meal = NutritionMeal.builder()
                 .nutritionPlan(plan)
@@ -100,13 +109,21 @@ public class NutritionPlanService {
 
         NutritionMeal saved = nutritionMealRepository.save(meal);
         plan.addMeal(saved);
+        plan.touch();
 
         log.info("Comida agregada al plan: {}", saved.getName());
         return nutritionPlanMapper.toMealDTO(saved);
     }
 
+    // Un plan activado se sirve con Cache-Control max-age: sus comidas ya no cambian
+    private static void requireDraft(NutritionPlan plan) {
+        if (plan.getStatus() != NutritionPlanStatus.DRAFT) {
+            throw new InvalidUserDataException("Solo se pueden modificar planes en borrador");
+        }
+    }
+
     @Transactional
-    public NutritionPlanDTO activatePlan(Long planId, Long trainerId) {
+    public NutritionPlanDTO activatePlan(Long planId, Long trainerId, Long expectedVersion) {
         log.info("Trainer {} activando plan nutricional {}", trainerId, planId);
 
         NutritionPlan plan = findExistingPlan(planId);
@@ -114,38 +131,108 @@ public class NutritionPlanService {
         if (!plan.getTrainer().getId().equals(trainerId)) {
             throw new InvalidUserDataException("No tenés permiso para activar este plan");
         }
+        ETags.checkVersion(expectedVersion, plan.getVersion());
 
         if (plan.getMeals() == null || plan.getMeals().isEmpty()) {
             throw new InvalidUserDataException("El plan debe tener al menos una comida");
         }
 
         plan.setStatus(NutritionPlanStatus.ACTIVE);
-        NutritionPlan updated = nutritionPlanRepository.save(plan);
+        NutritionPlan updated = nutritionPlanRepository.saveAndFlush(plan);
+        outboxService.record(OutboxEventType.NUTRITION_PLAN_ACTIVATED, OutboxEvent.AGGREGATE_NUTRITION_PLAN, planId,
+                OutboxService.payload("planId", planId, "memberId", plan.getMember().getId(), "trainerId", trainerId));
         log.info("Plan nutricional activado: {}", planId);
         return nutritionPlanMapper.toDTO(updated, true);
     }
 
     public NutritionPlanDTO getPlanById(Long planId) {
-        return nutritionPlanMapper.toDTO(findExistingPlan(planId), true);
+        return getPlanById(planId, PLAN_DETAIL);
+    }
+
+    @Transactional(readOnly = true)
+    public NutritionPlanDTO getPlanById(Long planId, FieldSelection selection) {
+        NutritionPlan plan = findExistingPlan(planId);
+        fetchSelected(List.of(plan), selection);
+        return nutritionPlanMapper.toDTO(plan, selection);
+    }
+
+    // Versión y estado del plan sin cargar las comidas, para responder If-None-Match
+    public PlanVersionProjection getPlanVersion(Long planId) {
+        return nutritionPlanRepository.findVersionById(planId)
+                .orElseThrow(() -> new ResourceNotFoundException(PLAN_NOT_FOUND));
     }
 
     public List<NutritionPlanDTO> getActivePlansByMember(Long memberId) {
-        return nutritionPlanRepository.findActivePlansByMember(memberId).stream()
-                .map(p -> nutritionPlanMapper.toDTO(p, true))
-                .collect(Collectors.toList());
+        return getActivePlansByMember(memberId, PLAN_DETAIL);
+    }
+
+    @Transactional(readOnly = true)
+    public List<NutritionPlanDTO> getActivePlansByMember(Long memberId, FieldSelection selection) {
+        return toDTOs(nutritionPlanRepository.findActivePlansByMember(memberId), selection);
+    }
+
+    /**
+     * Planes activos de varios members en una query, agrupados por member.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, List<NutritionPlanDTO>> getActivePlansByMembers(List<Long> memberIds, FieldSelection selection) {
+        List<NutritionPlan> plans = nutritionPlanRepository.findActivePlansByMembers(memberIds);
+        fetchSelected(plans, selection);
+        return plans.stream()
+                .collect(Collectors.groupingBy(plan -> plan.getMember().getId(),
+                        Collectors.mapping(plan -> nutritionPlanMapper.toDTO(plan, selection), Collectors.toList())));
+    }
+
+    /**
+     * Comidas de varios planes en una query, agrupadas por plan.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, List<NutritionMealDTO>> getMealsByPlans(List<Long> planIds) {
+        return nutritionPlanRepository.fetchMeals(planIds).stream()
+                .collect(Collectors.toMap(NutritionPlan::getId, plan -> plan.getMeals().stream()
+                        .filter(meal -> meal.getDeletedAt() == null)
+                        .map(nutritionPlanMapper::toMealDTO)
+                        .collect(Collectors.toList())));
     }
 
     public List<NutritionPlanDTO> getAllPlansByMember(Long memberId) {
-        return nutritionPlanRepository.findByMember_IdAndDeletedAtIsNull(memberId).stream()
-                .map(p -> nutritionPlanMapper.toDTO(p, false))
-                .collect(Collectors.toList());
+        return getAllPlansByMember(memberId, FieldSelection.ALL);
+    }
+
+    @Transactional(readOnly = true)
+    public List<NutritionPlanDTO> getAllPlansByMember(Long memberId, FieldSelection selection) {
+        return toDTOs(nutritionPlanRepository.findByMember_IdAndDeletedAtIsNull(memberId), selection);
     }
 
     public List<NutritionPlanDTO> getPlansByTrainer(Long trainerId) {
-        return nutritionPlanRepository.findByTrainer_IdAndDeletedAtIsNull(trainerId).stream()
-                .map(p -> nutritionPlanMapper.toDTO(p, false))
+        return getPlansByTrainer(trainerId, FieldSelection.ALL);
+    }
+
+    @Transactional(readOnly = true)
+    public List<NutritionPlanDTO> getPlansByTrainer(Long trainerId, FieldSelection selection) {
+        return toDTOs(nutritionPlanRepository.findByTrainer_IdAndDeletedAtIsNull(trainerId), selection);
+    }
+
+    private List<NutritionPlanDTO> toDTOs(List<NutritionPlan> plans, FieldSelection selection) {
+        fetchSelected(plans, selection);
+        return plans.stream()
+                .map(p -> nutritionPlanMapper.toDTO(p, selection))
                 .collect(Collectors.toList());
     }
+
+    // Una query por relación para todos los planes, y solo si el mapper la va a leer
+    private void fetchSelected(List<NutritionPlan> plans, FieldSelection selection) {
+        if (plans.isEmpty()) {
+            return;
+        }
+        List<Long> planIds = plans.stream().map(NutritionPlan::getId).toList();
+        if (selection.has("memberName") || selection.has("trainerName")) {
+            nutritionPlanRepository.fetchMemberAndTrainer(planIds);
+        }
+        if (selection.includes("meals") || selection.has("totalMeals")) {
+            nutritionPlanRepository.fetchMeals(planIds);
+        }
+    }
     public long countActivePlansByTrainer(Long trainerId) {
         return nutritionPlanRepository.countActivePlansByTrainer(trainerId);
     }
@@ -179,17 +266,20 @@ public class NutritionPlanService {
         if (!meal.getNutritionPlan().getTrainer().getId().equals(trainerId)) {
             throw new InvalidUserDataException("No tenés permiso para eliminar esta comida");
         }
+        requireDraft(meal.getNutritionPlan());
         meal.softDelete();
         nutritionMealRepository.save(meal);
+        meal.getNutritionPlan().touch();
         log.info("Comida {} eliminada", mealId);
     }
     @Transactional
-    public void cancelPlan(Long planId, Long trainerId) {
+    public void cancelPlan(Long planId, Long trainerId, Long expectedVersion) {
         log.info("Trainer {} cancelando plan nutricional {}", trainerId, planId);
         NutritionPlan plan = findExistingPlan(planId);
         if (!plan.getTrainer().getId().equals(trainerId)) {
             throw new InvalidUserDataException("No tenés permiso para cancelar este plan");
         }
+        ETags.checkVersion(expectedVersion, plan.getVersion());
         if (plan.getStatus() == NutritionPlanStatus.CANCELLED) {
             throw new InvalidUserDataException("El plan ya está cancelado");
         }
@@ -0,0 +1,154 @@
+package com.example.fitnesstracker.service;
+
+import com.example.fitnesstracker.enums.OutboxEventType;
+import com.example.fitnesstracker.event.DomainEvent;
+import com.example.fitnesstracker.event.DomainEventBus;
+import com.example.fitnesstracker.model.OutboxEvent;
+import com.example.fitnesstracker.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lleva los eventos del outbox al bus por lotes. Cada lote se bloquea, se publica y se marca
+ * en una sola transacción; si algún sink falla, el lote se vuelve a publicar de a un evento
+ * y solo suma un intento el evento que falla.
+ * Después de {@code maxAttempts} intentos el evento deja de reintentarse y queda para revisión manual.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelayService {
+
+    private static final int DELETE_BATCH_SIZE = 1000;
+
+    // MembershipExpiryService no vuelve a encolar estas notificaciones mientras exista la fila con su event_key
+    private static final List<String> DEDUPED_TYPES =
+            List.of(OutboxEventType.MEMBERSHIP_EXPIRING.name(), OutboxEventType.MEMBERSHIP_EXPIRED.name());
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final DomainEventBus domainEventBus;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${events.relay.batch-size:200}")
+    private int batchSize;
+
+    @Value("${events.relay.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${events.outbox.retention-days:7}")
+    private int retentionDays;
+
+    @Value("${membership.expiry.lookback-days:30}")
+    private int expiryLookbackDays;
+
+    @Value("${membership.expiry.notice-days:7}")
+    private int expiryNoticeDays;
+
+    @Scheduled(fixedDelayString = "${events.relay.interval-ms:1000}")
+    public void scheduledRelay() {
+        try {
+            relay();
+        } catch (RuntimeException e) {
+            log.error("Falló la publicación de eventos del outbox", e);
+        }
+    }
+
+    /**
+     * Publica lotes hasta vaciar el outbox o hasta que un lote falle. Devuelve cuántos eventos publicó.
+     */
+    public int relay() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int published = 0;
+        BatchResult batch;
+        do {
+            batch = relayBatch(transactionTemplate);
+            published += batch.published();
+        } while (batch.more());
+        return published;
+    }
+
+    private BatchResult relayBatch(TransactionTemplate transactionTemplate) {
+        List<Long> ids = new ArrayList<>();
+        try {
+            Integer count = transactionTemplate.execute(status -> {
+                List<OutboxEvent> events = outboxEventRepository.findUnpublishedForUpdate(maxAttempts, PageRequest.of(0, batchSize));
+                if (events.isEmpty()) {
+                    return 0;
+                }
+                events.forEach(event -> ids.add(event.getId()));
+                domainEventBus.publish(events.stream().map(DomainEvent::from).toList());
+                outboxEventRepository.markPublished(ids, LocalDateTime.now());
+                return events.size();
+            });
+            int published = count != null ? count : 0;
+            return new BatchResult(published, published == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("No se pudo publicar un lote de {} eventos, se reintenta de a uno: {}", ids.size(), e.getMessage());
+            return new BatchResult(relayOneByOne(transactionTemplate), false);
+        }
+    }
+
+    /**
+     * Vuelve a bloquear el lote y publica cada evento por separado, así un evento roto no gasta
+     * los reintentos del resto. Los que ya habían llegado a algún sink se entregan de nuevo:
+     * la entrega es al menos una vez y los consumidores deduplican por eventKey.
+     */
+    private int relayOneByOne(TransactionTemplate transactionTemplate) {
+        Integer count = transactionTemplate.execute(status -> {
+            List<Long> publishedIds = new ArrayList<>();
+            List<Long> failedIds = new ArrayList<>();
+            for (OutboxEvent event : outboxEventRepository.findUnpublishedForUpdate(maxAttempts, PageRequest.of(0, batchSize))) {
+                try {
+                    domainEventBus.publish(List.of(DomainEvent.from(event)));
+                    publishedIds.add(event.getId());
+                } catch (RuntimeException e) {
+                    log.warn("No se pudo publicar el evento {} ({}): {}", event.getId(), event.getEventType(), e.getMessage());
+                    failedIds.add(event.getId());
+                }
+            }
+            if (!publishedIds.isEmpty()) {
+                outboxEventRepository.markPublished(publishedIds, LocalDateTime.now());
+            }
+            if (!failedIds.isEmpty()) {
+                outboxEventRepository.incrementAttempts(failedIds);
+            }
+            return publishedIds.size();
+        });
+        return count != null ? count : 0;
+    }
+
+    // Eventos publicados en un lote y si hay que seguir con el próximo
+    private record BatchResult(int published, boolean more) {
+    }
+
+    /**
+     * Borra los eventos publicados hace más de {@code retentionDays}. Las notificaciones de vencimiento
+     * se guardan mientras el job de vencimientos pueda volver a ver al member (aviso previo más
+     * lookback): si se borraran antes, el job las encolaría de nuevo cada noche.
+     */
+    @Scheduled(cron = "${events.outbox.cleanup-cron:0 30 2 * * *}")
+    public void cleanupPublished() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime before = now.minusDays(retentionDays);
+        LocalDateTime dedupedBefore = now.minusDays(Math.max(retentionDays, expiryLookbackDays + expiryNoticeDays + 1L));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int total = 0;
+        Integer deleted;
+        do {
+            deleted = transactionTemplate.execute(status ->
+                    outboxEventRepository.deletePublishedBefore(before, DEDUPED_TYPES, dedupedBefore, DELETE_BATCH_SIZE));
+            total += deleted != null ? deleted : 0;
+        } while (deleted != null && deleted == DELETE_BATCH_SIZE);
+        log.info("Outbox depurado: {} eventos publicados antes de {}", total, before);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.fitnesstracker.service;
+
+import com.example.fitnesstracker.enums.OutboxEventType;
+import com.example.fitnesstracker.model.OutboxEvent;
+import com.example.fitnesstracker.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Escribe eventos de dominio en el outbox. Exige una transacción abierta: el evento se confirma
+ * o se descarta junto con el cambio que lo origina.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(OutboxEventType type, String aggregateType, Long aggregateId, Map<String, Object> payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el evento " + type, e);
+        }
+        outboxEventRepository.save(OutboxEvent.builder()
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .eventType(type.name())
+                .eventKey(type.name() + ":" + aggregateId + ":" + UUID.randomUUID())
+                .payload(json)
+                .build());
+    }
+
+    /**
+     * Arma el payload a partir de pares clave/valor. A diferencia de Map.of acepta valores null.
+     */
+    public static Map<String, Object> payload(Object... keyValues) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            payload.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return payload;
+    }
+}
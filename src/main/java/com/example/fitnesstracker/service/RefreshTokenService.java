@@ -0,0 +1,138 @@
+package com.example.fitnesstracker.service;
+
+import com.example.fitnesstracker.exception.UnauthorizedException;
+import com.example.fitnesstracker.model.User;
+import com.example.fitnesstracker.repository.RefreshTokenRepository;
+import com.example.fitnesstracker.repository.RefreshTokenRepository.StoredRefreshToken;
+import com.example.fitnesstracker.security.TokenRevocationList;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Sesiones con refresh tokens rotativos. Cada refresh entrega un token nuevo y marca el anterior
+ * como usado; si un token ya usado vuelve a presentarse (robado o reenviado) se revoca la sesión
+ * completa. Revocar una sesión la agrega a {@link TokenRevocationList}, con lo que sus access
+ * tokens dejan de aceptarse aunque no hayan vencido.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenService {
+
+    private static final String INVALID_REFRESH_TOKEN = "Refresh token inválido o vencido";
+    private static final int TOKEN_BYTES = 32;
+    private static final int CLEANUP_BATCH = 1000;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TokenRevocationList tokenRevocationList;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Value("${jwt.refresh.expiration-days:30}")
+    private long refreshExpirationDays;
+
+    public record Session(String sessionId, String refreshToken) {
+    }
+
+    public record RotatedSession(long userId, String sessionId, String refreshToken) {
+    }
+
+    @Transactional
+    public Session startSession(User user) {
+        String sessionId = UUID.randomUUID().toString();
+        return new Session(sessionId, issue(user.getId(), sessionId));
+    }
+
+    /**
+     * Cambia el refresh token por uno nuevo de la misma sesión.
+     */
+    @Transactional(noRollbackFor = UnauthorizedException.class)
+    public RotatedSession rotate(String refreshToken) {
+        StoredRefreshToken stored = refreshTokenRepository.findByHash(hash(refreshToken))
+                .orElseThrow(() -> new UnauthorizedException(INVALID_REFRESH_TOKEN));
+
+        if (stored.revoked() || stored.expiresAt().isBefore(LocalDateTime.now())) {
+            throw new UnauthorizedException(INVALID_REFRESH_TOKEN);
+        }
+        if (stored.used() || !refreshTokenRepository.markUsed(stored.id())) {
+            log.warn("Refresh token reutilizado en la sesión {} del usuario {}: se revoca la sesión",
+                    stored.familyId(), stored.userId());
+            revokeSessions(List.of(stored.familyId()));
+            throw new UnauthorizedException(INVALID_REFRESH_TOKEN);
+        }
+
+        return new RotatedSession(stored.userId(), stored.familyId(), issue(stored.userId(), stored.familyId()));
+    }
+
+    /**
+     * Cierra la sesión del refresh token. Un token desconocido no es error: el logout es idempotente.
+     */
+    @Transactional
+    public void revokeSession(String refreshToken) {
+        refreshTokenRepository.findByHash(hash(refreshToken))
+                .ifPresent(stored -> revokeSessions(List.of(stored.familyId())));
+    }
+
+    /**
+     * Cierra todas las sesiones del usuario (baja, deshabilitación, cambio de password).
+     */
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        List<String> sessions = refreshTokenRepository.findActiveFamilies(userId);
+        if (sessions.isEmpty()) {
+            return;
+        }
+        refreshTokenRepository.revokeUser(userId);
+        tokenRevocationList.revoke(sessions);
+        log.info("Revocadas {} sesiones del usuario {}", sessions.size(), userId);
+    }
+
+    @Scheduled(cron = "${jwt.refresh.cleanup-cron:0 45 2 * * *}")
+    public void deleteExpired() {
+        // Se conservan un día más para que un reintento tardío todavía se reconozca como reutilización
+        LocalDateTime before = LocalDateTime.now().minusDays(1);
+        int deleted;
+        int total = 0;
+        do {
+            deleted = refreshTokenRepository.deleteExpiredBefore(before, CLEANUP_BATCH);
+            total += deleted;
+        } while (deleted == CLEANUP_BATCH);
+        if (total > 0) {
+            log.info("Eliminados {} refresh tokens vencidos", total);
+        }
+    }
+
+    private void revokeSessions(List<String> sessionIds) {
+        sessionIds.forEach(refreshTokenRepository::revokeFamily);
+        tokenRevocationList.revoke(sessionIds);
+    }
+
+    private String issue(long userId, String sessionId) {
+        byte[] random = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(random);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+        refreshTokenRepository.insert(userId, sessionId, hash(token), LocalDateTime.now().plusDays(refreshExpirationDays));
+        return token;
+    }
+
+    private static byte[] hash(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
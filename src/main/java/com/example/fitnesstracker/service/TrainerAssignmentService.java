@@ -4,16 +4,19 @@ import com.example.fitnesstracker.dto.request.assignment.RequestTrainerDTO;
 import com.example.fitnesstracker.dto.request.assignment.RespondRequestDTO;
 import com.example.fitnesstracker.dto.response.assignment.TrainerAssignmentRequestDTO;
 import com.example.fitnesstracker.enums.AssignmentStatus;
+import com.example.fitnesstracker.enums.OutboxEventType;
 import com.example.fitnesstracker.enums.RequestStatus;
 import com.example.fitnesstracker.exception.InvalidUserDataException;
 import com.example.fitnesstracker.exception.ResourceNotFoundException;
 import com.example.fitnesstracker.mapper.TrainerAssignmentRequestMapper;
 import com.example.fitnesstracker.model.Member;
+import com.example.fitnesstracker.model.OutboxEvent;
 import com.example.fitnesstracker.model.Trainer;
 import com.example.fitnesstracker.model.TrainerAssignmentRequest;
 import com.example.fitnesstracker.repository.MemberRepository;
 import com.example.fitnesstracker.repository.TrainerAssignmentRequestRepository;
 import com.example.fitnesstracker.repository.TrainerRepository;
+import com.example.fitnesstracker.util.ETags;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -32,6 +35,8 @@ public class TrainerAssignmentService {
     private final MemberRepository memberRepository;
     private final TrainerRepository trainerRepository;
     private final TrainerAssignmentRequestMapper requestMapper;
+    private final OutboxService outboxService;
+    private final TrainerLoadService trainerLoadService;
 
     @Transactional
     public TrainerAssignmentRequestDTO requestTrainer(Long memberId, RequestTrainerDTO dto) {
@@ -72,16 +77,25 @@ public class TrainerAssignmentService {
         member.setAssignmentStatus(AssignmentStatus.PENDING);
         memberRepository.save(member);
 
+        outboxService.record(OutboxEventType.TRAINER_REQUEST_CREATED, OutboxEvent.AGGREGATE_MEMBER, memberId,
+                OutboxService.payload(
+                        "requestId", savedRequest.getId(),
+                        "memberId", memberId,
+                        "memberName", member.getFirstName() + " " + member.getLastName(),
+                        "trainerId", trainer.getId(),
+                        "message", dto.getMessage(),
+                        "requestedAt", savedRequest.getRequestedAt()));
+
         log.info("Solicitud creada: Member {} -> Trainer {}", memberId, dto.getTrainerId());
 
         return requestMapper.toDTO(savedRequest);
     }
 
     @Transactional
-    public TrainerAssignmentRequestDTO acceptRequest(Long requestId, Long trainerId, RespondRequestDTO dto) {
+    public TrainerAssignmentRequestDTO acceptRequest(Long requestId, Long trainerId, RespondRequestDTO dto, Long expectedVersion) {
         log.info("Trainer {} aceptando solicitud {}", trainerId, requestId);
 
-        TrainerAssignmentRequest request = requestRepository.findById(requestId)
+        TrainerAssignmentRequest request = requestRepository.findByIdForUpdate(requestId)
                 .orElseThrow(() -> new ResourceNotFoundException("Solicitud no encontrada"));
 
         if (request.isDeleted()) {
@@ -91,29 +105,45 @@ public class TrainerAssignmentService {
         if (!request.getTrainer().getId().equals(trainerId)) {
             throw new InvalidUserDataException("No tienes permiso para responder esta solicitud");
         }
+        ETags.checkVersion(expectedVersion, request.getVersion());
 
         if (request.getStatus() != RequestStatus.PENDING) {
             throw new InvalidUserDataException("Esta solicitud ya fue respondida");
         }
 
+        // El cupo se toma con un UPDATE condicional: si otra aceptación se llevó el último lugar, esta falla
+        Member member = request.getMember();
+        Trainer previousTrainer = member.getAssignedTrainer();
+        boolean sameTrainer = previousTrainer != null && previousTrainer.getId().equals(trainerId);
+        if (!sameTrainer && trainerRepository.reserveSlot(trainerId) == 0) {
+            throw new InvalidUserDataException("El entrenador no tiene cupos disponibles");
+        }
+        if (previousTrainer != null && !sameTrainer) {
+            trainerRepository.releaseSlot(previousTrainer.getId());
+            trainerLoadService.refresh(previousTrainer.getId());
+        }
+        trainerLoadService.refresh(trainerId);
+
         request.setStatus(RequestStatus.ACCEPTED);
         request.setRespondedAt(LocalDateTime.now());
         request.setTrainerResponse(dto.getResponse());
 
-        TrainerAssignmentRequest updatedRequest = requestRepository.save(request);
+        TrainerAssignmentRequest updatedRequest = requestRepository.saveAndFlush(request);
 
-        Member member = request.getMember();
         member.setAssignedTrainer(request.getTrainer());
         member.setAssignmentStatus(AssignmentStatus.ACTIVE);
         memberRepository.save(member);
 
+        outboxService.record(OutboxEventType.TRAINER_REQUEST_ACCEPTED, OutboxEvent.AGGREGATE_MEMBER, member.getId(),
+                OutboxService.payload("requestId", requestId, "memberId", member.getId(), "trainerId", trainerId));
+
         log.info("Solicitud aceptada: Member {} ahora tiene Trainer {}", member.getId(), trainerId);
 
         return requestMapper.toDTO(updatedRequest);
     }
 
     @Transactional
-    public TrainerAssignmentRequestDTO rejectRequest(Long requestId, Long trainerId, RespondRequestDTO dto) {
+    public TrainerAssignmentRequestDTO rejectRequest(Long requestId, Long trainerId, RespondRequestDTO dto, Long expectedVersion) {
         log.info("Trainer {} rechazando solicitud {}", trainerId, requestId);
 
         TrainerAssignmentRequest request = requestRepository.findById(requestId)
@@ -126,6 +156,7 @@ public class TrainerAssignmentService {
         if (!request.getTrainer().getId().equals(trainerId)) {
             throw new InvalidUserDataException("No tienes permiso para responder esta solicitud");
         }
+        ETags.checkVersion(expectedVersion, request.getVersion());
 
         if (request.getStatus() != RequestStatus.PENDING) {
             throw new InvalidUserDataException("Esta solicitud ya fue respondida");
@@ -135,12 +166,15 @@ public class TrainerAssignmentService {
         request.setRespondedAt(LocalDateTime.now());
         request.setTrainerResponse(dto.getResponse());
 
-        TrainerAssignmentRequest updatedRequest = requestRepository.save(request);
+        TrainerAssignmentRequest updatedRequest = requestRepository.saveAndFlush(request);
 
         Member member = request.getMember();
         member.setAssignmentStatus(AssignmentStatus.REJECTED);
         memberRepository.save(member);
 
+        outboxService.record(OutboxEventType.TRAINER_REQUEST_REJECTED, OutboxEvent.AGGREGATE_MEMBER, member.getId(),
+                OutboxService.payload("requestId", requestId, "memberId", member.getId(), "trainerId", trainerId));
+
         log.info("Solicitud rechazada: Member {}", member.getId());
 
         return requestMapper.toDTO(updatedRequest);
@@ -173,6 +207,9 @@ public class TrainerAssignmentService {
         member.setAssignmentStatus(AssignmentStatus.NO_TRAINER);
         memberRepository.save(member);
 
+        outboxService.record(OutboxEventType.TRAINER_REQUEST_CANCELLED, OutboxEvent.AGGREGATE_MEMBER, memberId,
+                OutboxService.payload("requestId", requestId, "memberId", memberId, "trainerId", request.getTrainer().getId()));
+
         log.info("Solicitud cancelada: {}", requestId);
     }
 
@@ -191,6 +228,8 @@ public class TrainerAssignmentService {
             throw new InvalidUserDataException("No tienes un entrenador asignado");
         }
 
+        trainerRepository.releaseSlot(member.getAssignedTrainer().getId());
+        trainerLoadService.refresh(member.getAssignedTrainer().getId());
         member.setAssignedTrainer(null);
         member.setAssignmentStatus(AssignmentStatus.NO_TRAINER);
         memberRepository.save(member);
@@ -0,0 +1,132 @@
+package com.example.fitnesstracker.service;
+
+import com.example.fitnesstracker.repository.TrainerLoadProjection;
+import com.example.fitnesstracker.repository.TrainerRepository;
+import com.example.fitnesstracker.util.RankingIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice en memoria de trainers activos ordenado por members asignados (menos ocupado primero).
+ * Se arma desde assigned_member_count al arrancar y periódicamente; entre medio, cada servicio
+ * que mueve un cupo avisa con {@link #refresh(Long)} y se relee solo ese trainer después del commit.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TrainerLoadService {
+
+    private static final int SCAN_PAGE = 64;
+
+    private final TrainerRepository trainerRepository;
+
+    private volatile Loads loads = new Loads();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${trainer.load.rebuild-ms:600000}", initialDelayString = "${trainer.load.rebuild-ms:600000}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("Falló la reconstrucción del índice de carga de trainers", e);
+        }
+    }
+
+    public synchronized void rebuild() {
+        Loads fresh = new Loads();
+        trainerRepository.findLoadSnapshot().forEach(fresh::put);
+        loads = fresh;
+        log.debug("Índice de carga reconstruido: {} trainers", fresh.index.size());
+    }
+
+    /**
+     * Vuelve a leer la carga del trainer. Con transacción activa espera al commit,
+     * así el índice nunca refleja un cupo que después se deshace.
+     */
+    public void refresh(Long trainerId) {
+        if (trainerId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reload(trainerId);
+                }
+            });
+        } else {
+            reload(trainerId);
+        }
+    }
+
+    /**
+     * Ids de los trainers menos ocupados, opcionalmente filtrados por especialidad (coincidencia parcial)
+     * y solo con cupo libre.
+     */
+    public List<Long> findLeastBusy(String specialty, boolean onlyAvailable, int limit) {
+        Loads current = loads;
+        String filter = specialty != null && !specialty.isBlank() ? specialty.trim().toLowerCase(Locale.ROOT) : null;
+        List<Long> result = new ArrayList<>(limit);
+        for (int offset = 0; result.size() < limit; offset += SCAN_PAGE) {
+            List<RankingIndex.Entry> page = current.index.range(offset, SCAN_PAGE);
+            if (page.isEmpty()) {
+                break;
+            }
+            for (RankingIndex.Entry entry : page) {
+                Load load = current.byTrainer.get(entry.id());
+                if (load == null
+                        || (filter != null && !load.specialty().contains(filter))
+                        || (onlyAvailable && load.assigned() >= load.maxMembers())) {
+                    continue;
+                }
+                result.add(entry.id());
+                if (result.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private synchronized void reload(Long trainerId) {
+        Loads current = loads;
+        trainerRepository.findLoadById(trainerId)
+                .ifPresentOrElse(current::put, () -> current.remove(trainerId));
+    }
+
+    private record Load(String specialty, int maxMembers, int assigned) {
+    }
+
+    private static final class Loads {
+        // Puntaje negativo: RankingIndex ordena de mayor a menor y a igual carga pone primero el id menor
+        private final RankingIndex index = new RankingIndex();
+        private final Map<Long, Load> byTrainer = new ConcurrentHashMap<>();
+
+        private void put(TrainerLoadProjection trainer) {
+            String specialty = trainer.getSpecialty() != null ? trainer.getSpecialty().toLowerCase(Locale.ROOT) : "";
+            byTrainer.put(trainer.getTrainerId(), new Load(specialty, trainer.getMaxMembers(), trainer.getAssignedMemberCount()));
+            index.put(trainer.getTrainerId(), -trainer.getAssignedMemberCount());
+        }
+
+        private void remove(Long trainerId) {
+            index.remove(trainerId);
+            byTrainer.remove(trainerId);
+        }
+    }
+}
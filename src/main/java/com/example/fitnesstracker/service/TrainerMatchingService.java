@@ -0,0 +1,225 @@
+package com.example.fitnesstracker.service;
+
+import com.example.fitnesstracker.dto.request.assignment.TrainerMatchingRequestDTO;
+import com.example.fitnesstracker.dto.response.assignment.TrainerMatchingPairDTO;
+import com.example.fitnesstracker.dto.response.assignment.TrainerMatchingResultDTO;
+import com.example.fitnesstracker.dto.response.assignment.TrainerMatchingSummaryDTO;
+import com.example.fitnesstracker.exception.InvalidUserDataException;
+import com.example.fitnesstracker.repository.MatchingTrainerProjection;
+import com.example.fitnesstracker.repository.MemberRepository;
+import com.example.fitnesstracker.repository.TrainerAssignmentRequestRepository;
+import com.example.fitnesstracker.repository.TrainerMatchingRepository;
+import com.example.fitnesstracker.repository.TrainerPendingCountProjection;
+import com.example.fitnesstracker.repository.TrainerRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Asignación automática de trainers a members sin trainer.
+ * Arma el plan en memoria con un heap de trainers ordenado por costo (carga relativa y tarifa):
+ * cada member, empezando por el que espera hace más tiempo, va al trainer más barato con cupo.
+ * El plan se aplica por lotes como solicitudes pendientes que el trainer acepta o rechaza como cualquier otra.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TrainerMatchingService {
+
+    private final TrainerRepository trainerRepository;
+    private final MemberRepository memberRepository;
+    private final TrainerAssignmentRequestRepository requestRepository;
+    private final TrainerMatchingRepository trainerMatchingRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${matching.load-weight:1.0}")
+    private double loadWeight;
+
+    @Value("${matching.rate-weight:0.25}")
+    private double rateWeight;
+
+    @Value("${matching.chunk-size:500}")
+    private int chunkSize;
+
+    public TrainerMatchingResultDTO run(TrainerMatchingRequestDTO request, boolean dryRun) {
+        if (!running.compareAndSet(false, true)) {
+            throw new InvalidUserDataException("Ya hay una asignación automática en curso");
+        }
+        try {
+            long start = System.currentTimeMillis();
+            TrainerMatchingRequestDTO criteria = request != null ? request : new TrainerMatchingRequestDTO();
+            LocalDate today = LocalDate.now();
+
+            List<Long> memberIds = memberRepository.findMemberIdsAwaitingTrainer(today);
+            if (criteria.getMaxAssignments() != null && memberIds.size() > criteria.getMaxAssignments()) {
+                memberIds = memberIds.subList(0, criteria.getMaxAssignments());
+            }
+            List<Slot> slots = loadSlots(criteria);
+            Map<Long, Long> plan = plan(memberIds, slots);
+
+            int created = dryRun ? 0 : apply(plan, today);
+
+            TrainerMatchingResultDTO result = TrainerMatchingResultDTO.builder()
+                    .dryRun(dryRun)
+                    .candidateMembers(memberIds.size())
+                    .matched(plan.size())
+                    .unmatched(memberIds.size() - plan.size())
+                    .created(created)
+                    .durationMs(System.currentTimeMillis() - start)
+                    .trainers(slots.stream()
+                            .filter(slot -> slot.planned > 0)
+                            .sorted(Comparator.comparingLong(slot -> slot.trainerId))
+                            .map(Slot::toSummary)
+                            .toList())
+                    .assignments(dryRun ? plan.entrySet().stream()
+                            .map(pair -> new TrainerMatchingPairDTO(pair.getKey(), pair.getValue()))
+                            .toList() : null)
+                    .build();
+            log.info("Asignación automática{}: {} members candidatos, {} asignados, {} solicitudes creadas en {} ms",
+                    dryRun ? " (dry run)" : "", result.getCandidateMembers(), result.getMatched(),
+                    result.getCreated(), result.getDurationMs());
+            return result;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private List<Slot> loadSlots(TrainerMatchingRequestDTO criteria) {
+        String specialty = criteria.getSpecialty() != null && !criteria.getSpecialty().isBlank()
+                ? criteria.getSpecialty().trim() : null;
+        List<MatchingTrainerProjection> trainers = trainerRepository.findMatchingCandidates(specialty, criteria.getMaxHourlyRate());
+        Map<Long, Long> pending = requestRepository.countPendingByTrainer().stream()
+                .collect(Collectors.toMap(TrainerPendingCountProjection::getTrainerId, TrainerPendingCountProjection::getPending));
+
+        double maxRate = trainers.stream()
+                .map(MatchingTrainerProjection::getHourlyRate)
+                .max(Comparator.naturalOrder())
+                .map(BigDecimal::doubleValue)
+                .orElse(1.0);
+        List<Slot> slots = new ArrayList<>(trainers.size());
+        for (MatchingTrainerProjection trainer : trainers) {
+            double rate = maxRate > 0 ? trainer.getHourlyRate().doubleValue() / maxRate : 0;
+            slots.add(new Slot(trainer, pending.getOrDefault(trainer.getTrainerId(), 0L).intValue(), loadWeight, rateWeight * rate));
+        }
+        return slots;
+    }
+
+    /**
+     * Greedy sobre un heap: O(M log T) para M members y T trainers. Las solicitudes pendientes
+     * de cada trainer cuentan como cupo ocupado, así un trainer no recibe más de las que puede aceptar.
+     */
+    private Map<Long, Long> plan(List<Long> memberIds, List<Slot> slots) {
+        PriorityQueue<Slot> heap = new PriorityQueue<>(Math.max(1, slots.size()),
+                Comparator.comparingDouble(Slot::cost).thenComparingLong(slot -> slot.trainerId));
+        for (Slot slot : slots) {
+            if (slot.free() > 0) {
+                heap.add(slot);
+            }
+        }
+
+        Map<Long, Long> plan = new LinkedHashMap<>();
+        for (Long memberId : memberIds) {
+            Slot slot = heap.poll();
+            if (slot == null) {
+                break;
+            }
+            plan.put(memberId, slot.trainerId);
+            slot.planned++;
+            if (slot.free() > 0) {
+                heap.add(slot);
+            }
+        }
+        return plan;
+    }
+
+    private int apply(Map<Long, Long> plan, LocalDate today) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        LocalDateTime requestedAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        List<Long> memberIds = new ArrayList<>(plan.keySet());
+        int created = 0;
+
+        for (int from = 0; from < memberIds.size(); from += chunkSize) {
+            List<Long> chunk = memberIds.subList(from, Math.min(from + chunkSize, memberIds.size()));
+            Integer inserted = transactionTemplate.execute(status -> {
+                List<Long> eligible = trainerMatchingRepository.lockEligible(chunk, today);
+                if (eligible.isEmpty()) {
+                    return 0;
+                }
+                Map<Long, Long> pairs = new HashMap<>();
+                eligible.forEach(memberId -> pairs.put(memberId, plan.get(memberId)));
+                int rows = trainerMatchingRepository.insertRequests(pairs, requestedAt);
+                trainerMatchingRepository.markPending(eligible);
+                trainerMatchingRepository.insertCreatedEvents(eligible, requestedAt);
+                return rows;
+            });
+            created += inserted != null ? inserted : 0;
+        }
+        return created;
+    }
+
+    private static final class Slot {
+        private final long trainerId;
+        private final String trainerName;
+        private final String specialty;
+        private final BigDecimal hourlyRate;
+        private final int maxMembers;
+        private final int assigned;
+        private final int pending;
+        private final double loadWeight;
+        private final double rateCost;
+        private int planned;
+
+        private Slot(MatchingTrainerProjection trainer, int pending, double loadWeight, double rateCost) {
+            this.trainerId = trainer.getTrainerId();
+            this.trainerName = trainer.getFirstName() + " " + trainer.getLastName();
+            this.specialty = trainer.getSpecialty();
+            this.hourlyRate = trainer.getHourlyRate();
+            this.maxMembers = trainer.getMaxMembers();
+            this.assigned = trainer.getAssignedMemberCount();
+            this.pending = pending;
+            this.loadWeight = loadWeight;
+            this.rateCost = rateCost;
+        }
+
+        private int free() {
+            return maxMembers - assigned - pending - planned;
+        }
+
+        // planned solo cambia mientras el slot está fuera del heap, así el orden del heap sigue siendo válido
+        private double cost() {
+            return loadWeight * (assigned + pending + planned) / maxMembers + rateCost;
+        }
+
+        private TrainerMatchingSummaryDTO toSummary() {
+            return TrainerMatchingSummaryDTO.builder()
+                    .trainerId(trainerId)
+                    .trainerName(trainerName)
+                    .specialty(specialty)
+                    .hourlyRate(hourlyRate)
+                    .maxMembers(maxMembers)
+                    .assignedMembers(assigned)
+                    .pendingRequests(pending)
+                    .planned(planned)
+                    .build();
+        }
+    }
+}
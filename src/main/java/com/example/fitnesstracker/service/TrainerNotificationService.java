@@ -0,0 +1,348 @@
+package com.example.fitnesstracker.service;
+
+import com.example.fitnesstracker.enums.OutboxEventType;
+import com.example.fitnesstracker.event.DomainEvent;
+import com.example.fitnesstracker.event.DomainEventSink;
+import com.example.fitnesstracker.model.OutboxEvent;
+import com.example.fitnesstracker.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hub de notificaciones SSE por trainer. Recibe los eventos del bus y los reparte sin bloquear:
+ * cada suscriptor tiene un buffer acotado que se vacía en un pool propio. Un cliente que no
+ * consume a tiempo se desconecta y, al reconectar con Last-Event-ID, recupera lo perdido
+ * desde los últimos eventos que se guardan por trainer.
+ * <p>
+ * El id SSE no es el id del outbox: los ids se asignan al insertar y una transacción que confirma
+ * tarde publica un id menor después de uno mayor. Cada canal numera los eventos en el orden en que
+ * llegan, con un prefijo por arranque de la instancia ("epoch.secuencia"); un Last-Event-ID de otra
+ * instancia o de antes de reiniciar no se puede reanudar y recibe RESYNC.
+ * <p>
+ * Con varias instancias el relay reparte los eventos entre ellas (SKIP LOCKED), así que cada una
+ * además lee del outbox los publicados recientemente por cualquiera. Los repetidos (los que llegan
+ * por el bus y por la lectura) se descartan por id del outbox.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TrainerNotificationService implements DomainEventSink {
+
+    public static final String RESYNC_EVENT = "RESYNC";
+
+    private static final Set<String> TRAINER_EVENTS = Set.of(
+            OutboxEventType.TRAINER_REQUEST_CREATED.name(),
+            OutboxEventType.TRAINER_REQUEST_CANCELLED.name(),
+            OutboxEventType.WORKOUT_COMPLETED.name(),
+            OutboxEventType.MEMBERSHIP_EXPIRED.name());
+
+    private final ObjectMapper objectMapper;
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final Map<Long, TrainerChannel> channels = new ConcurrentHashMap<>();
+    // Ids del outbox ya entregados, en orden de llegada; se olvidan los que quedan fuera de la ventana de lectura
+    private final Map<Long, LocalDateTime> delivered = new LinkedHashMap<>();
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private ExecutorService fanout;
+    private LocalDateTime pollSince;
+
+    @Value("${notifications.sse.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${notifications.sse.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${notifications.sse.replay-size:200}")
+    private int replaySize;
+
+    @Value("${notifications.sse.fanout-threads:2}")
+    private int fanoutThreads;
+
+    @Value("${notifications.sse.poll-overlap-ms:30000}")
+    private long pollOverlapMs;
+
+    @PostConstruct
+    public void init() {
+        pollSince = LocalDateTime.now().minus(Duration.ofMillis(pollOverlapMs));
+        AtomicInteger counter = new AtomicInteger();
+        fanout = Executors.newFixedThreadPool(Math.max(1, fanoutThreads), r -> {
+            Thread thread = new Thread(r, "sse-fanout-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        channels.values().forEach(channel -> channel.subscribers.forEach(Subscriber::close));
+        fanout.shutdown();
+    }
+
+    @Override
+    public String name() {
+        return "trainer-notifications";
+    }
+
+    @Override
+    public void publish(List<DomainEvent> events) {
+        for (DomainEvent event : events) {
+            if (TRAINER_EVENTS.contains(event.eventType())) {
+                deliver(event, LocalDateTime.now());
+            }
+        }
+    }
+
+    /**
+     * Lee los eventos publicados por cualquier instancia desde la última lectura, con un margen para
+     * los relays que confirman tarde o tienen el reloj corrido. Los ya entregados se saltean.
+     */
+    @Scheduled(fixedDelayString = "${notifications.sse.poll-ms:1000}")
+    public void pollPublished() {
+        LocalDateTime since = pollSince;
+        List<OutboxEvent> published;
+        try {
+            published = outboxEventRepository.findPublishedSince(since, TRAINER_EVENTS);
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron leer los eventos publicados del outbox: {}", e.getMessage());
+            return;
+        }
+        LocalDateTime latest = since;
+        for (OutboxEvent event : published) {
+            deliver(DomainEvent.from(event), event.getPublishedAt());
+            if (event.getPublishedAt().isAfter(latest)) {
+                latest = event.getPublishedAt();
+            }
+        }
+        LocalDateTime next = latest.minus(Duration.ofMillis(pollOverlapMs));
+        if (next.isAfter(since)) {
+            pollSince = next;
+        }
+        forgetDeliveredBefore(pollSince);
+    }
+
+    /**
+     * Abre el stream del trainer. Con {@code lastEventId} reenvía los eventos posteriores que sigan
+     * guardados; si pudo haberse perdido alguno (se descartaron por retención o el id es de otra
+     * instancia o de antes de reiniciar) manda RESYNC para que el cliente recargue una vez por REST.
+     */
+    public SseEmitter subscribe(Long trainerId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        TrainerChannel channel = channel(trainerId);
+        Subscriber subscriber = new Subscriber(channel, emitter, bufferSize);
+        emitter.onCompletion(subscriber::detach);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        channel.subscribe(subscriber, lastEventId);
+        log.debug("Trainer {} suscripto a notificaciones ({} conexiones)", trainerId, channel.subscribers.size());
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.sse.heartbeat-ms:25000}")
+    public void heartbeat() {
+        channels.values().forEach(channel -> channel.subscribers.forEach(Subscriber::heartbeat));
+    }
+
+    public int countSubscribers(Long trainerId) {
+        TrainerChannel channel = channels.get(trainerId);
+        return channel != null ? channel.subscribers.size() : 0;
+    }
+
+    private TrainerChannel channel(Long trainerId) {
+        return channels.computeIfAbsent(trainerId, id -> new TrainerChannel());
+    }
+
+    private void deliver(DomainEvent event, LocalDateTime seenAt) {
+        synchronized (delivered) {
+            if (delivered.putIfAbsent(event.id(), seenAt) != null) {
+                return;
+            }
+        }
+        Long trainerId = trainerIdOf(event);
+        if (trainerId != null) {
+            channel(trainerId).publish(event);
+        }
+    }
+
+    private void forgetDeliveredBefore(LocalDateTime limit) {
+        synchronized (delivered) {
+            delivered.values().removeIf(seenAt -> seenAt.isBefore(limit));
+        }
+    }
+
+    // Secuencia del canal si el id es de esta instancia, o -1 si no se puede reanudar desde él
+    private long sequenceOf(String lastEventId) {
+        int dot = lastEventId.indexOf('.');
+        if (dot < 0 || !lastEventId.substring(0, dot).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(dot + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private Long trainerIdOf(DomainEvent event) {
+        try {
+            JsonNode trainerId = objectMapper.readTree(event.payload()).get("trainerId");
+            return trainerId != null && trainerId.canConvertToLong() ? trainerId.asLong() : null;
+        } catch (IOException e) {
+            log.warn("Payload inválido en el evento {}: {}", event.id(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Suscriptores y últimos eventos de un trainer. publish y subscribe se sincronizan sobre el canal
+     * para que un evento que llega durante la reconexión no se pierda ni se repita.
+     */
+    private final class TrainerChannel {
+        private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+        private final Deque<Notification> recent = new ArrayDeque<>();
+        private long lastSequence;
+
+        private synchronized void publish(DomainEvent event) {
+            Notification notification = new Notification(epoch + "." + ++lastSequence, lastSequence, event);
+            recent.addLast(notification);
+            if (recent.size() > replaySize) {
+                recent.removeFirst();
+            }
+            subscribers.forEach(subscriber -> subscriber.offer(notification));
+        }
+
+        private synchronized void subscribe(Subscriber subscriber, String lastEventId) {
+            subscribers.add(subscriber);
+            if (lastEventId == null) {
+                return;
+            }
+            long sequence = sequenceOf(lastEventId);
+            Notification oldest = recent.peekFirst();
+            long firstKept = oldest != null ? oldest.sequence() : lastSequence + 1;
+            // Id de otra instancia o de antes de reiniciar: el cliente recarga y sigue desde el último
+            if (sequence < 0 || sequence > lastSequence) {
+                subscriber.offer(resync(lastSequence));
+                return;
+            }
+            if (firstKept > sequence + 1) {
+                subscriber.offer(resync(firstKept - 1));
+            }
+            for (Notification notification : recent) {
+                if (notification.sequence() > sequence) {
+                    subscriber.offer(notification);
+                }
+            }
+        }
+    }
+
+    private Notification resync(long sequence) {
+        return new Notification(epoch + "." + sequence, sequence, new DomainEvent(0, RESYNC_EVENT, null, 0, "{}", null));
+    }
+
+    // Evento con el id SSE que le tocó en el canal
+    private record Notification(String id, long sequence, DomainEvent event) {
+    }
+
+    private final class Subscriber {
+        private final TrainerChannel channel;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Notification> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscriber(TrainerChannel channel, SseEmitter emitter, int bufferSize) {
+            this.channel = channel;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        private void offer(Notification notification) {
+            if (closed) {
+                return;
+            }
+            if (!buffer.offer(notification)) {
+                log.debug("Suscriptor SSE con buffer lleno, se desconecta para que reanude desde su último evento");
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                fanout.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Notification notification;
+                while (!closed && (notification = buffer.poll()) != null) {
+                    emitter.send(SseEmitter.event()
+                            .id(notification.id())
+                            .name(notification.event().eventType())
+                            .data(notification.event().payload()));
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            } finally {
+                draining.set(false);
+                if (!closed && !buffer.isEmpty()) {
+                    scheduleDrain();
+                }
+            }
+        }
+
+        private void heartbeat() {
+            if (closed) {
+                return;
+            }
+            fanout.execute(() -> {
+                try {
+                    emitter.send(SseEmitter.event().comment("ping"));
+                } catch (IOException | IllegalStateException e) {
+                    close();
+                }
+            });
+        }
+
+        private void close() {
+            if (!closed) {
+                detach();
+                emitter.complete();
+            }
+        }
+
+        private void detach() {
+            closed = true;
+            channel.subscribers.remove(this);
+            buffer.clear();
+        }
+    }
+}
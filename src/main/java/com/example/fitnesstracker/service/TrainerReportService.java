@@ -0,0 +1,252 @@
+package com.example.fitnesstracker.service;
+
+import com.example.fitnesstracker.dto.response.report.ExerciseProgressionDTO;
+import com.example.fitnesstracker.dto.response.report.MemberAdherenceDTO;
+import com.example.fitnesstracker.dto.response.report.WeeklyVolumeDTO;
+import com.example.fitnesstracker.exception.InvalidUserDataException;
+import com.example.fitnesstracker.exception.UnauthorizedException;
+import com.example.fitnesstracker.model.Member;
+import com.example.fitnesstracker.model.User;
+import com.example.fitnesstracker.repository.MemberRepository;
+import com.example.fitnesstracker.repository.TrainerRepository;
+import com.example.fitnesstracker.repository.UserRepository;
+import com.example.fitnesstracker.util.OneRepMax;
+import com.example.fitnesstracker.util.TrainingSnapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reportes de entrenadores calculados sobre el snapshot columnar.
+ * Cada consulta recorre el snapshot por bloques: descarta bloques con el mapa de zona,
+ * arma un vector de selección con el filtro y agrega solo las filas seleccionadas.
+ * Un trainer solo ve sus propios reportes; un admin ve los de cualquiera.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TrainerReportService {
+
+    private final TrainingSnapshotService trainingSnapshotService;
+    private final TrainerRepository trainerRepository;
+    private final UserRepository userRepository;
+    private final MemberRepository memberRepository;
+
+    public List<WeeklyVolumeDTO> getWeeklyVolume(String username, Long trainerId, LocalDate from, LocalDate to) {
+        checkAccess(username, trainerId);
+        validateRange(from, to);
+        log.debug("Reporte de volumen semanal del trainer {} entre {} y {}", trainerId, from, to);
+        return weeklyVolume(trainerId, from, to);
+    }
+
+    private List<WeeklyVolumeDTO> weeklyVolume(Long trainerId, LocalDate from, LocalDate to) {
+        TrainingSnapshot snapshot = trainingSnapshotService.current();
+        long[] members = snapshot.memberIds();
+        long[] completions = snapshot.completionIds();
+        int[] days = snapshot.epochDays();
+        int[] sets = snapshot.sets();
+        int[] reps = snapshot.reps();
+        double[] weights = snapshot.weights();
+
+        Map<Long, TreeMap<Integer, WeekAccumulator>> byMember = new LinkedHashMap<>();
+        int[] selection = new int[TrainingSnapshot.CHUNK_SIZE];
+        long lastCompletion = -1;
+
+        for (int chunk = 0; chunk < snapshot.chunkCount(); chunk++) {
+            int selected = select(snapshot, chunk, trainerId, from, to, selection);
+            for (int s = 0; s < selected; s++) {
+                int i = selection[s];
+                WeekAccumulator week = byMember.computeIfAbsent(members[i], id -> new TreeMap<>())
+                        .computeIfAbsent(weekStart(days[i]), d -> new WeekAccumulator());
+                if (completions[i] != lastCompletion) {
+                    week.sessions++;
+                    lastCompletion = completions[i];
+                }
+                week.sets += sets[i];
+                week.reps += sets[i] * reps[i];
+                if (!Double.isNaN(weights[i])) {
+                    week.volume += sets[i] * reps[i] * weights[i];
+                }
+            }
+        }
+
+        List<WeeklyVolumeDTO> result = new ArrayList<>();
+        byMember.forEach((memberId, weeks) -> weeks.forEach((weekDay, week) -> result.add(WeeklyVolumeDTO.builder()
+                .memberId(memberId)
+                .memberName(snapshot.memberName(memberId))
+                .weekStart(LocalDate.ofEpochDay(weekDay))
+                .sessions(week.sessions)
+                .totalSets(week.sets)
+                .totalReps(week.reps)
+                .volume(week.volume)
+                .build())));
+        return result;
+    }
+
+    /**
+     * Parte de los members actuales del trainer, así los que no entrenaron en el rango aparecen con 0 sesiones.
+     */
+    public List<MemberAdherenceDTO> getAdherence(String username, Long trainerId, LocalDate from, LocalDate to, int targetSessionsPerWeek) {
+        checkAccess(username, trainerId);
+        validateRange(from, to);
+        if (targetSessionsPerWeek < 1) {
+            throw new InvalidUserDataException("Las sesiones objetivo por semana deben ser al menos 1");
+        }
+        log.debug("Reporte de adherencia del trainer {} entre {} y {}", trainerId, from, to);
+
+        int weeksInRange = (int) Math.ceil((to.toEpochDay() - from.toEpochDay() + 1) / 7.0);
+        int expectedSessions = weeksInRange * targetSessionsPerWeek;
+
+        Map<Long, List<WeeklyVolumeDTO>> weeksByMember = new LinkedHashMap<>();
+        weeklyVolume(trainerId, from, to)
+                .forEach(week -> weeksByMember.computeIfAbsent(week.getMemberId(), id -> new ArrayList<>()).add(week));
+
+        List<MemberAdherenceDTO> result = new ArrayList<>();
+        for (Member member : memberRepository.findActiveByTrainerIdWithUser(trainerId)) {
+            List<WeeklyVolumeDTO> weeks = weeksByMember.getOrDefault(member.getId(), List.of());
+            int sessions = weeks.stream().mapToInt(WeeklyVolumeDTO::getSessions).sum();
+            result.add(MemberAdherenceDTO.builder()
+                    .memberId(member.getId())
+                    .memberName(member.getFullName())
+                    .sessions(sessions)
+                    .activeWeeks(weeks.size())
+                    .weeksInRange(weeksInRange)
+                    .adherencePercent(Math.min(100.0, sessions * 100.0 / expectedSessions))
+                    .build());
+        }
+        return result;
+    }
+
+    /**
+     * Compara el mejor 1RM estimado ({@link OneRepMax}) de la primera y la última semana
+     * en que cada member registró cada ejercicio dentro del rango.
+     */
+    public List<ExerciseProgressionDTO> getProgression(String username, Long trainerId, LocalDate from, LocalDate to) {
+        checkAccess(username, trainerId);
+        validateRange(from, to);
+        log.debug("Reporte de progresión del trainer {} entre {} y {}", trainerId, from, to);
+
+        TrainingSnapshot snapshot = trainingSnapshotService.current();
+        long[] members = snapshot.memberIds();
+        long[] exercises = snapshot.exerciseIds();
+        int[] days = snapshot.epochDays();
+        int[] reps = snapshot.reps();
+        double[] weights = snapshot.weights();
+
+        Map<Long, Map<Long, ProgressionAccumulator>> byMember = new LinkedHashMap<>();
+        int[] selection = new int[TrainingSnapshot.CHUNK_SIZE];
+
+        for (int chunk = 0; chunk < snapshot.chunkCount(); chunk++) {
+            int selected = select(snapshot, chunk, trainerId, from, to, selection);
+            for (int s = 0; s < selected; s++) {
+                int i = selection[s];
+                if (Double.isNaN(weights[i]) || weights[i] <= 0) {
+                    continue;
+                }
+                double oneRepMax = OneRepMax.estimate(weights[i], reps[i]);
+                byMember.computeIfAbsent(members[i], id -> new TreeMap<>())
+                        .computeIfAbsent(exercises[i], id -> new ProgressionAccumulator())
+                        .add(weekStart(days[i]), oneRepMax);
+            }
+        }
+
+        List<ExerciseProgressionDTO> result = new ArrayList<>();
+        byMember.forEach((memberId, byExercise) -> byExercise.forEach((exerciseId, p) -> result.add(ExerciseProgressionDTO.builder()
+                .memberId(memberId)
+                .memberName(snapshot.memberName(memberId))
+                .exerciseId(exerciseId)
+                .exerciseName(snapshot.exerciseName(exerciseId))
+                .firstWeek(LocalDate.ofEpochDay(p.firstWeek))
+                .firstEstimatedOneRepMax(p.firstBest)
+                .lastWeek(LocalDate.ofEpochDay(p.lastWeek))
+                .lastEstimatedOneRepMax(p.lastBest)
+                .changePercent((p.lastBest - p.firstBest) * 100.0 / p.firstBest)
+                .build())));
+        return result;
+    }
+
+    // ========== Escaneo ==========
+
+    /**
+     * Llena {@code selection} con los índices del bloque que cumplen el filtro y devuelve cuántos son.
+     * El filtro usa {@code &} sin cortocircuito para que el bucle no tenga saltos por fila.
+     */
+    private int select(TrainingSnapshot snapshot, int chunk, long trainerId, LocalDate from, LocalDate to, int[] selection) {
+        int fromDay = (int) from.toEpochDay();
+        int toDay = (int) to.toEpochDay();
+        if (!snapshot.chunkMayMatch(chunk, trainerId, fromDay, toDay)) {
+            return 0;
+        }
+        long[] trainers = snapshot.trainerIds();
+        int[] days = snapshot.epochDays();
+        int selected = 0;
+        for (int i = snapshot.chunkStart(chunk), end = snapshot.chunkEnd(chunk); i < end; i++) {
+            selection[selected] = i;
+            selected += (trainers[i] == trainerId) & (days[i] >= fromDay) & (days[i] <= toDay) ? 1 : 0;
+        }
+        return selected;
+    }
+
+    // El epoch day 0 fue jueves: restando (día + 3) % 7 se llega al lunes de esa semana
+    private static int weekStart(int epochDay) {
+        return epochDay - Math.floorMod(epochDay + 3, 7);
+    }
+
+    private void checkAccess(String username, Long trainerId) {
+        boolean ownReports = trainerRepository.findByUserUsernameAndDeletedAtIsNull(username)
+                .map(trainer -> trainer.getId().equals(trainerId))
+                .orElse(false);
+        if (ownReports) {
+            return;
+        }
+        boolean admin = userRepository.findByUsernameAndDeletedAtIsNull(username)
+                .map(User::isAdmin)
+                .orElse(false);
+        if (!admin) {
+            log.warn("Usuario {} sin acceso a los reportes del trainer {}", username, trainerId);
+            throw new UnauthorizedException("No tenés permiso para ver los reportes de este entrenador");
+        }
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new InvalidUserDataException("La fecha de inicio no puede ser posterior a la fecha de fin");
+        }
+    }
+
+    private static final class WeekAccumulator {
+        private int sessions;
+        private int sets;
+        private int reps;
+        private double volume;
+    }
+
+    private static final class ProgressionAccumulator {
+        private int firstWeek = Integer.MAX_VALUE;
+        private int lastWeek = Integer.MIN_VALUE;
+        private double firstBest;
+        private double lastBest;
+
+        private void add(int week, double oneRepMax) {
+            if (week < firstWeek) {
+                firstWeek = week;
+                firstBest = oneRepMax;
+            } else if (week == firstWeek) {
+                firstBest = Math.max(firstBest, oneRepMax);
+            }
+            if (week > lastWeek) {
+                lastWeek = week;
+                lastBest = oneRepMax;
+            } else if (week == lastWeek) {
+                lastBest = Math.max(lastBest, oneRepMax);
+            }
+        }
+    }
+}
@@ -14,6 +14,9 @@ import com.example.fitnesstracker.model.User;
 import com.example.fitnesstracker.repository.TrainerRepository;
 import com.example.fitnesstracker.repository.UserRepository;
 import com.example.fitnesstracker.security.JwtTokenProvider;
+import com.example.fitnesstracker.util.ETags;
+import com.example.fitnesstracker.util.FieldSelection;
+import com.example.fitnesstracker.util.SoftDeleteFilter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -21,6 +24,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,13 +35,17 @@ import java.util.stream.Collectors;
 public class TrainerService {
 
     private static final String TRAINER_NOT_FOUND = "Entrenador no encontrado";
+    private static final int MAX_LEAST_BUSY = 100;
 
     private final TrainerRepository trainerRepository;
     private final UserRepository userRepository;
     private final TrainerMapper trainerMapper;
     private final UserService userService;
     private final JwtTokenProvider jwtTokenProvider;
+    private final RefreshTokenService refreshTokenService;
     private final UserMapper userMapper;
+    private final SoftDeleteFilter softDeleteFilter;
+    private final TrainerLoadService trainerLoadService;
 
 
     @Transactional
@@ -59,14 +69,18 @@ public class TrainerService {
                 .build();
 
         Trainer savedTrainer = trainerRepository.save(trainer);
+        trainerLoadService.refresh(savedTrainer.getId());
 
-        String token = jwtTokenProvider.generateToken(user.getUsername());
+        RefreshTokenService.Session session = refreshTokenService.startSession(user);
+        String token = jwtTokenProvider.generateToken(user, session.sessionId());
 
         log.info("Entrenador registrado: {}", user.getUsername());
 
         return AuthResponse.builder()
                 .token(token)
                 .type("Bearer")
+                .refreshToken(session.refreshToken())
+                .expiresAt(jwtTokenProvider.nextExpiration())
                 .user(userMapper.toDto(user))
                 .trainer(trainerMapper.toDTO(savedTrainer))
                 .message("Entrenador registrado exitosamente")
@@ -74,8 +88,12 @@ public class TrainerService {
     }
 
     public TrainerDTO getTrainerById(Long trainerId) {
+        return getTrainerById(trainerId, FieldSelection.ALL);
+    }
+
+    public TrainerDTO getTrainerById(Long trainerId, FieldSelection selection) {
         log.debug("Buscando entrenador por ID: {}", trainerId);
-        return trainerMapper.toDTO(findExistingTrainerById(trainerId));
+        return trainerMapper.toDTO(findExistingTrainerById(trainerId), selection);
     }
 
     public TrainerDTO getTrainerByExternalId(String externalId) {
@@ -91,13 +109,27 @@ public class TrainerService {
     }
 
     public List<TrainerDTO> getAllTrainers() {
+        return getAllTrainers(FieldSelection.ALL);
+    }
+
+    public List<TrainerDTO> getAllTrainers(FieldSelection selection) {
         log.debug("Obteniendo todos los entrenadores activos");
         return trainerRepository.findAllActiveTrainers()
                 .stream()
-                .map(trainerMapper::toDTO)
+                .map(trainer -> trainerMapper.toDTO(trainer, selection))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Lote del DataLoader de GraphQL. Los trainers inexistentes o borrados no vienen en el mapa.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, TrainerDTO> getTrainersByIds(List<Long> trainerIds) {
+        log.debug("Cargando {} entrenadores por lote", trainerIds.size());
+        return trainerRepository.findAllWithUserByIdIn(trainerIds).stream()
+                .collect(Collectors.toMap(Trainer::getId, trainerMapper::toDTO));
+    }
+
     public List<TrainerDTO> getAvailableTrainers() {
         log.debug("Obteniendo entrenadores disponibles (sin miembros asignados)");
         return trainerRepository.findAvailableTrainersWithNoMembers()
@@ -108,14 +140,16 @@ public class TrainerService {
 
 
     @Transactional
-    public TrainerDTO updateTrainer(Long trainerId, UpdateTrainerDTO dto) {
+    public TrainerDTO updateTrainer(Long trainerId, UpdateTrainerDTO dto, Long expectedVersion) {
         log.info("Actualizando entrenador: {}", trainerId);
 
         validateHourlyRate(dto.getHourlyRate());
         Trainer trainer = findExistingTrainerById(trainerId);
+        ETags.checkVersion(expectedVersion, trainer.getVersion());
         trainerMapper.updateFromDTO(dto, trainer);
 
-        Trainer updatedTrainer = trainerRepository.save(trainer);
+        Trainer updatedTrainer = trainerRepository.saveAndFlush(trainer);
+        trainerLoadService.refresh(trainerId);
         log.info("Entrenador actualizado exitosamente: {}", trainerId);
         return trainerMapper.toDTO(updatedTrainer);
     }
@@ -127,9 +161,11 @@ public class TrainerService {
         Trainer trainer = findExistingTrainerById(trainerId);
         trainer.softDelete();
         trainer.getUser().softDelete();
+        refreshTokenService.revokeAllForUser(trainer.getUser().getId());
 
         trainerRepository.save(trainer);
         userRepository.save(trainer.getUser());
+        trainerLoadService.refresh(trainerId);
         log.info("Entrenador eliminado exitosamente: {}", trainerId);
     }
 
@@ -137,12 +173,14 @@ public class TrainerService {
     public void restoreTrainer(Long trainerId) {
         log.info("Restaurando entrenador: {}", trainerId);
 
-        Trainer trainer = findExistingTrainerById(trainerId);
+        Trainer trainer = softDeleteFilter.withDeleted(() -> trainerRepository.findById(trainerId))
+                .orElseThrow(() -> new ResourceNotFoundException(TRAINER_NOT_FOUND));
         trainer.restore();
         trainer.getUser().restore();
 
         trainerRepository.save(trainer);
         userRepository.save(trainer.getUser());
+        trainerLoadService.refresh(trainerId);
         log.info("Entrenador restaurado exitosamente: {}", trainerId);
     }
 
@@ -162,6 +200,24 @@ public class TrainerService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Trainers con menos members asignados, resuelto con el índice en memoria;
+     * de la base solo se leen los trainers que se devuelven.
+     */
+    public List<TrainerDTO> getLeastBusyTrainers(String specialty, boolean onlyAvailable, int limit) {
+        if (limit < 1 || limit > MAX_LEAST_BUSY) {
+            throw new InvalidUserDataException("limit debe estar entre 1 y " + MAX_LEAST_BUSY);
+        }
+        List<Long> ids = trainerLoadService.findLeastBusy(specialty, onlyAvailable, limit);
+        Map<Long, Trainer> trainers = trainerRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Trainer::getId, Function.identity()));
+        return ids.stream()
+                .map(trainers::get)
+                .filter(Objects::nonNull)
+                .map(trainerMapper::toDTO)
+                .toList();
+    }
+
     /* Métodos privados reutilizables */
     private void validateHourlyRate(BigDecimal hourlyRate) {
         if (hourlyRate == null || hourlyRate.compareTo(BigDecimal.ZERO) <= 0) {
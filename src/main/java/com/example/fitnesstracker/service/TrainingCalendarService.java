@@ -0,0 +1,174 @@
+package com.example.fitnesstracker.service;
+
+import com.example.fitnesstracker.dto.response.workout.StreakDTO;
+import com.example.fitnesstracker.dto.response.workout.TrainingCalendarDTO;
+import com.example.fitnesstracker.exception.InvalidUserDataException;
+import com.example.fitnesstracker.exception.ResourceNotFoundException;
+import com.example.fitnesstracker.model.Member;
+import com.example.fitnesstracker.model.TrainingCalendar;
+import com.example.fitnesstracker.repository.MemberRepository;
+import com.example.fitnesstracker.repository.TrainingCalendarRepository;
+import com.example.fitnesstracker.repository.WorkoutArchiveRepository;
+import com.example.fitnesstracker.repository.WorkoutCompletionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Calendario de días entrenados y rachas, resueltos con operaciones sobre el bitmap de cada member.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TrainingCalendarService {
+
+    private final TrainingCalendarRepository trainingCalendarRepository;
+    private final MemberRepository memberRepository;
+    private final WorkoutCompletionRepository workoutCompletionRepository;
+    private final WorkoutArchiveRepository workoutArchiveRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Marca el día en el bitmap del member y devuelve su racha actual.
+     * Se llama dentro de la transacción de completeWorkout.
+     */
+    @Transactional
+    public int recordTraining(Member member, LocalDate date) {
+        TrainingCalendar calendar = trainingCalendarRepository.existsByMember_Id(member.getId())
+                ? lockCalendar(member.getId())
+                : createCalendar(member);
+        if (calendar.markTrained(date)) {
+            trainingCalendarRepository.save(calendar);
+        }
+        return calendar.currentStreak(LocalDate.now());
+    }
+
+    @Transactional
+    public StreakDTO getStreak(Long memberId) {
+        TrainingCalendar calendar = loadCalendar(memberId);
+        BitSet bits = calendar.toBitSet();
+
+        int longest = 0;
+        for (int start = bits.nextSetBit(0); start >= 0; ) {
+            int runEnd = bits.nextClearBit(start);
+            longest = Math.max(longest, runEnd - start);
+            start = bits.nextSetBit(runEnd);
+        }
+
+        int last = bits.length() - 1;
+        return StreakDTO.builder()
+                .memberId(memberId)
+                .currentStreak(calendar.currentStreak(LocalDate.now()))
+                .longestStreak(longest)
+                .totalDaysTrained(bits.cardinality())
+                .lastTrainedDate(last >= 0 ? calendar.getOriginDate().plusDays(last) : null)
+                .build();
+    }
+
+    @Transactional
+    public TrainingCalendarDTO getCalendar(Long memberId, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new InvalidUserDataException("La fecha de inicio no puede ser posterior a la fecha de fin");
+        }
+        TrainingCalendar calendar = loadCalendar(memberId);
+        BitSet bits = calendar.toBitSet();
+
+        int fromIndex = Math.max(0, calendar.indexOf(from));
+        int toIndex = calendar.indexOf(to) + 1;
+        List<LocalDate> trainedDates = new ArrayList<>();
+        if (toIndex > fromIndex) {
+            for (int i = bits.nextSetBit(fromIndex); i >= 0 && i < toIndex; i = bits.nextSetBit(i + 1)) {
+                trainedDates.add(calendar.getOriginDate().plusDays(i));
+            }
+        }
+
+        return TrainingCalendarDTO.builder()
+                .memberId(memberId)
+                .from(from)
+                .to(to)
+                .daysTrained(trainedDates.size())
+                .trainedDates(trainedDates)
+                .build();
+    }
+
+    /**
+     * Racha actual de cada member que tiene calendario. Lo usa la reconstrucción de los rankings.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Integer> getCurrentStreaks() {
+        LocalDate today = LocalDate.now();
+        Map<Long, Integer> streaks = new HashMap<>();
+        for (TrainingCalendar calendar : trainingCalendarRepository.findAll()) {
+            int streak = calendar.currentStreak(today);
+            if (streak > 0) {
+                streaks.put(calendar.getMember().getId(), streak);
+            }
+        }
+        return streaks;
+    }
+
+    private TrainingCalendar loadCalendar(Long memberId) {
+        return trainingCalendarRepository.findByMember_Id(memberId)
+                .orElseGet(() -> {
+                    Member member = memberRepository.findById(memberId)
+                            .filter(m -> !m.isDeleted())
+                            .orElseThrow(() -> new ResourceNotFoundException("Miembro no encontrado"));
+                    return createCalendar(member);
+                });
+    }
+
+    /**
+     * Guarda el calendario armado desde el historial en su propia transacción: si otra creación concurrente
+     * ganó el member_id único, el choque no deja para rollback la transacción que llama.
+     * En los dos casos la fila ya está confirmada y se relee con lock.
+     */
+    private TrainingCalendar createCalendar(Member member) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            transactionTemplate.executeWithoutResult(status -> trainingCalendarRepository.saveAndFlush(buildFromHistory(member)));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("El calendario del member {} ya lo creó otra transacción", member.getId());
+        }
+        return lockCalendar(member.getId());
+    }
+
+    private TrainingCalendar lockCalendar(Long memberId) {
+        return trainingCalendarRepository.findByMemberIdForUpdate(memberId)
+                .orElseThrow(() -> new ResourceNotFoundException("Calendario de entrenamiento no encontrado"));
+    }
+
+    /**
+     * Primera vez para un member: arma el bitmap desde las fechas de su historial (caliente y archivado).
+     * Corre en una transacción aparte, así que no incluye la completion que se está guardando.
+     */
+    private TrainingCalendar buildFromHistory(Member member) {
+        List<LocalDate> dates = Stream.concat(
+                        workoutCompletionRepository.findCompletionDatesByMember(member.getId()).stream(),
+                        workoutArchiveRepository.findArchivedCompletionDates(member.getId()).stream())
+                .sorted()
+                .toList();
+
+        LocalDate origin = member.getMembershipStartDate() != null ? member.getMembershipStartDate() : LocalDate.now();
+        TrainingCalendar calendar = TrainingCalendar.builder()
+                .member(member)
+                .originDate(origin)
+                .build();
+        dates.forEach(calendar::markTrained);
+        log.debug("Calendario de entrenamiento creado para member {}: {} días", member.getId(), dates.size());
+        return calendar;
+    }
+}
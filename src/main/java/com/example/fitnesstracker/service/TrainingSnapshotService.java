@@ -0,0 +1,95 @@
+package com.example.fitnesstracker.service;
+
+import com.example.fitnesstracker.dto.response.report.SnapshotInfoDTO;
+import com.example.fitnesstracker.exception.ResourceNotFoundException;
+import com.example.fitnesstracker.repository.TrainingExportRepository;
+import com.example.fitnesstracker.util.TrainingSnapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Genera el snapshot columnar del historial y mantiene en memoria la última versión.
+ * Los reportes solo leen el snapshot: la base transaccional queda fuera del camino de análisis.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TrainingSnapshotService {
+
+    private final TrainingExportRepository trainingExportRepository;
+
+    @Value("${reports.snapshot.path:data/training-snapshot.fcs}")
+    private String snapshotPath;
+
+    private volatile TrainingSnapshot current;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        Path path = Path.of(snapshotPath);
+        if (!Files.exists(path)) {
+            log.info("No existe snapshot de reportes en {}, se generará en la próxima exportación", path);
+            return;
+        }
+        try {
+            current = TrainingSnapshot.readFrom(path);
+            log.info("Snapshot de reportes cargado: {} filas generadas el {}", current.getRowCount(), current.getGeneratedAt());
+        } catch (IOException e) {
+            log.warn("No se pudo leer el snapshot de reportes {}: {}", path, e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${reports.snapshot.cron:0 0 2 * * *}")
+    public void scheduledExport() {
+        try {
+            export();
+        } catch (RuntimeException e) {
+            log.error("Falló la exportación del snapshot de reportes", e);
+        }
+    }
+
+    public synchronized SnapshotInfoDTO export() {
+        long start = System.currentTimeMillis();
+        TrainingSnapshot.Builder builder = TrainingSnapshot.builder();
+        trainingExportRepository.exportInto(builder);
+        TrainingSnapshot snapshot = builder.build();
+        try {
+            snapshot.writeTo(Path.of(snapshotPath));
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir el snapshot de reportes", e);
+        }
+        current = snapshot;
+        log.info("Snapshot de reportes exportado: {} filas en {} ms", snapshot.getRowCount(), System.currentTimeMillis() - start);
+        return toInfo(snapshot);
+    }
+
+    public TrainingSnapshot current() {
+        TrainingSnapshot snapshot = current;
+        if (snapshot == null) {
+            throw new ResourceNotFoundException("Todavía no hay un snapshot de reportes disponible");
+        }
+        return snapshot;
+    }
+
+    public SnapshotInfoDTO getInfo() {
+        return toInfo(current());
+    }
+
+    private SnapshotInfoDTO toInfo(TrainingSnapshot snapshot) {
+        return SnapshotInfoDTO.builder()
+                .generatedAt(snapshot.getGeneratedAt())
+                .rows(snapshot.getRowCount())
+                .members(snapshot.memberCount())
+                .exercises(snapshot.exerciseCount())
+                .build();
+    }
+}
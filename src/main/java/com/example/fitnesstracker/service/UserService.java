@@ -7,6 +7,7 @@ import com.example.fitnesstracker.dto.request.UserRegisterDTO;
 import com.example.fitnesstracker.dto.request.UserUpdateDTO;
 import com.example.fitnesstracker.enums.UserType;
 import com.example.fitnesstracker.security.JwtTokenProvider;
+import com.example.fitnesstracker.security.UserPrincipal;
 import com.example.fitnesstracker.enums.UserRole;
 import com.example.fitnesstracker.exception.InvalidUserDataException;
 import com.example.fitnesstracker.exception.UserAlreadyExistsException;
@@ -14,6 +15,8 @@ import com.example.fitnesstracker.exception.UserNotFoundException;
 import com.example.fitnesstracker.mapper.UserMapper;
 import com.example.fitnesstracker.model.User;
 import com.example.fitnesstracker.repository.UserRepository;
+import com.example.fitnesstracker.util.ETags;
+import com.example.fitnesstracker.util.SoftDeleteFilter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -41,6 +44,8 @@ public class UserService {
     private final UserMapper userMapper;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider jwtTokenProvider;
+    private final RefreshTokenService refreshTokenService;
+    private final SoftDeleteFilter softDeleteFilter;
 
     @Transactional
     public UserDTO registerUser(UserRegisterDTO userRegisterDTO) {
@@ -66,13 +71,16 @@ public class UserService {
         );
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
-        String token = jwtTokenProvider.generateToken(username);
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UserNotFoundException(USER_NOT_FOUND));
+        // El principal trae la entidad que cargó el provider: no se vuelve a consultar
+        User user = ((UserPrincipal) authentication.getPrincipal()).getAccount();
+        RefreshTokenService.Session session = refreshTokenService.startSession(user);
+        String token = jwtTokenProvider.generateToken(user, session.sessionId());
 
         log.info("Inicio de sesión exitoso para el usuario: {}", username);
         return AuthResponse.builder()
                 .token(token)
+                .refreshToken(session.refreshToken())
+                .expiresAt(jwtTokenProvider.nextExpiration())
                 .user(userMapper.toDto(user))
                 .build();
     }
@@ -134,24 +142,32 @@ public class UserService {
                 .orElseThrow(() -> new UserNotFoundException(USER_NOT_FOUND));
         user.softDelete();
         userRepository.save(user);
+        refreshTokenService.revokeAllForUser(id);
         log.info("Usuario eliminado exitosamente: {}", id);
     }
 
     @Transactional
-    public UserDTO updateUser(Long id, UserUpdateDTO userUpdateDTO) {
+    public UserDTO updateUser(Long id, UserUpdateDTO userUpdateDTO, Long expectedVersion) {
         log.info("Actualizando usuario con ID: {}", id);
         User existingUser = userRepository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException(USER_NOT_FOUND));
+        ETags.checkVersion(expectedVersion, existingUser.getVersion());
 
         validateUserUpdate(existingUser, userUpdateDTO);
 
+        UserRole previousRole = existingUser.getRole();
         userMapper.updateUserFromDTO(userUpdateDTO, existingUser);
 
         if (userUpdateDTO.getPassword() != null) {
             existingUser.setPassword(passwordEncoder.encode(userUpdateDTO.getPassword()));
         }
+        // Password nuevo, cuenta deshabilitada o rol distinto: los tokens ya emitidos dejan de valer
+        if (userUpdateDTO.getPassword() != null || !Boolean.TRUE.equals(existingUser.getEnabled())
+                || existingUser.getRole() != previousRole) {
+            refreshTokenService.revokeAllForUser(id);
+        }
 
-        User updatedUser = userRepository.save(existingUser);
+        User updatedUser = userRepository.saveAndFlush(existingUser);
         log.info("Usuario actualizado exitosamente: {}", id);
         return userMapper.toDto(updatedUser);
     }
@@ -159,7 +175,7 @@ public class UserService {
     @Transactional
     public UserDTO restoreUser(Long id) {
         log.info("Restaurando usuario con ID: {}", id);
-        User user = userRepository.findById(id)
+        User user = softDeleteFilter.withDeleted(() -> userRepository.findById(id))
                 .orElseThrow(() -> new UserNotFoundException(USER_NOT_FOUND));
         user.restore();
         User restoredUser = userRepository.save(user);
@@ -170,8 +186,9 @@ public class UserService {
     @Transactional
     public void permanentlyDeleteUser(Long id) {
         log.info("Eliminando usuario permanentemente con ID: {}", id);
-        User user = userRepository.findById(id)
+        User user = softDeleteFilter.withDeleted(() -> userRepository.findById(id))
                 .orElseThrow(() -> new UserNotFoundException(USER_NOT_FOUND));
+        refreshTokenService.revokeAllForUser(id);
         userRepository.delete(user);
         log.info("Usuario eliminado permanentemente: {}", id);
     }
@@ -230,8 +247,7 @@ public class UserService {
     @Transactional(readOnly = true)
     public List<UserDTO> getDeletedUsers() {
         log.debug("Obteniendo usuarios eliminados");
-        return userRepository.findAll().stream()
-                .filter(User::isDeleted)
+        return softDeleteFilter.withDeleted(userRepository::findAllDeleted).stream()
                 .map(userMapper::toDto)
                 .toList();
     }
@@ -252,6 +268,7 @@ public class UserService {
 
         user.setPassword(passwordEncoder.encode(dto.getNewPassword()));
         userRepository.save(user);
+        refreshTokenService.revokeAllForUser(user.getId());
         log.info("Contraseña actualizada para usuario: {}", username);
     }
     private boolean isNullOrEmpty(String value) {
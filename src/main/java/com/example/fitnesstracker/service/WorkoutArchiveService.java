@@ -0,0 +1,154 @@
+package com.example.fitnesstracker.service;
+
+import com.example.fitnesstracker.dto.response.workout.WorkoutCompletionDTO;
+import com.example.fitnesstracker.repository.WorkoutArchiveRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Mantiene el historial de entrenamientos en dos niveles:
+ * meses recientes en workout_completions/exercise_logs (particionadas por mes en MySQL)
+ * y meses cerrados en las tablas *_archive.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WorkoutArchiveService {
+
+    private static final List<String> PARTITIONED_TABLES = List.of("workout_completions", "exercise_logs");
+    private static final String HISTORY_PARTITION = "p_history";
+    private static final DateTimeFormatter PARTITION_FORMAT = DateTimeFormatter.ofPattern("'p'yyyyMM");
+    private static final int DELETE_BATCH_SIZE = 1000;
+
+    private final WorkoutArchiveRepository workoutArchiveRepository;
+
+    @Value("${workout.archive.enabled:true}")
+    private boolean archiveEnabled;
+
+    @Value("${workout.archive.hot-months:12}")
+    private int hotMonths;
+
+    @Value("${workout.partitioning.native:false}")
+    private boolean nativePartitioning;
+
+    @Value("${workout.partitioning.months-ahead:3}")
+    private int monthsAhead;
+
+    /**
+     * Primer día que sigue en las tablas calientes. Todo lo anterior vive en el archivo.
+     */
+    public Optional<LocalDate> archiveCutoff() {
+        if (!archiveEnabled) {
+            return Optional.empty();
+        }
+        return Optional.of(YearMonth.now().minusMonths(hotMonths).atDay(1));
+    }
+
+    public List<WorkoutCompletionDTO> getArchivedHistory(Long memberId, LocalDate startDate, LocalDate endDate) {
+        log.debug("Consultando historial archivado del member {} entre {} y {}", memberId, startDate, endDate);
+        return workoutArchiveRepository.findArchivedByMemberAndDateRange(memberId, startDate, endDate);
+    }
+
+    /**
+     * Completions archivadas del member que ya no están en la tabla caliente.
+     */
+    public long countArchivedOnly(Long memberId) {
+        return workoutArchiveRepository.countArchivedNotHotByMember(memberId);
+    }
+
+    @Scheduled(cron = "${workout.archive.cron:0 30 3 1 * *}")
+    public void runMaintenance() {
+        if (nativePartitioning) {
+            ensureMonthlyPartitions();
+        }
+        if (archiveEnabled) {
+            archiveClosedMonths();
+        }
+    }
+
+    /**
+     * Crea las particiones mensuales hasta {@code monthsAhead} meses por delante partiendo p_future.
+     * La primera vez agrupa todo lo anterior al mes actual en p_history.
+     */
+    public void ensureMonthlyPartitions() {
+        YearMonth current = YearMonth.now();
+        for (String table : PARTITIONED_TABLES) {
+            Map<String, String> bounds = workoutArchiveRepository.findPartitionBounds(table);
+            if (bounds.isEmpty()) {
+                log.warn("La tabla {} no está particionada, se omite el mantenimiento de particiones", table);
+                continue;
+            }
+            if (!bounds.containsKey(HISTORY_PARTITION) && bounds.size() == 1) {
+                workoutArchiveRepository.splitFuturePartition(table, HISTORY_PARTITION, current.atDay(1));
+                log.info("Partición {} creada en {} (< {})", HISTORY_PARTITION, table, current.atDay(1));
+            }
+            for (int i = 0; i <= monthsAhead; i++) {
+                YearMonth month = current.plusMonths(i);
+                String name = month.format(PARTITION_FORMAT);
+                if (!bounds.containsKey(name)) {
+                    workoutArchiveRepository.splitFuturePartition(table, name, month.plusMonths(1).atDay(1));
+                    log.info("Partición {} creada en {}", name, table);
+                }
+            }
+        }
+    }
+
+    /**
+     * Mueve al archivo cada mes completo anterior al corte. Primero copia y verifica que cada
+     * completion y cada log tenga su copia (si falta alguna, deshace la copia del mes),
+     * después libera las tablas calientes (DROP PARTITION si existe, si no borrado por lotes).
+     */
+    public void archiveClosedMonths() {
+        Optional<LocalDate> cutoff = archiveCutoff();
+        LocalDate oldest = workoutArchiveRepository.findOldestCompletionDate();
+        if (cutoff.isEmpty() || oldest == null || !oldest.isBefore(cutoff.get())) {
+            return;
+        }
+
+        for (YearMonth month = YearMonth.from(oldest); month.atDay(1).isBefore(cutoff.get()); month = month.plusMonths(1)) {
+            archiveMonth(month);
+        }
+    }
+
+    public void archiveMonth(YearMonth month) {
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+
+        int copied = workoutArchiveRepository.copyToArchive(from, to);
+        long missingCompletions = workoutArchiveRepository.countCompletionsNotArchived(from, to);
+        long missingLogs = workoutArchiveRepository.countLogsNotArchived(from, to);
+        if (missingCompletions > 0 || missingLogs > 0) {
+            int rolledBack = workoutArchiveRepository.deleteArchivedCopies(from, to);
+            log.error("Archivado incompleto de {}: {} completions y {} logs sin copia, se deshace la copia ({} completions) "
+                    + "y no se elimina nada", month, missingCompletions, missingLogs, rolledBack);
+            return;
+        }
+
+        String partition = month.format(PARTITION_FORMAT);
+        if (nativePartitioning && hasPartition(partition)) {
+            workoutArchiveRepository.dropPartition("exercise_logs", partition);
+            workoutArchiveRepository.dropPartition("workout_completions", partition);
+        } else {
+            int deleted;
+            do {
+                deleted = workoutArchiveRepository.deleteHotBatch(from, to, DELETE_BATCH_SIZE);
+            } while (deleted == DELETE_BATCH_SIZE);
+        }
+        log.info("Mes {} archivado: {} entrenamientos copiados", month, copied);
+    }
+
+    private boolean hasPartition(String partition) {
+        return PARTITIONED_TABLES.stream()
+                .allMatch(table -> workoutArchiveRepository.findPartitionBounds(table).containsKey(partition));
+    }
+}
@@ -6,19 +6,26 @@ import com.example.fitnesstracker.dto.request.workout.AddWorkoutDayDTO;
 import com.example.fitnesstracker.dto.request.workout.CompleteWorkoutDTO;
 import com.example.fitnesstracker.dto.request.workout.CreateWorkoutPlanDTO;
 import com.example.fitnesstracker.dto.response.workout.*;
+import com.example.fitnesstracker.enums.OutboxEventType;
 import com.example.fitnesstracker.enums.WorkoutPlanStatus;
 import com.example.fitnesstracker.exception.InvalidUserDataException;
 import com.example.fitnesstracker.exception.ResourceNotFoundException;
 import com.example.fitnesstracker.mapper.*;
 import com.example.fitnesstracker.model.*;
 import com.example.fitnesstracker.repository.*;
+import com.example.fitnesstracker.util.ETags;
+import com.example.fitnesstracker.util.FieldSelection;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,6 +33,8 @@ import java.util.stream.Collectors;
 @Slf4j
 public class WorkoutPlanService {
 
+    private static final FieldSelection PLAN_DETAIL = FieldSelection.of("days.exercises");
+
     private final WorkoutPlanRepository workoutPlanRepository;
     private final WorkoutDayRepository workoutDayRepository;
     private final WorkoutExerciseRepository workoutExerciseRepository;
@@ -40,6 +49,13 @@ public class WorkoutPlanService {
     private final WorkoutExerciseMapper workoutExerciseMapper;
     private final WorkoutCompletionMapper workoutCompletionMapper;
 
+    private final WorkoutArchiveService workoutArchiveService;
+    private final ExerciseProgressService exerciseProgressService;
+    private final AdherenceService adherenceService;
+    private final TrainingCalendarService trainingCalendarService;
+    private final LeaderboardService leaderboardService;
+    private final OutboxService outboxService;
+
     @Transactional
     public WorkoutPlanDTO createWorkoutPlan(Long trainerId, CreateWorkoutPlanDTO dto) {
         log.info("Trainer {} creando plan de workout para member {}", trainerId, dto.getMemberId());
@@ -95,6 +111,7 @@ public class WorkoutPlanService {
         if (!plan.getTrainer().getId().equals(trainerId)) {
             throw new InvalidUserDataException("No tienes permiso para modificar este plan");
         }
+        requireDraft(plan);
 
         WorkoutDay day = WorkoutDay.builder()
                 .workoutPlan(plan)
@@ -105,6 +122,7 @@ public class WorkoutPlanService {
 
         WorkoutDay savedDay = workoutDayRepository.save(day);
         plan.addWorkoutDay(savedDay);
+        plan.touch();
 
         log.info("Día agregado al plan: {}", savedDay.getDayName());
         return workoutDayMapper.toDTO(savedDay, false);
@@ -125,6 +143,7 @@ public class WorkoutPlanService {
         if (!day.getWorkoutPlan().getTrainer().getId().equals(trainerId)) {
             throw new InvalidUserDataException("No tienes permiso para modificar este día");
         }
+        requireDraft(day.getWorkoutPlan());
 
         Exercise exercise = exerciseRepository.findById(dto.getExerciseId())
                 .orElseThrow(() -> new ResourceNotFoundException("Ejercicio no encontrado"));
@@ -146,13 +165,21 @@ public class WorkoutPlanService {
 
         WorkoutExercise savedExercise = workoutExerciseRepository.save(workoutExercise);
         day.addExercise(savedExercise);
+        day.getWorkoutPlan().touch();
 
         log.info("Ejercicio agregado al día: {}", exercise.getName());
         return workoutExerciseMapper.toDTO(savedExercise);
     }
 
+    // Un plan activado se sirve con Cache-Control max-age: sus días y ejercicios ya no cambian
+    private static void requireDraft(WorkoutPlan plan) {
+        if (plan.getStatus() != WorkoutPlanStatus.DRAFT) {
+            throw new InvalidUserDataException("Solo se pueden modificar planes en borrador");
+        }
+    }
+
     @Transactional
-    public WorkoutPlanDTO activateWorkoutPlan(Long planId, Long trainerId) {
+    public WorkoutPlanDTO activateWorkoutPlan(Long planId, Long trainerId, Long expectedVersion) {
         log.info("Trainer {} activando plan {}", trainerId, planId);
 
         WorkoutPlan plan = workoutPlanRepository.findById(planId)
@@ -166,6 +193,7 @@ public class WorkoutPlanService {
         if (!plan.getTrainer().getId().equals(trainerId)) {
             throw new InvalidUserDataException("No tienes permiso para activar este plan");
         }
+        ETags.checkVersion(expectedVersion, plan.getVersion());
 
         // Validar que el plan tenga al menos un día
         if (plan.getWorkoutDays() == null || plan.getWorkoutDays().isEmpty()) {
@@ -173,13 +201,21 @@ public class WorkoutPlanService {
         }
 
         plan.setStatus(WorkoutPlanStatus.ACTIVE);
-        WorkoutPlan updatedPlan = workoutPlanRepository.save(plan);
+        WorkoutPlan updatedPlan = workoutPlanRepository.saveAndFlush(plan);
+
+        outboxService.record(OutboxEventType.WORKOUT_PLAN_ACTIVATED, OutboxEvent.AGGREGATE_WORKOUT_PLAN, planId,
+                OutboxService.payload("planId", planId, "memberId", plan.getMember().getId(), "trainerId", trainerId));
 
         log.info("Plan activado: {}", planId);
         return workoutPlanMapper.toDTO(updatedPlan, true);
     }
 
     public WorkoutPlanDTO getWorkoutPlanById(Long planId) {
+        return getWorkoutPlanById(planId, PLAN_DETAIL);
+    }
+
+    @Transactional(readOnly = true)
+    public WorkoutPlanDTO getWorkoutPlanById(Long planId, FieldSelection selection) {
         log.debug("Obteniendo plan de workout: {}", planId);
 
         WorkoutPlan plan = workoutPlanRepository.findById(planId)
@@ -189,33 +225,99 @@ public class WorkoutPlanService {
             throw new ResourceNotFoundException("Plan de workout no encontrado");
         }
 
-        return workoutPlanMapper.toDTO(plan, true);
+        fetchSelected(List.of(plan), selection);
+        return workoutPlanMapper.toDTO(plan, selection);
+    }
+
+    /**
+     * Versión y estado del plan sin cargar días ni ejercicios, para responder If-None-Match.
+     */
+    public PlanVersionProjection getWorkoutPlanVersion(Long planId) {
+        return workoutPlanRepository.findVersionById(planId)
+                .orElseThrow(() -> new ResourceNotFoundException("Plan de workout no encontrado"));
     }
 
     public List<WorkoutPlanDTO> getWorkoutPlansByMember(Long memberId) {
-        log.debug("Obteniendo planes del member: {}", memberId);
+        return getWorkoutPlansByMember(memberId, FieldSelection.ALL);
+    }
 
-        return workoutPlanRepository.findByMember_IdAndDeletedAtIsNull(memberId).stream()
-                .map(plan -> workoutPlanMapper.toDTO(plan, false))
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<WorkoutPlanDTO> getWorkoutPlansByMember(Long memberId, FieldSelection selection) {
+        log.debug("Obteniendo planes del member: {}", memberId);
+        return toDTOs(workoutPlanRepository.findByMember_IdAndDeletedAtIsNull(memberId), selection);
     }
 
     public List<WorkoutPlanDTO> getActiveWorkoutPlansByMember(Long memberId) {
+        return getActiveWorkoutPlansByMember(memberId, PLAN_DETAIL);
+    }
+
+    @Transactional(readOnly = true)
+    public List<WorkoutPlanDTO> getActiveWorkoutPlansByMember(Long memberId, FieldSelection selection) {
         log.debug("Obteniendo planes activos del member: {}", memberId);
+        return toDTOs(workoutPlanRepository.findActivePlansByMember(memberId), selection);
+    }
 
-        return workoutPlanRepository.findActivePlansByMember(memberId).stream()
-                .map(plan -> workoutPlanMapper.toDTO(plan, true))
-                .collect(Collectors.toList());
+    /**
+     * Planes activos de varios members en una query, agrupados por member.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, List<WorkoutPlanDTO>> getActiveWorkoutPlansByMembers(List<Long> memberIds, FieldSelection selection) {
+        List<WorkoutPlan> plans = workoutPlanRepository.findActivePlansByMembers(memberIds);
+        fetchSelected(plans, selection);
+        return plans.stream()
+                .collect(Collectors.groupingBy(plan -> plan.getMember().getId(),
+                        Collectors.mapping(plan -> workoutPlanMapper.toDTO(plan, selection), Collectors.toList())));
+    }
+
+    /**
+     * Días con sus ejercicios de varios planes en una query, agrupados por plan y ordenados por número de día.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, List<WorkoutDayDTO>> getWorkoutDaysByPlans(List<Long> planIds) {
+        return workoutPlanRepository.fetchExercises(planIds).stream()
+                .filter(day -> day.getDeletedAt() == null)
+                .sorted(Comparator.comparing(WorkoutDay::getDayNumber, Comparator.nullsLast(Comparator.naturalOrder())))
+                .collect(Collectors.groupingBy(day -> day.getWorkoutPlan().getId(),
+                        Collectors.mapping(day -> workoutDayMapper.toDTO(day, true), Collectors.toList())));
     }
 
     public List<WorkoutPlanDTO> getWorkoutPlansByTrainer(Long trainerId) {
+        return getWorkoutPlansByTrainer(trainerId, FieldSelection.ALL);
+    }
+
+    @Transactional(readOnly = true)
+    public List<WorkoutPlanDTO> getWorkoutPlansByTrainer(Long trainerId, FieldSelection selection) {
         log.debug("Obteniendo planes del trainer: {}", trainerId);
+        return toDTOs(workoutPlanRepository.findByTrainer_IdAndDeletedAtIsNull(trainerId), selection);
+    }
 
-        return workoutPlanRepository.findByTrainer_IdAndDeletedAtIsNull(trainerId).stream()
-                .map(plan -> workoutPlanMapper.toDTO(plan, false))
+    private List<WorkoutPlanDTO> toDTOs(List<WorkoutPlan> plans, FieldSelection selection) {
+        fetchSelected(plans, selection);
+        return plans.stream()
+                .map(plan -> workoutPlanMapper.toDTO(plan, selection))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Trae en una query por relación, para todos los planes juntos, solo lo que el mapper va a leer:
+     * sin esto cada plan dispara sus propias cargas lazy de member, trainer, días y ejercicios.
+     */
+    private void fetchSelected(List<WorkoutPlan> plans, FieldSelection selection) {
+        if (plans.isEmpty()) {
+            return;
+        }
+        List<Long> planIds = plans.stream().map(WorkoutPlan::getId).toList();
+        if (selection.has("memberName") || selection.has("trainerName")) {
+            workoutPlanRepository.fetchMemberAndTrainer(planIds);
+        }
+        if (selection.includes("days") || selection.has("totalDays")) {
+            workoutPlanRepository.fetchWorkoutDays(planIds);
+        }
+        if (selection.includes("days")) {
+            workoutPlanRepository.fetchExercises(planIds);
+        }
+    }
+
     @Transactional
     public void deleteWorkoutPlan(Long planId, Long trainerId) {
         log.info("Trainer {} eliminando plan {}", trainerId, planId);
@@ -247,9 +349,11 @@ public class WorkoutPlanService {
         if (!workoutExercise.getWorkoutDay().getWorkoutPlan().getTrainer().getId().equals(trainerId)) {
             throw new InvalidUserDataException("No tenés permiso para modificar este ejercicio");
         }
+        requireDraft(workoutExercise.getWorkoutDay().getWorkoutPlan());
 
         workoutExercise.softDelete();
         workoutExerciseRepository.save(workoutExercise);
+        workoutExercise.getWorkoutDay().getWorkoutPlan().touch();
         log.info("Ejercicio {} eliminado del día", workoutExerciseId);
     }
 // member completa un workout day
@@ -295,6 +399,7 @@ public class WorkoutPlanService {
                 ExerciseLog log = ExerciseLog.builder()
                         .workoutCompletion(savedCompletion)
                         .workoutExercise(workoutExercise)
+                        .completedAt(savedCompletion.getCompletedAt())
                         .setsCompleted(logDTO.getSetsCompleted())
                         .repsCompleted(logDTO.getRepsCompleted())
                         .weightUsed(logDTO.getWeightUsed())
@@ -304,13 +409,27 @@ public class WorkoutPlanService {
                 exerciseLogRepository.save(log);
                 savedCompletion.addExerciseLog(log);
             }
+            exerciseProgressService.recordWorkout(member, savedCompletion.getCompletedAt(), savedCompletion.getExerciseLogs());
         }
+        adherenceService.recordCompletion(savedCompletion);
+        int currentStreak = trainingCalendarService.recordTraining(member, savedCompletion.getCompletedAt());
+        leaderboardService.recordCompletion(member, savedCompletion.getCompletedAt(), savedCompletion.getExerciseLogs(), currentStreak);
+        outboxService.record(OutboxEventType.WORKOUT_COMPLETED, OutboxEvent.AGGREGATE_MEMBER, memberId,
+                OutboxService.payload(
+                        "completionId", savedCompletion.getId(),
+                        "memberId", memberId,
+                        "trainerId", member.getAssignedTrainer() != null ? member.getAssignedTrainer().getId() : null,
+                        "workoutPlanId", day.getWorkoutPlan().getId(),
+                        "workoutDayId", dayId,
+                        "completedAt", savedCompletion.getCompletedAt(),
+                        "adherenceScore", savedCompletion.getAdherenceScore(),
+                        "currentStreak", currentStreak));
 
         log.info("Workout completado: member {} - day {}", memberId, dayId);
         return workoutCompletionMapper.toDTO(savedCompletion);
     }
     @Transactional
-    public void cancelWorkoutPlan(Long planId, Long trainerId) {
+    public void cancelWorkoutPlan(Long planId, Long trainerId, Long expectedVersion) {
         log.info("Trainer {} cancelando plan workout {}", trainerId, planId);
         WorkoutPlan plan = workoutPlanRepository.findById(planId)
                 .filter(p -> !p.isDeleted())
@@ -318,6 +437,7 @@ public class WorkoutPlanService {
         if (!plan.getTrainer().getId().equals(trainerId)) {
             throw new InvalidUserDataException("No tenés permiso para cancelar este plan");
         }
+        ETags.checkVersion(expectedVersion, plan.getVersion());
         if (plan.getStatus() == WorkoutPlanStatus.CANCELLED) {
             throw new InvalidUserDataException("El plan ya está cancelado");
         }
@@ -328,21 +448,63 @@ public class WorkoutPlanService {
     public List<WorkoutCompletionDTO> getWorkoutHistory(Long memberId) {
         log.debug("Obteniendo historial de workouts del member: {}", memberId);
 
-        return workoutCompletionRepository.findByMember_IdAndDeletedAtIsNullOrderByCompletedAtDesc(memberId).stream()
+        List<WorkoutCompletionDTO> hot = workoutCompletionRepository.findByMember_IdAndDeletedAtIsNullOrderByCompletedAtDesc(memberId).stream()
                 .map(workoutCompletionMapper::toDTO)
-                .collect(Collectors.toList());
+                .toList();
+
+        List<WorkoutCompletionDTO> archived = workoutArchiveService.archiveCutoff()
+                .map(cutoff -> workoutArchiveService.getArchivedHistory(memberId, LocalDate.EPOCH, cutoff.minusDays(1)))
+                .orElse(List.of());
+        return mergeHistory(hot, archived);
+    }
+
+    /**
+     * Últimos {@code limit} workouts de cada member, en una query para todos.
+     * Solo mira la tabla caliente: lo archivado tiene meses y no es historial reciente.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, List<WorkoutCompletionDTO>> getRecentWorkoutsByMembers(List<Long> memberIds, int limit) {
+        return workoutCompletionRepository.findRecentByMembers(memberIds, limit).stream()
+                .map(workoutCompletionMapper::toDTO)
+                .collect(Collectors.groupingBy(WorkoutCompletionDTO::getMemberId));
     }
 
     public List<WorkoutCompletionDTO> getWorkoutHistoryByDateRange(Long memberId, LocalDate startDate, LocalDate endDate) {
         log.debug("Obteniendo historial de workouts del member {} entre {} y {}", memberId, startDate, endDate);
 
-        return workoutCompletionRepository.findByMemberAndDateRange(memberId, startDate, endDate).stream()
+        // La tabla caliente se lee siempre en todo el rango: un mes ya vencido sigue ahí hasta que el job lo archiva
+        List<WorkoutCompletionDTO> hot = workoutCompletionRepository.findByMemberAndDateRange(memberId, startDate, endDate).stream()
                 .map(workoutCompletionMapper::toDTO)
-                .collect(Collectors.toList());
+                .toList();
+
+        // El archivo solo tiene filas anteriores al corte, así que se consulta únicamente si el rango llega hasta ahí
+        LocalDate cutoff = workoutArchiveService.archiveCutoff().orElse(null);
+        List<WorkoutCompletionDTO> archived = List.of();
+        if (cutoff != null && startDate.isBefore(cutoff)) {
+            LocalDate archiveEnd = endDate.isBefore(cutoff) ? endDate : cutoff.minusDays(1);
+            archived = workoutArchiveService.getArchivedHistory(memberId, startDate, archiveEnd);
+        }
+        return mergeHistory(hot, archived);
     }
 
     public long countCompletedWorkouts(Long memberId) {
-        return workoutCompletionRepository.countCompletionsByMember(memberId);
+        long hot = workoutCompletionRepository.countCompletionsByMember(memberId);
+        return workoutArchiveService.archiveCutoff().isPresent()
+                ? hot + workoutArchiveService.countArchivedOnly(memberId)
+                : hot;
+    }
+
+    /**
+     * Une caliente y archivo sin duplicar: entre la copia al archivo y el borrado del lote
+     * la misma completion está en las dos tablas. Gana la fila caliente.
+     */
+    private List<WorkoutCompletionDTO> mergeHistory(List<WorkoutCompletionDTO> hot, List<WorkoutCompletionDTO> archived) {
+        Map<Long, WorkoutCompletionDTO> byId = new LinkedHashMap<>();
+        hot.forEach(completion -> byId.put(completion.getId(), completion));
+        archived.forEach(completion -> byId.putIfAbsent(completion.getId(), completion));
+        List<WorkoutCompletionDTO> history = new ArrayList<>(byId.values());
+        history.sort(Comparator.comparing(WorkoutCompletionDTO::getCompletedAt).reversed());
+        return history;
     }
 
     public long countActivePlans(Long trainerId) {
@@ -0,0 +1,131 @@
+package com.example.fitnesstracker.util;
+
+import com.example.fitnesstracker.exception.PreconditionFailedException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+
+/**
+ * ETag de un agregado a partir de su columna de versión, validación de If-Match y GET condicional
+ * con If-None-Match. If-Match es opcional: sin él (o con "*") la escritura no se condiciona.
+ * <p>
+ * Los GET cacheables llevan ETag débil: Tomcat no comprime respuestas con ETag fuerte, y la misma
+ * versión se sirve como JSON, CBOR o Smile (representaciones equivalentes, no idénticas byte a byte).
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(Long version) {
+        return version != null ? "\"" + version + "\"" : null;
+    }
+
+    public static String weak(Long version) {
+        return version != null ? "W/" + of(version) : null;
+    }
+
+    /**
+     * 200 con el ETag de la versión, para que el cliente lo devuelva en If-Match al escribir.
+     */
+    public static <T> ResponseEntity<T> ok(T body, Long version) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (version != null) {
+            builder.eTag(of(version));
+        }
+        return builder.body(body);
+    }
+
+    /**
+     * 200 de un GET cacheable: ETag débil y Vary: Accept, porque la URL tiene varias representaciones.
+     */
+    public static <T> ResponseEntity<T> ok(T body, Long version, CacheControl cacheControl) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT);
+        if (version != null) {
+            builder.eTag(weak(version));
+        }
+        return builder.body(body);
+    }
+
+    public static <T> ResponseEntity<T> notModified(Long version, CacheControl cacheControl) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(weak(version))
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT)
+                .build();
+    }
+
+    /**
+     * true si If-None-Match incluye la versión actual (o es "*"). Comparación débil, como pide
+     * RFC 9110 para If-None-Match: W/"3" coincide con "3".
+     */
+    public static boolean matchesIfNoneMatch(String ifNoneMatch, Long version) {
+        if (ifNoneMatch == null || version == null) {
+            return false;
+        }
+        String current = version.toString();
+        for (String tag : ifNoneMatch.split(",")) {
+            String value = tag.trim();
+            if (value.equals("*")) {
+                return true;
+            }
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                value = value.substring(1, value.length() - 1);
+            }
+            if (value.equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cache-Control de un agregado por usuario: private para que no lo guarden proxies compartidos.
+     * Un borrador cambia seguido y se revalida siempre; publicado casi no cambia y se reusa durante maxAge.
+     */
+    public static CacheControl cacheControl(boolean draft, Duration maxAge) {
+        return draft
+                ? CacheControl.noCache().cachePrivate()
+                : CacheControl.maxAge(maxAge).cachePrivate();
+    }
+
+    /**
+     * Versión que el cliente espera modificar, o null si no mandó If-Match.
+     */
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match inválido: " + ifMatch);
+        }
+    }
+
+    /**
+     * Falla si el cliente editó una versión que ya no es la actual. La comparación se hace sobre la
+     * entidad recién leída en la transacción; lo que cambie después lo detecta @Version al guardar.
+     */
+    public static void checkVersion(Long expectedVersion, Long currentVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(currentVersion)) {
+            throw new PreconditionFailedException("El recurso fue modificado por otra operación (versión actual "
+                    + currentVersion + "). Vuelve a cargarlo e intenta de nuevo");
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.fitnesstracker.util;
+
+import com.example.fitnesstracker.exception.InvalidUserDataException;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Campos y relaciones pedidos con {@code ?fields=} e {@code ?include=}.
+ * Los mappers completan solo lo seleccionado (los DTOs omiten los null) y los services
+ * traen de la base solo las relaciones que se van a mapear. id y version se devuelven siempre.
+ */
+public final class FieldSelection {
+
+    public static final FieldSelection ALL = new FieldSelection(null, Set.of());
+
+    private static final Set<String> ALWAYS = Set.of("id", "version");
+    private static final Map<Class<?>, Set<String>> PROPERTIES = new ConcurrentHashMap<>();
+
+    // null: todos los campos
+    private final Set<String> fields;
+    private final Set<String> includes;
+
+    private FieldSelection(Set<String> fields, Set<String> includes) {
+        this.fields = fields;
+        this.includes = includes;
+    }
+
+    /**
+     * Todos los campos con las relaciones indicadas.
+     */
+    public static FieldSelection of(String... includes) {
+        return new FieldSelection(null, expand(Set.of(includes)));
+    }
+
+    /**
+     * Sin {@code include} se usan las relaciones por defecto del endpoint; {@code include=} vacío no trae ninguna.
+     * Un campo o una relación que no existen son un error del cliente.
+     */
+    public static FieldSelection parse(String fields, String include, Class<?> dto, Set<String> allowedIncludes,
+                                       String... defaultIncludes) {
+        Set<String> selectedFields = null;
+        if (fields != null && !fields.isBlank()) {
+            Set<String> known = PROPERTIES.computeIfAbsent(dto, FieldSelection::propertiesOf);
+            selectedFields = split(fields);
+            for (String field : selectedFields) {
+                if (!known.contains(field)) {
+                    throw new InvalidUserDataException("Campo desconocido en fields: " + field);
+                }
+            }
+        }
+
+        Set<String> selectedIncludes = include == null ? Set.of(defaultIncludes) : split(include);
+        for (String relation : selectedIncludes) {
+            if (!allowedIncludes.contains(relation)) {
+                throw new InvalidUserDataException("Relación desconocida en include: " + relation);
+            }
+        }
+        return new FieldSelection(selectedFields, expand(selectedIncludes));
+    }
+
+    public boolean has(String field) {
+        return fields == null || fields.contains(field) || ALWAYS.contains(field);
+    }
+
+    /**
+     * Pedir {@code days.exercises} incluye también {@code days}.
+     */
+    public boolean includes(String relation) {
+        return includes.contains(relation);
+    }
+
+    /**
+     * El valor solo se calcula si el campo está seleccionado, así no se inicializan relaciones lazy de más.
+     */
+    public <T> T pick(String field, Supplier<T> value) {
+        return has(field) ? value.get() : null;
+    }
+
+    private static Set<String> split(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(part -> !part.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private static Set<String> expand(Set<String> relations) {
+        Set<String> expanded = new LinkedHashSet<>();
+        for (String relation : relations) {
+            for (int dot = relation.indexOf('.'); dot > 0; dot = relation.indexOf('.', dot + 1)) {
+                expanded.add(relation.substring(0, dot));
+            }
+            expanded.add(relation);
+        }
+        return Set.copyOf(expanded);
+    }
+
+    private static Set<String> propertiesOf(Class<?> dto) {
+        return Arrays.stream(dto.getDeclaredFields())
+                .filter(field -> !Modifier.isStatic(field.getModifiers()))
+                .map(Field::getName)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
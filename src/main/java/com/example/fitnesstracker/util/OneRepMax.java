@@ -0,0 +1,26 @@
+package com.example.fitnesstracker.util;
+
+/**
+ * Estimación de 1RM a partir de una serie (peso × repeticiones).
+ * Brzycki hasta 10 repeticiones, donde es más precisa; Epley por encima.
+ */
+public final class OneRepMax {
+
+    private static final int BRZYCKI_MAX_REPS = 10;
+
+    private OneRepMax() {
+    }
+
+    public static double estimate(double weight, int reps) {
+        if (weight <= 0 || reps <= 0) {
+            return 0;
+        }
+        if (reps == 1) {
+            return weight;
+        }
+        if (reps <= BRZYCKI_MAX_REPS) {
+            return weight * 36.0 / (37 - reps);
+        }
+        return weight * (1 + reps / 30.0);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.fitnesstracker.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Reintenta con backoff exponencial (y jitter) las operaciones que fallan por conflicto de versión.
+ * Solo para llamadas seguras de reintentar: un método @Transactional invocado desde fuera de toda
+ * transacción, que vuelve a leer el estado en cada intento. Un If-Match desactualizado no se reintenta:
+ * termina en PreconditionFailedException, que no es un conflicto de versión.
+ */
+@Component
+@Slf4j
+public class OptimisticRetry {
+
+    @Value("${concurrency.retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${concurrency.retry.initial-backoff-ms:20}")
+    private long initialBackoffMs;
+
+    @Value("${concurrency.retry.max-backoff-ms:200}")
+    private long maxBackoffMs;
+
+    public <T> T call(String operation, Supplier<T> action) {
+        // Dentro de una transacción el conflicto ya la marcó para rollback: reintentar acá no sirve
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.warn("Conflicto de versión en {} después de {} intentos", operation, attempt);
+                    throw e;
+                }
+                log.debug("Conflicto de versión en {}, reintento {}/{}", operation, attempt + 1, maxAttempts);
+                backoff(attempt, e);
+            }
+        }
+    }
+
+    public void run(String operation, Runnable action) {
+        call(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private void backoff(int attempt, OptimisticLockingFailureException cause) {
+        long ceiling = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.fitnesstracker.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Ranking en memoria ordenado por puntaje descendente (a igual puntaje, menor id primero).
+ * Es una skip list indexable: cada enlace guarda cuántos nodos salta, así que insertar,
+ * borrar y calcular la posición de un id cuestan O(log n), y un top-K O(log n + K).
+ * Seguro para uso concurrente: lecturas en paralelo, escrituras exclusivas.
+ */
+public class RankingIndex {
+
+    private static final int MAX_LEVEL = 32;
+    private static final double LEVEL_PROBABILITY = 0.25;
+
+    private final Node header = new Node(0, 0, MAX_LEVEL);
+    private final Map<Long, Node> nodes = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int level = 1;
+
+    public record Entry(int rank, long id, double score) {
+    }
+
+    /**
+     * Inserta o reemplaza el puntaje del id.
+     */
+    public void put(long id, double score) {
+        lock.writeLock().lock();
+        try {
+            Node existing = nodes.get(id);
+            if (existing != null) {
+                if (existing.score == score) {
+                    return;
+                }
+                nodes.remove(id);
+                delete(existing);
+            }
+            nodes.put(id, insert(id, score));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Node node = nodes.remove(id);
+            if (node == null) {
+                return false;
+            }
+            delete(node);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            nodes.clear();
+            for (int i = 0; i < MAX_LEVEL; i++) {
+                header.next[i] = null;
+                header.span[i] = 0;
+            }
+            level = 1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Posición del id empezando en 1, o 0 si no está en el ranking.
+     */
+    public int rank(long id) {
+        lock.readLock().lock();
+        try {
+            Node node = nodes.get(id);
+            if (node == null) {
+                return 0;
+            }
+            int rank = 0;
+            Node x = header;
+            for (int i = level - 1; i >= 0; i--) {
+                while (x.next[i] != null && !after(x.next[i], node.score, node.id)) {
+                    rank += x.span[i];
+                    x = x.next[i];
+                }
+                if (x == node) {
+                    return rank;
+                }
+            }
+            return 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Double score(long id) {
+        lock.readLock().lock();
+        try {
+            Node node = nodes.get(id);
+            return node != null ? node.score : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Hasta {@code limit} entradas a partir de la posición {@code offset} (0 = primero).
+     */
+    public List<Entry> range(int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Entry> result = new ArrayList<>(Math.max(0, Math.min(limit, nodes.size() - offset)));
+            if (offset < 0 || offset >= nodes.size() || limit <= 0) {
+                return result;
+            }
+            // Bajar por los niveles hasta el nodo de la posición offset + 1
+            int traversed = 0;
+            Node x = header;
+            for (int i = level - 1; i >= 0; i--) {
+                while (x.next[i] != null && traversed + x.span[i] <= offset + 1) {
+                    traversed += x.span[i];
+                    x = x.next[i];
+                }
+            }
+            for (int rank = offset + 1; x != null && result.size() < limit; x = x.next[0], rank++) {
+                result.add(new Entry(rank, x.id, x.score));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Entry> top(int k) {
+        return range(0, k);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ========== Skip list ==========
+
+    private Node insert(long id, double score) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node x = header;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (x.next[i] != null && before(x.next[i], score, id)) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                rank[i] = 0;
+                update[i] = header;
+                update[i].span[i] = nodes.size();
+            }
+            level = nodeLevel;
+        }
+
+        Node node = new Node(id, score, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = (rank[0] - rank[i]) + 1;
+        }
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+        return node;
+    }
+
+    private void delete(Node node) {
+        Node[] update = new Node[MAX_LEVEL];
+        Node x = header;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && before(x.next[i], node.score, node.id)) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == node) {
+                update[i].span[i] += node.span[i] - 1;
+                update[i].next[i] = node.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && header.next[level - 1] == null) {
+            level--;
+        }
+    }
+
+    // true si el nodo va antes que (score, id) en el ranking
+    private static boolean before(Node node, double score, long id) {
+        return node.score > score || (node.score == score && node.id < id);
+    }
+
+    private static boolean after(Node node, double score, long id) {
+        return node.score < score || (node.score == score && node.id > id);
+    }
+
+    private static int randomLevel() {
+        int nodeLevel = 1;
+        while (nodeLevel < MAX_LEVEL && ThreadLocalRandom.current().nextDouble() < LEVEL_PROBABILITY) {
+            nodeLevel++;
+        }
+        return nodeLevel;
+    }
+
+    private static final class Node {
+        private final long id;
+        private final double score;
+        private final Node[] next;
+        private final int[] span;
+
+        private Node(long id, double score, int level) {
+            this.id = id;
+            this.score = score;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.fitnesstracker.util;
+
+import com.example.fitnesstracker.model.common.BaseEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Permite ejecutar consultas que necesitan ver filas eliminadas (restore, papelera de admin).
+ * Debe llamarse dentro de una transacción para que el filtro se desactive en la misma sesión.
+ */
+@Component
+public class SoftDeleteFilter {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public <T> T withDeleted(Supplier<T> action) {
+        Session session = entityManager.unwrap(Session.class);
+        boolean wasEnabled = session.getEnabledFilter(BaseEntity.SOFT_DELETE_FILTER) != null;
+        if (wasEnabled) {
+            session.disableFilter(BaseEntity.SOFT_DELETE_FILTER);
+        }
+        try {
+            return action.get();
+        } finally {
+            if (wasEnabled) {
+                session.enableFilter(BaseEntity.SOFT_DELETE_FILTER);
+            }
+        }
+    }
+
+    public void runWithDeleted(Runnable action) {
+        withDeleted(() -> {
+            action.run();
+            return null;
+        });
+    }
+}
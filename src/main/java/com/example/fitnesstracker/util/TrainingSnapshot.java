@@ -0,0 +1,314 @@
+package com.example.fitnesstracker.util;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Copia columnar e inmutable del historial de entrenamiento usada por los reportes.
+ * Una fila por ejercicio registrado, ordenada por (trainer, member, día, completion).
+ *
+ * Formato en disco (big-endian): cabecera, cada columna contigua y al final los diccionarios de nombres.
+ * Los mapas de zona (min/max de trainer y día por bloque de {@link #CHUNK_SIZE} filas) se calculan al cargar.
+ */
+public final class TrainingSnapshot {
+
+    public static final int CHUNK_SIZE = 4096;
+    public static final long UNASSIGNED_TRAINER = 0L;
+
+    private static final int MAGIC = 0x46544353; // "FTCS"
+    private static final int VERSION = 1;
+
+    private final LocalDateTime generatedAt;
+    private final int rowCount;
+
+    private final long[] trainerIds;
+    private final long[] memberIds;
+    private final long[] completionIds;
+    private final long[] exerciseIds;
+    private final int[] epochDays;
+    private final int[] sets;
+    private final int[] reps;
+    private final double[] weights; // NaN si no se registró peso
+
+    private final long[] chunkMinTrainer;
+    private final long[] chunkMaxTrainer;
+    private final int[] chunkMinDay;
+    private final int[] chunkMaxDay;
+
+    private final Map<Long, String> memberNames;
+    private final Map<Long, String> exerciseNames;
+
+    private TrainingSnapshot(LocalDateTime generatedAt, int rowCount, long[] trainerIds, long[] memberIds,
+                             long[] completionIds, long[] exerciseIds, int[] epochDays, int[] sets, int[] reps,
+                             double[] weights, Map<Long, String> memberNames, Map<Long, String> exerciseNames) {
+        this.generatedAt = generatedAt;
+        this.rowCount = rowCount;
+        this.trainerIds = trainerIds;
+        this.memberIds = memberIds;
+        this.completionIds = completionIds;
+        this.exerciseIds = exerciseIds;
+        this.epochDays = epochDays;
+        this.sets = sets;
+        this.reps = reps;
+        this.weights = weights;
+        this.memberNames = Collections.unmodifiableMap(memberNames);
+        this.exerciseNames = Collections.unmodifiableMap(exerciseNames);
+
+        int chunks = chunkCount();
+        this.chunkMinTrainer = new long[chunks];
+        this.chunkMaxTrainer = new long[chunks];
+        this.chunkMinDay = new int[chunks];
+        this.chunkMaxDay = new int[chunks];
+        for (int c = 0; c < chunks; c++) {
+            int start = chunkStart(c);
+            int end = chunkEnd(c);
+            long minTrainer = Long.MAX_VALUE, maxTrainer = Long.MIN_VALUE;
+            int minDay = Integer.MAX_VALUE, maxDay = Integer.MIN_VALUE;
+            for (int i = start; i < end; i++) {
+                minTrainer = Math.min(minTrainer, trainerIds[i]);
+                maxTrainer = Math.max(maxTrainer, trainerIds[i]);
+                minDay = Math.min(minDay, epochDays[i]);
+                maxDay = Math.max(maxDay, epochDays[i]);
+            }
+            chunkMinTrainer[c] = minTrainer;
+            chunkMaxTrainer[c] = maxTrainer;
+            chunkMinDay[c] = minDay;
+            chunkMaxDay[c] = maxDay;
+        }
+    }
+
+    // ========== Acceso ==========
+
+    public LocalDateTime getGeneratedAt() { return generatedAt; }
+    public int getRowCount() { return rowCount; }
+    public long[] trainerIds() { return trainerIds; }
+    public long[] memberIds() { return memberIds; }
+    public long[] completionIds() { return completionIds; }
+    public long[] exerciseIds() { return exerciseIds; }
+    public int[] epochDays() { return epochDays; }
+    public int[] sets() { return sets; }
+    public int[] reps() { return reps; }
+    public double[] weights() { return weights; }
+
+    public int chunkCount() {
+        return (rowCount + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    }
+
+    public int chunkStart(int chunk) {
+        return chunk * CHUNK_SIZE;
+    }
+
+    public int chunkEnd(int chunk) {
+        return Math.min(rowCount, (chunk + 1) * CHUNK_SIZE);
+    }
+
+    /**
+     * Indica si el bloque puede contener filas del trainer en el rango de días, según su mapa de zona.
+     */
+    public boolean chunkMayMatch(int chunk, long trainerId, int fromDay, int toDay) {
+        return chunkMinTrainer[chunk] <= trainerId && trainerId <= chunkMaxTrainer[chunk]
+                && chunkMinDay[chunk] <= toDay && fromDay <= chunkMaxDay[chunk];
+    }
+
+    public String memberName(long memberId) {
+        return memberNames.get(memberId);
+    }
+
+    public String exerciseName(long exerciseId) {
+        return exerciseNames.get(exerciseId);
+    }
+
+    public int memberCount() {
+        return memberNames.size();
+    }
+
+    public int exerciseCount() {
+        return exerciseNames.size();
+    }
+
+    // ========== Persistencia ==========
+
+    /**
+     * Escribe en un archivo temporal y lo mueve al destino para que un lector nunca vea un archivo a medias.
+     */
+    public void writeTo(Path target) throws IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, target.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(generatedAt.toInstant(ZoneOffset.UTC).toEpochMilli());
+            out.writeInt(rowCount);
+            for (int i = 0; i < rowCount; i++) out.writeLong(trainerIds[i]);
+            for (int i = 0; i < rowCount; i++) out.writeLong(memberIds[i]);
+            for (int i = 0; i < rowCount; i++) out.writeLong(completionIds[i]);
+            for (int i = 0; i < rowCount; i++) out.writeLong(exerciseIds[i]);
+            for (int i = 0; i < rowCount; i++) out.writeInt(epochDays[i]);
+            for (int i = 0; i < rowCount; i++) out.writeInt(sets[i]);
+            for (int i = 0; i < rowCount; i++) out.writeInt(reps[i]);
+            for (int i = 0; i < rowCount; i++) out.writeDouble(weights[i]);
+            writeDictionary(out, memberNames);
+            writeDictionary(out, exerciseNames);
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static TrainingSnapshot readFrom(Path source) throws IOException {
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Formato de snapshot no reconocido: " + source);
+            }
+            LocalDateTime generatedAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(buffer.getLong()), ZoneOffset.UTC);
+            int rows = buffer.getInt();
+
+            long[] trainerIds = readLongs(buffer, rows);
+            long[] memberIds = readLongs(buffer, rows);
+            long[] completionIds = readLongs(buffer, rows);
+            long[] exerciseIds = readLongs(buffer, rows);
+            int[] epochDays = readInts(buffer, rows);
+            int[] sets = readInts(buffer, rows);
+            int[] reps = readInts(buffer, rows);
+            double[] weights = new double[rows];
+            buffer.asDoubleBuffer().get(weights);
+            buffer.position(buffer.position() + rows * Double.BYTES);
+
+            Map<Long, String> memberNames = readDictionary(buffer);
+            Map<Long, String> exerciseNames = readDictionary(buffer);
+            return new TrainingSnapshot(generatedAt, rows, trainerIds, memberIds, completionIds, exerciseIds,
+                    epochDays, sets, reps, weights, memberNames, exerciseNames);
+        }
+    }
+
+    private static long[] readLongs(ByteBuffer buffer, int rows) {
+        long[] values = new long[rows];
+        buffer.asLongBuffer().get(values);
+        buffer.position(buffer.position() + rows * Long.BYTES);
+        return values;
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int rows) {
+        int[] values = new int[rows];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + rows * Integer.BYTES);
+        return values;
+    }
+
+    private static void writeDictionary(DataOutputStream out, Map<Long, String> dictionary) throws IOException {
+        out.writeInt(dictionary.size());
+        for (Map.Entry<Long, String> entry : dictionary.entrySet()) {
+            byte[] bytes = entry.getValue().getBytes(StandardCharsets.UTF_8);
+            out.writeLong(entry.getKey());
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static Map<Long, String> readDictionary(ByteBuffer buffer) {
+        int size = buffer.getInt();
+        Map<Long, String> dictionary = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            long id = buffer.getLong();
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            dictionary.put(id, new String(bytes, StandardCharsets.UTF_8));
+        }
+        return dictionary;
+    }
+
+    // ========== Construcción ==========
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Acumula filas en arrays que crecen por duplicación. Las filas deben llegar ya ordenadas
+     * por (trainer, member, día, completion) para que los mapas de zona descarten bloques.
+     */
+    public static final class Builder {
+
+        private int size;
+        private long[] trainerIds = new long[CHUNK_SIZE];
+        private long[] memberIds = new long[CHUNK_SIZE];
+        private long[] completionIds = new long[CHUNK_SIZE];
+        private long[] exerciseIds = new long[CHUNK_SIZE];
+        private int[] epochDays = new int[CHUNK_SIZE];
+        private int[] sets = new int[CHUNK_SIZE];
+        private int[] reps = new int[CHUNK_SIZE];
+        private double[] weights = new double[CHUNK_SIZE];
+        private final Map<Long, String> memberNames = new HashMap<>();
+        private final Map<Long, String> exerciseNames = new HashMap<>();
+
+        private Builder() {
+        }
+
+        public Builder addRow(long trainerId, long memberId, long completionId, long exerciseId,
+                              int epochDay, int setsCompleted, int repsCompleted, Double weightUsed) {
+            if (size == trainerIds.length) {
+                grow();
+            }
+            trainerIds[size] = trainerId;
+            memberIds[size] = memberId;
+            completionIds[size] = completionId;
+            exerciseIds[size] = exerciseId;
+            epochDays[size] = epochDay;
+            sets[size] = setsCompleted;
+            reps[size] = repsCompleted;
+            weights[size] = weightUsed != null ? weightUsed : Double.NaN;
+            size++;
+            return this;
+        }
+
+        public Builder memberName(long memberId, String name) {
+            memberNames.put(memberId, name);
+            return this;
+        }
+
+        public Builder exerciseName(long exerciseId, String name) {
+            exerciseNames.put(exerciseId, name);
+            return this;
+        }
+
+        public TrainingSnapshot build() {
+            return new TrainingSnapshot(LocalDateTime.now(ZoneOffset.UTC), size,
+                    Arrays.copyOf(trainerIds, size), Arrays.copyOf(memberIds, size),
+                    Arrays.copyOf(completionIds, size), Arrays.copyOf(exerciseIds, size),
+                    Arrays.copyOf(epochDays, size), Arrays.copyOf(sets, size),
+                    Arrays.copyOf(reps, size), Arrays.copyOf(weights, size),
+                    new HashMap<>(memberNames), new HashMap<>(exerciseNames));
+        }
+
+        private void grow() {
+            int capacity = trainerIds.length * 2;
+            trainerIds = Arrays.copyOf(trainerIds, capacity);
+            memberIds = Arrays.copyOf(memberIds, capacity);
+            completionIds = Arrays.copyOf(completionIds, capacity);
+            exerciseIds = Arrays.copyOf(exerciseIds, capacity);
+            epochDays = Arrays.copyOf(epochDays, capacity);
+            sets = Arrays.copyOf(sets, capacity);
+            reps = Arrays.copyOf(reps, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.fitnesstracker.benchmark;
+
+import com.example.fitnesstracker.enums.UserRole;
+import com.example.fitnesstracker.enums.UserType;
+import com.example.fitnesstracker.model.User;
+import com.example.fitnesstracker.security.JwtKeyStore;
+import com.example.fitnesstracker.security.JwtTokenProvider;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.util.Date;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Costo de firmar y verificar un access token con ES256 frente al HS512 anterior, con los mismos
+ * claims que emite JwtTokenProvider, y de la verificación de JwtTokenProvider con el token ya en cache.
+ * Cada medición se repite {@code benchmark.jwt.rounds} veces después de {@code benchmark.jwt.warmup}
+ * operaciones de calentamiento; las iteraciones por ronda se ajustan con -Dbenchmark.jwt.iterations.
+ */
+@Tag("benchmark")
+@Slf4j
+@DisplayName("JWT Signing Benchmark")
+class JwtSigningBenchmarkTest {
+
+    private static final int WARMUP = Integer.getInteger("benchmark.jwt.warmup", 2_000);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.jwt.iterations", 5_000);
+    private static final int ROUNDS = Integer.getInteger("benchmark.jwt.rounds", 3);
+
+    @Test
+    @DisplayName("ES256 vs HS512 - Firmas y verificaciones por segundo")
+    void es256VersusHs512() {
+        KeyPair es256 = Jwts.SIG.ES256.keyPair().build();
+        SecretKey hs512 = Keys.hmacShaKeyFor(new byte[64]);
+
+        JwtParser es256Parser = Jwts.parser().verifyWith(es256.getPublic()).build();
+        JwtParser hs512Parser = Jwts.parser().verifyWith(hs512).build();
+
+        String es256Token = measure("ES256 firma", () -> sign(es256.getPrivate(), true));
+        String hs512Token = measure("HS512 firma", () -> sign(hs512, false));
+        String es256Subject = measure("ES256 verificación", () -> es256Parser.parseSignedClaims(es256Token).getPayload().getSubject());
+        String hs512Subject = measure("HS512 verificación", () -> hs512Parser.parseSignedClaims(hs512Token).getPayload().getSubject());
+
+        JwtTokenProvider provider = provider();
+        String providerToken = provider.generateToken(benchUser(), "2b1f0c1e-6d1a-4f5e-9c1b-3e2f4a5b6c7d");
+        String cachedSubject = measure("ES256 verificación en cache", () -> provider.parseClaims(providerToken).getSubject());
+
+        assertThat(es256Subject).isEqualTo("bench");
+        assertThat(hs512Subject).isEqualTo("bench");
+        assertThat(cachedSubject).isEqualTo("bench");
+    }
+
+    // Clave efímera (sin key-dir), como en una instancia sin directorio compartido
+    private static JwtTokenProvider provider() {
+        JwtKeyStore keyStore = new JwtKeyStore();
+        ReflectionTestUtils.setField(keyStore, "keyDir", "");
+        ReflectionTestUtils.setField(keyStore, "rotationHours", 168L);
+        ReflectionTestUtils.setField(keyStore, "accessTokenTtlMs", 900_000L);
+        keyStore.init();
+        JwtTokenProvider provider = new JwtTokenProvider(keyStore, "http://localhost:8080");
+        ReflectionTestUtils.setField(provider, "jwtExpirationMs", 900_000L);
+        return provider;
+    }
+
+    private static User benchUser() {
+        User user = new User();
+        user.setUsername("bench");
+        user.setEmail("bench@example.com");
+        user.setRole(UserRole.USER);
+        user.setUserType(UserType.MEMBER);
+        return user;
+    }
+
+    private static String sign(java.security.Key key, boolean es256) {
+        long now = System.currentTimeMillis();
+        var builder = Jwts.builder()
+                .header().keyId("bench-kid").and()
+                .issuer("http://localhost:8080")
+                .subject("bench")
+                .claim("role", "USER")
+                .claim("sid", "2b1f0c1e-6d1a-4f5e-9c1b-3e2f4a5b6c7d")
+                .claim("userType", "MEMBER")
+                .claim("email", "bench@example.com")
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + 900_000));
+        return es256
+                ? builder.signWith((PrivateKey) key, Jwts.SIG.ES256).compact()
+                : builder.signWith((SecretKey) key, Jwts.SIG.HS512).compact();
+    }
+
+    private static <T> T measure(String name, Supplier<T> operation) {
+        T result = null;
+        for (int i = 0; i < WARMUP; i++) {
+            result = operation.get();
+        }
+        for (int round = 1; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                result = operation.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            log.info("{} (ronda {}/{}): {} µs/op, {} op/s", name, round, ROUNDS,
+                    String.format("%.1f", elapsed / 1000.0 / ITERATIONS),
+                    String.format("%.0f", ITERATIONS / (elapsed / 1_000_000_000.0)));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.fitnesstracker.benchmark;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.example.fitnesstracker.logging.RingBufferAppender;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latencia de una llamada a log.info vista por el hilo del request, con un destino que cada tanto
+ * se traba (como stdout con el colector de logs atrasado): appender síncrono frente al ring buffer.
+ * Las latencias solo se informan; lo que se verifica es que el ring buffer no pierde WARN y que cada
+ * INFO que no llegó al destino figura como descartado. Las iteraciones por hilo se ajustan con
+ * -Dbenchmark.logging.iterations.
+ */
+@Tag("benchmark")
+@Slf4j
+@DisplayName("Logging Benchmark")
+class LoggingBenchmarkTest {
+
+    private static final int ITERATIONS = Integer.getInteger("benchmark.logging.iterations", 20_000);
+    private static final int THREADS = 4;
+    private static final int WARN_EVERY = 10;
+    private static final long WARN_EVENTS = (long) THREADS * ((ITERATIONS + WARN_EVERY - 1) / WARN_EVERY);
+    private static final long INFO_EVENTS = (long) THREADS * ITERATIONS - WARN_EVENTS;
+
+    @Test
+    @DisplayName("Síncrono vs ring buffer - p50/p99 por llamada, sin perder WARN")
+    void syncVersusRingBuffer() {
+        LoggerContext context = new LoggerContext();
+        context.setMDCAdapter(MDC.getMDCAdapter());
+
+        SlowOutput syncOutput = new SlowOutput();
+        OutputStreamAppender<ILoggingEvent> sync = slowAppender(context, syncOutput);
+        long[] syncLatencies = run(context, "sync", sync);
+        sync.stop();
+
+        SlowOutput ringOutput = new SlowOutput();
+        RingBufferAppender ring = new RingBufferAppender();
+        ring.setContext(context);
+        ring.setName("ring");
+        // Que stop() espere a vaciar todo el buffer para poder contar lo escrito
+        ring.setMaxFlushTimeMs(60_000);
+        ring.addAppender(slowAppender(context, ringOutput));
+        ring.start();
+        long[] ringLatencies = run(context, "ring", ring);
+        ring.stop();
+
+        report("Síncrono", syncLatencies);
+        report("Ring buffer", ringLatencies);
+        log.info("Ring buffer: {} eventos descartados con el buffer lleno", ring.getDroppedCount());
+
+        assertThat(syncOutput.warn.get()).isEqualTo(WARN_EVENTS);
+        assertThat(syncOutput.info.get()).isEqualTo(INFO_EVENTS);
+        assertThat(ringOutput.warn.get()).isEqualTo(WARN_EVENTS);
+        assertThat(ringOutput.info.get() + ring.getDroppedCount()).isEqualTo(INFO_EVENTS);
+    }
+
+    private static long[] run(LoggerContext context, String name, Appender<ILoggingEvent> appender) {
+        Logger logger = context.getLogger("bench." + name);
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+
+        long[][] perThread = new long[THREADS][];
+        CompletableFuture.allOf(IntStream.range(0, THREADS).mapToObj(t -> CompletableFuture.runAsync(() -> {
+            long[] latencies = new long[ITERATIONS];
+            for (int i = 0; i < ITERATIONS; i++) {
+                long start = System.nanoTime();
+                if (i % WARN_EVERY == 0) {
+                    logger.warn("GET /api/workout-plans/{} - Trainer {} sin permiso", i, t);
+                } else {
+                    logger.info("GET /api/workout-plans/{} - Trainer {}", i, t);
+                }
+                latencies[i] = System.nanoTime() - start;
+            }
+            perThread[t] = latencies;
+        })).toArray(CompletableFuture[]::new)).join();
+
+        return Arrays.stream(perThread).flatMapToLong(Arrays::stream).sorted().toArray();
+    }
+
+    private static OutputStreamAppender<ILoggingEvent> slowAppender(LoggerContext context, SlowOutput output) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d %level [%thread] %logger - %msg%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(output);
+        appender.start();
+        return appender;
+    }
+
+    // Destino que cada 100 escrituras tarda 1 ms y cuenta los eventos recibidos por nivel
+    private static class SlowOutput extends OutputStream {
+
+        private final AtomicLong writes = new AtomicLong();
+        private final AtomicLong info = new AtomicLong();
+        private final AtomicLong warn = new AtomicLong();
+
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            String line = new String(b, off, len, StandardCharsets.UTF_8);
+            if (line.contains(" WARN ")) {
+                warn.incrementAndGet();
+            } else if (line.contains(" INFO ")) {
+                info.incrementAndGet();
+            }
+            if (writes.incrementAndGet() % 100 == 0) {
+                LockSupport.parkNanos(1_000_000);
+            }
+        }
+    }
+
+    private static void report(String name, long[] sorted) {
+        log.info("{}: p50 {} µs, p99 {} µs, p99.9 {} µs", name, String.format("%.2f", percentile(sorted, 0.50) / 1000.0),
+                String.format("%.2f", percentile(sorted, 0.99) / 1000.0), String.format("%.2f", percentile(sorted, 0.999) / 1000.0));
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[(int) Math.ceil(sorted.length * p) - 1];
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.fitnesstracker.benchmark;
+
+import com.example.fitnesstracker.dto.response.AuthResponse;
+import com.example.fitnesstracker.enums.AssignmentStatus;
+import com.example.fitnesstracker.enums.UserRole;
+import com.example.fitnesstracker.enums.UserType;
+import com.example.fitnesstracker.mapper.MemberMapper;
+import com.example.fitnesstracker.mapper.TrainerMapper;
+import com.example.fitnesstracker.mapper.UserMapper;
+import com.example.fitnesstracker.model.Member;
+import com.example.fitnesstracker.model.User;
+import com.example.fitnesstracker.repository.RefreshTokenRepository;
+import com.example.fitnesstracker.security.JwtKeyStore;
+import com.example.fitnesstracker.security.JwtTokenProvider;
+import com.example.fitnesstracker.security.TokenRevocationList;
+import com.example.fitnesstracker.service.AuthService;
+import com.example.fitnesstracker.service.RefreshTokenService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark del login contra H2: cuenta las consultas JPA por login y mide logins por segundo.
+ * El alta del refresh token va por JDBC y no entra en la cuenta de Hibernate.
+ * BCrypt corre con costo 4 para que el número refleje el resto del camino (consultas, token, mapeo).
+ * Las iteraciones se ajustan con -Dbenchmark.login.iterations.
+ */
+@DataJpaTest
+@Import({AuthService.class, JwtTokenProvider.class, JwtKeyStore.class, UserMapper.class, MemberMapper.class, TrainerMapper.class,
+        RefreshTokenService.class, RefreshTokenRepository.class, LoginBenchmarkTest.Config.class})
+@TestPropertySource(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "jwt.issuer=http://localhost:8080",
+        "jwt.signing.key-dir=",
+        "jwt.expiration=900000"
+})
+// refresh_tokens se escribe por JDBC y no tiene entidad: en H2 se crea a mano
+@Sql(statements = "CREATE TABLE IF NOT EXISTS refresh_tokens (id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id BIGINT NOT NULL, "
+        + "family_id CHAR(36) NOT NULL, token_hash BINARY(32) NOT NULL UNIQUE, expires_at TIMESTAMP NOT NULL, "
+        + "used_at TIMESTAMP, revoked_at TIMESTAMP, created_at TIMESTAMP NOT NULL)")
+@Slf4j
+@DisplayName("Login Benchmark")
+class LoginBenchmarkTest {
+
+    private static final String PASSWORD = "password123";
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+    }
+
+    // No participa del login; se reemplaza para que no consulte refresh_tokens antes de que exista
+    @MockitoBean
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        User user = User.builder()
+                .username("bench")
+                .email("bench@example.com")
+                .password(passwordEncoder.encode(PASSWORD))
+                .role(UserRole.USER)
+                .userType(UserType.MEMBER)
+                .enabled(true)
+                .build();
+        entityManager.persist(user);
+        entityManager.persist(Member.builder()
+                .user(user)
+                .firstName("Bench")
+                .lastName("Mark")
+                .phone("+5491100000000")
+                .dateOfBirth(LocalDate.of(1990, 1, 1))
+                .membershipStartDate(LocalDate.now())
+                .membershipEndDate(LocalDate.now().plusMonths(1))
+                .assignmentStatus(AssignmentStatus.NO_TRAINER)
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("login - Debería resolver cada login con una sola consulta")
+    void login_SingleQuery() {
+        statistics.clear();
+
+        AuthResponse response = authService.login("bench", PASSWORD);
+
+        assertThat(response.getToken()).isNotBlank();
+        assertThat(response.getRefreshToken()).isNotBlank();
+        assertThat(response.getMember()).isNotNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("login - Logins por segundo")
+    void login_Throughput() {
+        int iterations = Integer.getInteger("benchmark.login.iterations", 200);
+        for (int i = 0; i < Math.min(50, iterations); i++) {
+            login();
+        }
+
+        statistics.clear();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            login();
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        log.info("Login: {} iteraciones en {} s = {} logins/s, {} consultas por login", iterations, String.format("%.2f", seconds),
+                String.format("%.0f", iterations / seconds), String.format("%.2f", (double) statistics.getPrepareStatementCount() / iterations));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(iterations);
+    }
+
+    // Cada login como en producción: contexto de persistencia nuevo, sin entidades en caché
+    private void login() {
+        entityManager.clear();
+        authService.login("bench", PASSWORD);
+    }
+}
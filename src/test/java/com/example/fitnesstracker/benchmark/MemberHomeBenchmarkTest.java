@@ -0,0 +1,357 @@
+package com.example.fitnesstracker.benchmark;
+
+import com.example.fitnesstracker.config.GraphQlConfig;
+import com.example.fitnesstracker.controller.graphql.MemberGraphQlController;
+import com.example.fitnesstracker.controller.graphql.NutritionPlanGraphQlController;
+import com.example.fitnesstracker.controller.graphql.TrainerGraphQlController;
+import com.example.fitnesstracker.controller.graphql.WorkoutPlanGraphQlController;
+import com.example.fitnesstracker.enums.*;
+import com.example.fitnesstracker.exception.GraphQlExceptionResolver;
+import com.example.fitnesstracker.mapper.*;
+import com.example.fitnesstracker.model.*;
+import com.example.fitnesstracker.security.JwtTokenProvider;
+import com.example.fitnesstracker.service.*;
+import com.example.fitnesstracker.util.SoftDeleteFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.graphql.AutoConfigureGraphQl;
+import org.springframework.boot.test.autoconfigure.graphql.tester.AutoConfigureGraphQlTester;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.graphql.test.tester.GraphQlTester;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pantalla de inicio del member contra H2: las cinco llamadas REST que arma hoy el front
+ * (perfil, trainer, plan de workout activo, plan nutricional activo, historial) frente a un query GraphQL.
+ * Cada request corre con un contexto de persistencia nuevo, como con open-in-view en producción.
+ * Las iteraciones se ajustan con -Dbenchmark.home.iterations.
+ */
+@DataJpaTest
+@AutoConfigureGraphQl
+@AutoConfigureGraphQlTester
+@Import({MemberGraphQlController.class, TrainerGraphQlController.class, WorkoutPlanGraphQlController.class,
+        NutritionPlanGraphQlController.class, GraphQlConfig.class, GraphQlExceptionResolver.class,
+        MemberService.class, TrainerService.class, WorkoutPlanService.class, NutritionPlanService.class,
+        MemberMapper.class, TrainerMapper.class, WorkoutPlanMapper.class, WorkoutDayMapper.class,
+        WorkoutExerciseMapper.class, WorkoutCompletionMapper.class, NutritionPlanMapper.class})
+@TestPropertySource(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Slf4j
+@DisplayName("Member Home Benchmark")
+class MemberHomeBenchmarkTest {
+
+    private static final int DAYS = 5;
+    private static final int EXERCISES_PER_DAY = 6;
+    private static final int MEALS = 5;
+    private static final int COMPLETIONS = 30;
+
+    private static final String HOME_QUERY = """
+            query Home($id: ID!) {
+              member(id: $id) {
+                fullName email membershipEndDate remainingDays assignmentStatus
+                trainer { fullName specialty }
+                activeWorkoutPlans {
+                  name status startDate endDate
+                  days { dayName dayNumber exercises { exerciseName sets reps weight restSeconds } }
+                }
+                activeNutritionPlans { name meals { mealType name calories protein carbs fat } }
+                recentWorkouts(limit: 10) { completedAt workoutDayName rating adherenceScore }
+              }
+            }
+            """;
+
+    // Dependencias de los services que no participan de las lecturas
+    @MockitoBean
+    private UserService userService;
+    @MockitoBean
+    private UserMapper userMapper;
+    @MockitoBean
+    private JwtTokenProvider jwtTokenProvider;
+    @MockitoBean
+    private RefreshTokenService refreshTokenService;
+    @MockitoBean
+    private SoftDeleteFilter softDeleteFilter;
+    @MockitoBean
+    private TrainerLoadService trainerLoadService;
+    @MockitoBean
+    private WorkoutArchiveService workoutArchiveService;
+    @MockitoBean
+    private ExerciseProgressService exerciseProgressService;
+    @MockitoBean
+    private AdherenceService adherenceService;
+    @MockitoBean
+    private TrainingCalendarService trainingCalendarService;
+    @MockitoBean
+    private LeaderboardService leaderboardService;
+    @MockitoBean
+    private OutboxService outboxService;
+
+    @Autowired
+    private GraphQlTester graphQlTester;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private TrainerService trainerService;
+
+    @Autowired
+    private WorkoutPlanService workoutPlanService;
+
+    @Autowired
+    private NutritionPlanService nutritionPlanService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private Statistics statistics;
+    private Long memberId;
+    private Long trainerId;
+
+    @BeforeEach
+    void setUp() {
+        User trainerUser = user("coach", UserType.TRAINER);
+        Trainer trainer = Trainer.builder()
+                .user(trainerUser)
+                .firstName("Laura")
+                .lastName("Coach")
+                .specialty("Fuerza")
+                .certifications("NSCA-CPT")
+                .hourlyRate(BigDecimal.valueOf(25))
+                .isActive(true)
+                .maxMembers(20)
+                .build();
+        entityManager.persist(trainer);
+
+        Member member = Member.builder()
+                .user(user("member", UserType.MEMBER))
+                .firstName("Juan")
+                .lastName("Pérez")
+                .phone("+5491100000000")
+                .dateOfBirth(LocalDate.of(1990, 1, 1))
+                .membershipStartDate(LocalDate.now().minusMonths(2))
+                .membershipEndDate(LocalDate.now().plusMonths(1))
+                .assignedTrainer(trainer)
+                .assignmentStatus(AssignmentStatus.ACTIVE)
+                .build();
+        entityManager.persist(member);
+
+        List<Exercise> exercises = new ArrayList<>();
+        for (int i = 0; i < EXERCISES_PER_DAY; i++) {
+            Exercise exercise = Exercise.builder()
+                    .name("Ejercicio " + i)
+                    .category(ExerciseCategory.STRENGTH)
+                    .primaryMuscle(MuscleGroup.values()[i % MuscleGroup.values().length])
+                    .difficulty(DifficultyLevel.BEGINNER)
+                    .build();
+            entityManager.persist(exercise);
+            exercises.add(exercise);
+        }
+
+        WorkoutPlan plan = WorkoutPlan.builder()
+                .name("Fuerza 5 días")
+                .member(member)
+                .trainer(trainer)
+                .status(WorkoutPlanStatus.ACTIVE)
+                .startDate(LocalDate.now().minusMonths(1))
+                .endDate(LocalDate.now().plusMonths(2))
+                .build();
+        entityManager.persist(plan);
+        List<WorkoutDay> days = new ArrayList<>();
+        for (int d = 1; d <= DAYS; d++) {
+            WorkoutDay day = WorkoutDay.builder().workoutPlan(plan).dayName("Día " + d).dayNumber(d).build();
+            entityManager.persist(day);
+            for (int e = 0; e < EXERCISES_PER_DAY; e++) {
+                WorkoutExercise workoutExercise = WorkoutExercise.builder()
+                        .workoutDay(day)
+                        .exercise(exercises.get(e))
+                        .sets(4)
+                        .reps(10)
+                        .weight(40.0 + e * 5)
+                        .restSeconds(90)
+                        .orderInWorkout(e + 1)
+                        .build();
+                entityManager.persist(workoutExercise);
+                day.getExercises().add(workoutExercise);
+            }
+            days.add(day);
+        }
+
+        NutritionPlan nutritionPlan = NutritionPlan.builder()
+                .name("Volumen")
+                .member(member)
+                .trainer(trainer)
+                .status(NutritionPlanStatus.ACTIVE)
+                .startDate(LocalDate.now().minusMonths(1))
+                .build();
+        entityManager.persist(nutritionPlan);
+        for (int m = 0; m < MEALS; m++) {
+            entityManager.persist(NutritionMeal.builder()
+                    .nutritionPlan(nutritionPlan)
+                    .mealType(MealType.values()[m % MealType.values().length])
+                    .name("Comida " + m)
+                    .calories(600)
+                    .protein(40.0)
+                    .carbs(70.0)
+                    .fat(15.0)
+                    .orderInPlan(m + 1)
+                    .build());
+        }
+
+        for (int c = 0; c < COMPLETIONS; c++) {
+            WorkoutDay day = days.get(c % DAYS);
+            LocalDate completedAt = LocalDate.now().minusDays(COMPLETIONS - c);
+            WorkoutCompletion completion = WorkoutCompletion.builder()
+                    .member(member)
+                    .workoutDay(day)
+                    .completedAt(completedAt)
+                    .rating(4)
+                    .adherenceScore(0.9)
+                    .build();
+            entityManager.persist(completion);
+            for (WorkoutExercise workoutExercise : day.getExercises()) {
+                entityManager.persist(ExerciseLog.builder()
+                        .workoutCompletion(completion)
+                        .workoutExercise(workoutExercise)
+                        .completedAt(completedAt)
+                        .setsCompleted(4)
+                        .repsCompleted(10)
+                        .weightUsed(workoutExercise.getWeight())
+                        .build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        memberId = member.getId();
+        trainerId = trainer.getId();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("home - GraphQL resuelve cada relación con una sola query")
+    void home_GraphQlOneQueryPerType() {
+        statistics.clear();
+
+        Map<String, Object> member = graphQl();
+
+        assertThat(member.get("fullName")).isEqualTo("Juan Pérez");
+        assertThat(member).extractingByKey("trainer").asInstanceOf(InstanceOfAssertFactories.MAP)
+                .containsEntry("fullName", "Laura Coach");
+        List<?> plans = (List<?>) member.get("activeWorkoutPlans");
+        assertThat(plans).hasSize(1);
+        assertThat((List<?>) ((Map<?, ?>) plans.get(0)).get("days")).hasSize(DAYS);
+        assertThat((List<?>) member.get("recentWorkouts")).hasSize(10);
+        // El member por id cuesta 3 (perfil y los one-to-one inversos de su user, igual que en REST);
+        // después una por loader: trainer, planes de workout, días con ejercicios, planes nutricionales, comidas, historial
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(9);
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("home - Consultas, bytes y tiempo por pantalla: REST contra GraphQL")
+    void home_RestFanOutVsGraphQl() throws Exception {
+        int iterations = Integer.getInteger("benchmark.home.iterations", 200);
+        for (int i = 0; i < Math.min(50, iterations); i++) {
+            rest();
+            graphQl();
+        }
+
+        statistics.clear();
+        long bytes = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            bytes += rest();
+        }
+        long restNanos = System.nanoTime() - start;
+        long restStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        long graphQlBytes = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            graphQlBytes += objectMapper.writeValueAsBytes(graphQl()).length;
+        }
+        long graphQlNanos = System.nanoTime() - start;
+        long graphQlStatements = statistics.getPrepareStatementCount();
+
+        log.info("Home REST: 5 requests, {} consultas, {} KB, {} µs por pantalla",
+                String.format("%.1f", (double) restStatements / iterations), String.format("%.1f", bytes / 1024.0 / iterations),
+                String.format("%.0f", restNanos / 1_000.0 / iterations));
+        log.info("Home GraphQL: 1 request, {} consultas, {} KB, {} µs por pantalla",
+                String.format("%.1f", (double) graphQlStatements / iterations), String.format("%.1f", graphQlBytes / 1024.0 / iterations),
+                String.format("%.0f", graphQlNanos / 1_000.0 / iterations));
+        assertThat(graphQlStatements).isLessThan(restStatements);
+    }
+
+    // Cinco requests del front, cada uno con su contexto de persistencia; devuelve los bytes de las respuestas
+    private long rest() throws Exception {
+        long bytes = 0;
+        entityManager.clear();
+        bytes += objectMapper.writeValueAsBytes(memberService.getMemberById(memberId)).length;
+        entityManager.clear();
+        bytes += objectMapper.writeValueAsBytes(trainerService.getTrainerById(trainerId)).length;
+        entityManager.clear();
+        bytes += objectMapper.writeValueAsBytes(workoutPlanService.getActiveWorkoutPlansByMember(memberId)).length;
+        entityManager.clear();
+        bytes += objectMapper.writeValueAsBytes(nutritionPlanService.getActivePlansByMember(memberId)).length;
+        entityManager.clear();
+        bytes += objectMapper.writeValueAsBytes(workoutPlanService.getWorkoutHistory(memberId)).length;
+        return bytes;
+    }
+
+    private Map<String, Object> graphQl() {
+        entityManager.clear();
+        return graphQlTester.document(HOME_QUERY)
+                .variable("id", memberId)
+                .execute()
+                .errors().verify()
+                .path("member").entity(new ParameterizedTypeReference<Map<String, Object>>() {
+                })
+                .get();
+    }
+
+    private User user(String username, UserType userType) {
+        User user = User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("hash")
+                .role(UserRole.USER)
+                .userType(userType)
+                .enabled(true)
+                .build();
+        entityManager.persist(user);
+        return user;
+    }
+}
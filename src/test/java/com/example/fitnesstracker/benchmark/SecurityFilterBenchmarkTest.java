@@ -0,0 +1,145 @@
+package com.example.fitnesstracker.benchmark;
+
+import ch.qos.logback.classic.Level;
+import com.example.fitnesstracker.enums.UserRole;
+import com.example.fitnesstracker.enums.UserType;
+import com.example.fitnesstracker.model.User;
+import com.example.fitnesstracker.repository.RefreshTokenRepository;
+import com.example.fitnesstracker.security.JwtAuthenticationEntryPoint;
+import com.example.fitnesstracker.security.JwtAuthenticationFilter;
+import com.example.fitnesstracker.security.JwtKeyStore;
+import com.example.fitnesstracker.security.JwtTokenProvider;
+import com.example.fitnesstracker.security.SecurityErrorWriter;
+import com.example.fitnesstracker.security.TokenRevocationList;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.servlet.FilterChain;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.InsufficientAuthenticationException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Bytes asignados por request en el camino de seguridad: request autenticado, ruta pública con
+ * cookie y 401. Se mide con el contador de asignaciones del hilo (el mismo dato que reporta JFR en
+ * jdk.ThreadAllocationStatistics) y con los loggers en INFO, como en producción.
+ * Las iteraciones se ajustan con -Dbenchmark.security.iterations.
+ */
+@Tag("benchmark")
+@Slf4j
+@DisplayName("Security Filter Benchmark")
+class SecurityFilterBenchmarkTest {
+
+    private static final ch.qos.logback.classic.Logger APP_LOGGER =
+            (ch.qos.logback.classic.Logger) LoggerFactory.getLogger("com.example.fitnesstracker");
+    private static Level previousLevel;
+
+    private static final int ITERATIONS = Integer.getInteger("benchmark.security.iterations", 2000);
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+    };
+
+    @BeforeAll
+    static void productionLogLevel() {
+        previousLevel = APP_LOGGER.getLevel();
+        APP_LOGGER.setLevel(Level.INFO);
+    }
+
+    @AfterAll
+    static void restoreLogLevel() {
+        APP_LOGGER.setLevel(previousLevel);
+    }
+
+    @Test
+    @DisplayName("Filtro JWT y entry point - Bytes asignados por request")
+    void allocationsPerRequest() throws Exception {
+
+        JwtKeyStore keyStore = new JwtKeyStore();
+        ReflectionTestUtils.setField(keyStore, "keyDir", "");
+        ReflectionTestUtils.setField(keyStore, "rotationHours", 168L);
+        ReflectionTestUtils.setField(keyStore, "accessTokenTtlMs", 900_000L);
+        keyStore.init();
+        JwtTokenProvider jwtTokenProvider = new JwtTokenProvider(keyStore, "http://localhost:8080");
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtExpirationMs", 900_000L);
+
+        TokenRevocationList revocationList = new TokenRevocationList(mock(RefreshTokenRepository.class));
+        ReflectionTestUtils.setField(revocationList, "accessTokenTtlMs", 900_000L);
+        ReflectionTestUtils.setField(revocationList, "expectedRevocations", 1000L);
+        ReflectionTestUtils.setField(revocationList, "falsePositiveRate", 0.001);
+        revocationList.reload();
+
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtTokenProvider, revocationList);
+        JwtAuthenticationEntryPoint entryPoint = new JwtAuthenticationEntryPoint(
+                new SecurityErrorWriter(new ObjectMapper().registerModule(new JavaTimeModule())));
+
+        User user = new User();
+        user.setUsername("bench");
+        user.setEmail("bench@example.com");
+        user.setRole(UserRole.USER);
+        user.setUserType(UserType.MEMBER);
+        String token = jwtTokenProvider.generateToken(user, "bench-session");
+
+        MockHttpServletRequest authenticated = new MockHttpServletRequest("GET", "/api/workout-plans");
+        authenticated.setServletPath("/api/workout-plans");
+        authenticated.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletRequest publicRoute = new MockHttpServletRequest("POST", "/auth/refresh");
+        publicRoute.setServletPath("/auth/refresh");
+        publicRoute.setCookies(new jakarta.servlet.http.Cookie("fitness_tracker_token", token));
+        InsufficientAuthenticationException unauthorized = new InsufficientAuthenticationException("Sin token");
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        entryPoint.commence(authenticated, response, unauthorized);
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(response.getContentAsString()).contains("\"status\":401").contains("\"error\":\"Unauthorized\"");
+
+        long authenticatedBytes = measure("Request autenticado", () -> {
+            filter.doFilter(authenticated, new MockHttpServletResponse(), NO_OP_CHAIN);
+            assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+        });
+        long publicBytes = measure("Ruta pública con cookie", () ->
+                filter.doFilter(publicRoute, new MockHttpServletResponse(), NO_OP_CHAIN));
+        long unauthorizedBytes = measure("Respuesta 401", () ->
+                entryPoint.commence(authenticated, new MockHttpServletResponse(), unauthorized));
+
+        assertThat(authenticatedBytes).isPositive();
+        assertThat(publicBytes).isLessThan(authenticatedBytes / 10);
+        assertThat(unauthorizedBytes).isPositive();
+    }
+
+    private static long measure(String name, Operation operation) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < ITERATIONS; i++) {
+            SecurityContextHolder.clearContext();
+            operation.run();
+        }
+        long start = System.nanoTime();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            SecurityContextHolder.clearContext();
+            operation.run();
+        }
+        long bytes = (threads.getThreadAllocatedBytes(threadId) - before) / ITERATIONS;
+        long elapsed = System.nanoTime() - start;
+        log.info("{}: {} bytes/request, {} µs/request", name, bytes, String.format("%.1f", elapsed / 1000.0 / ITERATIONS));
+        SecurityContextHolder.clearContext();
+        return bytes;
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.fitnesstracker.benchmark;
+
+import com.example.fitnesstracker.dto.response.workout.WorkoutDayDTO;
+import com.example.fitnesstracker.dto.response.workout.WorkoutExerciseDTO;
+import com.example.fitnesstracker.dto.response.workout.WorkoutPlanDTO;
+import com.example.fitnesstracker.enums.WorkoutPlanStatus;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bytes por respuesta y costo de serializar un plan completo y un historial de planes en JSON,
+ * CBOR y Smile, con y sin gzip, y el efecto de Blackbird. Los mappers se configuran como los de
+ * Spring Boot (fechas ISO). Las iteraciones se ajustan con -Dbenchmark.serialization.iterations.
+ */
+@Tag("benchmark")
+@Slf4j
+@DisplayName("Serialization Benchmark")
+class SerializationBenchmarkTest {
+
+    private static final int ITERATIONS = Integer.getInteger("benchmark.serialization.iterations", 2000);
+
+    @Test
+    @DisplayName("JSON vs CBOR vs Smile - Bytes y µs por respuesta")
+    void formats() throws IOException {
+        WorkoutPlanDTO plan = plan(1);
+        List<WorkoutPlanDTO> history = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            history.add(plan(i));
+        }
+
+        ObjectWriter json = writer(new JsonFactory(), false);
+        ObjectWriter jsonBlackbird = writer(new JsonFactory(), true);
+        ObjectWriter cbor = writer(new CBORFactory(), true);
+        ObjectWriter smile = writer(new SmileFactory(), true);
+
+        for (Object payload : List.of(plan, history)) {
+            String name = payload == plan ? "Plan (7 días x 8 ejercicios)" : "Historial (20 planes)";
+            byte[] jsonBytes = json.writeValueAsBytes(payload);
+            byte[] cborBytes = cbor.writeValueAsBytes(payload);
+            byte[] smileBytes = smile.writeValueAsBytes(payload);
+            log.info("{} bytes: JSON {} (gzip {}), CBOR {} (gzip {}), Smile {} (gzip {})", name,
+                    jsonBytes.length, gzip(jsonBytes), cborBytes.length, gzip(cborBytes), smileBytes.length, gzip(smileBytes));
+            log.info("{} µs: {}", name, String.format("JSON %.1f, JSON+Blackbird %.1f, CBOR+Blackbird %.1f, Smile+Blackbird %.1f, gzip del JSON %.1f",
+                    micros(json, payload), micros(jsonBlackbird, payload), micros(cbor, payload), micros(smile, payload),
+                    gzipMicros(jsonBytes)));
+
+            assertThat(cborBytes.length).isLessThan(jsonBytes.length);
+            assertThat(smileBytes.length).isLessThan(jsonBytes.length);
+            assertThat(gzip(jsonBytes)).isLessThan(jsonBytes.length / 2);
+        }
+    }
+
+    private static ObjectWriter writer(JsonFactory factory, boolean blackbird) {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .factory(factory)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (blackbird) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        ObjectMapper mapper = builder.build();
+        return mapper.writer();
+    }
+
+    private static double micros(ObjectWriter writer, Object payload) throws IOException {
+        for (int i = 0; i < ITERATIONS; i++) {
+            writer.writeValueAsBytes(payload);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            writer.writeValueAsBytes(payload);
+        }
+        return (System.nanoTime() - start) / 1000.0 / ITERATIONS;
+    }
+
+    private static double gzipMicros(byte[] bytes) throws IOException {
+        int iterations = Math.max(1, ITERATIONS / 4);
+        for (int i = 0; i < iterations; i++) {
+            gzip(bytes);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            gzip(bytes);
+        }
+        return (System.nanoTime() - start) / 1000.0 / iterations;
+    }
+
+    private static int gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.size();
+    }
+
+    private static WorkoutPlanDTO plan(long id) {
+        List<WorkoutDayDTO> days = new ArrayList<>();
+        for (int d = 1; d <= 7; d++) {
+            List<WorkoutExerciseDTO> exercises = new ArrayList<>();
+            for (int e = 1; e <= 8; e++) {
+                exercises.add(WorkoutExerciseDTO.builder()
+                        .id(id * 100 + d * 10 + e)
+                        .externalId("9f1c2d3e-4b5a-6789-abcd-" + String.format("%012d", id * 100 + d * 10 + e))
+                        .exerciseId((long) e)
+                        .exerciseName("Ejercicio " + e)
+                        .sets(4)
+                        .reps(10)
+                        .weight(42.5)
+                        .restSeconds(90)
+                        .orderInWorkout(e)
+                        .notes("Controlar la bajada")
+                        .build());
+            }
+            days.add(WorkoutDayDTO.builder()
+                    .id(id * 10 + d)
+                    .externalId("1a2b3c4d-5e6f-7081-92a3-" + String.format("%012d", id * 10 + d))
+                    .dayName("Día " + d)
+                    .dayNumber(d)
+                    .totalExercises(exercises.size())
+                    .exercises(exercises)
+                    .build());
+        }
+        return WorkoutPlanDTO.builder()
+                .id(id)
+                .version(3L)
+                .externalId("0f0e0d0c-0b0a-0908-0706-" + String.format("%012d", id))
+                .name("Hipertrofia " + id)
+                .description("Plan de 7 días")
+                .memberId(10L)
+                .memberName("Ana Pérez")
+                .trainerId(20L)
+                .trainerName("Juan Gómez")
+                .status(WorkoutPlanStatus.ACTIVE)
+                .startDate(LocalDate.of(2026, 1, 5))
+                .endDate(LocalDate.of(2026, 3, 30))
+                .totalDays(days.size())
+                .createdAt(LocalDateTime.of(2026, 1, 4, 10, 0))
+                .updatedAt(LocalDateTime.of(2026, 1, 5, 9, 30))
+                .workoutDays(days)
+                .build();
+    }
+}
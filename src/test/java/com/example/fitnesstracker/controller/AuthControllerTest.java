@@ -12,6 +12,7 @@ import com.example.fitnesstracker.exception.InvalidUserDataException;
 import com.example.fitnesstracker.exception.UnauthorizedException;
 import com.example.fitnesstracker.exception.UserAlreadyExistsException;
 import com.example.fitnesstracker.security.JwtTokenProvider;
+import com.example.fitnesstracker.security.TokenRevocationList;
 import com.example.fitnesstracker.service.AuthService;
 import com.example.fitnesstracker.service.MemberService;
 import com.example.fitnesstracker.service.TrainerService;
@@ -65,6 +66,9 @@ class AuthControllerTest {
     @MockitoBean
     private JwtTokenProvider jwtTokenProvider;
 
+    @MockitoBean
+    private TokenRevocationList tokenRevocationList;
+
     @MockitoBean
     private com.example.fitnesstracker.security.CustomUserDetailsService customUserDetailsService;
 
@@ -0,0 +1,111 @@
+package com.example.fitnesstracker.controller;
+
+import com.example.fitnesstracker.config.SerializationConfig;
+import com.example.fitnesstracker.util.ETags;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compresión de un GET cacheable a través del Tomcat embebido, con la configuración server.compression
+ * de application.properties: Tomcat no comprime respuestas con ETag fuerte, así que el ETag tiene que
+ * ser débil. Se levanta solo la capa web con un controller que responde como los de planes.
+ */
+@SpringBootTest(classes = ResponseCompressionTest.WebApp.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayName("Response Compression Tests")
+class ResponseCompressionTest {
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    @DisplayName("GET cacheable - Debería comprimir JSON con ETag débil y Vary: Accept")
+    void cacheableGet_IsCompressed() throws Exception {
+        HttpResponse<byte[]> response = get("application/json");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        assertThat(response.headers().firstValue("ETag")).hasValue("W/\"3\"");
+        assertThat(String.join(",", response.headers().allValues("Vary"))).containsIgnoringCase("accept,");
+        assertThat(gunzip(response.body())).startsWith("{\"days\":[\"Día 0");
+    }
+
+    @Test
+    @DisplayName("GET cacheable - Debería comprimir también la representación CBOR")
+    void cacheableGet_CborIsCompressed() throws Exception {
+        HttpResponse<byte[]> response = get("application/cbor");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Type")).hasValueSatisfying(type -> assertThat(type).startsWith("application/cbor"));
+        assertThat(response.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        assertThat(response.headers().firstValue("ETag")).hasValue("W/\"3\"");
+    }
+
+    private HttpResponse<byte[]> get(String accept) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/plan"))
+                .header("Accept", accept)
+                .header("Accept-Encoding", "gzip")
+                .GET()
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static String gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    // Configuration y no SpringBootConfiguration: si no, los @WebMvcTest del paquete la toman como la app
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({
+            ServletWebServerFactoryAutoConfiguration.class,
+            DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class,
+            HttpMessageConvertersAutoConfiguration.class,
+            JacksonAutoConfiguration.class
+    })
+    @Import({SerializationConfig.class, PlanController.class})
+    static class WebApp {
+    }
+
+    @RestController
+    static class PlanController {
+
+        // Más grande que server.compression.min-response-size
+        @GetMapping("/plan")
+        ResponseEntity<Map<String, List<String>>> plan() {
+            List<String> days = IntStream.range(0, 200).mapToObj(i -> "Día " + i + ": sentadilla 3x10").toList();
+            return ETags.ok(Map.of("days", days), 3L, ETags.cacheControl(false, Duration.ofMinutes(5)));
+        }
+    }
+}
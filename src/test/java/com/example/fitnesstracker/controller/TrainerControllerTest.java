@@ -6,7 +6,9 @@ import com.example.fitnesstracker.exception.GlobalExceptionHandler;
 import com.example.fitnesstracker.exception.InvalidUserDataException;
 import com.example.fitnesstracker.exception.ResourceNotFoundException;
 import com.example.fitnesstracker.security.JwtTokenProvider;
+import com.example.fitnesstracker.security.TokenRevocationList;
 import com.example.fitnesstracker.service.TrainerService;
+import com.example.fitnesstracker.util.FieldSelection;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -51,6 +53,9 @@ class TrainerControllerTest {
     @MockitoBean
     private JwtTokenProvider jwtTokenProvider;
 
+    @MockitoBean
+    private TokenRevocationList tokenRevocationList;
+
     @MockitoBean
     private com.example.fitnesstracker.security.CustomUserDetailsService customUserDetailsService;
 
@@ -89,7 +94,7 @@ class TrainerControllerTest {
     void getAllTrainers_AsAdmin_Success() throws Exception {
 
         List<TrainerDTO> trainers = List.of(testTrainerDTO);
-        when(trainerService.getAllTrainers()).thenReturn(trainers);
+        when(trainerService.getAllTrainers(any(FieldSelection.class))).thenReturn(trainers);
 
 
         mockMvc.perform(get("/api/trainers"))
@@ -101,7 +106,7 @@ class TrainerControllerTest {
                 .andExpect(jsonPath("$[0].firstName").value("John"))
                 .andExpect(jsonPath("$[0].specialty").value("Strength Training"));
 
-        verify(trainerService).getAllTrainers();
+        verify(trainerService).getAllTrainers(any(FieldSelection.class));
     }
 
     @Test
@@ -109,12 +114,12 @@ class TrainerControllerTest {
     @DisplayName("GET /api/trainers - Debería permitir acceso a usuarios normales")
     void getAllTrainers_AsUser_Success() throws Exception {
 
-        when(trainerService.getAllTrainers()).thenReturn(List.of(testTrainerDTO));
+        when(trainerService.getAllTrainers(any(FieldSelection.class))).thenReturn(List.of(testTrainerDTO));
 
         mockMvc.perform(get("/api/trainers"))
                 .andExpect(status().isOk());
 
-        verify(trainerService).getAllTrainers();
+        verify(trainerService).getAllTrainers(any(FieldSelection.class));
     }
 
     @Test
@@ -123,7 +128,7 @@ class TrainerControllerTest {
         mockMvc.perform(get("/api/trainers"))
                 .andExpect(status().isUnauthorized());
 
-        verify(trainerService, never()).getAllTrainers();
+        verify(trainerService, never()).getAllTrainers(any(FieldSelection.class));
     }
 
     @Test
@@ -131,7 +136,7 @@ class TrainerControllerTest {
     @DisplayName("GET /api/trainers - Debería retornar lista vacía si no hay trainers")
     void getAllTrainers_EmptyList() throws Exception {
 
-        when(trainerService.getAllTrainers()).thenReturn(List.of());
+        when(trainerService.getAllTrainers(any(FieldSelection.class))).thenReturn(List.of());
 
 
         mockMvc.perform(get("/api/trainers"))
@@ -146,7 +151,7 @@ class TrainerControllerTest {
     @DisplayName("GET /api/trainers/{id} - Debería retornar trainer por ID")
     void getTrainerById_Success() throws Exception {
 
-        when(trainerService.getTrainerById(1L)).thenReturn(testTrainerDTO);
+        when(trainerService.getTrainerById(eq(1L), any(FieldSelection.class))).thenReturn(testTrainerDTO);
 
 
         mockMvc.perform(get("/api/trainers/1"))
@@ -155,7 +160,7 @@ class TrainerControllerTest {
                 .andExpect(jsonPath("$.firstName").value("John"))
                 .andExpect(jsonPath("$.lastName").value("Trainer"));
 
-        verify(trainerService).getTrainerById(1L);
+        verify(trainerService).getTrainerById(eq(1L), any(FieldSelection.class));
     }
 
     @Test
@@ -163,14 +168,26 @@ class TrainerControllerTest {
     @DisplayName("GET /api/trainers/{id} - Debería retornar 404 si no existe")
     void getTrainerById_NotFound() throws Exception {
 
-        when(trainerService.getTrainerById(999L))
+        when(trainerService.getTrainerById(eq(999L), any(FieldSelection.class)))
                 .thenThrow(new ResourceNotFoundException("Entrenador no encontrado"));
 
 
         mockMvc.perform(get("/api/trainers/999"))
                 .andExpect(status().isNotFound());
 
-        verify(trainerService).getTrainerById(999L);
+        verify(trainerService).getTrainerById(eq(999L), any(FieldSelection.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("GET /api/trainers/{id}?fields= - Debería retornar 400 con un campo inexistente")
+    void getTrainerById_UnknownField() throws Exception {
+
+        mockMvc.perform(get("/api/trainers/1").param("fields", "firstName,password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Campo desconocido en fields: password"));
+
+        verify(trainerService, never()).getTrainerById(anyLong(), any(FieldSelection.class));
     }
 
     // ==================== GET TRAINER BY EXTERNAL ID ====================
@@ -411,7 +428,7 @@ class TrainerControllerTest {
                 .lastName("Trainer Updated")
                 .hourlyRate(new BigDecimal("60.00"))
                 .build();
-        when(trainerService.updateTrainer(eq(1L), any(UpdateTrainerDTO.class)))
+        when(trainerService.updateTrainer(eq(1L), any(UpdateTrainerDTO.class), any()))
                 .thenReturn(updatedTrainer);
 
         mockMvc.perform(put("/api/trainers/1")
@@ -422,7 +439,7 @@ class TrainerControllerTest {
                 .andExpect(jsonPath("$.lastName").value("Trainer Updated"))
                 .andExpect(jsonPath("$.hourlyRate").value(60.00));
 
-        verify(trainerService).updateTrainer(eq(1L), any(UpdateTrainerDTO.class));
+        verify(trainerService).updateTrainer(eq(1L), any(UpdateTrainerDTO.class), any());
     }
 
     @Test
@@ -430,7 +447,7 @@ class TrainerControllerTest {
     @DisplayName("PUT /api/trainers/{id} - Debería permitir a usuarios actualizar")
     void updateTrainer_AsUser_Success() throws Exception {
 
-        when(trainerService.updateTrainer(anyLong(), any(UpdateTrainerDTO.class)))
+        when(trainerService.updateTrainer(anyLong(), any(UpdateTrainerDTO.class), any()))
                 .thenReturn(testTrainerDTO);
 
 
@@ -446,7 +463,7 @@ class TrainerControllerTest {
     @DisplayName("PUT /api/trainers/{id} - Debería retornar 404 si no encontrado")
     void updateTrainer_NotFound() throws Exception {
 
-        when(trainerService.updateTrainer(eq(999L), any(UpdateTrainerDTO.class)))
+        when(trainerService.updateTrainer(eq(999L), any(UpdateTrainerDTO.class), any()))
                 .thenThrow(new ResourceNotFoundException("Entrenador no encontrado"));
 
         mockMvc.perform(put("/api/trainers/999")
@@ -461,7 +478,7 @@ class TrainerControllerTest {
     @DisplayName("PUT /api/trainers/{id} - Debería retornar 400 con tarifa inválida")
     void updateTrainer_InvalidHourlyRate() throws Exception {
 
-        when(trainerService.updateTrainer(eq(1L), any(UpdateTrainerDTO.class)))
+        when(trainerService.updateTrainer(eq(1L), any(UpdateTrainerDTO.class), any()))
                 .thenThrow(new InvalidUserDataException("Tarifa horaria debe ser mayor a 0"));
 
         UpdateTrainerDTO invalidDTO = UpdateTrainerDTO.builder()
@@ -602,7 +619,7 @@ class TrainerControllerTest {
     @DisplayName("GET /api/trainers - Debería manejar errores internos del servicio")
     void getAllTrainers_ServiceError() throws Exception {
 
-        when(trainerService.getAllTrainers())
+        when(trainerService.getAllTrainers(any(FieldSelection.class)))
                 .thenThrow(new RuntimeException("Database error"));
 
         mockMvc.perform(get("/api/trainers"))
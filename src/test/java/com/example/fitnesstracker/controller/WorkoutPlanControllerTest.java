@@ -0,0 +1,139 @@
+package com.example.fitnesstracker.controller;
+
+import com.example.fitnesstracker.dto.response.workout.WorkoutPlanDTO;
+import com.example.fitnesstracker.enums.WorkoutPlanStatus;
+import com.example.fitnesstracker.exception.GlobalExceptionHandler;
+import com.example.fitnesstracker.repository.PlanVersionProjection;
+import com.example.fitnesstracker.security.CustomUserDetailsService;
+import com.example.fitnesstracker.security.JwtTokenProvider;
+import com.example.fitnesstracker.security.TokenRevocationList;
+import com.example.fitnesstracker.service.AdherenceService;
+import com.example.fitnesstracker.service.ExerciseProgressService;
+import com.example.fitnesstracker.service.WorkoutPlanService;
+import com.example.fitnesstracker.util.OptimisticRetry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * GET condicional de planes: el 304 se decide con la versión sin cargar el plan, y el Cache-Control
+ * depende de si el plan sigue en borrador.
+ */
+@WebMvcTest(WorkoutPlanController.class)
+@Import(GlobalExceptionHandler.class)
+@DisplayName("WorkoutPlanController Integration Tests")
+class WorkoutPlanControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private WorkoutPlanService workoutPlanService;
+
+    @MockitoBean
+    private ExerciseProgressService exerciseProgressService;
+
+    @MockitoBean
+    private AdherenceService adherenceService;
+
+    @MockitoBean
+    private OptimisticRetry optimisticRetry;
+
+    @MockitoBean
+    private JwtTokenProvider jwtTokenProvider;
+
+    @MockitoBean
+    private TokenRevocationList tokenRevocationList;
+
+    @MockitoBean
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Test
+    @WithMockUser(roles = "USER")
+    @DisplayName("GET /api/workout-plans/{id} - Con If-None-Match vigente debería devolver 304 sin cargar el plan")
+    void getWorkoutPlanById_NotModified() throws Exception {
+        PlanVersionProjection current = version(3L, false);
+        when(workoutPlanService.getWorkoutPlanVersion(1L)).thenReturn(current);
+
+        mockMvc.perform(get("/api/workout-plans/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"3\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=300, private"))
+                .andExpect(content().string(""));
+
+        verify(workoutPlanService, never()).getWorkoutPlanById(anyLong(), any());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    @DisplayName("GET /api/workout-plans/{id} - Con If-None-Match de otra versión debería devolver el plan")
+    void getWorkoutPlanById_StaleIfNoneMatch() throws Exception {
+        PlanVersionProjection current = version(4L, false);
+        when(workoutPlanService.getWorkoutPlanVersion(1L)).thenReturn(current);
+        when(workoutPlanService.getWorkoutPlanById(eq(1L), any())).thenReturn(plan(4L, WorkoutPlanStatus.ACTIVE));
+
+        mockMvc.perform(get("/api/workout-plans/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"4\""))
+                .andExpect(jsonPath("$.id").value(1));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    @DisplayName("GET /api/workout-plans/{id} - Un borrador se revalida siempre")
+    void getWorkoutPlanById_DraftNoCache() throws Exception {
+        when(workoutPlanService.getWorkoutPlanById(eq(1L), any())).thenReturn(plan(2L, WorkoutPlanStatus.DRAFT));
+
+        mockMvc.perform(get("/api/workout-plans/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"2\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)));
+
+        verify(workoutPlanService, never()).getWorkoutPlanVersion(anyLong());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    @DisplayName("GET /api/workout-plans/{id} - Un plan activado se reusa durante max-age")
+    void getWorkoutPlanById_ActiveMaxAge() throws Exception {
+        when(workoutPlanService.getWorkoutPlanById(eq(1L), any())).thenReturn(plan(5L, WorkoutPlanStatus.ACTIVE));
+
+        mockMvc.perform(get("/api/workout-plans/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"5\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=300, private"));
+    }
+
+    private static PlanVersionProjection version(Long version, boolean draft) {
+        PlanVersionProjection projection = mock(PlanVersionProjection.class);
+        when(projection.getVersion()).thenReturn(version);
+        when(projection.getDraft()).thenReturn(draft);
+        return projection;
+    }
+
+    private static WorkoutPlanDTO plan(Long version, WorkoutPlanStatus status) {
+        return WorkoutPlanDTO.builder()
+                .id(1L)
+                .version(version)
+                .name("Fuerza")
+                .status(status)
+                .build();
+    }
+}
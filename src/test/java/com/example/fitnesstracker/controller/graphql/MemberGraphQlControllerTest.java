@@ -0,0 +1,114 @@
+package com.example.fitnesstracker.controller.graphql;
+
+import com.example.fitnesstracker.config.GraphQlConfig;
+import com.example.fitnesstracker.dto.response.MemberDTO;
+import com.example.fitnesstracker.dto.response.TrainerDTO;
+import com.example.fitnesstracker.dto.response.workout.WorkoutPlanDTO;
+import com.example.fitnesstracker.exception.GraphQlExceptionResolver;
+import com.example.fitnesstracker.exception.ResourceNotFoundException;
+import com.example.fitnesstracker.service.MemberService;
+import com.example.fitnesstracker.service.NutritionPlanService;
+import com.example.fitnesstracker.service.TrainerService;
+import com.example.fitnesstracker.service.WorkoutPlanService;
+import com.example.fitnesstracker.util.FieldSelection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.graphql.GraphQlTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.graphql.test.tester.GraphQlTester;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@GraphQlTest({MemberGraphQlController.class, TrainerGraphQlController.class,
+        WorkoutPlanGraphQlController.class, NutritionPlanGraphQlController.class})
+@Import({GraphQlConfig.class, GraphQlExceptionResolver.class})
+@DisplayName("GraphQL Member Tests")
+class MemberGraphQlControllerTest {
+
+    @Autowired
+    private GraphQlTester graphQlTester;
+
+    @MockitoBean
+    private MemberService memberService;
+
+    @MockitoBean
+    private TrainerService trainerService;
+
+    @MockitoBean
+    private WorkoutPlanService workoutPlanService;
+
+    @MockitoBean
+    private NutritionPlanService nutritionPlanService;
+
+    private MemberDTO member;
+
+    @BeforeEach
+    void setUp() {
+        member = MemberDTO.builder()
+                .id(1L)
+                .fullName("Juan Pérez")
+                .assignedTrainerId(7L)
+                .build();
+    }
+
+    @Test
+    @DisplayName("member - El trainer referenciado desde el member y desde sus planes se carga una sola vez")
+    void member_LoadsSharedTrainerOnce() {
+        WorkoutPlanDTO plan = WorkoutPlanDTO.builder().id(3L).name("Fuerza").memberId(1L).trainerId(7L).build();
+        when(memberService.getMemberById(1L)).thenReturn(member);
+        when(workoutPlanService.getActiveWorkoutPlansByMembers(eq(List.of(1L)), any(FieldSelection.class)))
+                .thenReturn(Map.of(1L, List.of(plan)));
+        when(trainerService.getTrainersByIds(List.of(7L)))
+                .thenReturn(Map.of(7L, TrainerDTO.builder().id(7L).fullName("Laura Coach").build()));
+
+        graphQlTester.document("""
+                        { member(id: 1) {
+                            fullName
+                            trainer { fullName }
+                            activeWorkoutPlans { name trainer { fullName } }
+                        } }
+                        """)
+                .execute()
+                .errors().verify()
+                .path("member.trainer.fullName").entity(String.class).isEqualTo("Laura Coach")
+                .path("member.activeWorkoutPlans[0].trainer.fullName").entity(String.class).isEqualTo("Laura Coach");
+
+        verify(trainerService, times(1)).getTrainersByIds(anyList());
+        verify(trainerService, never()).getTrainerById(anyLong());
+    }
+
+    @Test
+    @DisplayName("member - Un member inexistente es un error NOT_FOUND con el mensaje del service")
+    void member_NotFound() {
+        when(memberService.getMemberById(99L)).thenThrow(new ResourceNotFoundException("Miembro no encontrado"));
+
+        graphQlTester.document("{ member(id: 99) { fullName } }")
+                .execute()
+                .errors().expect(error -> error.getErrorType() == ErrorType.NOT_FOUND
+                        && "Miembro no encontrado".equals(error.getMessage()))
+                .verify()
+                .path("member").valueIsNull();
+    }
+
+    @Test
+    @DisplayName("recentWorkouts - Un límite que supera el costo máximo se rechaza sin tocar los services")
+    void recentWorkouts_OverComplexityLimit() {
+        graphQlTester.document("{ member(id: 1) { recentWorkouts(limit: 500) { completedAt rating } } }")
+                .execute()
+                .errors().satisfy(errors -> assertThat(errors).singleElement()
+                        .satisfies(error -> assertThat(error.getMessage()).contains("complexity")));
+
+        verifyNoInteractions(memberService, workoutPlanService);
+    }
+}
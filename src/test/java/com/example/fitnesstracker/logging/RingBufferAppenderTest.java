@@ -0,0 +1,117 @@
+package com.example.fitnesstracker.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RingBufferAppender Unit Tests")
+class RingBufferAppenderTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private RingBufferAppender appender;
+
+    @BeforeEach
+    void setUp() {
+        context.setMDCAdapter(MDC.getMDCAdapter());
+    }
+
+    @AfterEach
+    void tearDown() {
+        appender.stop();
+        MDC.clear();
+    }
+
+    @Test
+    @DisplayName("doAppend - Debería entregar todos los eventos en orden con el MDC del hilo que logueó")
+    void doAppend_DeliversInOrder() {
+        RecordingAppender target = start(new RecordingAppender(null), 128);
+
+        for (int i = 0; i < 100; i++) {
+            MDC.put(RequestTraceFilter.TRACE_ID, "trace-" + i);
+            appender.doAppend(event(Level.INFO, "evento " + i));
+        }
+        appender.stop();
+
+        assertThat(target.events).hasSize(100);
+        assertThat(target.events.get(99).getFormattedMessage()).isEqualTo("evento 99");
+        assertThat(target.events.get(99).getMDCPropertyMap()).containsEntry(RequestTraceFilter.TRACE_ID, "trace-99");
+        assertThat(appender.getDroppedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("doAppend - Con el buffer lleno debería descartar INFO y escribir WARN en el hilo que loguea")
+    void doAppend_FullBuffer() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingAppender target = start(new RecordingAppender(release), 4);
+
+        // El primer evento bloquea al hilo del appender; los 4 siguientes llenan el buffer
+        appender.doAppend(event(Level.INFO, "lleno 0"));
+        assertThat(target.blocked.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 1; i < 5; i++) {
+            appender.doAppend(event(Level.INFO, "lleno " + i));
+        }
+        appender.doAppend(event(Level.INFO, "descartado"));
+        appender.doAppend(event(Level.ERROR, "error"));
+
+        assertThat(appender.getDroppedCount()).isEqualTo(1);
+        assertThat(target.events).extracting(ILoggingEvent::getFormattedMessage).contains("error");
+
+        release.countDown();
+        appender.stop();
+        assertThat(target.events).hasSize(6)
+                .extracting(ILoggingEvent::getFormattedMessage).doesNotContain("descartado");
+    }
+
+    private RecordingAppender start(RecordingAppender target, int bufferSize) {
+        target.setContext(context);
+        target.start();
+        appender = new RingBufferAppender();
+        appender.setContext(context);
+        appender.setName("test");
+        appender.setBufferSize(bufferSize);
+        appender.addAppender(target);
+        appender.start();
+        return target;
+    }
+
+    private LoggingEvent event(Level level, String message) {
+        return new LoggingEvent(getClass().getName(), context.getLogger("test"), level, message, null, null);
+    }
+
+    private static final class RecordingAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+        private final List<ILoggingEvent> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch release;
+        private final CountDownLatch blocked = new CountDownLatch(1);
+
+        private RecordingAppender(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            if (release != null && event.getFormattedMessage().equals("lleno 0")) {
+                blocked.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            events.add(event);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.fitnesstracker.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("SamplingTurboFilter Unit Tests")
+class SamplingTurboFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final Logger controller = context.getLogger("com.example.fitnesstracker.controller.MemberController");
+    private SamplingTurboFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new SamplingTurboFilter();
+        filter.setContext(context);
+        filter.setLoggerPrefix("com.example.fitnesstracker.controller");
+        filter.setRate(10);
+        filter.start();
+    }
+
+    @Test
+    @DisplayName("decide - Debería dejar pasar 1 de cada rate eventos por plantilla")
+    void decide_SamplesPerTemplate() {
+        assertThat(passed("GET /api/members/{}", 100)).isEqualTo(10);
+        // Otra plantilla del mismo logger tiene su propio contador: su primer evento pasa
+        assertThat(filter.decide(null, controller, Level.INFO, "DELETE /api/members/{}", null, null))
+                .isEqualTo(FilterReply.NEUTRAL);
+    }
+
+    @Test
+    @DisplayName("decide - No debería muestrear WARN, excepciones, chequeos de nivel ni otros loggers")
+    void decide_Passthrough() {
+        Logger service = context.getLogger("com.example.fitnesstracker.service.MemberService");
+
+        IntStream.range(0, 20).forEach(i -> {
+            assertThat(filter.decide(null, controller, Level.WARN, "warn", null, null)).isEqualTo(FilterReply.NEUTRAL);
+            assertThat(filter.decide(null, controller, Level.INFO, "con error", null, new IllegalStateException()))
+                    .isEqualTo(FilterReply.NEUTRAL);
+            assertThat(filter.decide(null, controller, Level.INFO, null, null, null)).isEqualTo(FilterReply.NEUTRAL);
+            assertThat(filter.decide(null, service, Level.INFO, "servicio", null, null)).isEqualTo(FilterReply.NEUTRAL);
+        });
+    }
+
+    @Test
+    @DisplayName("decide - Con key=logger debería contar por logger aunque cambie el mensaje")
+    void decide_SamplesPerLogger() {
+        filter.setKey("logger");
+
+        long passed = IntStream.range(0, 100)
+                .filter(i -> filter.decide(null, controller, Level.INFO, "select " + i, null, null) == FilterReply.NEUTRAL)
+                .count();
+
+        assertThat(passed).isEqualTo(10);
+    }
+
+    private long passed(String format, int events) {
+        return IntStream.range(0, events)
+                .filter(i -> filter.decide(null, controller, Level.INFO, format, null, null) == FilterReply.NEUTRAL)
+                .count();
+    }
+}
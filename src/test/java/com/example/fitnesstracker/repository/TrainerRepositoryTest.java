@@ -0,0 +1,111 @@
+package com.example.fitnesstracker.repository;
+
+import com.example.fitnesstracker.enums.UserRole;
+import com.example.fitnesstracker.enums.UserType;
+import com.example.fitnesstracker.model.Trainer;
+import com.example.fitnesstracker.model.User;
+import com.example.fitnesstracker.util.SoftDeleteFilter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Filtro global de soft delete contra H2: las consultas reales, no un repositorio mockeado.
+ */
+@DataJpaTest
+@Import(SoftDeleteFilter.class)
+@TestPropertySource(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@DisplayName("TrainerRepository Soft Delete Tests")
+class TrainerRepositoryTest {
+
+    @Autowired
+    private TrainerRepository trainerRepository;
+
+    @Autowired
+    private SoftDeleteFilter softDeleteFilter;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Trainer active;
+    private Trainer deleted;
+
+    @BeforeEach
+    void setUp() {
+        active = persistTrainer("ana", "Ana", "Gómez");
+        deleted = persistTrainer("andres", "Andrés", "Gómez");
+        deleted.softDelete();
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("findAll - Las consultas derivadas no devuelven trainers eliminados")
+    void findAll_ExcludesDeleted() {
+        assertThat(trainerRepository.findAll())
+                .extracting(Trainer::getId)
+                .containsExactly(active.getId());
+        assertThat(trainerRepository.findBySpecialtyContainingIgnoreCase("fuerza"))
+                .extracting(Trainer::getId)
+                .containsExactly(active.getId());
+    }
+
+    @Test
+    @DisplayName("searchByName - La búsqueda por nombre solo encuentra trainers activos")
+    void searchByName_ExcludesDeleted() {
+        assertThat(trainerRepository.searchByName("gómez"))
+                .extracting(Trainer::getId)
+                .containsExactly(active.getId());
+    }
+
+    @Test
+    @DisplayName("withDeleted - Con el filtro desactivado se ven los eliminados y después se reactiva")
+    void withDeleted_SeesDeletedRows() {
+        assertThat(softDeleteFilter.withDeleted(() -> trainerRepository.findAll())).hasSize(2);
+        assertThat(trainerRepository.findAll()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("findById - La carga por clave no aplica el filtro; los services chequean isDeleted")
+    void findById_LoadsDeletedByKey() {
+        assertThat(trainerRepository.findById(deleted.getId()))
+                .hasValueSatisfying(trainer -> assertThat(trainer.isDeleted()).isTrue());
+    }
+
+    private Trainer persistTrainer(String username, String firstName, String lastName) {
+        User user = User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("hash")
+                .role(UserRole.USER)
+                .userType(UserType.TRAINER)
+                .enabled(true)
+                .build();
+        entityManager.persist(user);
+        Trainer trainer = Trainer.builder()
+                .user(user)
+                .firstName(firstName)
+                .lastName(lastName)
+                .specialty("Fuerza")
+                .certifications("NSCA-CPT")
+                .hourlyRate(BigDecimal.TEN)
+                .isActive(true)
+                .maxMembers(10)
+                .build();
+        entityManager.persist(trainer);
+        return trainer;
+    }
+}
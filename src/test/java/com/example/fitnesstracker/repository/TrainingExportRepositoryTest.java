@@ -0,0 +1,179 @@
+package com.example.fitnesstracker.repository;
+
+import com.example.fitnesstracker.enums.DifficultyLevel;
+import com.example.fitnesstracker.enums.ExerciseCategory;
+import com.example.fitnesstracker.enums.MuscleGroup;
+import com.example.fitnesstracker.enums.UserRole;
+import com.example.fitnesstracker.enums.UserType;
+import com.example.fitnesstracker.enums.WorkoutPlanStatus;
+import com.example.fitnesstracker.model.*;
+import com.example.fitnesstracker.util.TrainingSnapshot;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Export del snapshot contra H2, con las tablas de archivo creadas a mano (no tienen entidad). Sin
+ * transacción de test: el DDL de H2 confirma la transacción abierta.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(TrainingExportRepository.class)
+@TestPropertySource(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@DisplayName("TrainingExportRepository Tests")
+class TrainingExportRepositoryTest {
+
+    @Autowired
+    private TrainingExportRepository trainingExportRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long inBothTables;
+    private Long archivedOnly;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("CREATE TABLE workout_completions_archive AS SELECT * FROM workout_completions WITH NO DATA");
+        jdbcTemplate.execute("CREATE TABLE exercise_logs_archive AS SELECT * FROM exercise_logs WITH NO DATA");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Trainer trainer = Trainer.builder()
+                    .user(user("coach", UserType.TRAINER))
+                    .firstName("Laura")
+                    .lastName("Coach")
+                    .specialty("Fuerza")
+                    .certifications("NSCA-CPT")
+                    .hourlyRate(BigDecimal.valueOf(25))
+                    .isActive(true)
+                    .maxMembers(20)
+                    .build();
+            entityManager.persist(trainer);
+            Member member = Member.builder()
+                    .user(user("member", UserType.MEMBER))
+                    .firstName("Juan")
+                    .lastName("Pérez")
+                    .phone("+5491100000000")
+                    .dateOfBirth(LocalDate.of(1990, 1, 1))
+                    .membershipStartDate(LocalDate.of(2024, 1, 1))
+                    .membershipEndDate(LocalDate.now().plusMonths(1))
+                    .assignedTrainer(trainer)
+                    .build();
+            entityManager.persist(member);
+            WorkoutPlan plan = WorkoutPlan.builder()
+                    .name("Fuerza")
+                    .member(member)
+                    .trainer(trainer)
+                    .status(WorkoutPlanStatus.ACTIVE)
+                    .startDate(LocalDate.of(2024, 1, 1))
+                    .build();
+            entityManager.persist(plan);
+            WorkoutDay day = WorkoutDay.builder().workoutPlan(plan).dayName("Día 1").dayNumber(1).build();
+            entityManager.persist(day);
+            Exercise squat = Exercise.builder()
+                    .name("Sentadilla")
+                    .category(ExerciseCategory.STRENGTH)
+                    .primaryMuscle(MuscleGroup.QUADS)
+                    .difficulty(DifficultyLevel.INTERMEDIATE)
+                    .build();
+            entityManager.persist(squat);
+            WorkoutExercise workoutExercise = WorkoutExercise.builder()
+                    .workoutDay(day)
+                    .exercise(squat)
+                    .sets(3)
+                    .reps(10)
+                    .orderInWorkout(1)
+                    .build();
+            entityManager.persist(workoutExercise);
+
+            inBothTables = completion(member, day, workoutExercise, LocalDate.of(2024, 3, 4));
+            archivedOnly = completion(member, day, workoutExercise, LocalDate.of(2024, 2, 5));
+        });
+
+        // Mes archivado a medias: todo copiado, solo una de las completions borrada de las tablas calientes
+        jdbcTemplate.update("INSERT INTO workout_completions_archive SELECT * FROM workout_completions");
+        jdbcTemplate.update("INSERT INTO exercise_logs_archive SELECT * FROM exercise_logs");
+        jdbcTemplate.update("DELETE FROM exercise_logs WHERE workout_completion_id = ?", archivedOnly);
+        jdbcTemplate.update("DELETE FROM workout_completions WHERE id = ?", archivedOnly);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE exercise_logs_archive");
+        jdbcTemplate.execute("DROP TABLE workout_completions_archive");
+        for (String table : new String[]{"exercise_logs", "workout_completions", "workout_exercises", "exercises",
+                "workout_days", "workout_plans", "members", "trainers", "users"}) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+
+    @Test
+    @DisplayName("exportInto - Una completion en las tablas calientes y en el archivo se exporta una sola vez")
+    void exportInto_CountsRowInBothTablesOnce() {
+        TrainingSnapshot.Builder builder = TrainingSnapshot.builder();
+
+        trainingExportRepository.exportInto(builder);
+        TrainingSnapshot snapshot = builder.build();
+
+        assertThat(snapshot.getRowCount()).isEqualTo(2);
+        assertThat(snapshot.completionIds()).containsExactlyInAnyOrder(inBothTables, archivedOnly);
+        assertThat(snapshot.sets()).containsOnly(3);
+    }
+
+    private Long completion(Member member, WorkoutDay day, WorkoutExercise workoutExercise, LocalDate date) {
+        WorkoutCompletion completion = WorkoutCompletion.builder()
+                .member(member)
+                .workoutDay(day)
+                .completedAt(date)
+                .build();
+        entityManager.persist(completion);
+        entityManager.persist(ExerciseLog.builder()
+                .workoutCompletion(completion)
+                .workoutExercise(workoutExercise)
+                .completedAt(date)
+                .setsCompleted(3)
+                .repsCompleted(10)
+                .weightUsed(80.0)
+                .build());
+        return completion.getId();
+    }
+
+    private User user(String username, UserType userType) {
+        User user = User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("hash")
+                .role(UserRole.USER)
+                .userType(userType)
+                .enabled(true)
+                .build();
+        entityManager.persist(user);
+        return user;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.fitnesstracker.security;
+
+import com.example.fitnesstracker.dto.response.security.PasswordHashingStatsDTO;
+import com.example.fitnesstracker.exception.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("AdaptivePasswordEncoder Unit Tests")
+class AdaptivePasswordEncoderTest {
+
+    private AdaptivePasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        encoder.destroy();
+    }
+
+    @Test
+    @DisplayName("encode/matches - Debería verificar en el pool de hashing")
+    void encodeAndMatches() {
+        encoder = new AdaptivePasswordEncoder(4, 1, 4, 5000);
+
+        String hash = encoder.encode("secret");
+
+        assertThat(encoder.matches("secret", hash)).isTrue();
+        assertThat(encoder.matches("otro", hash)).isFalse();
+        PasswordHashingStatsDTO stats = encoder.stats();
+        assertThat(stats.getCompleted()).isEqualTo(3);
+        assertThat(stats.getRejected()).isZero();
+        assertThat(stats.getP99LatencyMs()).isPositive();
+    }
+
+    @Test
+    @DisplayName("matches - Debería responder 429 cuando la cola del pool está llena")
+    void matches_RejectsWhenSaturated() {
+        encoder = new AdaptivePasswordEncoder(4, 1, 1, 60_000);
+        String slowHash = new BCryptPasswordEncoder(12).encode("secret");
+
+        // Un hilo ocupado y uno en cola: el resto tiene que rechazarse sin esperar
+        List<CompletableFuture<Boolean>> busy = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            busy.add(CompletableFuture.supplyAsync(() -> encoder.matches("secret", slowHash)));
+        }
+        waitUntil(() -> encoder.stats().getQueueDepth() == 1);
+
+        assertThatThrownBy(() -> encoder.matches("secret", slowHash))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThat(encoder.stats().getRejected()).isEqualTo(1);
+        busy.forEach(CompletableFuture::join);
+    }
+
+    @Test
+    @DisplayName("upgradeEncoding - Debería pedir rehash solo si el costo guardado es menor")
+    void upgradeEncoding_OnlyUpgrades() {
+        encoder = new AdaptivePasswordEncoder(6, 1, 4, 5000);
+
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret"))).isTrue();
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("secret"))).isFalse();
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(8).encode("secret"))).isFalse();
+        assertThat(encoder.upgradeEncoding(null)).isFalse();
+    }
+
+    @Test
+    @DisplayName("calibrate - Debería quedar dentro de los límites configurados")
+    void calibrate_ClampsToRange() {
+        encoder = new AdaptivePasswordEncoder(4, 1, 1, 5000);
+
+        assertThat(AdaptivePasswordEncoder.calibrate(1, 10, 12)).isEqualTo(10);
+        assertThat(AdaptivePasswordEncoder.calibrate(60_000, 4, 6)).isEqualTo(6);
+    }
+
+    private static void waitUntil(java.util.function.BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Condición no alcanzada a tiempo");
+            }
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.fitnesstracker.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("JwtAuthenticationFilter Unit Tests")
+class JwtAuthenticationFilterTest {
+
+    @Mock
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Mock
+    private TokenRevocationList tokenRevocationList;
+
+    @InjectMocks
+    private JwtAuthenticationFilter filter;
+
+    private Claims claims;
+
+    @BeforeEach
+    void setUp() {
+        claims = Jwts.claims()
+                .subject("testuser")
+                .add(JwtTokenProvider.ROLE_CLAIM, "ADMIN")
+                .add(JwtTokenProvider.SESSION_CLAIM, "sid-1")
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("doFilter - Debería autenticar con los claims de una sesión vigente")
+    void doFilter_AuthenticatesActiveSession() throws Exception {
+        when(jwtTokenProvider.parseClaims("token")).thenReturn(claims);
+        when(tokenRevocationList.isRevoked("sid-1")).thenReturn(false);
+        FilterChain chain = mock(FilterChain.class);
+
+        filter.doFilter(request("/api/workout-plans", "token"), new MockHttpServletResponse(), chain);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication.getName()).isEqualTo("testuser");
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_ADMIN");
+        verify(chain).doFilter(any(), any());
+    }
+
+    @Test
+    @DisplayName("doFilter - No debería autenticar una sesión revocada")
+    void doFilter_RevokedSession() throws Exception {
+        when(jwtTokenProvider.parseClaims("token")).thenReturn(claims);
+        when(tokenRevocationList.isRevoked("sid-1")).thenReturn(true);
+
+        filter.doFilter(request("/api/workout-plans", "token"), new MockHttpServletResponse(), mock(FilterChain.class));
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    @DisplayName("doFilter - No debería leer el token en rutas públicas")
+    void doFilter_SkipsPublicRoutes() throws Exception {
+        FilterChain chain = mock(FilterChain.class);
+
+        filter.doFilter(request("/auth/refresh", "token"), new MockHttpServletResponse(), chain);
+        filter.doFilter(request("/swagger-ui/index.html", "token"), new MockHttpServletResponse(), chain);
+
+        verifyNoInteractions(jwtTokenProvider, tokenRevocationList);
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    @DisplayName("doFilter - Debería propagar los errores del resto de la cadena")
+    void doFilter_PropagatesChainErrors() throws Exception {
+        FilterChain chain = mock(FilterChain.class);
+        doThrow(new ServletException("fallo")).when(chain).doFilter(any(), any());
+
+        assertThatThrownBy(() -> filter.doFilter(request("/api/workout-plans", null), new MockHttpServletResponse(), chain))
+                .isInstanceOf(ServletException.class);
+    }
+
+    private static MockHttpServletRequest request(String path, String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        if (token != null) {
+            request.addHeader("Authorization", "Bearer " + token);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.fitnesstracker.security;
+
+import com.example.fitnesstracker.enums.UserRole;
+import com.example.fitnesstracker.enums.UserType;
+import com.example.fitnesstracker.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Instant;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@DisplayName("JwtTokenProvider Unit Tests")
+class JwtTokenProviderTest {
+
+    private static final String ISSUER = "http://localhost:8080";
+
+    @TempDir
+    Path keyDir;
+
+    private JwtKeyStore keyStore;
+    private JwtTokenProvider jwtTokenProvider;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        keyStore = newKeyStore();
+        jwtTokenProvider = new JwtTokenProvider(keyStore, ISSUER);
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtExpirationMs", 900_000L);
+
+        user = new User();
+        user.setUsername("testuser");
+        user.setEmail("test@example.com");
+        user.setRole(UserRole.USER);
+        user.setUserType(UserType.MEMBER);
+    }
+
+    @Test
+    @DisplayName("generateToken - Debería firmar con ES256 e informar el kid de la clave activa")
+    void generateToken_SignsWithActiveKey() {
+        String token = jwtTokenProvider.generateToken(user, "sid-1");
+
+        Claims claims = jwtTokenProvider.parseClaims(token);
+        assertThat(claims).isNotNull();
+        assertThat(claims.getSubject()).isEqualTo("testuser");
+        assertThat(claims.get(JwtTokenProvider.SESSION_CLAIM, String.class)).isEqualTo("sid-1");
+        assertThat(claims.getIssuer()).isEqualTo(ISSUER);
+        assertThat(keyStore.jwksJson()).contains(keyStore.active().kid()).contains("\"alg\":\"ES256\"");
+    }
+
+    @Test
+    @DisplayName("parseClaims - Debería aceptar tokens de la clave anterior después de rotar")
+    void parseClaims_AfterRotation() {
+        String before = jwtTokenProvider.generateToken(user, "sid-1");
+        String previousKid = keyStore.active().kid();
+
+        keyStore.rotate();
+
+        assertThat(keyStore.active().kid()).isNotEqualTo(previousKid);
+        assertThat(jwtTokenProvider.parseClaims(before)).isNotNull();
+        assertThat(jwtTokenProvider.parseClaims(jwtTokenProvider.generateToken(user, "sid-1"))).isNotNull();
+    }
+
+    @Test
+    @DisplayName("parseClaims - Debería ver una clave rotada por otra instancia en el mismo directorio")
+    void parseClaims_KeyRotatedByOtherInstance() {
+        JwtKeyStore other = newKeyStore();
+        other.rotate();
+        JwtTokenProvider otherProvider = new JwtTokenProvider(other, ISSUER);
+        ReflectionTestUtils.setField(otherProvider, "jwtExpirationMs", 900_000L);
+
+        String token = otherProvider.generateToken(user, "sid-1");
+        // Las relecturas del directorio por kid desconocido están limitadas a una cada pocos segundos
+        ReflectionTestUtils.setField(keyStore, "lastReload", Instant.EPOCH);
+
+        assertThat(jwtTokenProvider.parseClaims(token)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("parseClaims - Debería rechazar tokens HS512 y de otro emisor")
+    void parseClaims_RejectsForeignTokens() {
+        String hs512 = Jwts.builder()
+                .header().keyId(keyStore.active().kid()).and()
+                .issuer(ISSUER)
+                .subject("testuser")
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(new byte[64]), Jwts.SIG.HS512)
+                .compact();
+        String otherIssuer = Jwts.builder()
+                .header().keyId(keyStore.active().kid()).and()
+                .issuer("http://otro")
+                .subject("testuser")
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(keyStore.active().privateKey(), Jwts.SIG.ES256)
+                .compact();
+
+        assertThat(jwtTokenProvider.parseClaims(hs512)).isNull();
+        assertThat(jwtTokenProvider.parseClaims(otherIssuer)).isNull();
+    }
+
+    @Test
+    @DisplayName("parseClaims - Debería reusar la verificación de un token ya visto y no la de uno alterado")
+    void parseClaims_CachesVerifiedTokens() {
+        String token = jwtTokenProvider.generateToken(user, "sid-1");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        Claims first = jwtTokenProvider.parseClaims(token);
+
+        assertThat(jwtTokenProvider.parseClaims(token)).isSameAs(first);
+        assertThat(jwtTokenProvider.parseClaims(tampered)).isNull();
+    }
+
+    @Test
+    @DisplayName("parseClaims - Debería rechazar un token en cache cuando vence")
+    void parseClaims_RejectsCachedTokenAfterExpiration() throws InterruptedException {
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtExpirationMs", 2_000L);
+        String token = jwtTokenProvider.generateToken(user, "sid-1");
+        assertThat(jwtTokenProvider.parseClaims(token)).isNotNull();
+
+        // exp se guarda en segundos: vence entre 1 y 2 s después de emitido
+        Thread.sleep(2_000);
+
+        assertThat(jwtTokenProvider.parseClaims(token)).isNull();
+    }
+
+    @Test
+    @DisplayName("JwtKeyStore - Debería guardar el PEM legible solo por el dueño")
+    void keyStore_WritesOwnerOnlyPem() throws IOException {
+        assumeTrue(keyDir.getFileSystem().supportedFileAttributeViews().contains("posix"));
+
+        Path pem = keyDir.resolve(keyStore.active().kid() + ".pem");
+
+        assertThat(Files.getPosixFilePermissions(pem)).isEqualTo(PosixFilePermissions.fromString("rw-------"));
+    }
+
+    private JwtKeyStore newKeyStore() {
+        JwtKeyStore store = new JwtKeyStore();
+        ReflectionTestUtils.setField(store, "keyDir", keyDir.toString());
+        ReflectionTestUtils.setField(store, "rotationHours", 168L);
+        ReflectionTestUtils.setField(store, "accessTokenTtlMs", 900_000L);
+        store.init();
+        return store;
+    }
+}
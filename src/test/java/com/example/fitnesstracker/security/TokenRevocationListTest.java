@@ -0,0 +1,60 @@
+package com.example.fitnesstracker.security;
+
+import com.example.fitnesstracker.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TokenRevocationList Unit Tests")
+class TokenRevocationListTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private TokenRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        revocationList = new TokenRevocationList(refreshTokenRepository);
+        ReflectionTestUtils.setField(revocationList, "accessTokenTtlMs", 900_000L);
+        ReflectionTestUtils.setField(revocationList, "expectedRevocations", 1000L);
+        ReflectionTestUtils.setField(revocationList, "falsePositiveRate", 0.001);
+    }
+
+    @Test
+    @DisplayName("reload - Una revocación local que la base todavía no devuelve sigue en el filtro nuevo")
+    void reload_KeepsLocalRevocations() {
+        when(refreshTokenRepository.findFamiliesRevokedSince(any())).thenReturn(List.of());
+        when(refreshTokenRepository.isFamilyRevoked("session-1")).thenReturn(true);
+        revocationList.reload();
+
+        revocationList.revoke(List.of("session-1"));
+        revocationList.reload();
+
+        assertThat(revocationList.isRevoked("session-1")).isTrue();
+        verify(refreshTokenRepository).isFamilyRevoked("session-1");
+    }
+
+    @Test
+    @DisplayName("isRevoked - Una sesión no revocada no consulta la base")
+    void isRevoked_UnknownSession() {
+        when(refreshTokenRepository.findFamiliesRevokedSince(any())).thenReturn(List.of("session-2"));
+        revocationList.reload();
+
+        assertThat(revocationList.isRevoked("session-3")).isFalse();
+        verify(refreshTokenRepository, never()).isFamilyRevoked("session-3");
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.fitnesstracker.service;
+
+import com.example.fitnesstracker.dto.response.workout.FallingBehindMemberDTO;
+import com.example.fitnesstracker.model.*;
+import com.example.fitnesstracker.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AdherenceService Unit Tests")
+class AdherenceServiceTest {
+
+    @Mock
+    private WeeklyAdherenceRepository weeklyAdherenceRepository;
+    @Mock
+    private WorkoutCompletionRepository workoutCompletionRepository;
+    @Mock
+    private WorkoutPlanRepository workoutPlanRepository;
+    @Mock
+    private MemberRepository memberRepository;
+    @Mock
+    private WorkoutDayRepository workoutDayRepository;
+    @Mock
+    private WorkoutExerciseRepository workoutExerciseRepository;
+    @Mock
+    private WorkoutArchiveService workoutArchiveService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private AdherenceService adherenceService;
+
+    private Member member;
+    private WorkoutPlan plan;
+    private WorkoutDay day;
+    private WorkoutExercise squat;
+    private WorkoutExercise pushUps;
+
+    @BeforeEach
+    void setUp() {
+        member = Member.builder().id(1L).firstName("John").lastName("Doe").build();
+        plan = WorkoutPlan.builder().member(member).startDate(LocalDate.now().minusWeeks(8)).build();
+        plan.setId(10L);
+        day = WorkoutDay.builder().workoutPlan(plan).dayName("Día 1").dayNumber(1).build();
+        day.setId(100L);
+        plan.getWorkoutDays().add(day);
+        plan.getWorkoutDays().add(WorkoutDay.builder().workoutPlan(plan).dayName("Día 2").dayNumber(2).build());
+
+        squat = WorkoutExercise.builder().workoutDay(day).sets(4).reps(10).weight(100.0).build();
+        squat.setId(1000L);
+        pushUps = WorkoutExercise.builder().workoutDay(day).sets(3).reps(20).build();
+        pushUps.setId(1001L);
+        day.getExercises().add(squat);
+        day.getExercises().add(pushUps);
+    }
+
+    @Test
+    @DisplayName("scoreCompletion - Debería dar 1 cuando se cumple todo lo prescrito")
+    void scoreCompletion_FullyCompleted() {
+        double score = AdherenceService.scoreCompletion(day.getExercises(),
+                List.of(log(squat, 4, 10, 100.0), log(pushUps, 3, 20, null)));
+
+        assertThat(score).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("scoreCompletion - Debería penalizar ejercicios incompletos u omitidos")
+    void scoreCompletion_Partial() {
+        // Sentadilla: 2/4 series, 20/40 reps, 80/100 kg -> (0.5 + 0.5 + 0.8) / 3 = 0.6; flexiones omitidas -> 0
+        double score = AdherenceService.scoreCompletion(day.getExercises(), List.of(log(squat, 2, 10, 80.0)));
+
+        assertThat(score).isCloseTo(0.3, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("recordCompletion - Debería guardar el puntaje y acumularlo en la semana")
+    void recordCompletion_NewWeek() {
+        WorkoutCompletion completion = WorkoutCompletion.builder()
+                .member(member)
+                .workoutDay(day)
+                .completedAt(LocalDate.of(2025, 3, 5))
+                .build();
+        completion.addExerciseLog(log(squat, 4, 10, 100.0));
+        completion.addExerciseLog(log(pushUps, 3, 20, null));
+        when(weeklyAdherenceRepository.findByMember_IdAndWorkoutPlan_IdAndWeekStart(1L, 10L, LocalDate.of(2025, 3, 3)))
+                .thenReturn(Optional.empty());
+
+        adherenceService.recordCompletion(completion);
+
+        assertThat(completion.getAdherenceScore()).isEqualTo(1.0);
+        ArgumentCaptor<WeeklyAdherence> captor = ArgumentCaptor.forClass(WeeklyAdherence.class);
+        verify(weeklyAdherenceRepository).save(captor.capture());
+        assertThat(captor.getValue().getCompletions()).isEqualTo(1);
+        assertThat(captor.getValue().getPlannedSessions()).isEqualTo(2);
+        assertThat(captor.getValue().getScore()).isEqualTo(0.5);
+    }
+
+    @Test
+    @DisplayName("recomputeMember - Debería rearmar solo las semanas posteriores al corte del archivo")
+    void recomputeMember_FromArchiveCutoff() {
+        // El corte cae en miércoles: la semana que lo cruza tiene días archivados y no se toca
+        when(workoutArchiveService.archiveCutoff()).thenReturn(Optional.of(LocalDate.of(2025, 1, 1)));
+        LocalDate from = adherenceService.recomputeFrom();
+        WorkoutCompletion first = completion(LocalDate.of(2025, 1, 6), log(squat, 4, 10, 100.0), log(pushUps, 3, 20, null));
+        WorkoutCompletion second = completion(LocalDate.of(2025, 1, 8), log(squat, 2, 10, 80.0));
+        when(workoutCompletionRepository.findWithLogsByMemberSince(1L, from)).thenReturn(List.of(first, second));
+        when(workoutExerciseRepository.findByWorkoutDay_IdInAndDeletedAtIsNull(any())).thenReturn(List.of(squat, pushUps));
+        when(workoutDayRepository.findByWorkoutPlan_IdInAndDeletedAtIsNull(any())).thenReturn(plan.getWorkoutDays());
+
+        adherenceService.recomputeMember(1L, from);
+
+        assertThat(from).isEqualTo(LocalDate.of(2025, 1, 6));
+        verify(weeklyAdherenceRepository).deleteByMemberIdFrom(1L, from);
+        verify(workoutExerciseRepository, times(1)).findByWorkoutDay_IdInAndDeletedAtIsNull(any());
+        assertThat(first.getAdherenceScore()).isEqualTo(1.0);
+        assertThat(second.getAdherenceScore()).isCloseTo(0.3, within(1e-9));
+        ArgumentCaptor<Iterable<WeeklyAdherence>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(weeklyAdherenceRepository).saveAll(captor.capture());
+        assertThat(captor.getValue()).singleElement().satisfies(week -> {
+            assertThat(week.getWeekStart()).isEqualTo(LocalDate.of(2025, 1, 6));
+            assertThat(week.getCompletions()).isEqualTo(2);
+            assertThat(week.getPlannedSessions()).isEqualTo(2);
+        });
+    }
+
+    @Test
+    @DisplayName("recomputeFrom - Sin archivo debería recalcular todo el historial")
+    void recomputeFrom_ArchiveDisabled() {
+        when(workoutArchiveService.archiveCutoff()).thenReturn(Optional.empty());
+
+        assertThat(adherenceService.recomputeFrom()).isEqualTo(LocalDate.EPOCH);
+    }
+
+    @Test
+    @DisplayName("getMembersFallingBehind - Debería ordenar de menor a mayor adherencia")
+    void getMembersFallingBehind_Ranked() {
+        AdherenceRankProjection onTrack = rank(1L, "John", 12.0, 12L, LocalDate.now());
+        AdherenceRankProjection behind = rank(2L, "Jane", 2.0, 3L, LocalDate.now().minusWeeks(3));
+        AdherenceRankProjection inactive = rank(3L, "Bob", 0.0, 0L, null);
+        when(weeklyAdherenceRepository.findAdherenceByTrainer(eq(5L), any(LocalDate.class)))
+                .thenReturn(List.of(onTrack, behind, inactive));
+
+        List<FallingBehindMemberDTO> result = adherenceService.getMembersFallingBehind(5L, 4, 2);
+
+        assertThat(result).extracting(FallingBehindMemberDTO::getMemberId).containsExactly(3L, 2L);
+        assertThat(result.get(0).getScore()).isEqualTo(0.0);
+    }
+
+    private WorkoutCompletion completion(LocalDate completedAt, ExerciseLog... logs) {
+        WorkoutCompletion completion = WorkoutCompletion.builder()
+                .member(member)
+                .workoutDay(day)
+                .completedAt(completedAt)
+                .build();
+        for (ExerciseLog exerciseLog : logs) {
+            completion.addExerciseLog(exerciseLog);
+        }
+        return completion;
+    }
+
+    private ExerciseLog log(WorkoutExercise exercise, int sets, int reps, Double weight) {
+        return ExerciseLog.builder()
+                .workoutExercise(exercise)
+                .setsCompleted(sets)
+                .repsCompleted(reps)
+                .weightUsed(weight)
+                .build();
+    }
+
+    private AdherenceRankProjection rank(Long memberId, String name, double scoreSum, long completions, LocalDate lastWeek) {
+        AdherenceRankProjection row = mock(AdherenceRankProjection.class);
+        when(row.getMemberId()).thenReturn(memberId);
+        when(row.getFirstName()).thenReturn(name);
+        when(row.getLastName()).thenReturn("Test");
+        when(row.getPlanId()).thenReturn(memberId * 10);
+        when(row.getPlanStartDate()).thenReturn(LocalDate.now().minusMonths(6));
+        when(row.getPlannedSessionsPerWeek()).thenReturn(3L);
+        when(row.getScoreSum()).thenReturn(scoreSum);
+        when(row.getCompletions()).thenReturn(completions);
+        when(row.getLastActiveWeek()).thenReturn(lastWeek);
+        return row;
+    }
+}
@@ -28,6 +28,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -53,6 +55,9 @@ class AuthServiceTest {
     @Mock
     private TrainerMapper trainerMapper;
 
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
     @InjectMocks
     private AuthService authService;
 
@@ -65,6 +70,9 @@ class AuthServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(refreshTokenService.startSession(any(User.class)))
+                .thenReturn(new RefreshTokenService.Session("sid-1", "refresh-1"));
+
         // Usuario base
         testUser = new User();
         testUser.setId(1L);
@@ -115,11 +123,11 @@ class AuthServiceTest {
         String password = "password123";
         String token = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...";
 
-        when(userRepository.findByUsernameAndDeletedAtIsNull(username))
+        when(userRepository.findForLoginByUsername(username))
                 .thenReturn(Optional.of(testUser));
         when(passwordEncoder.matches(password, testUser.getPassword()))
                 .thenReturn(true);
-        when(jwtTokenProvider.generateToken(username))
+        when(jwtTokenProvider.generateToken(testUser, "sid-1"))
                 .thenReturn(token);
         when(userMapper.toDto(testUser))
                 .thenReturn(testUserDTO);
@@ -136,9 +144,30 @@ class AuthServiceTest {
         assertThat(result.getMember()).isNull();
         assertThat(result.getTrainer()).isNull();
 
-        verify(userRepository).findByUsernameAndDeletedAtIsNull(username);
+        verify(userRepository).findForLoginByUsername(username);
         verify(passwordEncoder).matches(password, testUser.getPassword());
-        verify(jwtTokenProvider).generateToken(username);
+        verify(jwtTokenProvider).generateToken(testUser, "sid-1");
+    }
+
+    @Test
+    @DisplayName("login - Debería rehashear el password si el costo guardado es menor al actual")
+    void login_RehashesOutdatedPassword() {
+        String username = "testuser";
+        String password = "password123";
+        String oldHash = testUser.getPassword();
+
+        when(userRepository.findForLoginByUsername(username))
+                .thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches(password, oldHash)).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding(oldHash)).thenReturn(true);
+        when(passwordEncoder.encode(password)).thenReturn("$2a$12$newHash");
+        when(jwtTokenProvider.generateToken(testUser, "sid-1")).thenReturn("jwt.token.here");
+        when(userMapper.toDto(testUser)).thenReturn(testUserDTO);
+
+        authService.login(username, password);
+
+        assertThat(testUser.getPassword()).isEqualTo("$2a$12$newHash");
+        verify(userRepository).save(testUser);
     }
 
     @Test
@@ -153,11 +182,11 @@ class AuthServiceTest {
         testUser.setUserType(UserType.MEMBER);
         testUser.setMember(testMember);
 
-        when(userRepository.findByUsernameAndDeletedAtIsNull(username))
+        when(userRepository.findForLoginByUsername(username))
                 .thenReturn(Optional.of(testUser));
         when(passwordEncoder.matches(password, testUser.getPassword()))
                 .thenReturn(true);
-        when(jwtTokenProvider.generateToken(username))
+        when(jwtTokenProvider.generateToken(testUser, "sid-1"))
                 .thenReturn(token);
         when(userMapper.toDto(testUser))
                 .thenReturn(testUserDTO);
@@ -189,11 +218,11 @@ class AuthServiceTest {
         testUser.setUserType(UserType.TRAINER);
         testUser.setTrainer(testTrainer);
 
-        when(userRepository.findByUsernameAndDeletedAtIsNull(username))
+        when(userRepository.findForLoginByUsername(username))
                 .thenReturn(Optional.of(testUser));
         when(passwordEncoder.matches(password, testUser.getPassword()))
                 .thenReturn(true);
-        when(jwtTokenProvider.generateToken(username))
+        when(jwtTokenProvider.generateToken(testUser, "sid-1"))
                 .thenReturn(token);
         when(userMapper.toDto(testUser))
                 .thenReturn(testUserDTO);
@@ -220,16 +249,16 @@ class AuthServiceTest {
         String username = "noexiste";
         String password = "password123";
 
-        when(userRepository.findByUsernameAndDeletedAtIsNull(username))
+        when(userRepository.findForLoginByUsername(username))
                 .thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> authService.login(username, password))
                 .isInstanceOf(UserNotFoundException.class)
                 .hasMessage("Usuario no encontrado");
 
-        verify(userRepository).findByUsernameAndDeletedAtIsNull(username);
+        verify(userRepository).findForLoginByUsername(username);
         verify(passwordEncoder, never()).matches(anyString(), anyString());
-        verify(jwtTokenProvider, never()).generateToken(anyString());
+        verify(jwtTokenProvider, never()).generateToken(any(User.class), anyString());
     }
 
     @Test
@@ -241,16 +270,16 @@ class AuthServiceTest {
 
         testUser.setEnabled(false);
 
-        when(userRepository.findByUsernameAndDeletedAtIsNull(username))
+        when(userRepository.findForLoginByUsername(username))
                 .thenReturn(Optional.of(testUser));
 
         assertThatThrownBy(() -> authService.login(username, password))
                 .isInstanceOf(UnauthorizedException.class)
                 .hasMessage("Usuario deshabilitado");
 
-        verify(userRepository).findByUsernameAndDeletedAtIsNull(username);
+        verify(userRepository).findForLoginByUsername(username);
         verify(passwordEncoder, never()).matches(anyString(), anyString());
-        verify(jwtTokenProvider, never()).generateToken(anyString());
+        verify(jwtTokenProvider, never()).generateToken(any(User.class), anyString());
     }
 
     @Test
@@ -260,7 +289,7 @@ class AuthServiceTest {
         String username = "testuser";
         String password = "wrongpassword";
 
-        when(userRepository.findByUsernameAndDeletedAtIsNull(username))
+        when(userRepository.findForLoginByUsername(username))
                 .thenReturn(Optional.of(testUser));
         when(passwordEncoder.matches(password, testUser.getPassword()))
                 .thenReturn(false);
@@ -270,9 +299,9 @@ class AuthServiceTest {
                 .isInstanceOf(UnauthorizedException.class)
                 .hasMessage("Credenciales inválidas");
 
-        verify(userRepository).findByUsernameAndDeletedAtIsNull(username);
+        verify(userRepository).findForLoginByUsername(username);
         verify(passwordEncoder).matches(password, testUser.getPassword());
-        verify(jwtTokenProvider, never()).generateToken(anyString());
+        verify(jwtTokenProvider, never()).generateToken(any(User.class), anyString());
     }
 
     @Test
@@ -282,14 +311,14 @@ class AuthServiceTest {
         String username = "deleteduser";
         String password = "password123";
 
-        when(userRepository.findByUsernameAndDeletedAtIsNull(username))
+        when(userRepository.findForLoginByUsername(username))
                 .thenReturn(Optional.empty()); // No encuentra usuarios con deletedAt != null
 
         assertThatThrownBy(() -> authService.login(username, password))
                 .isInstanceOf(UserNotFoundException.class)
                 .hasMessage("Usuario no encontrado");
 
-        verify(userRepository).findByUsernameAndDeletedAtIsNull(username);
+        verify(userRepository).findForLoginByUsername(username);
     }
 
     // ==================== VALIDATE TOKEN TESTS ====================
@@ -421,11 +450,11 @@ class AuthServiceTest {
 
         testUser.setUsername("TestUser");
 
-        when(userRepository.findByUsernameAndDeletedAtIsNull("TestUser"))
+        when(userRepository.findForLoginByUsername("TestUser"))
                 .thenReturn(Optional.of(testUser));
         when(passwordEncoder.matches(password, testUser.getPassword()))
                 .thenReturn(true);
-        when(jwtTokenProvider.generateToken("TestUser"))
+        when(jwtTokenProvider.generateToken(testUser, "sid-1"))
                 .thenReturn(token);
         when(userMapper.toDto(testUser))
                 .thenReturn(testUserDTO);
@@ -435,7 +464,7 @@ class AuthServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getToken()).isEqualTo(token);
 
-        verify(userRepository).findByUsernameAndDeletedAtIsNull("TestUser");
+        verify(userRepository).findForLoginByUsername("TestUser");
     }
 
     @Test
@@ -446,11 +475,11 @@ class AuthServiceTest {
         String password = "password123";
         String token = "jwt.token";
 
-        when(userRepository.findByUsernameAndDeletedAtIsNull(username))
+        when(userRepository.findForLoginByUsername(username))
                 .thenReturn(Optional.of(testUser));
         when(passwordEncoder.matches(password, testUser.getPassword()))
                 .thenReturn(true);
-        when(jwtTokenProvider.generateToken(username))
+        when(jwtTokenProvider.generateToken(testUser, "sid-1"))
                 .thenReturn(token);
         when(userMapper.toDto(testUser))
                 .thenReturn(testUserDTO);
@@ -464,8 +493,40 @@ class AuthServiceTest {
         assertThat(result.getUser()).isNotNull();
         assertThat(result.getMember()).isNull();
         assertThat(result.getTrainer()).isNull();
-        assertThat(result.getExpiresAt()).isNull();
-        assertThat(result.getRefreshToken()).isNull();
+        assertThat(result.getRefreshToken()).isEqualTo("refresh-1");
         assertThat(result.getMessage()).isNull();
     }
-}
\ No newline at end of file
+
+    // ==================== REFRESH TESTS ====================
+
+    @Test
+    @DisplayName("refresh - Debería emitir access token nuevo con el refresh token rotado")
+    void refresh_Success() {
+        when(refreshTokenService.rotate("refresh-1"))
+                .thenReturn(new RefreshTokenService.RotatedSession(1L, "sid-1", "refresh-2"));
+        when(userRepository.findByIdActive(1L)).thenReturn(Optional.of(testUser));
+        when(jwtTokenProvider.generateToken(testUser, "sid-1")).thenReturn("jwt.token.here");
+        when(userMapper.toDto(testUser)).thenReturn(testUserDTO);
+
+        AuthResponse result = authService.refresh("refresh-1");
+
+        assertThat(result.getToken()).isEqualTo("jwt.token.here");
+        assertThat(result.getRefreshToken()).isEqualTo("refresh-2");
+        verify(refreshTokenService, never()).revokeAllForUser(anyLong());
+    }
+
+    @Test
+    @DisplayName("refresh - Debería revocar las sesiones si el usuario fue deshabilitado")
+    void refresh_DisabledUser() {
+        testUser.setEnabled(false);
+        when(refreshTokenService.rotate("refresh-1"))
+                .thenReturn(new RefreshTokenService.RotatedSession(1L, "sid-1", "refresh-2"));
+        when(userRepository.findByIdActive(1L)).thenReturn(Optional.of(testUser));
+
+        assertThatThrownBy(() -> authService.refresh("refresh-1"))
+                .isInstanceOf(UnauthorizedException.class);
+
+        verify(refreshTokenService).revokeAllForUser(1L);
+        verify(jwtTokenProvider, never()).generateToken(any(User.class), anyString());
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.fitnesstracker.service;
+
+import com.example.fitnesstracker.enums.DifficultyLevel;
+import com.example.fitnesstracker.enums.ExerciseCategory;
+import com.example.fitnesstracker.enums.MuscleGroup;
+import com.example.fitnesstracker.enums.UserRole;
+import com.example.fitnesstracker.enums.UserType;
+import com.example.fitnesstracker.enums.WorkoutPlanStatus;
+import com.example.fitnesstracker.model.*;
+import com.example.fitnesstracker.repository.ExerciseProgressRepository;
+import com.example.fitnesstracker.repository.MemberRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Agregado semanal contra H2 en modo MySQL (el upsert es SQL nativo). Sin transacción de test: cada
+ * workout confirma la suya, como completeWorkout.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(ExerciseProgressService.class)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:exercise-progress;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@DisplayName("ExerciseProgressService Persistence Tests")
+class ExerciseProgressPersistenceTest {
+
+    // Miércoles y jueves de la semana que empieza el lunes 2025-03-03
+    private static final LocalDate WEEK_START = LocalDate.of(2025, 3, 3);
+
+    @Autowired
+    private ExerciseProgressService exerciseProgressService;
+
+    @Autowired
+    private ExerciseProgressRepository exerciseProgressRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Long memberId;
+    private Long workoutExerciseId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            Trainer trainer = Trainer.builder()
+                    .user(user("coach", UserType.TRAINER))
+                    .firstName("Laura")
+                    .lastName("Coach")
+                    .specialty("Fuerza")
+                    .certifications("NSCA-CPT")
+                    .hourlyRate(BigDecimal.valueOf(25))
+                    .isActive(true)
+                    .maxMembers(20)
+                    .build();
+            entityManager.persist(trainer);
+            Member member = Member.builder()
+                    .user(user("member", UserType.MEMBER))
+                    .firstName("Juan")
+                    .lastName("Pérez")
+                    .phone("+5491100000000")
+                    .dateOfBirth(LocalDate.of(1990, 1, 1))
+                    .membershipStartDate(LocalDate.of(2025, 1, 1))
+                    .membershipEndDate(LocalDate.now().plusMonths(1))
+                    .assignedTrainer(trainer)
+                    .build();
+            entityManager.persist(member);
+            WorkoutPlan plan = WorkoutPlan.builder()
+                    .name("Fuerza")
+                    .member(member)
+                    .trainer(trainer)
+                    .status(WorkoutPlanStatus.ACTIVE)
+                    .startDate(LocalDate.of(2025, 1, 1))
+                    .build();
+            entityManager.persist(plan);
+            WorkoutDay day = WorkoutDay.builder().workoutPlan(plan).dayName("Día 1").dayNumber(1).build();
+            entityManager.persist(day);
+            Exercise squat = Exercise.builder()
+                    .name("Sentadilla")
+                    .category(ExerciseCategory.STRENGTH)
+                    .primaryMuscle(MuscleGroup.QUADS)
+                    .difficulty(DifficultyLevel.INTERMEDIATE)
+                    .build();
+            entityManager.persist(squat);
+            WorkoutExercise workoutExercise = WorkoutExercise.builder()
+                    .workoutDay(day)
+                    .exercise(squat)
+                    .sets(3)
+                    .reps(10)
+                    .orderInWorkout(1)
+                    .build();
+            entityManager.persist(workoutExercise);
+            memberId = member.getId();
+            workoutExerciseId = workoutExercise.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String table : new String[]{"exercise_progress", "workout_exercises", "exercises", "workout_days",
+                "workout_plans", "members", "trainers", "users"}) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+
+    @Test
+    @DisplayName("recordWorkout - Dos workouts de la misma semana suman sobre una sola fila")
+    void recordWorkout_SameWeekAccumulates() {
+        recordWorkout(LocalDate.of(2025, 3, 5), 80.0);
+        recordWorkout(LocalDate.of(2025, 3, 6), 90.0);
+
+        assertWeek(2, 3 * 10 * 80.0 + 3 * 10 * 90.0, 90.0);
+    }
+
+    @Test
+    @DisplayName("recordWorkout - Dos workouts concurrentes de la misma semana no pierden ninguna suma")
+    void recordWorkout_ConcurrentSameWeek() throws Exception {
+        CountDownLatch firstLocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // El primero toma el lock de la fila y no confirma hasta que el segundo ya está esperando
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            exerciseProgressService.recordWorkout(member(), LocalDate.of(2025, 3, 5), List.of(log(80.0)));
+            entityManager.flush();
+            firstLocked.countDown();
+            await(release);
+        }));
+        assertThat(firstLocked.await(10, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> recordWorkout(LocalDate.of(2025, 3, 6), 90.0));
+        Thread.sleep(300);
+        release.countDown();
+
+        first.get(10, TimeUnit.SECONDS);
+        second.get(10, TimeUnit.SECONDS);
+
+        assertWeek(2, 3 * 10 * 80.0 + 3 * 10 * 90.0, 90.0);
+    }
+
+    private void recordWorkout(LocalDate date, double weight) {
+        transactionTemplate.executeWithoutResult(status ->
+                exerciseProgressService.recordWorkout(member(), date, List.of(log(weight))));
+    }
+
+    private void assertWeek(int sessions, double volume, double bestWeight) {
+        List<ExerciseProgress> weeks = transactionTemplate.execute(status ->
+                exerciseProgressRepository.findAll());
+        assertThat(weeks).hasSize(1);
+        ExerciseProgress week = weeks.get(0);
+        assertThat(week.getWeekStart()).isEqualTo(WEEK_START);
+        assertThat(week.getSessions()).isEqualTo(sessions);
+        assertThat(week.getVolume()).isEqualTo(volume);
+        assertThat(week.getBestWeight()).isEqualTo(bestWeight);
+    }
+
+    private Member member() {
+        return memberRepository.findById(memberId).orElseThrow();
+    }
+
+    private ExerciseLog log(double weight) {
+        return ExerciseLog.builder()
+                .workoutExercise(entityManager.find(WorkoutExercise.class, workoutExerciseId))
+                .setsCompleted(3)
+                .repsCompleted(10)
+                .weightUsed(weight)
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private User user(String username, UserType userType) {
+        User user = User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("hash")
+                .role(UserRole.USER)
+                .userType(userType)
+                .enabled(true)
+                .build();
+        entityManager.persist(user);
+        return user;
+    }
+}
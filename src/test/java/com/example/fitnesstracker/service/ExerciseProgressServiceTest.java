@@ -0,0 +1,146 @@
+package com.example.fitnesstracker.service;
+
+import com.example.fitnesstracker.dto.response.workout.ExerciseProgressDTO;
+import com.example.fitnesstracker.exception.InvalidUserDataException;
+import com.example.fitnesstracker.model.Exercise;
+import com.example.fitnesstracker.model.ExerciseLog;
+import com.example.fitnesstracker.model.ExerciseProgress;
+import com.example.fitnesstracker.model.Member;
+import com.example.fitnesstracker.model.WorkoutExercise;
+import com.example.fitnesstracker.repository.ExerciseProgressRepository;
+import com.example.fitnesstracker.repository.ExerciseRepository;
+import com.example.fitnesstracker.util.OneRepMax;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExerciseProgressService Unit Tests")
+class ExerciseProgressServiceTest {
+
+    // Miércoles; la semana empieza el lunes 2025-03-03
+    private static final LocalDate WORKOUT_DATE = LocalDate.of(2025, 3, 5);
+    private static final LocalDate WEEK_START = LocalDate.of(2025, 3, 3);
+
+    @Mock
+    private ExerciseProgressRepository exerciseProgressRepository;
+
+    @Mock
+    private ExerciseRepository exerciseRepository;
+
+    @InjectMocks
+    private ExerciseProgressService exerciseProgressService;
+
+    private Member member;
+    private Exercise exercise;
+    private WorkoutExercise workoutExercise;
+
+    @BeforeEach
+    void setUp() {
+        member = Member.builder().id(1L).build();
+        exercise = Exercise.builder().name("Sentadilla").build();
+        exercise.setId(10L);
+        workoutExercise = WorkoutExercise.builder().exercise(exercise).build();
+    }
+
+    @Test
+    @DisplayName("recordWorkout - Debería crear el agregado semanal con la mejor serie")
+    void recordWorkout_NewWeek() {
+        // La fila que deja insertWeekIfAbsent: todo en cero
+        ExerciseProgress created = ExerciseProgress.builder().member(member).exercise(exercise).weekStart(WEEK_START).build();
+        when(exerciseProgressRepository.findWeekForUpdate(1L, 10L, WEEK_START)).thenReturn(Optional.of(created));
+
+        exerciseProgressService.recordWorkout(member, WORKOUT_DATE, List.of(log(3, 10, 80.0), log(2, 5, 100.0)));
+
+        // Primero asegura la fila, después la lee con lock
+        InOrder inOrder = inOrder(exerciseProgressRepository);
+        inOrder.verify(exerciseProgressRepository).insertWeekIfAbsent(1L, 10L, WEEK_START);
+        inOrder.verify(exerciseProgressRepository).findWeekForUpdate(1L, 10L, WEEK_START);
+        ArgumentCaptor<ExerciseProgress> captor = ArgumentCaptor.forClass(ExerciseProgress.class);
+        inOrder.verify(exerciseProgressRepository).save(captor.capture());
+        ExerciseProgress progress = captor.getValue();
+        assertThat(progress.getWeekStart()).isEqualTo(WEEK_START);
+        assertThat(progress.getSessions()).isEqualTo(1);
+        assertThat(progress.getTotalSets()).isEqualTo(5);
+        assertThat(progress.getVolume()).isEqualTo(3 * 10 * 80.0 + 2 * 5 * 100.0);
+        assertThat(progress.getBestWeight()).isEqualTo(100.0);
+        assertThat(progress.getBestWeightReps()).isEqualTo(5);
+        assertThat(progress.getBestEstimatedOneRepMax())
+                .isEqualTo(Math.max(OneRepMax.estimate(80.0, 10), OneRepMax.estimate(100.0, 5)));
+    }
+
+    @Test
+    @DisplayName("recordWorkout - Debería acumular sobre la semana existente")
+    void recordWorkout_ExistingWeek() {
+        ExerciseProgress existing = ExerciseProgress.builder()
+                .member(member).exercise(exercise).weekStart(WEEK_START)
+                .sessions(1).totalSets(3).totalReps(30).volume(2400.0)
+                .bestWeight(80.0).bestWeightReps(10).bestEstimatedOneRepMax(OneRepMax.estimate(80.0, 10))
+                .build();
+        when(exerciseProgressRepository.findWeekForUpdate(1L, 10L, WEEK_START)).thenReturn(Optional.of(existing));
+
+        exerciseProgressService.recordWorkout(member, WORKOUT_DATE, List.of(log(3, 10, 70.0)));
+
+        assertThat(existing.getSessions()).isEqualTo(2);
+        assertThat(existing.getTotalSets()).isEqualTo(6);
+        assertThat(existing.getBestWeight()).isEqualTo(80.0);
+        verify(exerciseProgressRepository).save(existing);
+    }
+
+    @Test
+    @DisplayName("getProgress - Debería reducir la serie conservando el máximo de cada bucket")
+    void getProgress_Downsamples() {
+        List<ExerciseProgress> weeks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            weeks.add(ExerciseProgress.builder()
+                    .weekStart(WEEK_START.plusWeeks(i))
+                    .bestEstimatedOneRepMax(100.0 + i)
+                    .bestWeight(80.0 + i)
+                    .volume(1000.0)
+                    .sessions(2)
+                    .build());
+        }
+        when(exerciseRepository.findById(10L)).thenReturn(Optional.of(exercise));
+        when(exerciseProgressRepository.findByMember_IdAndExercise_IdOrderByWeekStartAsc(1L, 10L)).thenReturn(weeks);
+
+        ExerciseProgressDTO result = exerciseProgressService.getProgress(1L, 10L, 4);
+
+        assertThat(result.getTotalWeeks()).isEqualTo(10);
+        assertThat(result.getPoints()).hasSize(4);
+        assertThat(result.getPoints().get(0).getWeeks()).isEqualTo(3);
+        assertThat(result.getPoints().get(0).getEstimatedOneRepMax()).isEqualTo(102.0);
+        assertThat(result.getPoints().get(0).getWeeklyVolume()).isEqualTo(1000.0);
+        assertThat(result.getBestEstimatedOneRepMax()).isEqualTo(109.0);
+    }
+
+    @Test
+    @DisplayName("getProgress - Debería lanzar excepción con maxPoints inválido")
+    void getProgress_InvalidMaxPoints() {
+        assertThatThrownBy(() -> exerciseProgressService.getProgress(1L, 10L, 1))
+                .isInstanceOf(InvalidUserDataException.class);
+    }
+
+    private ExerciseLog log(int sets, int reps, double weight) {
+        return ExerciseLog.builder()
+                .workoutExercise(workoutExercise)
+                .setsCompleted(sets)
+                .repsCompleted(reps)
+                .weightUsed(weight)
+                .build();
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.fitnesstracker.service;
+
+import com.example.fitnesstracker.dto.response.leaderboard.LeaderboardDTO;
+import com.example.fitnesstracker.dto.response.leaderboard.LeaderboardEntryDTO;
+import com.example.fitnesstracker.dto.response.leaderboard.MemberRankDTO;
+import com.example.fitnesstracker.enums.LeaderboardMetric;
+import com.example.fitnesstracker.exception.InvalidUserDataException;
+import com.example.fitnesstracker.model.ExerciseLog;
+import com.example.fitnesstracker.model.Member;
+import com.example.fitnesstracker.model.Trainer;
+import com.example.fitnesstracker.repository.ExerciseProgressRepository;
+import com.example.fitnesstracker.repository.LeaderboardScoreProjection;
+import com.example.fitnesstracker.repository.MemberRepository;
+import com.example.fitnesstracker.repository.RankedMemberProjection;
+import com.example.fitnesstracker.repository.WorkoutCompletionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LeaderboardService Unit Tests")
+class LeaderboardServiceTest {
+
+    @Mock
+    private MemberRepository memberRepository;
+    @Mock
+    private ExerciseProgressRepository exerciseProgressRepository;
+    @Mock
+    private WorkoutCompletionRepository workoutCompletionRepository;
+    @Mock
+    private TrainingCalendarService trainingCalendarService;
+
+    @InjectMocks
+    private LeaderboardService leaderboardService;
+
+    @BeforeEach
+    void setUp() {
+        when(memberRepository.findRankedMembers()).thenReturn(List.of(
+                member(1L, "Ana", 10L), member(2L, "Bruno", 10L), member(3L, "Carla", 20L), member(4L, "Diego", null)));
+        when(exerciseProgressRepository.findWeeklyVolumeScores(any())).thenReturn(List.of(
+                score(1L, 5000.0), score(2L, 8000.0), score(3L, 6500.0)));
+        when(workoutCompletionRepository.findWeeklyCompletionScores(any())).thenReturn(List.of(
+                score(1L, 3L), score(2L, 2L), score(3L, 3L), score(4L, 1L)));
+        when(trainingCalendarService.getCurrentStreaks()).thenReturn(Map.of(1L, 4, 3L, 9));
+        leaderboardService.rebuild();
+    }
+
+    @Test
+    @DisplayName("getLeaderboard - Debería ordenar el gimnasio por puntaje y desempatar por id")
+    void getLeaderboard_Gym() {
+        LeaderboardDTO volume = leaderboardService.getLeaderboard(LeaderboardMetric.WEEKLY_VOLUME, null, 0, 10);
+        assertThat(volume.getEntries()).extracting(LeaderboardEntryDTO::getMemberId).containsExactly(2L, 3L, 1L);
+        assertThat(volume.getEntries().get(0).getMemberName()).isEqualTo("Bruno Test");
+        assertThat(volume.getTotalMembers()).isEqualTo(3);
+
+        LeaderboardDTO completions = leaderboardService.getLeaderboard(LeaderboardMetric.WEEKLY_COMPLETIONS, null, 1, 2);
+        assertThat(completions.getEntries()).extracting(LeaderboardEntryDTO::getRank).containsExactly(2, 3);
+        assertThat(completions.getEntries()).extracting(LeaderboardEntryDTO::getMemberId).containsExactly(3L, 2L);
+    }
+
+    @Test
+    @DisplayName("getLeaderboard - Debería limitar el ranking a los members del trainer")
+    void getLeaderboard_Trainer() {
+        LeaderboardDTO result = leaderboardService.getLeaderboard(LeaderboardMetric.WEEKLY_VOLUME, 10L, 0, 10);
+
+        assertThat(result.getEntries()).extracting(LeaderboardEntryDTO::getMemberId).containsExactly(2L, 1L);
+        assertThat(leaderboardService.getLeaderboard(LeaderboardMetric.STREAK, 99L, 0, 10).getEntries()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("getMemberRank - Debería devolver la posición en el gimnasio y en su trainer")
+    void getMemberRank() {
+        MemberRankDTO result = leaderboardService.getMemberRank(LeaderboardMetric.WEEKLY_VOLUME, 1L);
+
+        assertThat(result.getGymRank()).isEqualTo(3);
+        assertThat(result.getTrainerRank()).isEqualTo(2);
+        assertThat(result.getTrainerTotal()).isEqualTo(2);
+
+        MemberRankDTO unranked = leaderboardService.getMemberRank(LeaderboardMetric.WEEKLY_VOLUME, 4L);
+        assertThat(unranked.getGymRank()).isNull();
+        assertThat(unranked.getScore()).isZero();
+    }
+
+    @Test
+    @DisplayName("recordCompletion - Debería sumar el workout y mover al member si cambió de trainer")
+    void recordCompletion_UpdatesIncrementally() {
+        Trainer trainer = Trainer.builder().build();
+        trainer.setId(20L);
+        Member ana = Member.builder().id(1L).firstName("Ana").lastName("Test").assignedTrainer(trainer).build();
+        ExerciseLog squat = ExerciseLog.builder().setsCompleted(4).repsCompleted(10).weightUsed(100.0).build();
+
+        leaderboardService.recordCompletion(ana, LocalDate.now(), List.of(squat), 5);
+
+        assertThat(leaderboardService.getMemberRank(LeaderboardMetric.WEEKLY_VOLUME, 1L).getGymRank()).isEqualTo(1);
+        assertThat(leaderboardService.getLeaderboard(LeaderboardMetric.WEEKLY_VOLUME, 10L, 0, 10).getEntries())
+                .extracting(LeaderboardEntryDTO::getMemberId).containsExactly(2L);
+        assertThat(leaderboardService.getLeaderboard(LeaderboardMetric.WEEKLY_COMPLETIONS, 20L, 0, 10).getEntries())
+                .extracting(LeaderboardEntryDTO::getMemberId).containsExactly(1L, 3L);
+        assertThat(leaderboardService.getMemberRank(LeaderboardMetric.STREAK, 1L).getScore()).isEqualTo(5.0);
+    }
+
+    @Test
+    @DisplayName("recordCompletion - Las posiciones deberían coincidir con ordenar todos los puntajes")
+    void recordCompletion_MatchesFullSort() {
+        Random random = new Random(42);
+        Map<Long, Double> expected = new HashMap<>(Map.of(1L, 5000.0, 2L, 8000.0, 3L, 6500.0));
+        for (int i = 0; i < 2000; i++) {
+            long id = 1 + random.nextInt(4);
+            int reps = 1 + random.nextInt(3);
+            Member m = Member.builder().id(id).firstName("M").lastName(String.valueOf(id)).build();
+            leaderboardService.recordCompletion(m, LocalDate.now(),
+                    List.of(ExerciseLog.builder().setsCompleted(1).repsCompleted(reps).weightUsed(10.0).build()), 1);
+            expected.merge(id, reps * 10.0, Double::sum);
+        }
+
+        List<Long> sorted = new ArrayList<>(expected.keySet());
+        sorted.sort(Comparator.<Long, Double>comparing(expected::get).reversed().thenComparing(Comparator.naturalOrder()));
+        for (int i = 0; i < sorted.size(); i++) {
+            MemberRankDTO rank = leaderboardService.getMemberRank(LeaderboardMetric.WEEKLY_VOLUME, sorted.get(i));
+            assertThat(rank.getGymRank()).isEqualTo(i + 1);
+            assertThat(rank.getScore()).isEqualTo(expected.get(sorted.get(i)));
+        }
+    }
+
+    @Test
+    @DisplayName("getLeaderboard - Debería rechazar un limit fuera de rango")
+    void getLeaderboard_InvalidLimit() {
+        assertThatThrownBy(() -> leaderboardService.getLeaderboard(LeaderboardMetric.STREAK, null, 0, 500))
+                .isInstanceOf(InvalidUserDataException.class);
+    }
+
+    private RankedMemberProjection member(Long id, String firstName, Long trainerId) {
+        return new RankedMemberProjection() {
+            public Long getMemberId() { return id; }
+            public String getFirstName() { return firstName; }
+            public String getLastName() { return "Test"; }
+            public Long getTrainerId() { return trainerId; }
+        };
+    }
+
+    private LeaderboardScoreProjection score(Long memberId, Number value) {
+        return new LeaderboardScoreProjection() {
+            public Long getMemberId() { return memberId; }
+            public Number getScore() { return value; }
+        };
+    }
+}
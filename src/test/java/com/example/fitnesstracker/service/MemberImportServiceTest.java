@@ -0,0 +1,142 @@
+package com.example.fitnesstracker.service;
+
+import com.example.fitnesstracker.dto.response.MemberImportErrorDTO;
+import com.example.fitnesstracker.dto.response.MemberImportResultDTO;
+import com.example.fitnesstracker.enums.MemberImportFormat;
+import com.example.fitnesstracker.exception.InvalidUserDataException;
+import com.example.fitnesstracker.repository.MemberImportRepository;
+import com.example.fitnesstracker.repository.MemberImportRepository.NewMember;
+import com.example.fitnesstracker.security.AdaptivePasswordEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MemberImportService Unit Tests")
+class MemberImportServiceTest {
+
+    private static final String HEADER = "username,email,password,firstName,lastName,phone,dateOfBirth\n";
+
+    @Mock
+    private MemberImportRepository memberImportRepository;
+    @Mock
+    private AdaptivePasswordEncoder passwordEncoder;
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    @Spy
+    private ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private MemberImportService memberImportService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(memberImportService, "batchSize", 2);
+        ReflectionTestUtils.setField(memberImportService, "threads", 2);
+        ReflectionTestUtils.setField(memberImportService, "maxErrors", 100);
+        lenient().when(memberImportRepository.findExistingUsernames(anyCollection())).thenReturn(Set.of());
+        lenient().when(memberImportRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+        lenient().when(memberImportRepository.findExistingPhones(anyCollection())).thenReturn(Set.of());
+        lenient().when(passwordEncoder.encodeInCallerThread(anyString())).thenAnswer(inv -> "hash:" + inv.getArgument(0));
+    }
+
+    @Test
+    @DisplayName("importMembers - CSV: debería insertar por lotes las filas válidas e informar las inválidas")
+    @SuppressWarnings("unchecked")
+    void importMembers_Csv() {
+        when(memberImportRepository.findExistingEmails(anyCollection())).thenReturn(Set.of("taken@example.com"));
+        String csv = HEADER
+                + "ana,ana@example.com,SecurePass123!,Ana,\"Gómez, Jr\",+3411111,1990-01-10\n"
+                + "bob,not-an-email,SecurePass123!,Bob,Smith,+3422222,1990-01-10\n"
+                + "kid,kid@example.com,SecurePass123!,Kid,Young,+3433333," + LocalDate.now().minusYears(10) + "\n"
+                + "ANA,other@example.com,SecurePass123!,Ana,Dup,+3444444,1990-01-10\n"
+                + "carl,taken@example.com,SecurePass123!,Carl,Lee,+3455555,1990-01-10\n"
+                + "dina,dina@example.com,SecurePass123!,Dina,Ro,+3466666,1991-13-40\n";
+
+        MemberImportResultDTO result = memberImportService.importMembers(input(csv), MemberImportFormat.CSV, false);
+
+        assertThat(result.getTotalRows()).isEqualTo(6);
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(5);
+        assertThat(result.getBatches()).isEqualTo(3);
+        assertThat(result.getErrors())
+                .extracting(MemberImportErrorDTO::getLine, MemberImportErrorDTO::getField)
+                .containsExactly(
+                        tuple(3, "email"),
+                        tuple(4, "dateOfBirth"),
+                        tuple(5, "username"),
+                        tuple(6, "email"),
+                        tuple(7, "dateOfBirth"));
+
+        ArgumentCaptor<List<NewMember>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(memberImportRepository).insertMembers(inserted.capture(), any(), any());
+        NewMember ana = inserted.getValue().get(0);
+        assertThat(ana.lastName()).isEqualTo("Gómez, Jr");
+        assertThat(ana.passwordHash()).isEqualTo("hash:SecurePass123!");
+        verify(passwordEncoder, times(1)).encodeInCallerThread(anyString());
+    }
+
+    @Test
+    @DisplayName("importMembers - NDJSON en dry run: debería validar sin hashear ni insertar")
+    void importMembers_NdjsonDryRun() {
+        String ndjson = """
+                {"username":"ana","email":"ana@example.com","password":"SecurePass123!","firstName":"Ana","lastName":"Gómez","phone":"+3411111","dateOfBirth":"1990-01-10"}
+
+                {"username":"bob",
+                {"username":"carl","email":"carl@example.com","password":"weak","firstName":"Carl","lastName":"Lee","phone":"+3455555","dateOfBirth":"1990-01-10"}
+                """;
+
+        MemberImportResultDTO result = memberImportService.importMembers(input(ndjson), MemberImportFormat.NDJSON, true);
+
+        assertThat(result.getDryRun()).isTrue();
+        assertThat(result.getTotalRows()).isEqualTo(3);
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting(MemberImportErrorDTO::getLine).containsExactly(3, 4);
+        assertThat(result.getErrors().get(1).getField()).isEqualTo("password");
+        verifyNoInteractions(passwordEncoder, transactionManager);
+        verify(memberImportRepository, never()).insertMembers(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("importMembers - Debería rechazar un CSV sin las columnas requeridas")
+    void importMembers_MissingColumns() {
+        assertThatThrownBy(() -> memberImportService.importMembers(input("username,email\nana,ana@example.com\n"),
+                MemberImportFormat.CSV, false))
+                .isInstanceOf(InvalidUserDataException.class)
+                .hasMessageContaining("password");
+        verifyNoInteractions(memberImportRepository);
+    }
+
+    private static InputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
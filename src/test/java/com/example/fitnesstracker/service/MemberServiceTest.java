@@ -5,13 +5,17 @@ import com.example.fitnesstracker.dto.request.member.UpdateMemberDTO;
 import com.example.fitnesstracker.dto.response.MemberDTO;
 import com.example.fitnesstracker.enums.UserType;
 import com.example.fitnesstracker.exception.InvalidUserDataException;
+import com.example.fitnesstracker.exception.PreconditionFailedException;
 import com.example.fitnesstracker.exception.ResourceNotFoundException;
 import com.example.fitnesstracker.exception.UserAlreadyExistsException;
 import com.example.fitnesstracker.mapper.MemberMapper;
 import com.example.fitnesstracker.model.Member;
 import com.example.fitnesstracker.model.User;
 import com.example.fitnesstracker.repository.MemberRepository;
+import com.example.fitnesstracker.repository.TrainerRepository;
 import com.example.fitnesstracker.repository.UserRepository;
+import com.example.fitnesstracker.util.SoftDeleteFilter;
+import com.example.fitnesstracker.util.FieldSelection;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -23,6 +27,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -45,6 +50,18 @@ class MemberServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private SoftDeleteFilter softDeleteFilter;
+
+    @Mock
+    private TrainerRepository trainerRepository;
+
+    @Mock
+    private TrainerLoadService trainerLoadService;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
     @InjectMocks
     private MemberService memberService;
 
@@ -56,6 +73,9 @@ class MemberServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(softDeleteFilter.withDeleted(any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+
         registerDto = RegisterMemberDTO.builder()
                 .username("testuser")
                 .email("test@example.com")
@@ -134,7 +154,7 @@ class MemberServiceTest {
     @DisplayName("getMemberById - Debería retornar miembro por ID")
     void getMemberById_Success() {
         when(memberRepository.findByIdWithFullProfile(1L)).thenReturn(Optional.of(member));
-        when(memberMapper.toDTO(member)).thenReturn(memberDto);
+        when(memberMapper.toDTO(member, FieldSelection.ALL)).thenReturn(memberDto);
 
         MemberDTO result = memberService.getMemberById(1L);
 
@@ -165,7 +185,7 @@ class MemberServiceTest {
     @DisplayName("getAllMembers - Debería retornar lista de miembros activos")
     void getAllMembers_Success() {
         when(memberRepository.findAllActiveWithValidMembership(any(LocalDate.class))).thenReturn(List.of(member));
-        when(memberMapper.toDTO(member)).thenReturn(memberDto);
+        when(memberMapper.toDTO(member, FieldSelection.ALL)).thenReturn(memberDto);
 
         List<MemberDTO> result = memberService.getAllMembers();
 
@@ -179,15 +199,28 @@ class MemberServiceTest {
     @DisplayName("updateMember - Debería actualizar miembro exitosamente")
     void updateMember_Success() {
         when(memberRepository.findById(1L)).thenReturn(Optional.of(member));
-        when(memberRepository.save(member)).thenReturn(member);
+        when(memberRepository.saveAndFlush(member)).thenReturn(member);
         when(memberMapper.toDTO(member)).thenReturn(memberDto);
 
-        MemberDTO result = memberService.updateMember(1L, updateDto);
+        MemberDTO result = memberService.updateMember(1L, updateDto, null);
 
         assertThat(result).isEqualTo(memberDto);
         verify(memberMapper).updateFromDTO(updateDto, member);
     }
 
+    @Test
+    @DisplayName("updateMember - Debería fallar si If-Match no coincide con la versión actual")
+    void updateMember_StaleVersion() {
+        member.setVersion(5L);
+        when(memberRepository.findById(1L)).thenReturn(Optional.of(member));
+
+        assertThatThrownBy(() -> memberService.updateMember(1L, updateDto, 4L))
+                .isInstanceOf(PreconditionFailedException.class);
+
+        verify(memberMapper, never()).updateFromDTO(any(), any());
+        verify(memberRepository, never()).saveAndFlush(any());
+    }
+
     @Test
     @DisplayName("updateMember - Debería lanzar excepción con teléfono duplicado")
     void updateMember_DuplicatePhone() {
@@ -195,7 +228,7 @@ class MemberServiceTest {
         when(memberRepository.findById(1L)).thenReturn(Optional.of(member));
         when(memberRepository.existsByPhoneAndDeletedAtIsNull(anyString())).thenReturn(true);
 
-        assertThatThrownBy(() -> memberService.updateMember(1L, updateDto))
+        assertThatThrownBy(() -> memberService.updateMember(1L, updateDto, null))
                 .isInstanceOf(UserAlreadyExistsException.class);
     }
 
@@ -232,7 +265,7 @@ class MemberServiceTest {
     @DisplayName("getMembersByTrainer - Debería retornar lista de miembros por entrenador")
     void getMembersByTrainer_Success() {
         when(memberRepository.findActiveByTrainerIdWithUser(1L)).thenReturn(List.of(member));
-        when(memberMapper.toDTO(member)).thenReturn(memberDto);
+        when(memberMapper.toDTO(member, FieldSelection.ALL)).thenReturn(memberDto);
 
         List<MemberDTO> result = memberService.getMembersByTrainer(1L);
 
@@ -0,0 +1,111 @@
+package com.example.fitnesstracker.service;
+
+import com.example.fitnesstracker.dto.response.MembershipExpiryRunDTO;
+import com.example.fitnesstracker.enums.OutboxEventType;
+import com.example.fitnesstracker.repository.MembershipExpiryRepository;
+import com.example.fitnesstracker.repository.MembershipExpiryRepository.ExpiryKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MembershipExpiryService Unit Tests")
+class MembershipExpiryServiceTest {
+
+    @Mock
+    private MembershipExpiryRepository membershipExpiryRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TrainerLoadService trainerLoadService;
+
+    @InjectMocks
+    private MembershipExpiryService membershipExpiryService;
+
+    private final LocalDate today = LocalDate.now();
+    private final LocalDate notifyFrom = today.minusDays(30);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(membershipExpiryService, "chunkSize", 2);
+        ReflectionTestUtils.setField(membershipExpiryService, "noticeDays", 7);
+        ReflectionTestUtils.setField(membershipExpiryService, "lookbackDays", 30);
+    }
+
+    @Test
+    @DisplayName("run - Debería avanzar el cursor por lotes y notificar solo los vencimientos recientes")
+    void run_ExpiredChunks() {
+        LocalDate old = today.minusDays(90);
+        LocalDate recent = today.minusDays(2);
+        when(membershipExpiryRepository.findChunk(eq(LocalDate.EPOCH), eq(notifyFrom), eq(true), any(), anyLong(), eq(2)))
+                .thenReturn(List.of(new ExpiryKey(7L, old)));
+        when(membershipExpiryRepository.findChunk(eq(notifyFrom), eq(today), eq(false), any(), anyLong(), eq(2)))
+                .thenReturn(List.of(new ExpiryKey(4L, recent), new ExpiryKey(3L, recent)))
+                .thenReturn(List.of(new ExpiryKey(5L, recent)));
+        when(membershipExpiryRepository.findChunk(eq(today), eq(today.plusDays(8)), eq(false), any(), anyLong(), anyInt()))
+                .thenReturn(List.of());
+        when(membershipExpiryRepository.insertNotifications(anyList(), eq(OutboxEventType.MEMBERSHIP_EXPIRED))).thenReturn(1);
+        when(membershipExpiryRepository.releaseAssignments(anyList())).thenReturn(1);
+
+        MembershipExpiryRunDTO result = membershipExpiryService.run();
+
+        assertThat(result.getScannedMembers()).isEqualTo(4);
+        assertThat(result.getChunks()).isEqualTo(3);
+        assertThat(result.getReleasedAssignments()).isEqualTo(3);
+        // Segundo lote: el cursor sigue desde la última fila del primero
+        verify(membershipExpiryRepository).findChunk(notifyFrom, today, false, recent, 3L, 2);
+        verify(membershipExpiryRepository).insertNotifications(List.of(4L, 3L), OutboxEventType.MEMBERSHIP_EXPIRED);
+        verify(membershipExpiryRepository).insertNotifications(List.of(5L), OutboxEventType.MEMBERSHIP_EXPIRED);
+        verify(membershipExpiryRepository, never()).insertNotifications(List.of(7L), OutboxEventType.MEMBERSHIP_EXPIRED);
+        verify(membershipExpiryRepository).releaseTrainerSlots(List.of(7L));
+        verify(membershipExpiryRepository).releaseAssignments(List.of(7L));
+        verify(transactionManager, times(3)).commit(any());
+        verify(trainerLoadService).rebuild();
+    }
+
+    @Test
+    @DisplayName("run - Antes de la ventana de aviso solo debería recorrer los members que siguen asignados")
+    void run_OldExpiredOnlyAssigned() {
+        when(membershipExpiryRepository.findChunk(any(), any(), anyBoolean(), any(), anyLong(), anyInt()))
+                .thenReturn(List.of());
+
+        membershipExpiryService.run();
+
+        verify(membershipExpiryRepository).findChunk(LocalDate.EPOCH, notifyFrom, true, LocalDate.EPOCH, 0L, 2);
+        verify(membershipExpiryRepository, never()).findChunk(eq(LocalDate.EPOCH), any(), eq(false), any(), anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("run - Debería notificar las membresías por vencer sin liberar trainers")
+    void run_ExpiringSoon() {
+        when(membershipExpiryRepository.findChunk(any(), any(), anyBoolean(), any(), anyLong(), anyInt()))
+                .thenReturn(List.of());
+        when(membershipExpiryRepository.findChunk(eq(today), eq(today.plusDays(8)), eq(false), any(), anyLong(), anyInt()))
+                .thenReturn(List.of(new ExpiryKey(9L, today.plusDays(3))));
+        when(membershipExpiryRepository.insertNotifications(List.of(9L), OutboxEventType.MEMBERSHIP_EXPIRING)).thenReturn(1);
+
+        MembershipExpiryRunDTO result = membershipExpiryService.run();
+
+        assertThat(result.getExpiringNotifications()).isEqualTo(1);
+        verify(membershipExpiryRepository, never()).releaseAssignments(anyList());
+    }
+}
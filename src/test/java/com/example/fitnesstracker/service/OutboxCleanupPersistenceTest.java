@@ -0,0 +1,166 @@
+package com.example.fitnesstracker.service;
+
+import com.example.fitnesstracker.enums.OutboxEventType;
+import com.example.fitnesstracker.enums.UserRole;
+import com.example.fitnesstracker.enums.UserType;
+import com.example.fitnesstracker.event.DomainEventBus;
+import com.example.fitnesstracker.model.Member;
+import com.example.fitnesstracker.model.OutboxEvent;
+import com.example.fitnesstracker.model.User;
+import com.example.fitnesstracker.repository.MembershipExpiryRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Depuración del outbox contra H2 en modo MySQL, seguida de otra pasada de notificaciones de
+ * vencimiento: la fila con el event_key tiene que seguir ahí para que no se vuelva a encolar.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({OutboxRelayService.class, MembershipExpiryRepository.class})
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox-cleanup;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "events.outbox.retention-days=7",
+        "membership.expiry.lookback-days=30",
+        "membership.expiry.notice-days=7"
+})
+@DisplayName("OutboxRelayService Cleanup Persistence Tests")
+class OutboxCleanupPersistenceTest {
+
+    @MockitoBean
+    private DomainEventBus domainEventBus;
+
+    @Autowired
+    private OutboxRelayService outboxRelayService;
+
+    @Autowired
+    private MembershipExpiryRepository membershipExpiryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Long memberId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = User.builder()
+                    .username("member")
+                    .email("member@example.com")
+                    .password("hash")
+                    .role(UserRole.USER)
+                    .userType(UserType.MEMBER)
+                    .enabled(true)
+                    .build();
+            entityManager.persist(user);
+            Member member = Member.builder()
+                    .user(user)
+                    .firstName("Juan")
+                    .lastName("Pérez")
+                    .phone("+5491100000000")
+                    .dateOfBirth(LocalDate.of(1990, 1, 1))
+                    .membershipStartDate(LocalDate.now().minusYears(1))
+                    .membershipEndDate(LocalDate.now().minusDays(10))
+                    .build();
+            entityManager.persist(member);
+            memberId = member.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String table : new String[]{"outbox_events", "members", "users"}) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+
+    @Test
+    @DisplayName("cleanupPublished - Un vencimiento ya notificado no se vuelve a encolar después de la depuración")
+    void cleanupPublished_KeepsExpiryNotificationWithinLookback() {
+        notifyExpired();
+        markAllPublished(LocalDateTime.now().minusDays(9));
+        insertPublished(OutboxEventType.WORKOUT_COMPLETED, LocalDateTime.now().minusDays(9));
+
+        outboxRelayService.cleanupPublished();
+        notifyExpired();
+
+        // El WORKOUT_COMPLETED se borra a los 7 días; la notificación sigue y no se duplica
+        assertThat(eventKeys()).containsExactly(expiredKey());
+    }
+
+    @Test
+    @DisplayName("cleanupPublished - Borra las notificaciones de vencimiento fuera de la ventana del job")
+    void cleanupPublished_DeletesExpiryNotificationAfterWindow() {
+        notifyExpired();
+        markAllPublished(LocalDateTime.now().minusDays(40));
+
+        outboxRelayService.cleanupPublished();
+
+        assertThat(eventKeys()).isEmpty();
+    }
+
+    // Lo que hace MembershipExpiryService con un member vencido dentro del lookback
+    private void notifyExpired() {
+        transactionTemplate.executeWithoutResult(status ->
+                membershipExpiryRepository.insertNotifications(List.of(memberId), OutboxEventType.MEMBERSHIP_EXPIRED));
+    }
+
+    private void markAllPublished(LocalDateTime publishedAt) {
+        jdbcTemplate.update("UPDATE outbox_events SET published_at = ?", publishedAt);
+    }
+
+    private void insertPublished(OutboxEventType type, LocalDateTime publishedAt) {
+        transactionTemplate.executeWithoutResult(status -> entityManager.persist(OutboxEvent.builder()
+                .aggregateType("MEMBER")
+                .aggregateId(memberId)
+                .eventType(type.name())
+                .eventKey(type.name() + ":" + memberId + ":" + UUID.randomUUID())
+                .payload("{}")
+                .publishedAt(publishedAt)
+                .build()));
+    }
+
+    private String expiredKey() {
+        return OutboxEventType.MEMBERSHIP_EXPIRED.name() + ":" + memberId + ":" + LocalDate.now().minusDays(10);
+    }
+
+    private List<String> eventKeys() {
+        return jdbcTemplate.queryForList("SELECT event_key FROM outbox_events", String.class);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.fitnesstracker.service;
+
+import com.example.fitnesstracker.event.DomainEvent;
+import com.example.fitnesstracker.event.DomainEventBus;
+import com.example.fitnesstracker.event.DomainEventSink;
+import com.example.fitnesstracker.event.LocalBrokerEventSink;
+import com.example.fitnesstracker.model.OutboxEvent;
+import com.example.fitnesstracker.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OutboxRelayService Unit Tests")
+class OutboxRelayServiceTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final LocalBrokerEventSink broker = new LocalBrokerEventSink();
+    private final List<DomainEvent> failing = new ArrayList<>();
+    private boolean failNext;
+    private Long brokenEventId;
+
+    private OutboxRelayService relayService;
+
+    @BeforeEach
+    void setUp() {
+        DomainEventSink flaky = new DomainEventSink() {
+            public String name() { return "flaky"; }
+            public void publish(List<DomainEvent> events) {
+                if (failNext) {
+                    failNext = false;
+                    failing.addAll(events);
+                    throw new IllegalStateException("sink caído");
+                }
+                if (events.stream().anyMatch(event -> brokenEventId != null && event.id() == brokenEventId)) {
+                    failing.addAll(events);
+                    throw new IllegalArgumentException("evento inválido");
+                }
+            }
+        };
+        relayService = new OutboxRelayService(outboxEventRepository, new DomainEventBus(List.of(broker, flaky)), transactionManager);
+        ReflectionTestUtils.setField(relayService, "batchSize", 2);
+        ReflectionTestUtils.setField(relayService, "maxAttempts", 10);
+    }
+
+    @Test
+    @DisplayName("relay - Debería publicar lotes hasta vaciar el outbox y marcarlos")
+    void relay_PublishesBatches() {
+        when(outboxEventRepository.findUnpublishedForUpdate(eq(10), any()))
+                .thenReturn(List.of(event(1L, "WORKOUT_COMPLETED"), event(2L, "WORKOUT_COMPLETED")))
+                .thenReturn(List.of(event(3L, "WORKOUT_PLAN_ACTIVATED")));
+
+        int published = relayService.relay();
+
+        assertThat(published).isEqualTo(3);
+        verify(outboxEventRepository).markPublished(eq(List.of(1L, 2L)), any());
+        verify(outboxEventRepository).markPublished(eq(List.of(3L)), any());
+        assertThat(broker.poll("WORKOUT_COMPLETED", 0, 10)).extracting(DomainEvent::id).containsExactly(1L, 2L);
+        assertThat(broker.endOffset("WORKOUT_PLAN_ACTIVATED")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("relay - Si un sink falla una vez debería reintentar el lote de a un evento y marcarlos")
+    void relay_SinkFailure() {
+        failNext = true;
+        when(outboxEventRepository.findUnpublishedForUpdate(anyInt(), any()))
+                .thenReturn(List.of(event(1L, "WORKOUT_COMPLETED"), event(2L, "WORKOUT_COMPLETED")));
+
+        int published = relayService.relay();
+
+        assertThat(published).isEqualTo(2);
+        assertThat(failing).hasSize(2);
+        verify(transactionManager).rollback(any());
+        verify(outboxEventRepository).markPublished(eq(List.of(1L, 2L)), any());
+        verify(outboxEventRepository, never()).incrementAttempts(any());
+    }
+
+    @Test
+    @DisplayName("relay - Un evento que falla no debería sumar intentos a los demás del lote")
+    void relay_OneBadEvent() {
+        brokenEventId = 2L;
+        when(outboxEventRepository.findUnpublishedForUpdate(anyInt(), any()))
+                .thenReturn(List.of(event(1L, "WORKOUT_COMPLETED"), event(2L, "WORKOUT_COMPLETED"), event(3L, "WORKOUT_COMPLETED")));
+
+        int published = relayService.relay();
+
+        assertThat(published).isEqualTo(2);
+        verify(outboxEventRepository).markPublished(eq(List.of(1L, 3L)), any());
+        verify(outboxEventRepository).incrementAttempts(List.of(2L));
+        // El relay se corta tras el lote con fallas: el próximo ciclo retoma desde ahí
+        verify(outboxEventRepository, times(2)).findUnpublishedForUpdate(anyInt(), any());
+    }
+
+    private OutboxEvent event(Long id, String type) {
+        OutboxEvent event = OutboxEvent.builder()
+                .aggregateType(OutboxEvent.AGGREGATE_MEMBER)
+                .aggregateId(1L)
+                .eventType(type)
+                .eventKey(type + ":" + id)
+                .payload("{}")
+                .build();
+        event.setId(id);
+        return event;
+    }
+}
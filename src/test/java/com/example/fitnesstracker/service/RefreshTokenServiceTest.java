@@ -0,0 +1,112 @@
+package com.example.fitnesstracker.service;
+
+import com.example.fitnesstracker.exception.UnauthorizedException;
+import com.example.fitnesstracker.model.User;
+import com.example.fitnesstracker.repository.RefreshTokenRepository;
+import com.example.fitnesstracker.repository.RefreshTokenRepository.StoredRefreshToken;
+import com.example.fitnesstracker.security.TokenRevocationList;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RefreshTokenService Unit Tests")
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private TokenRevocationList tokenRevocationList;
+
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+
+    @Test
+    @DisplayName("startSession - Debería guardar solo el hash del refresh token")
+    void startSession_StoresHash() {
+        User user = new User();
+        user.setId(7L);
+
+        RefreshTokenService.Session session = refreshTokenService.startSession(user);
+
+        ArgumentCaptor<byte[]> hash = ArgumentCaptor.forClass(byte[].class);
+        verify(refreshTokenRepository).insert(eq(7L), eq(session.sessionId()), hash.capture(), any(LocalDateTime.class));
+        assertThat(hash.getValue()).hasSize(32);
+        assertThat(session.refreshToken()).hasSize(43);
+    }
+
+    @Test
+    @DisplayName("rotate - Debería marcar el token como usado y emitir otro de la misma sesión")
+    void rotate_Success() {
+        when(refreshTokenRepository.findByHash(any()))
+                .thenReturn(Optional.of(stored(false, false, LocalDateTime.now().plusDays(1))));
+        when(refreshTokenRepository.markUsed(1L)).thenReturn(true);
+
+        RefreshTokenService.RotatedSession rotated = refreshTokenService.rotate("token");
+
+        assertThat(rotated.userId()).isEqualTo(7L);
+        assertThat(rotated.sessionId()).isEqualTo("sid-1");
+        assertThat(rotated.refreshToken()).isNotEqualTo("token");
+        verify(refreshTokenRepository).insert(eq(7L), eq("sid-1"), any(byte[].class), any(LocalDateTime.class));
+        verifyNoInteractions(tokenRevocationList);
+    }
+
+    @Test
+    @DisplayName("rotate - Debería revocar la sesión si el token ya se había usado")
+    void rotate_ReuseRevokesSession() {
+        when(refreshTokenRepository.findByHash(any()))
+                .thenReturn(Optional.of(stored(true, false, LocalDateTime.now().plusDays(1))));
+
+        assertThatThrownBy(() -> refreshTokenService.rotate("token"))
+                .isInstanceOf(UnauthorizedException.class);
+
+        verify(refreshTokenRepository).revokeFamily("sid-1");
+        verify(tokenRevocationList).revoke(List.of("sid-1"));
+        verify(refreshTokenRepository, never()).insert(anyLong(), anyString(), any(), any());
+    }
+
+    @Test
+    @DisplayName("rotate - Debería rechazar un token vencido sin revocar la sesión")
+    void rotate_Expired() {
+        when(refreshTokenRepository.findByHash(any()))
+                .thenReturn(Optional.of(stored(false, false, LocalDateTime.now().minusMinutes(1))));
+
+        assertThatThrownBy(() -> refreshTokenService.rotate("token"))
+                .isInstanceOf(UnauthorizedException.class);
+
+        verify(refreshTokenRepository, never()).markUsed(anyLong());
+        verifyNoInteractions(tokenRevocationList);
+    }
+
+    @Test
+    @DisplayName("revokeAllForUser - Debería revocar en la base y en el filtro de sesiones")
+    void revokeAllForUser() {
+        when(refreshTokenRepository.findActiveFamilies(7L)).thenReturn(List.of("sid-1", "sid-2"));
+
+        refreshTokenService.revokeAllForUser(7L);
+
+        verify(refreshTokenRepository).revokeUser(7L);
+        verify(tokenRevocationList).revoke(List.of("sid-1", "sid-2"));
+    }
+
+    private static StoredRefreshToken stored(boolean used, boolean revoked, LocalDateTime expiresAt) {
+        return new StoredRefreshToken(1L, 7L, "sid-1", expiresAt, used, revoked);
+    }
+}
@@ -4,11 +4,14 @@ import com.example.fitnesstracker.dto.request.assignment.RequestTrainerDTO;
 import com.example.fitnesstracker.dto.request.assignment.RespondRequestDTO;
 import com.example.fitnesstracker.dto.response.assignment.TrainerAssignmentRequestDTO;
 import com.example.fitnesstracker.enums.AssignmentStatus;
+import com.example.fitnesstracker.enums.OutboxEventType;
 import com.example.fitnesstracker.enums.RequestStatus;
 import com.example.fitnesstracker.exception.InvalidUserDataException;
+import com.example.fitnesstracker.exception.PreconditionFailedException;
 import com.example.fitnesstracker.exception.ResourceNotFoundException;
 import com.example.fitnesstracker.mapper.TrainerAssignmentRequestMapper;
 import com.example.fitnesstracker.model.Member;
+import com.example.fitnesstracker.model.OutboxEvent;
 import com.example.fitnesstracker.model.Trainer;
 import com.example.fitnesstracker.model.TrainerAssignmentRequest;
 import com.example.fitnesstracker.repository.MemberRepository;
@@ -31,6 +34,7 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -49,6 +53,12 @@ class TrainerAssignmentServiceTest {
     @Mock
     private TrainerAssignmentRequestMapper requestMapper;
 
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private TrainerLoadService trainerLoadService;
+
     @InjectMocks
     private TrainerAssignmentService assignmentService;
 
@@ -213,54 +223,84 @@ class TrainerAssignmentServiceTest {
     @Test
     @DisplayName("acceptRequest - Debería aceptar solicitud exitosamente")
     void acceptRequest_Success() {
-        when(requestRepository.findById(1L)).thenReturn(Optional.of(request));
-        when(requestRepository.save(request)).thenReturn(request);
+        when(requestRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(request));
+        when(trainerRepository.reserveSlot(1L)).thenReturn(1);
+        when(requestRepository.saveAndFlush(request)).thenReturn(request);
         when(memberRepository.save(member)).thenReturn(member);
         when(requestMapper.toDTO(request)).thenReturn(requestDtoResponse);
 
-        TrainerAssignmentRequestDTO result = assignmentService.acceptRequest(1L, 1L, respondDto);
+        TrainerAssignmentRequestDTO result = assignmentService.acceptRequest(1L, 1L, respondDto, null);
 
         assertThat(result).isEqualTo(requestDtoResponse);
         verify(request).setStatus(RequestStatus.ACCEPTED);
         verify(member).setAssignedTrainer(trainer);
         verify(member).setAssignmentStatus(AssignmentStatus.ACTIVE);
+        verify(outboxService).record(eq(OutboxEventType.TRAINER_REQUEST_ACCEPTED), eq(OutboxEvent.AGGREGATE_MEMBER), any(), any());
+        verify(trainerRepository).reserveSlot(1L);
+    }
+
+    @Test
+    @DisplayName("acceptRequest - Debería fallar si If-Match no coincide con la versión actual")
+    void acceptRequest_StaleVersion() {
+        request.setVersion(3L);
+        when(requestRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(request));
+
+        assertThatThrownBy(() -> assignmentService.acceptRequest(1L, 1L, respondDto, 2L))
+                .isInstanceOf(PreconditionFailedException.class);
+
+        verify(trainerRepository, never()).reserveSlot(any());
+        verify(requestRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("acceptRequest - Debería rechazar si el trainer no tiene cupos")
+    void acceptRequest_TrainerFull() {
+        when(requestRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(request));
+        when(trainerRepository.reserveSlot(1L)).thenReturn(0);
+
+        assertThatThrownBy(() -> assignmentService.acceptRequest(1L, 1L, respondDto, null))
+                .isInstanceOf(InvalidUserDataException.class)
+                .hasMessageContaining("no tiene cupos disponibles");
+
+        verify(requestRepository, never()).saveAndFlush(any());
+        verify(member, never()).setAssignedTrainer(any());
     }
 
     @Test
     @DisplayName("acceptRequest - Debería lanzar excepción con solicitud no encontrada")
     void acceptRequest_RequestNotFound() {
-        when(requestRepository.findById(999L)).thenReturn(Optional.empty());
+        when(requestRepository.findByIdForUpdate(999L)).thenReturn(Optional.empty());
 
-        assertThatThrownBy(() -> assignmentService.acceptRequest(999L, 1L, respondDto))
+        assertThatThrownBy(() -> assignmentService.acceptRequest(999L, 1L, respondDto, null))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Solicitud no encontrada");
 
-        verify(requestRepository, never()).save(any());
+        verify(requestRepository, never()).saveAndFlush(any());
     }
 
     @Test
     @DisplayName("acceptRequest - Debería lanzar excepción si el trainer no tiene permiso")
     void acceptRequest_UnauthorizedTrainer() {
-        when(requestRepository.findById(1L)).thenReturn(Optional.of(request));
+        when(requestRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(request));
 
-        assertThatThrownBy(() -> assignmentService.acceptRequest(1L, 999L, respondDto))
+        assertThatThrownBy(() -> assignmentService.acceptRequest(1L, 999L, respondDto, null))
                 .isInstanceOf(InvalidUserDataException.class)
                 .hasMessageContaining("No tienes permiso para responder esta solicitud");
 
-        verify(requestRepository, never()).save(any());
+        verify(requestRepository, never()).saveAndFlush(any());
     }
 
     @Test
     @DisplayName("acceptRequest - Debería lanzar excepción si solicitud ya fue respondida")
     void acceptRequest_AlreadyResponded() {
         request.setStatus(RequestStatus.ACCEPTED);
-        when(requestRepository.findById(1L)).thenReturn(Optional.of(request));
+        when(requestRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(request));
 
-        assertThatThrownBy(() -> assignmentService.acceptRequest(1L, 1L, respondDto))
+        assertThatThrownBy(() -> assignmentService.acceptRequest(1L, 1L, respondDto, null))
                 .isInstanceOf(InvalidUserDataException.class)
                 .hasMessageContaining("Esta solicitud ya fue respondida");
 
-        verify(requestRepository, never()).save(any());
+        verify(requestRepository, never()).saveAndFlush(any());
     }
 
     // ==================== REJECT REQUEST TESTS ====================
@@ -269,11 +309,11 @@ class TrainerAssignmentServiceTest {
     @DisplayName("rejectRequest - Debería rechazar solicitud exitosamente")
     void rejectRequest_Success() {
         when(requestRepository.findById(1L)).thenReturn(Optional.of(request));
-        when(requestRepository.save(request)).thenReturn(request);
+        when(requestRepository.saveAndFlush(request)).thenReturn(request);
         when(memberRepository.save(member)).thenReturn(member);
         when(requestMapper.toDTO(request)).thenReturn(requestDtoResponse);
 
-        TrainerAssignmentRequestDTO result = assignmentService.rejectRequest(1L, 1L, respondDto);
+        TrainerAssignmentRequestDTO result = assignmentService.rejectRequest(1L, 1L, respondDto, null);
 
         assertThat(result).isEqualTo(requestDtoResponse);
         verify(request).setStatus(RequestStatus.REJECTED);
@@ -285,11 +325,11 @@ class TrainerAssignmentServiceTest {
     void rejectRequest_RequestNotFound() {
         when(requestRepository.findById(999L)).thenReturn(Optional.empty());
 
-        assertThatThrownBy(() -> assignmentService.rejectRequest(999L, 1L, respondDto))
+        assertThatThrownBy(() -> assignmentService.rejectRequest(999L, 1L, respondDto, null))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Solicitud no encontrada");
 
-        verify(requestRepository, never()).save(any());
+        verify(requestRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -297,11 +337,11 @@ class TrainerAssignmentServiceTest {
     void rejectRequest_UnauthorizedTrainer() {
         when(requestRepository.findById(1L)).thenReturn(Optional.of(request));
 
-        assertThatThrownBy(() -> assignmentService.rejectRequest(1L, 999L, respondDto))
+        assertThatThrownBy(() -> assignmentService.rejectRequest(1L, 999L, respondDto, null))
                 .isInstanceOf(InvalidUserDataException.class)
                 .hasMessageContaining("No tienes permiso para responder esta solicitud");
 
-        verify(requestRepository, never()).save(any());
+        verify(requestRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -310,11 +350,11 @@ class TrainerAssignmentServiceTest {
         request.setStatus(RequestStatus.REJECTED);
         when(requestRepository.findById(1L)).thenReturn(Optional.of(request));
 
-        assertThatThrownBy(() -> assignmentService.rejectRequest(1L, 1L, respondDto))
+        assertThatThrownBy(() -> assignmentService.rejectRequest(1L, 1L, respondDto, null))
                 .isInstanceOf(InvalidUserDataException.class)
                 .hasMessageContaining("Esta solicitud ya fue respondida");
 
-        verify(requestRepository, never()).save(any());
+        verify(requestRepository, never()).saveAndFlush(any());
     }
 
     // ==================== CANCEL REQUEST TESTS ====================
@@ -381,6 +421,7 @@ class TrainerAssignmentServiceTest {
 
         assignmentService.removeTrainer(1L);
 
+        verify(trainerRepository).releaseSlot(1L);
         verify(member).setAssignedTrainer(null);
         verify(member).setAssignmentStatus(AssignmentStatus.NO_TRAINER);
         verify(memberRepository).save(member);
@@ -0,0 +1,73 @@
+package com.example.fitnesstracker.service;
+
+import com.example.fitnesstracker.repository.TrainerLoadProjection;
+import com.example.fitnesstracker.repository.TrainerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TrainerLoadService Unit Tests")
+class TrainerLoadServiceTest {
+
+    @Mock
+    private TrainerRepository trainerRepository;
+
+    @InjectMocks
+    private TrainerLoadService trainerLoadService;
+
+    @BeforeEach
+    void setUp() {
+        when(trainerRepository.findLoadSnapshot()).thenReturn(List.of(
+                load(1L, "Strength Training", 10, 6),
+                load(2L, "Yoga", 10, 2),
+                load(3L, "Power Yoga", 3, 3),
+                load(4L, "Yoga", 10, 2)));
+        trainerLoadService.rebuild();
+    }
+
+    @Test
+    @DisplayName("findLeastBusy - Debería ordenar por carga y a igual carga por id")
+    void findLeastBusy_OrderedByLoad() {
+        assertThat(trainerLoadService.findLeastBusy(null, false, 10)).containsExactly(2L, 4L, 3L, 1L);
+        assertThat(trainerLoadService.findLeastBusy(null, false, 2)).containsExactly(2L, 4L);
+    }
+
+    @Test
+    @DisplayName("findLeastBusy - Debería filtrar por especialidad y descartar trainers sin cupo")
+    void findLeastBusy_Filters() {
+        assertThat(trainerLoadService.findLeastBusy(" yoga ", false, 10)).containsExactly(2L, 4L, 3L);
+        assertThat(trainerLoadService.findLeastBusy("yoga", true, 10)).containsExactly(2L, 4L);
+    }
+
+    @Test
+    @DisplayName("refresh - Sin transacción debería releer el trainer y quitarlo si ya no está activo")
+    void refresh_ReloadsTrainer() {
+        when(trainerRepository.findLoadById(2L)).thenReturn(Optional.of(load(2L, "Yoga", 10, 9)));
+        when(trainerRepository.findLoadById(4L)).thenReturn(Optional.empty());
+
+        trainerLoadService.refresh(2L);
+        trainerLoadService.refresh(4L);
+
+        assertThat(trainerLoadService.findLeastBusy(null, false, 10)).containsExactly(3L, 1L, 2L);
+    }
+
+    private static TrainerLoadProjection load(Long id, String specialty, int maxMembers, int assigned) {
+        return new TrainerLoadProjection() {
+            public Long getTrainerId() { return id; }
+            public String getSpecialty() { return specialty; }
+            public Integer getMaxMembers() { return maxMembers; }
+            public Integer getAssignedMemberCount() { return assigned; }
+        };
+    }
+}
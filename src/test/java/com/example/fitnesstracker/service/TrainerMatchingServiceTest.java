@@ -0,0 +1,161 @@
+package com.example.fitnesstracker.service;
+
+import com.example.fitnesstracker.dto.request.assignment.TrainerMatchingRequestDTO;
+import com.example.fitnesstracker.dto.response.assignment.TrainerMatchingPairDTO;
+import com.example.fitnesstracker.dto.response.assignment.TrainerMatchingResultDTO;
+import com.example.fitnesstracker.dto.response.assignment.TrainerMatchingSummaryDTO;
+import com.example.fitnesstracker.repository.MatchingTrainerProjection;
+import com.example.fitnesstracker.repository.MemberRepository;
+import com.example.fitnesstracker.repository.TrainerAssignmentRequestRepository;
+import com.example.fitnesstracker.repository.TrainerMatchingRepository;
+import com.example.fitnesstracker.repository.TrainerPendingCountProjection;
+import com.example.fitnesstracker.repository.TrainerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TrainerMatchingService Unit Tests")
+class TrainerMatchingServiceTest {
+
+    @Mock
+    private TrainerRepository trainerRepository;
+    @Mock
+    private MemberRepository memberRepository;
+    @Mock
+    private TrainerAssignmentRequestRepository requestRepository;
+    @Mock
+    private TrainerMatchingRepository trainerMatchingRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private TrainerMatchingService trainerMatchingService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(trainerMatchingService, "loadWeight", 1.0);
+        ReflectionTestUtils.setField(trainerMatchingService, "rateWeight", 0.25);
+        ReflectionTestUtils.setField(trainerMatchingService, "chunkSize", 2);
+    }
+
+    @Test
+    @DisplayName("run - Dry run debería repartir por carga sin superar el cupo y sin escribir")
+    void run_DryRunBalancesLoad() {
+        when(memberRepository.findMemberIdsAwaitingTrainer(any())).thenReturn(members(6));
+        when(trainerRepository.findMatchingCandidates(isNull(), isNull())).thenReturn(List.of(
+                trainer(1L, "50.00", 10, 4),
+                trainer(2L, "50.00", 10, 0),
+                trainer(3L, "50.00", 2, 1)));
+        when(requestRepository.countPendingByTrainer()).thenReturn(List.of(pending(3L, 1L)));
+
+        TrainerMatchingResultDTO result = trainerMatchingService.run(null, true);
+
+        assertThat(result.getMatched()).isEqualTo(6);
+        assertThat(result.getCreated()).isZero();
+        Map<Long, Integer> planned = result.getTrainers().stream()
+                .collect(Collectors.toMap(TrainerMatchingSummaryDTO::getTrainerId, TrainerMatchingSummaryDTO::getPlanned));
+        // El trainer 3 ya está lleno contando su solicitud pendiente; el resto iguala cargas
+        assertThat(planned).containsExactlyInAnyOrderEntriesOf(Map.of(1L, 1, 2L, 5));
+        assertThat(result.getAssignments()).hasSize(6);
+        verifyNoInteractions(trainerMatchingRepository, transactionManager);
+    }
+
+    @Test
+    @DisplayName("run - A igual carga debería preferir la tarifa más baja")
+    void run_PrefersLowerRate() {
+        when(memberRepository.findMemberIdsAwaitingTrainer(any())).thenReturn(members(1));
+        when(trainerRepository.findMatchingCandidates(isNull(), isNull())).thenReturn(List.of(
+                trainer(1L, "80.00", 10, 0),
+                trainer(2L, "40.00", 10, 0)));
+        when(requestRepository.countPendingByTrainer()).thenReturn(List.of());
+
+        TrainerMatchingResultDTO result = trainerMatchingService.run(null, true);
+
+        assertThat(result.getAssignments()).extracting(TrainerMatchingPairDTO::getTrainerId).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("run - Debería dejar sin asignar a los members que no entran en ningún cupo")
+    void run_CapacityExhausted() {
+        when(memberRepository.findMemberIdsAwaitingTrainer(any())).thenReturn(members(5));
+        when(trainerRepository.findMatchingCandidates(eq("Yoga"), eq(new BigDecimal("60")))).thenReturn(List.of(
+                trainer(1L, "50.00", 3, 1)));
+        when(requestRepository.countPendingByTrainer()).thenReturn(List.of());
+
+        TrainerMatchingRequestDTO request = TrainerMatchingRequestDTO.builder()
+                .specialty(" Yoga ")
+                .maxHourlyRate(new BigDecimal("60"))
+                .build();
+        TrainerMatchingResultDTO result = trainerMatchingService.run(request, true);
+
+        assertThat(result.getMatched()).isEqualTo(2);
+        assertThat(result.getUnmatched()).isEqualTo(3);
+        assertThat(result.getAssignments()).extracting(TrainerMatchingPairDTO::getMemberId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("run - Debería crear las solicitudes por lotes solo para los members que siguen disponibles")
+    @SuppressWarnings("unchecked")
+    void run_AppliesInChunks() {
+        when(memberRepository.findMemberIdsAwaitingTrainer(any())).thenReturn(members(3));
+        when(trainerRepository.findMatchingCandidates(isNull(), isNull())).thenReturn(List.of(trainer(1L, "50.00", 10, 0)));
+        when(requestRepository.countPendingByTrainer()).thenReturn(List.of());
+        when(trainerMatchingRepository.lockEligible(eq(List.of(1L, 2L)), any())).thenReturn(List.of(1L));
+        when(trainerMatchingRepository.lockEligible(eq(List.of(3L)), any())).thenReturn(List.of(3L));
+        when(trainerMatchingRepository.insertRequests(any(), any())).thenAnswer(inv -> ((Map<Long, Long>) inv.getArgument(0)).size());
+
+        TrainerMatchingResultDTO result = trainerMatchingService.run(null, false);
+
+        assertThat(result.getMatched()).isEqualTo(3);
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getAssignments()).isNull();
+        ArgumentCaptor<List<Long>> marked = ArgumentCaptor.forClass(List.class);
+        verify(trainerMatchingRepository, times(2)).markPending(marked.capture());
+        assertThat(marked.getAllValues()).containsExactly(List.of(1L), List.of(3L));
+        verify(trainerMatchingRepository, times(2)).insertCreatedEvents(anyList(), any());
+    }
+
+    private static List<Long> members(int count) {
+        return LongStream.rangeClosed(1, count).boxed().toList();
+    }
+
+    private static MatchingTrainerProjection trainer(Long id, String rate, int maxMembers, int assigned) {
+        return new MatchingTrainerProjection() {
+            public Long getTrainerId() { return id; }
+            public String getFirstName() { return "Trainer"; }
+            public String getLastName() { return String.valueOf(id); }
+            public String getSpecialty() { return "Yoga"; }
+            public BigDecimal getHourlyRate() { return new BigDecimal(rate); }
+            public Integer getMaxMembers() { return maxMembers; }
+            public Integer getAssignedMemberCount() { return assigned; }
+        };
+    }
+
+    private static TrainerPendingCountProjection pending(Long trainerId, Long count) {
+        return new TrainerPendingCountProjection() {
+            public Long getTrainerId() { return trainerId; }
+            public Long getPending() { return count; }
+        };
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.fitnesstracker.service;
+
+import com.example.fitnesstracker.controller.TrainerAssignmentController;
+import com.example.fitnesstracker.event.DomainEvent;
+import com.example.fitnesstracker.model.OutboxEvent;
+import com.example.fitnesstracker.repository.OutboxEventRepository;
+import com.example.fitnesstracker.util.OptimisticRetry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@DisplayName("TrainerNotificationService Unit Tests")
+class TrainerNotificationServiceTest {
+
+    private TrainerNotificationService notificationService;
+    private OutboxEventRepository outboxEventRepository;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository = Mockito.mock(OutboxEventRepository.class);
+        notificationService = new TrainerNotificationService(new ObjectMapper(), outboxEventRepository);
+        ReflectionTestUtils.setField(notificationService, "timeoutMs", 60_000L);
+        ReflectionTestUtils.setField(notificationService, "bufferSize", 16);
+        ReflectionTestUtils.setField(notificationService, "replaySize", 3);
+        ReflectionTestUtils.setField(notificationService, "fanoutThreads", 1);
+        ReflectionTestUtils.setField(notificationService, "pollOverlapMs", 30_000L);
+        notificationService.init();
+
+        mockMvc = MockMvcBuilders.standaloneSetup(new TrainerAssignmentController(
+                Mockito.mock(TrainerAssignmentService.class), notificationService, new OptimisticRetry(),
+                Mockito.mock(TrainerMatchingService.class))).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationService.shutdown();
+    }
+
+    @Test
+    @DisplayName("publish - Debería enviar al stream solo los eventos del trainer")
+    void publish_RoutesByTrainer() throws Exception {
+        MockHttpServletResponse response = open(10L, null);
+
+        notificationService.publish(List.of(
+                event(1L, "TRAINER_REQUEST_CREATED", 10L),
+                event(2L, "WORKOUT_COMPLETED", 20L),
+                event(3L, "WORKOUT_PLAN_ACTIVATED", 10L),
+                event(4L, "WORKOUT_COMPLETED", 10L)));
+
+        String body = awaitContent(response, marker(4L));
+        assertThat(body).contains(marker(1L), "event:TRAINER_REQUEST_CREATED", "id:" + epoch() + ".1")
+                .doesNotContain(marker(2L), marker(3L));
+        assertThat(notificationService.countSubscribers(10L)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("subscribe - Debería reenviar lo posterior a Last-Event-ID")
+    void subscribe_ResumesFromLastEventId() throws Exception {
+        notificationService.publish(List.of(
+                event(1L, "TRAINER_REQUEST_CREATED", 10L),
+                event(2L, "WORKOUT_COMPLETED", 10L),
+                event(3L, "WORKOUT_COMPLETED", 10L)));
+
+        String body = awaitContent(open(10L, epoch() + ".1"), marker(3L));
+
+        assertThat(body).contains(marker(2L)).doesNotContain(marker(1L), "RESYNC");
+    }
+
+    @Test
+    @DisplayName("subscribe - Debería reenviar un evento con id de outbox menor que llegó después (commit tardío)")
+    void subscribe_ResumesEventCommittedLate() throws Exception {
+        notificationService.publish(List.of(event(5L, "WORKOUT_COMPLETED", 10L)));
+        notificationService.publish(List.of(event(3L, "TRAINER_REQUEST_CREATED", 10L)));
+
+        // El cliente había recibido el 5 antes de desconectarse
+        String body = awaitContent(open(10L, epoch() + ".1"), marker(3L));
+
+        assertThat(body).contains(marker(3L)).doesNotContain(marker(5L), "RESYNC");
+    }
+
+    @Test
+    @DisplayName("subscribe - Debería pedir RESYNC si lo perdido ya salió de la retención")
+    void subscribe_ResyncWhenEvicted() throws Exception {
+        notificationService.publish(List.of(
+                event(1L, "WORKOUT_COMPLETED", 10L),
+                event(2L, "WORKOUT_COMPLETED", 10L),
+                event(3L, "WORKOUT_COMPLETED", 10L),
+                event(4L, "WORKOUT_COMPLETED", 10L),
+                event(5L, "WORKOUT_COMPLETED", 10L)));
+
+        String body = awaitContent(open(10L, epoch() + ".1"), marker(5L));
+
+        assertThat(body).contains("event:RESYNC", "id:" + epoch() + ".2", marker(3L), marker(4L));
+    }
+
+    @Test
+    @DisplayName("subscribe - Debería pedir RESYNC con un Last-Event-ID de otra instancia o de antes de reiniciar")
+    void subscribe_ResyncForForeignEventId() throws Exception {
+        notificationService.publish(List.of(event(1L, "WORKOUT_COMPLETED", 10L)));
+
+        String body = awaitContent(open(10L, "otra.7"), "RESYNC");
+
+        assertThat(body).contains("event:RESYNC", "id:" + epoch() + ".1").doesNotContain(marker(1L));
+    }
+
+    @Test
+    @DisplayName("pollPublished - Debería entregar lo que relayó otra instancia una sola vez aunque llegue también por el bus")
+    void pollPublished_DeliversEventsRelayedElsewhereOnce() throws Exception {
+        MockHttpServletResponse response = open(10L, null);
+        OutboxEvent relayedElsewhere = OutboxEvent.builder()
+                .eventType("WORKOUT_COMPLETED")
+                .aggregateType("MEMBER")
+                .aggregateId(1L)
+                .payload(payload(8L, 10L))
+                .publishedAt(LocalDateTime.now())
+                .build();
+        relayedElsewhere.setId(8L);
+        when(outboxEventRepository.findPublishedSince(any(), any())).thenReturn(List.of(relayedElsewhere));
+
+        notificationService.pollPublished();
+        notificationService.publish(List.of(event(8L, "WORKOUT_COMPLETED", 10L)));
+        notificationService.publish(List.of(event(9L, "WORKOUT_COMPLETED", 10L)));
+
+        String body = awaitContent(response, marker(9L));
+        assertThat(body.split(Pattern.quote(marker(8L)), -1)).hasSize(2);
+    }
+
+    private MockHttpServletResponse open(Long trainerId, String lastEventId) throws Exception {
+        var request = get("/api/trainer-assignments/trainers/{trainerId}/stream", trainerId);
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        MvcResult result = mockMvc.perform(request).andReturn();
+        assertThat(result.getRequest().isAsyncStarted()).isTrue();
+        return result.getResponse();
+    }
+
+    private String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!response.getContentAsString().contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        return response.getContentAsString();
+    }
+
+    private DomainEvent event(long id, String type, Long trainerId) {
+        return new DomainEvent(id, type, "MEMBER", 1L, payload(id, trainerId), LocalDateTime.now());
+    }
+
+    // El id SSE no es el del outbox: cada evento lleva el suyo en el payload para reconocerlo
+    private static String payload(long outboxId, Long trainerId) {
+        return "{\"trainerId\":" + trainerId + ",\"outboxId\":" + outboxId + "}";
+    }
+
+    private static String marker(long outboxId) {
+        return "\"outboxId\":" + outboxId + "}";
+    }
+
+    private String epoch() {
+        return (String) ReflectionTestUtils.getField(notificationService, "epoch");
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.fitnesstracker.service;
+
+import com.example.fitnesstracker.dto.response.report.ExerciseProgressionDTO;
+import com.example.fitnesstracker.dto.response.report.MemberAdherenceDTO;
+import com.example.fitnesstracker.dto.response.report.WeeklyVolumeDTO;
+import com.example.fitnesstracker.enums.UserRole;
+import com.example.fitnesstracker.exception.InvalidUserDataException;
+import com.example.fitnesstracker.exception.UnauthorizedException;
+import com.example.fitnesstracker.model.Member;
+import com.example.fitnesstracker.model.Trainer;
+import com.example.fitnesstracker.model.User;
+import com.example.fitnesstracker.repository.MemberRepository;
+import com.example.fitnesstracker.repository.TrainerRepository;
+import com.example.fitnesstracker.repository.UserRepository;
+import com.example.fitnesstracker.util.OneRepMax;
+import com.example.fitnesstracker.util.TrainingSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TrainerReportService Unit Tests")
+class TrainerReportServiceTest {
+
+    // Lunes
+    private static final LocalDate WEEK_1 = LocalDate.of(2025, 3, 3);
+    private static final LocalDate WEEK_2 = WEEK_1.plusWeeks(1);
+
+    @Mock
+    private TrainingSnapshotService trainingSnapshotService;
+
+    @Mock
+    private TrainerRepository trainerRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private MemberRepository memberRepository;
+
+    @InjectMocks
+    private TrainerReportService trainerReportService;
+
+    private TrainingSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = TrainingSnapshot.builder()
+                .memberName(10L, "John Doe")
+                .memberName(20L, "Jane Smith")
+                .exerciseName(100L, "Sentadilla")
+                // trainer 1, member 10: dos sesiones la semana 1, una la semana 2
+                .addRow(1L, 10L, 1000L, 100L, day(WEEK_1), 3, 10, 50.0)
+                .addRow(1L, 10L, 1001L, 100L, day(WEEK_1.plusDays(2)), 3, 10, 60.0)
+                .addRow(1L, 10L, 1002L, 100L, day(WEEK_2), 3, 5, 90.0)
+                // trainer 2 no debe aparecer en los reportes del trainer 1
+                .addRow(2L, 20L, 2000L, 100L, day(WEEK_1), 5, 5, 100.0)
+                .build();
+        lenient().when(trainingSnapshotService.current()).thenReturn(snapshot);
+        lenient().when(trainerRepository.findByUserUsernameAndDeletedAtIsNull("trainer1"))
+                .thenReturn(Optional.of(Trainer.builder().id(1L).build()));
+    }
+
+    @Test
+    @DisplayName("getWeeklyVolume - Debería agregar sesiones y volumen por semana")
+    void getWeeklyVolume_Success() {
+        List<WeeklyVolumeDTO> result = trainerReportService.getWeeklyVolume("trainer1", 1L, WEEK_1, WEEK_2.plusDays(6));
+
+        assertThat(result).hasSize(2);
+        assertThat(result.get(0).getWeekStart()).isEqualTo(WEEK_1);
+        assertThat(result.get(0).getSessions()).isEqualTo(2);
+        assertThat(result.get(0).getVolume()).isEqualTo(3 * 10 * 50.0 + 3 * 10 * 60.0);
+        assertThat(result.get(1).getWeekStart()).isEqualTo(WEEK_2);
+        assertThat(result.get(1).getSessions()).isEqualTo(1);
+        assertThat(result).allMatch(week -> week.getMemberId().equals(10L));
+    }
+
+    @Test
+    @DisplayName("getAdherence - Debería calcular adherencia contra las sesiones objetivo")
+    void getAdherence_Success() {
+        when(memberRepository.findActiveByTrainerIdWithUser(1L)).thenReturn(List.of(member(10L, "John", "Doe")));
+
+        List<MemberAdherenceDTO> result = trainerReportService.getAdherence("trainer1", 1L, WEEK_1, WEEK_2.plusDays(6), 3);
+
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getSessions()).isEqualTo(3);
+        assertThat(result.get(0).getActiveWeeks()).isEqualTo(2);
+        assertThat(result.get(0).getAdherencePercent()).isEqualTo(50.0);
+    }
+
+    @Test
+    @DisplayName("getAdherence - Debería incluir con 0 sesiones a los members que no entrenaron")
+    void getAdherence_IncludesMembersWithoutSessions() {
+        when(memberRepository.findActiveByTrainerIdWithUser(1L))
+                .thenReturn(List.of(member(30L, "Ana", "Paz"), member(10L, "John", "Doe")));
+
+        List<MemberAdherenceDTO> result = trainerReportService.getAdherence("trainer1", 1L, WEEK_1, WEEK_2.plusDays(6), 3);
+
+        assertThat(result).extracting(MemberAdherenceDTO::getMemberId).containsExactly(30L, 10L);
+        assertThat(result.get(0).getMemberName()).isEqualTo("Ana Paz");
+        assertThat(result.get(0).getSessions()).isZero();
+        assertThat(result.get(0).getActiveWeeks()).isZero();
+        assertThat(result.get(0).getAdherencePercent()).isZero();
+    }
+
+    @Test
+    @DisplayName("getWeeklyVolume - Debería rechazar a un trainer que pide reportes de otro")
+    void getWeeklyVolume_OtherTrainer() {
+        when(userRepository.findByUsernameAndDeletedAtIsNull("trainer1"))
+                .thenReturn(Optional.of(User.builder().username("trainer1").role(UserRole.USER).build()));
+
+        assertThatThrownBy(() -> trainerReportService.getWeeklyVolume("trainer1", 2L, WEEK_1, WEEK_2))
+                .isInstanceOf(UnauthorizedException.class);
+    }
+
+    @Test
+    @DisplayName("getWeeklyVolume - Debería permitir a un admin ver los reportes de cualquier trainer")
+    void getWeeklyVolume_Admin() {
+        when(userRepository.findByUsernameAndDeletedAtIsNull("admin"))
+                .thenReturn(Optional.of(User.builder().username("admin").role(UserRole.ADMIN).build()));
+
+        List<WeeklyVolumeDTO> result = trainerReportService.getWeeklyVolume("admin", 2L, WEEK_1, WEEK_2.plusDays(6));
+
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getMemberId()).isEqualTo(20L);
+    }
+
+    @Test
+    @DisplayName("getProgression - Debería comparar el 1RM estimado de la primera y última semana")
+    void getProgression_Success() {
+        List<ExerciseProgressionDTO> result = trainerReportService.getProgression("trainer1", 1L, WEEK_1, WEEK_2.plusDays(6));
+
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getExerciseName()).isEqualTo("Sentadilla");
+        assertThat(result.get(0).getFirstEstimatedOneRepMax()).isEqualTo(OneRepMax.estimate(60.0, 10));
+        assertThat(result.get(0).getLastEstimatedOneRepMax()).isEqualTo(OneRepMax.estimate(90.0, 5));
+    }
+
+    @Test
+    @DisplayName("getWeeklyVolume - Debería lanzar excepción con rango invertido")
+    void getWeeklyVolume_InvalidRange() {
+        assertThatThrownBy(() -> trainerReportService.getWeeklyVolume("trainer1", 1L, WEEK_2, WEEK_1))
+                .isInstanceOf(InvalidUserDataException.class);
+    }
+
+    @Test
+    @DisplayName("TrainingSnapshot - Debería leer lo mismo que escribió")
+    void snapshot_RoundTrip(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("snapshot.fcs");
+        snapshot.writeTo(file);
+
+        TrainingSnapshot read = TrainingSnapshot.readFrom(file);
+
+        assertThat(read.getRowCount()).isEqualTo(4);
+        assertThat(read.weights()).containsExactly(snapshot.weights());
+        assertThat(read.memberName(20L)).isEqualTo("Jane Smith");
+    }
+
+    private static int day(LocalDate date) {
+        return (int) date.toEpochDay();
+    }
+
+    private static Member member(Long id, String firstName, String lastName) {
+        return Member.builder().id(id).firstName(firstName).lastName(lastName).build();
+    }
+}
@@ -12,6 +12,8 @@ import com.example.fitnesstracker.model.Trainer;
 import com.example.fitnesstracker.model.User;
 import com.example.fitnesstracker.repository.TrainerRepository;
 import com.example.fitnesstracker.repository.UserRepository;
+import com.example.fitnesstracker.util.SoftDeleteFilter;
+import com.example.fitnesstracker.util.FieldSelection;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -24,6 +26,7 @@ import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -48,6 +51,15 @@ class TrainerServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private SoftDeleteFilter softDeleteFilter;
+
+    @Mock
+    private TrainerLoadService trainerLoadService;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
     @InjectMocks
     private TrainerService trainerService;
 
@@ -59,6 +71,9 @@ class TrainerServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(softDeleteFilter.withDeleted(any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+
         registerDto = RegisterTrainerDTO.builder()
                 .username("testtrainer")
                 .email("trainer@example.com")
@@ -160,7 +175,7 @@ class TrainerServiceTest {
     @DisplayName("getTrainerById - Debería retornar entrenador por ID")
     void getTrainerById_Success() {
         when(trainerRepository.findById(1L)).thenReturn(Optional.of(trainer));
-        when(trainerMapper.toDTO(trainer)).thenReturn(trainerDto);
+        when(trainerMapper.toDTO(trainer, FieldSelection.ALL)).thenReturn(trainerDto);
 
         TrainerDTO result = trainerService.getTrainerById(1L);
 
@@ -206,7 +221,7 @@ class TrainerServiceTest {
     @DisplayName("getAllTrainers - Debería retornar lista de entrenadores activos")
     void getAllTrainers_Success() {
         when(trainerRepository.findAllActiveTrainers()).thenReturn(List.of(trainer));
-        when(trainerMapper.toDTO(trainer)).thenReturn(trainerDto);
+        when(trainerMapper.toDTO(trainer, FieldSelection.ALL)).thenReturn(trainerDto);
 
         List<TrainerDTO> result = trainerService.getAllTrainers();
 
@@ -256,10 +271,10 @@ class TrainerServiceTest {
     @DisplayName("updateTrainer - Debería actualizar entrenador exitosamente")
     void updateTrainer_Success() {
         when(trainerRepository.findById(1L)).thenReturn(Optional.of(trainer));
-        when(trainerRepository.save(trainer)).thenReturn(trainer);
+        when(trainerRepository.saveAndFlush(trainer)).thenReturn(trainer);
         when(trainerMapper.toDTO(trainer)).thenReturn(trainerDto);
 
-        TrainerDTO result = trainerService.updateTrainer(1L, updateDto);
+        TrainerDTO result = trainerService.updateTrainer(1L, updateDto, null);
 
         assertThat(result).isEqualTo(trainerDto);
         verify(trainerMapper).updateFromDTO(updateDto, trainer);
@@ -270,10 +285,10 @@ class TrainerServiceTest {
     void updateTrainer_NotFound() {
         when(trainerRepository.findById(999L)).thenReturn(Optional.empty());
 
-        assertThatThrownBy(() -> trainerService.updateTrainer(999L, updateDto))
+        assertThatThrownBy(() -> trainerService.updateTrainer(999L, updateDto, null))
                 .isInstanceOf(ResourceNotFoundException.class);
 
-        verify(trainerRepository, never()).save(any());
+        verify(trainerRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -281,10 +296,10 @@ class TrainerServiceTest {
     void updateTrainer_InvalidHourlyRate() {
         updateDto.setHourlyRate(BigDecimal.ZERO);
 
-        assertThatThrownBy(() -> trainerService.updateTrainer(1L, updateDto))
+        assertThatThrownBy(() -> trainerService.updateTrainer(1L, updateDto, null))
                 .isInstanceOf(InvalidUserDataException.class);
 
-        verify(trainerRepository, never()).save(any());
+        verify(trainerRepository, never()).saveAndFlush(any());
     }
 
     // ==================== DELETE TRAINER TESTS ====================
@@ -363,6 +378,29 @@ class TrainerServiceTest {
         assertThat(result).isEmpty();
     }
 
+    @Test
+    @DisplayName("getLeastBusyTrainers - Debería respetar el orden del índice de carga")
+    void getLeastBusyTrainers_KeepsIndexOrder() {
+        Trainer other = Trainer.builder().id(2L).firstName("Ana").lastName("Fit").build();
+        TrainerDTO otherDto = TrainerDTO.builder().id(2L).build();
+        when(trainerLoadService.findLeastBusy("yoga", true, 5)).thenReturn(List.of(2L, 1L));
+        when(trainerRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(trainer, other));
+        when(trainerMapper.toDTO(trainer)).thenReturn(trainerDto);
+        when(trainerMapper.toDTO(other)).thenReturn(otherDto);
+
+        List<TrainerDTO> result = trainerService.getLeastBusyTrainers("yoga", true, 5);
+
+        assertThat(result).containsExactly(otherDto, trainerDto);
+    }
+
+    @Test
+    @DisplayName("getLeastBusyTrainers - Debería lanzar excepción si el limit está fuera de rango")
+    void getLeastBusyTrainers_InvalidLimit() {
+        assertThatThrownBy(() -> trainerService.getLeastBusyTrainers(null, false, 0))
+                .isInstanceOf(InvalidUserDataException.class);
+        verifyNoInteractions(trainerLoadService);
+    }
+
     @Test
     @SuppressWarnings("deprecation")
     @DisplayName("getMostBusyTrainers - Debería retornar lista de entrenadores más ocupados")
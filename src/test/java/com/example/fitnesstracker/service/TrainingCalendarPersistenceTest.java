@@ -0,0 +1,168 @@
+package com.example.fitnesstracker.service;
+
+import com.example.fitnesstracker.enums.UserRole;
+import com.example.fitnesstracker.enums.UserType;
+import com.example.fitnesstracker.enums.WorkoutPlanStatus;
+import com.example.fitnesstracker.model.*;
+import com.example.fitnesstracker.repository.MemberRepository;
+import com.example.fitnesstracker.repository.TrainingCalendarRepository;
+import com.example.fitnesstracker.repository.WorkoutArchiveRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Creación del calendario contra H2. Sin transacción de test: el calendario se crea en una transacción
+ * propia y tiene que ver al member ya confirmado, como en producción.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(TrainingCalendarService.class)
+@TestPropertySource(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@DisplayName("TrainingCalendarService Persistence Tests")
+class TrainingCalendarPersistenceTest {
+
+    // Las tablas de archivo no tienen entidad y no existen en H2
+    @MockitoBean
+    private WorkoutArchiveRepository workoutArchiveRepository;
+
+    @Autowired
+    private TrainingCalendarService trainingCalendarService;
+
+    @Autowired
+    private TrainingCalendarRepository trainingCalendarRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Long memberId;
+    private Long dayId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            Trainer trainer = Trainer.builder()
+                    .user(user("coach", UserType.TRAINER))
+                    .firstName("Laura")
+                    .lastName("Coach")
+                    .specialty("Fuerza")
+                    .certifications("NSCA-CPT")
+                    .hourlyRate(BigDecimal.valueOf(25))
+                    .isActive(true)
+                    .maxMembers(20)
+                    .build();
+            entityManager.persist(trainer);
+            Member member = Member.builder()
+                    .user(user("member", UserType.MEMBER))
+                    .firstName("Juan")
+                    .lastName("Pérez")
+                    .phone("+5491100000000")
+                    .dateOfBirth(LocalDate.of(1990, 1, 1))
+                    .membershipStartDate(LocalDate.now().minusMonths(2))
+                    .membershipEndDate(LocalDate.now().plusMonths(1))
+                    .assignedTrainer(trainer)
+                    .build();
+            entityManager.persist(member);
+            WorkoutPlan plan = WorkoutPlan.builder()
+                    .name("Fuerza")
+                    .member(member)
+                    .trainer(trainer)
+                    .status(WorkoutPlanStatus.ACTIVE)
+                    .startDate(LocalDate.now().minusMonths(1))
+                    .build();
+            entityManager.persist(plan);
+            WorkoutDay day = WorkoutDay.builder().workoutPlan(plan).dayName("Día 1").dayNumber(1).build();
+            entityManager.persist(day);
+            memberId = member.getId();
+            dayId = day.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String table : new String[]{"training_calendars", "workout_completions", "workout_days", "workout_plans",
+                "members", "trainers", "users"}) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+
+    @Test
+    @DisplayName("recordTraining - La primera completion deja exactamente un calendario con el día marcado")
+    void recordTraining_FirstCompletionSavesOneCalendar() {
+        LocalDate today = LocalDate.now();
+
+        completeWorkout(today);
+
+        assertThat(countCalendars()).isEqualTo(1);
+        TrainingCalendar calendar = trainingCalendarRepository.findByMember_Id(memberId).orElseThrow();
+        assertThat(calendar.toBitSet().get(calendar.indexOf(today))).isTrue();
+
+        completeWorkout(today.minusDays(1));
+
+        assertThat(countCalendars()).isEqualTo(1);
+        assertThat(trainingCalendarService.getStreak(memberId).getCurrentStreak()).isEqualTo(2);
+    }
+
+    // Lo que hace completeWorkout: guarda la completion y marca el día en la misma transacción
+    private void completeWorkout(LocalDate date) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Member member = memberRepository.findById(memberId).orElseThrow();
+            entityManager.persist(WorkoutCompletion.builder()
+                    .member(member)
+                    .workoutDay(entityManager.getReference(WorkoutDay.class, dayId))
+                    .completedAt(date)
+                    .build());
+            entityManager.flush();
+            trainingCalendarService.recordTraining(member, date);
+        });
+    }
+
+    private long countCalendars() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM training_calendars WHERE member_id = ?", Long.class, memberId);
+    }
+
+    private User user(String username, UserType userType) {
+        User user = User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("hash")
+                .role(UserRole.USER)
+                .userType(userType)
+                .enabled(true)
+                .build();
+        entityManager.persist(user);
+        return user;
+    }
+}
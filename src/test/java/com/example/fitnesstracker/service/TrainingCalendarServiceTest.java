@@ -0,0 +1,146 @@
+package com.example.fitnesstracker.service;
+
+import com.example.fitnesstracker.dto.response.workout.StreakDTO;
+import com.example.fitnesstracker.dto.response.workout.TrainingCalendarDTO;
+import com.example.fitnesstracker.model.Member;
+import com.example.fitnesstracker.model.TrainingCalendar;
+import com.example.fitnesstracker.repository.MemberRepository;
+import com.example.fitnesstracker.repository.TrainingCalendarRepository;
+import com.example.fitnesstracker.repository.WorkoutArchiveRepository;
+import com.example.fitnesstracker.repository.WorkoutCompletionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TrainingCalendarService Unit Tests")
+class TrainingCalendarServiceTest {
+
+    @Mock
+    private TrainingCalendarRepository trainingCalendarRepository;
+    @Mock
+    private MemberRepository memberRepository;
+    @Mock
+    private WorkoutCompletionRepository workoutCompletionRepository;
+    @Mock
+    private WorkoutArchiveRepository workoutArchiveRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private TrainingCalendarService trainingCalendarService;
+
+    private final LocalDate today = LocalDate.now();
+    private Member member;
+    private TrainingCalendar calendar;
+
+    @BeforeEach
+    void setUp() {
+        member = Member.builder().id(1L).membershipStartDate(today.minusDays(30)).build();
+        calendar = TrainingCalendar.builder().member(member).originDate(today.minusDays(30)).build();
+        // Racha vieja de 4 días y racha actual de 3 (hasta ayer)
+        for (int i = 20; i >= 17; i--) {
+            calendar.markTrained(today.minusDays(i));
+        }
+        for (int i = 3; i >= 1; i--) {
+            calendar.markTrained(today.minusDays(i));
+        }
+    }
+
+    @Test
+    @DisplayName("getStreak - Debería mantener la racha si hoy todavía no entrenó")
+    void getStreak_AliveUntilYesterday() {
+        when(trainingCalendarRepository.findByMember_Id(1L)).thenReturn(Optional.of(calendar));
+
+        StreakDTO result = trainingCalendarService.getStreak(1L);
+
+        assertThat(result.getCurrentStreak()).isEqualTo(3);
+        assertThat(result.getLongestStreak()).isEqualTo(4);
+        assertThat(result.getTotalDaysTrained()).isEqualTo(7);
+        assertThat(result.getLastTrainedDate()).isEqualTo(today.minusDays(1));
+    }
+
+    @Test
+    @DisplayName("getStreak - Debería cortar la racha si no entrenó ni hoy ni ayer")
+    void getStreak_Broken() {
+        TrainingCalendar old = TrainingCalendar.builder().member(member).originDate(today.minusDays(30)).build();
+        old.markTrained(today.minusDays(5));
+        when(trainingCalendarRepository.findByMember_Id(1L)).thenReturn(Optional.of(old));
+
+        assertThat(trainingCalendarService.getStreak(1L).getCurrentStreak()).isZero();
+    }
+
+    @Test
+    @DisplayName("getCalendar - Debería devolver solo los días del rango")
+    void getCalendar_Range() {
+        when(trainingCalendarRepository.findByMember_Id(1L)).thenReturn(Optional.of(calendar));
+
+        TrainingCalendarDTO result = trainingCalendarService.getCalendar(1L, today.minusDays(18), today.minusDays(2));
+
+        assertThat(result.getDaysTrained()).isEqualTo(4);
+        assertThat(result.getTrainedDates())
+                .containsExactly(today.minusDays(18), today.minusDays(17), today.minusDays(3), today.minusDays(2));
+    }
+
+    @Test
+    @DisplayName("recordTraining - Debería crear el bitmap desde el historial y correr el origen si hace falta")
+    void recordTraining_BuildsFromHistory() {
+        LocalDate beforeMembership = today.minusDays(40);
+        when(trainingCalendarRepository.existsByMember_Id(1L)).thenReturn(false);
+        when(workoutCompletionRepository.findCompletionDatesByMember(1L)).thenReturn(List.of(today.minusDays(2)));
+        when(workoutArchiveRepository.findArchivedCompletionDates(1L)).thenReturn(List.of(beforeMembership));
+        ArgumentCaptor<TrainingCalendar> created = ArgumentCaptor.forClass(TrainingCalendar.class);
+        when(trainingCalendarRepository.saveAndFlush(created.capture())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(trainingCalendarRepository.findByMemberIdForUpdate(1L)).thenAnswer(invocation -> Optional.of(created.getValue()));
+
+        trainingCalendarService.recordTraining(member, today);
+
+        verify(trainingCalendarRepository).save(created.getValue());
+        when(trainingCalendarRepository.findByMember_Id(1L)).thenReturn(Optional.of(created.getValue()));
+        TrainingCalendarDTO result = trainingCalendarService.getCalendar(1L, beforeMembership, today);
+        assertThat(result.getTrainedDates()).containsExactly(beforeMembership, today.minusDays(2), today);
+    }
+
+    @Test
+    @DisplayName("recordTraining - Si otra transacción creó el calendario primero debería marcar el día sobre ese")
+    void recordTraining_ConcurrentFirstBuild() {
+        when(trainingCalendarRepository.existsByMember_Id(1L)).thenReturn(false);
+        when(trainingCalendarRepository.saveAndFlush(any(TrainingCalendar.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_training_calendars_member"));
+        when(trainingCalendarRepository.findByMemberIdForUpdate(1L)).thenReturn(Optional.of(calendar));
+
+        int streak = trainingCalendarService.recordTraining(member, today);
+
+        assertThat(streak).isEqualTo(4);
+        verify(trainingCalendarRepository).save(calendar);
+    }
+
+    @Test
+    @DisplayName("recordTraining - Con el calendario creado no debería volver a armarlo desde el historial")
+    void recordTraining_ExistingCalendar() {
+        when(trainingCalendarRepository.existsByMember_Id(1L)).thenReturn(true);
+        when(trainingCalendarRepository.findByMemberIdForUpdate(1L)).thenReturn(Optional.of(calendar));
+
+        trainingCalendarService.recordTraining(member, today.minusDays(1));
+
+        verify(trainingCalendarRepository, never()).saveAndFlush(any(TrainingCalendar.class));
+        verify(trainingCalendarRepository, never()).save(any(TrainingCalendar.class));
+    }
+}
@@ -12,6 +12,8 @@ import com.example.fitnesstracker.mapper.UserMapper;
 import com.example.fitnesstracker.model.User;
 import com.example.fitnesstracker.repository.UserRepository;
 import com.example.fitnesstracker.security.JwtTokenProvider;
+import com.example.fitnesstracker.security.UserPrincipal;
+import com.example.fitnesstracker.util.SoftDeleteFilter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -27,9 +29,11 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -52,6 +56,12 @@ class UserServiceTest {
     @Mock
     private JwtTokenProvider jwtTokenProvider;
 
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private SoftDeleteFilter softDeleteFilter;
+
     @InjectMocks
     private UserService userService;
 
@@ -61,6 +71,9 @@ class UserServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(softDeleteFilter.withDeleted(any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+
         testUser = new User();
         testUser.setId(1L);
         testUser.setExternalId("550e8400-e29b-41d4-a716-446655440000");
@@ -240,8 +253,9 @@ class UserServiceTest {
 
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenReturn(authentication);
-        when(jwtTokenProvider.generateToken(username)).thenReturn(token);
-        when(userRepository.findByUsername(username)).thenReturn(Optional.of(testUser));
+        when(authentication.getPrincipal()).thenReturn(new UserPrincipal(testUser));
+        when(refreshTokenService.startSession(testUser)).thenReturn(new RefreshTokenService.Session("sid-1", "refresh-1"));
+        when(jwtTokenProvider.generateToken(testUser, "sid-1")).thenReturn(token);
         when(userMapper.toDto(testUser)).thenReturn(testUserDTO);
 
 
@@ -250,10 +264,12 @@ class UserServiceTest {
 
         assertThat(result).isNotNull();
         assertThat(result.getToken()).isEqualTo(token);
+        assertThat(result.getRefreshToken()).isEqualTo("refresh-1");
         assertThat(result.getUser().getUsername()).isEqualTo(username);
 
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
-        verify(jwtTokenProvider).generateToken(username);
+        verify(jwtTokenProvider).generateToken(testUser, "sid-1");
+        verify(userRepository, never()).findByUsername(anyString());
     }
 
     @Test
@@ -422,17 +438,17 @@ class UserServiceTest {
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         when(userRepository.existsByEmail("newemail@example.com")).thenReturn(false);
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
         when(userMapper.toDto(testUser)).thenReturn(testUserDTO);
 
 
-        UserDTO result = userService.updateUser(1L, updateDTO);
+        UserDTO result = userService.updateUser(1L, updateDTO, null);
 
 
         assertThat(result).isNotNull();
         verify(userRepository).findById(1L);
         verify(userMapper).updateUserFromDTO(updateDTO, testUser);
-        verify(userRepository).save(testUser);
+        verify(userRepository).saveAndFlush(testUser);
     }
 
     @Test
@@ -444,16 +460,57 @@ class UserServiceTest {
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         when(passwordEncoder.encode("newPassword123")).thenReturn("newEncodedPassword");
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
         when(userMapper.toDto(testUser)).thenReturn(testUserDTO);
 
 
-        UserDTO result = userService.updateUser(1L, updateDTO);
+        UserDTO result = userService.updateUser(1L, updateDTO, null);
 
 
         assertThat(result).isNotNull();
         verify(passwordEncoder).encode("newPassword123");
-        verify(userRepository).save(testUser);
+        verify(userRepository).saveAndFlush(testUser);
+    }
+
+    @Test
+    @DisplayName("updateUser - Debería revocar las sesiones si cambia el rol")
+    void updateUser_RoleChangeRevokesSessions() {
+
+        UserUpdateDTO updateDTO = new UserUpdateDTO();
+        updateDTO.setRole(UserRole.ADMIN);
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        doAnswer(invocation -> {
+            testUser.setRole(UserRole.ADMIN);
+            return null;
+        }).when(userMapper).updateUserFromDTO(updateDTO, testUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
+        when(userMapper.toDto(testUser)).thenReturn(testUserDTO);
+
+
+        userService.updateUser(1L, updateDTO, null);
+
+
+        verify(refreshTokenService).revokeAllForUser(1L);
+    }
+
+    @Test
+    @DisplayName("updateUser - No debería revocar sesiones si solo cambia el email")
+    void updateUser_EmailChangeKeepsSessions() {
+
+        UserUpdateDTO updateDTO = new UserUpdateDTO();
+        updateDTO.setEmail("newemail@example.com");
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.existsByEmail("newemail@example.com")).thenReturn(false);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
+        when(userMapper.toDto(testUser)).thenReturn(testUserDTO);
+
+
+        userService.updateUser(1L, updateDTO, null);
+
+
+        verify(refreshTokenService, never()).revokeAllForUser(anyLong());
     }
 
     @Test
@@ -466,10 +523,10 @@ class UserServiceTest {
         when(userRepository.findById(999L)).thenReturn(Optional.empty());
 
 
-        assertThatThrownBy(() -> userService.updateUser(999L, updateDTO))
+        assertThatThrownBy(() -> userService.updateUser(999L, updateDTO, null))
                 .isInstanceOf(UserNotFoundException.class);
 
-        verify(userRepository, never()).save(any());
+        verify(userRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -486,11 +543,11 @@ class UserServiceTest {
         when(userRepository.findByUsername("existinguser")).thenReturn(Optional.of(anotherUser));
 
 
-        assertThatThrownBy(() -> userService.updateUser(1L, updateDTO))
+        assertThatThrownBy(() -> userService.updateUser(1L, updateDTO, null))
                 .isInstanceOf(UserAlreadyExistsException.class)
                 .hasMessageContaining("username");
 
-        verify(userRepository, never()).save(any());
+        verify(userRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -504,11 +561,11 @@ class UserServiceTest {
         when(userRepository.existsByEmail("existing@example.com")).thenReturn(true);
 
 
-        assertThatThrownBy(() -> userService.updateUser(1L, updateDTO))
+        assertThatThrownBy(() -> userService.updateUser(1L, updateDTO, null))
                 .isInstanceOf(UserAlreadyExistsException.class)
                 .hasMessageContaining("email");
 
-        verify(userRepository, never()).save(any());
+        verify(userRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -521,12 +578,12 @@ class UserServiceTest {
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
 
 
-        assertThatThrownBy(() -> userService.updateUser(1L, updateDTO))
+        assertThatThrownBy(() -> userService.updateUser(1L, updateDTO, null))
                 .isInstanceOf(InvalidUserDataException.class)
                 .hasMessageContaining("contraseña")
                 .hasMessageContaining("6 caracteres");
 
-        verify(userRepository, never()).save(any());
+        verify(userRepository, never()).saveAndFlush(any());
     }
 
     // ==================== DELETE USER TESTS ====================
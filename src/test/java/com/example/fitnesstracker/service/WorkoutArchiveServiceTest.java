@@ -0,0 +1,70 @@
+package com.example.fitnesstracker.service;
+
+import com.example.fitnesstracker.repository.WorkoutArchiveRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WorkoutArchiveService Unit Tests")
+class WorkoutArchiveServiceTest {
+
+    @Mock
+    private WorkoutArchiveRepository workoutArchiveRepository;
+
+    @InjectMocks
+    private WorkoutArchiveService workoutArchiveService;
+
+    private final YearMonth month = YearMonth.of(2024, 3);
+    private final LocalDate from = LocalDate.of(2024, 3, 1);
+    private final LocalDate to = LocalDate.of(2024, 4, 1);
+
+    @Test
+    @DisplayName("archiveMonth - Debería deshacer la copia y no borrar nada si faltan logs en el archivo")
+    void archiveMonth_MissingLogs_RollsBackCopy() {
+        when(workoutArchiveRepository.copyToArchive(from, to)).thenReturn(10);
+        when(workoutArchiveRepository.countCompletionsNotArchived(from, to)).thenReturn(0L);
+        when(workoutArchiveRepository.countLogsNotArchived(from, to)).thenReturn(4L);
+
+        workoutArchiveService.archiveMonth(month);
+
+        verify(workoutArchiveRepository).deleteArchivedCopies(from, to);
+        verify(workoutArchiveRepository, never()).deleteHotBatch(any(), any(), anyInt());
+        verify(workoutArchiveRepository, never()).dropPartition(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("archiveMonth - Debería deshacer la copia si faltan completions en el archivo")
+    void archiveMonth_MissingCompletions_RollsBackCopy() {
+        when(workoutArchiveRepository.countCompletionsNotArchived(from, to)).thenReturn(2L);
+
+        workoutArchiveService.archiveMonth(month);
+
+        verify(workoutArchiveRepository).deleteArchivedCopies(from, to);
+        verify(workoutArchiveRepository, never()).deleteHotBatch(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("archiveMonth - Debería liberar las tablas calientes por lotes con la copia completa")
+    void archiveMonth_CompleteCopy_DeletesHotRows() {
+        when(workoutArchiveRepository.countCompletionsNotArchived(from, to)).thenReturn(0L);
+        when(workoutArchiveRepository.countLogsNotArchived(from, to)).thenReturn(0L);
+        when(workoutArchiveRepository.deleteHotBatch(from, to, 1000)).thenReturn(1000, 3);
+
+        workoutArchiveService.archiveMonth(month);
+
+        verify(workoutArchiveRepository, times(2)).deleteHotBatch(from, to, 1000);
+        verify(workoutArchiveRepository, never()).deleteArchivedCopies(any(), any());
+    }
+}
@@ -9,6 +9,7 @@ import com.example.fitnesstracker.exception.ResourceNotFoundException;
 import com.example.fitnesstracker.mapper.*;
 import com.example.fitnesstracker.model.*;
 import com.example.fitnesstracker.repository.*;
+import com.example.fitnesstracker.util.FieldSelection;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -26,6 +27,8 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -56,6 +59,18 @@ class WorkoutPlanServiceTest {
     private WorkoutExerciseMapper workoutExerciseMapper;
     @Mock
     private WorkoutCompletionMapper workoutCompletionMapper;
+    @Mock
+    private WorkoutArchiveService workoutArchiveService;
+    @Mock
+    private ExerciseProgressService exerciseProgressService;
+    @Mock
+    private AdherenceService adherenceService;
+    @Mock
+    private TrainingCalendarService trainingCalendarService;
+    @Mock
+    private LeaderboardService leaderboardService;
+    @Mock
+    private OutboxService outboxService;
 
     @InjectMocks
     private WorkoutPlanService workoutPlanService;
@@ -149,6 +164,7 @@ class WorkoutPlanServiceTest {
 
         testCompletionDTO = new WorkoutCompletionDTO();
         testCompletionDTO.setId(1L);
+        testCompletionDTO.setCompletedAt(LocalDate.now());
     }
 
     // ==================== CREATE WORKOUT PLAN TESTS ====================
@@ -275,6 +291,8 @@ class WorkoutPlanServiceTest {
         WorkoutDayDTO result = workoutPlanService.addWorkoutDay(1L, 1L, dto);
 
         assertThat(result).isNotNull();
+        // El plan queda modificado para que su versión (el ETag) cambie con el día nuevo
+        assertThat(testPlan.getUpdatedAt()).isNotNull();
         verify(workoutPlanRepository).findById(1L);
         verify(workoutDayRepository).save(any(WorkoutDay.class));
     }
@@ -304,6 +322,18 @@ class WorkoutPlanServiceTest {
                 .hasMessage("No tienes permiso para modificar este plan");
     }
 
+    @Test
+    @DisplayName("addWorkoutDay - Debería rechazar cambios a un plan activo")
+    void addWorkoutDay_PlanNotDraft() {
+        testPlan.setStatus(WorkoutPlanStatus.ACTIVE);
+        when(workoutPlanRepository.findById(1L)).thenReturn(Optional.of(testPlan));
+
+        assertThatThrownBy(() -> workoutPlanService.addWorkoutDay(1L, 1L, new AddWorkoutDayDTO()))
+                .isInstanceOf(InvalidUserDataException.class)
+                .hasMessage("Solo se pueden modificar planes en borrador");
+        verify(workoutDayRepository, never()).save(any(WorkoutDay.class));
+    }
+
     // ==================== ADD EXERCISE TO DAY TESTS ====================
 
     @Test
@@ -346,6 +376,30 @@ class WorkoutPlanServiceTest {
                 .hasMessage("Día de workout no encontrado");
     }
 
+    @Test
+    @DisplayName("addExerciseToDay - Debería rechazar cambios a un plan activo")
+    void addExerciseToDay_PlanNotDraft() {
+        testPlan.setStatus(WorkoutPlanStatus.ACTIVE);
+        when(workoutDayRepository.findById(1L)).thenReturn(Optional.of(testDay));
+
+        assertThatThrownBy(() -> workoutPlanService.addExerciseToDay(1L, 1L, new AddExerciseToWorkoutDTO()))
+                .isInstanceOf(InvalidUserDataException.class)
+                .hasMessage("Solo se pueden modificar planes en borrador");
+        verify(workoutExerciseRepository, never()).save(any(WorkoutExercise.class));
+    }
+
+    @Test
+    @DisplayName("removeExerciseFromDay - Debería rechazar cambios a un plan activo")
+    void removeExerciseFromDay_PlanNotDraft() {
+        testPlan.setStatus(WorkoutPlanStatus.ACTIVE);
+        when(workoutExerciseRepository.findById(1L)).thenReturn(Optional.of(testExercise));
+
+        assertThatThrownBy(() -> workoutPlanService.removeExerciseFromDay(1L, 1L))
+                .isInstanceOf(InvalidUserDataException.class)
+                .hasMessage("Solo se pueden modificar planes en borrador");
+        assertThat(testExercise.isDeleted()).isFalse();
+    }
+
     @Test
     @DisplayName("addExerciseToDay - Debería lanzar excepción si ejercicio no encontrado")
     void addExerciseToDay_ExerciseNotFound() {
@@ -373,14 +427,14 @@ class WorkoutPlanServiceTest {
 
         testPlan.getWorkoutDays().add(testDay);
         when(workoutPlanRepository.findById(1L)).thenReturn(Optional.of(testPlan));
-        when(workoutPlanRepository.save(any(WorkoutPlan.class))).thenReturn(testPlan);
+        when(workoutPlanRepository.saveAndFlush(any(WorkoutPlan.class))).thenReturn(testPlan);
         when(workoutPlanMapper.toDTO(any(WorkoutPlan.class), anyBoolean())).thenReturn(testPlanDTO);
 
 
-        WorkoutPlanDTO result = workoutPlanService.activateWorkoutPlan(1L, 1L);
+        WorkoutPlanDTO result = workoutPlanService.activateWorkoutPlan(1L, 1L, null);
 
         assertThat(result).isNotNull();
-        verify(workoutPlanRepository).save(any(WorkoutPlan.class));
+        verify(workoutPlanRepository).saveAndFlush(any(WorkoutPlan.class));
         assertThat(testPlan.getStatus()).isEqualTo(WorkoutPlanStatus.ACTIVE);
     }
 
@@ -391,7 +445,7 @@ class WorkoutPlanServiceTest {
         when(workoutPlanRepository.findById(1L)).thenReturn(Optional.of(testPlan));
 
 
-        assertThatThrownBy(() -> workoutPlanService.activateWorkoutPlan(1L, 1L))
+        assertThatThrownBy(() -> workoutPlanService.activateWorkoutPlan(1L, 1L, null))
                 .isInstanceOf(InvalidUserDataException.class)
                 .hasMessageContaining("al menos un día");
     }
@@ -403,7 +457,7 @@ class WorkoutPlanServiceTest {
     void getWorkoutPlanById_Success() {
 
         when(workoutPlanRepository.findById(1L)).thenReturn(Optional.of(testPlan));
-        when(workoutPlanMapper.toDTO(any(WorkoutPlan.class), anyBoolean())).thenReturn(testPlanDTO);
+        when(workoutPlanMapper.toDTO(any(WorkoutPlan.class), any(FieldSelection.class))).thenReturn(testPlanDTO);
 
 
         WorkoutPlanDTO result = workoutPlanService.getWorkoutPlanById(1L);
@@ -425,13 +479,34 @@ class WorkoutPlanServiceTest {
                 .hasMessage("Plan de workout no encontrado");
     }
 
+    @Test
+    @DisplayName("getWorkoutPlanVersion - Debería resolver la versión sin cargar el plan")
+    void getWorkoutPlanVersion_Success() {
+        PlanVersionProjection version = mock(PlanVersionProjection.class);
+        when(workoutPlanRepository.findVersionById(1L)).thenReturn(Optional.of(version));
+
+        assertThat(workoutPlanService.getWorkoutPlanVersion(1L)).isSameAs(version);
+        verify(workoutPlanRepository, never()).findById(any());
+        verifyNoInteractions(workoutPlanMapper);
+    }
+
+    @Test
+    @DisplayName("getWorkoutPlanVersion - Debería lanzar excepción si no encontrado")
+    void getWorkoutPlanVersion_NotFound() {
+        when(workoutPlanRepository.findVersionById(999L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> workoutPlanService.getWorkoutPlanVersion(999L))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Plan de workout no encontrado");
+    }
+
     @Test
     @DisplayName("getWorkoutPlansByMember - Debería retornar lista de planes")
     void getWorkoutPlansByMember_Success() {
 
         when(workoutPlanRepository.findByMember_IdAndDeletedAtIsNull(1L))
                 .thenReturn(Arrays.asList(testPlan));
-        when(workoutPlanMapper.toDTO(any(WorkoutPlan.class), anyBoolean()))
+        when(workoutPlanMapper.toDTO(any(WorkoutPlan.class), any(FieldSelection.class)))
                 .thenReturn(testPlanDTO);
 
 
@@ -449,7 +524,7 @@ class WorkoutPlanServiceTest {
         testPlan.setStatus(WorkoutPlanStatus.ACTIVE);
         when(workoutPlanRepository.findActivePlansByMember(1L))
                 .thenReturn(Arrays.asList(testPlan));
-        when(workoutPlanMapper.toDTO(any(WorkoutPlan.class), anyBoolean()))
+        when(workoutPlanMapper.toDTO(any(WorkoutPlan.class), any(FieldSelection.class)))
                 .thenReturn(testPlanDTO);
 
 
@@ -459,6 +534,36 @@ class WorkoutPlanServiceTest {
         verify(workoutPlanRepository).findActivePlansByMember(1L);
     }
 
+    @Test
+    @DisplayName("getWorkoutPlanById - Con el detalle completo debería traer personas, días y ejercicios")
+    void getWorkoutPlanById_FetchesSelectedRelations() {
+        testPlan.setId(1L);
+        when(workoutPlanRepository.findById(1L)).thenReturn(Optional.of(testPlan));
+        when(workoutPlanMapper.toDTO(any(WorkoutPlan.class), any(FieldSelection.class))).thenReturn(testPlanDTO);
+
+        workoutPlanService.getWorkoutPlanById(1L);
+
+        verify(workoutPlanRepository).fetchMemberAndTrainer(List.of(1L));
+        verify(workoutPlanRepository).fetchWorkoutDays(List.of(1L));
+        verify(workoutPlanRepository).fetchExercises(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("getWorkoutPlansByTrainer - Con fields e include vacío no debería traer relaciones que no se muestran")
+    void getWorkoutPlansByTrainer_SparseFieldsSkipJoins() {
+        testPlan.setId(1L);
+        FieldSelection selection = FieldSelection.parse("name,totalDays", "", WorkoutPlanDTO.class, WorkoutPlanMapper.INCLUDES);
+        when(workoutPlanRepository.findByTrainer_IdAndDeletedAtIsNull(1L)).thenReturn(List.of(testPlan));
+        when(workoutPlanMapper.toDTO(testPlan, selection)).thenReturn(testPlanDTO);
+
+        List<WorkoutPlanDTO> result = workoutPlanService.getWorkoutPlansByTrainer(1L, selection);
+
+        assertThat(result).containsExactly(testPlanDTO);
+        verify(workoutPlanRepository).fetchWorkoutDays(List.of(1L));
+        verify(workoutPlanRepository, never()).fetchMemberAndTrainer(anyList());
+        verify(workoutPlanRepository, never()).fetchExercises(anyList());
+    }
+
     // ==================== DELETE WORKOUT PLAN TESTS ====================
 
     @Test
@@ -567,6 +672,7 @@ class WorkoutPlanServiceTest {
 
         assertThat(result).isNotNull();
         verify(exerciseLogRepository).save(any(ExerciseLog.class));
+        verify(exerciseProgressService).recordWorkout(eq(testMember), any(LocalDate.class), anyList());
     }
 
     // ==================== WORKOUT HISTORY TESTS ====================
@@ -606,6 +712,80 @@ class WorkoutPlanServiceTest {
         verify(workoutCompletionRepository).findByMemberAndDateRange(1L, start, end);
     }
 
+    @Test
+    @DisplayName("getWorkoutHistoryByDateRange - Debería combinar historial caliente y archivado")
+    void getWorkoutHistoryByDateRange_SpansArchive() {
+
+        LocalDate cutoff = LocalDate.now().withDayOfMonth(1).minusMonths(12);
+        LocalDate start = cutoff.minusMonths(2);
+        LocalDate end = cutoff.plusMonths(1);
+        WorkoutCompletionDTO archivedDTO = WorkoutCompletionDTO.builder().id(99L).completedAt(start).build();
+
+        when(workoutArchiveService.archiveCutoff()).thenReturn(Optional.of(cutoff));
+        when(workoutCompletionRepository.findByMemberAndDateRange(1L, start, end))
+                .thenReturn(Arrays.asList(testCompletion));
+        when(workoutCompletionMapper.toDTO(any(WorkoutCompletion.class)))
+                .thenReturn(testCompletionDTO);
+        when(workoutArchiveService.getArchivedHistory(1L, start, cutoff.minusDays(1)))
+                .thenReturn(List.of(archivedDTO));
+
+        List<WorkoutCompletionDTO> result = workoutPlanService.getWorkoutHistoryByDateRange(1L, start, end);
+
+
+        assertThat(result).containsExactly(testCompletionDTO, archivedDTO);
+        verify(workoutCompletionRepository).findByMemberAndDateRange(1L, start, end);
+    }
+
+    @Test
+    @DisplayName("getWorkoutHistoryByDateRange - No debería duplicar una completion copiada al archivo y aún no borrada")
+    void getWorkoutHistoryByDateRange_CopiedNotYetDeleted() {
+
+        LocalDate cutoff = LocalDate.now().withDayOfMonth(1).minusMonths(12);
+        LocalDate start = cutoff.minusMonths(2);
+        LocalDate end = cutoff.plusMonths(1);
+        // Fila anterior al corte: el job ya la copió al archivo pero todavía no borró el lote caliente
+        LocalDate pendingDate = cutoff.minusDays(10);
+        testCompletion.setCompletedAt(pendingDate);
+        testCompletionDTO.setCompletedAt(pendingDate);
+        WorkoutCompletionDTO copiedDTO = WorkoutCompletionDTO.builder().id(1L).completedAt(pendingDate).build();
+        WorkoutCompletionDTO archivedDTO = WorkoutCompletionDTO.builder().id(99L).completedAt(start).build();
+
+        when(workoutArchiveService.archiveCutoff()).thenReturn(Optional.of(cutoff));
+        when(workoutCompletionRepository.findByMemberAndDateRange(1L, start, end))
+                .thenReturn(Arrays.asList(testCompletion));
+        when(workoutCompletionMapper.toDTO(any(WorkoutCompletion.class)))
+                .thenReturn(testCompletionDTO);
+        when(workoutArchiveService.getArchivedHistory(1L, start, cutoff.minusDays(1)))
+                .thenReturn(List.of(copiedDTO, archivedDTO));
+
+        List<WorkoutCompletionDTO> result = workoutPlanService.getWorkoutHistoryByDateRange(1L, start, end);
+
+
+        assertThat(result).containsExactly(testCompletionDTO, archivedDTO);
+    }
+
+    @Test
+    @DisplayName("getWorkoutHistory - Debería ordenar por fecha y no duplicar filas en ambas tablas")
+    void getWorkoutHistory_MergesArchiveWithoutDuplicates() {
+
+        LocalDate cutoff = LocalDate.now().withDayOfMonth(1).minusMonths(12);
+        WorkoutCompletionDTO copiedDTO = WorkoutCompletionDTO.builder().id(1L).completedAt(LocalDate.now()).build();
+        WorkoutCompletionDTO archivedDTO = WorkoutCompletionDTO.builder().id(99L).completedAt(cutoff.minusDays(3)).build();
+
+        when(workoutArchiveService.archiveCutoff()).thenReturn(Optional.of(cutoff));
+        when(workoutCompletionRepository.findByMember_IdAndDeletedAtIsNullOrderByCompletedAtDesc(1L))
+                .thenReturn(Arrays.asList(testCompletion));
+        when(workoutCompletionMapper.toDTO(any(WorkoutCompletion.class)))
+                .thenReturn(testCompletionDTO);
+        when(workoutArchiveService.getArchivedHistory(1L, LocalDate.EPOCH, cutoff.minusDays(1)))
+                .thenReturn(List.of(archivedDTO, copiedDTO));
+
+        List<WorkoutCompletionDTO> result = workoutPlanService.getWorkoutHistory(1L);
+
+
+        assertThat(result).containsExactly(testCompletionDTO, archivedDTO);
+    }
+
     // ==================== COUNT TESTS ====================
 
     @Test
@@ -621,6 +801,20 @@ class WorkoutPlanServiceTest {
         verify(workoutCompletionRepository).countCompletionsByMember(1L);
     }
 
+    @Test
+    @DisplayName("countCompletedWorkouts - Debería sumar lo archivado que ya no está en caliente")
+    void countCompletedWorkouts_IncludesArchive() {
+
+        when(workoutArchiveService.archiveCutoff()).thenReturn(Optional.of(LocalDate.now().withDayOfMonth(1)));
+        when(workoutCompletionRepository.countCompletionsByMember(1L)).thenReturn(10L);
+        when(workoutArchiveService.countArchivedOnly(1L)).thenReturn(4L);
+
+
+        long result = workoutPlanService.countCompletedWorkouts(1L);
+
+        assertThat(result).isEqualTo(14L);
+    }
+
     @Test
     @DisplayName("countActivePlans - Debería retornar conteo de planes activos")
     void countActivePlans_Success() {
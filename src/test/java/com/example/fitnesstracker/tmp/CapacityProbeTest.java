@@ -0,0 +1,56 @@
+package com.example.fitnesstracker.tmp;
+
+import com.example.fitnesstracker.model.Trainer;
+import com.example.fitnesstracker.model.User;
+import com.example.fitnesstracker.repository.TrainerRepository;
+import com.example.fitnesstracker.repository.TrainerAssignmentRequestRepository;
+import com.example.fitnesstracker.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+import java.math.BigDecimal;
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@TestPropertySource(properties = {"spring.liquibase.enabled=false", "spring.jpa.hibernate.ddl-auto=create-drop", "spring.jpa.show-sql=true", "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"})
+class CapacityProbeTest {
+    @Autowired UserRepository users;
+    @Autowired TrainerRepository trainers;
+    @Autowired TrainerAssignmentRequestRepository reqs;
+    @Autowired EntityManager em;
+    @Autowired com.example.fitnesstracker.repository.MemberRepository members;
+    @Test
+    void probe() {
+        User u = users.save(User.builder().username("t").email("t@x").password("p").build());
+        Trainer t = trainers.save(Trainer.builder().user(u).firstName("a").lastName("b").specialty("s").certifications("c").hourlyRate(BigDecimal.TEN).maxMembers(2).build());
+        trainers.flush();
+        assertThat(trainers.findTrainersWithAvailability()).hasSize(1);
+        assertThat(trainers.reserveSlot(t.getId())).isEqualTo(1);
+        assertThat(trainers.reserveSlot(t.getId())).isEqualTo(1);
+        assertThat(trainers.reserveSlot(t.getId())).isEqualTo(0);
+        em.clear();
+        assertThat(trainers.findById(t.getId()).get().getAssignedMemberCount()).isEqualTo(2);
+        assertThat(trainers.findTrainersWithAvailability()).isEmpty();
+        Trainer loaded = trainers.findById(t.getId()).get();
+        loaded.setFirstName("z");
+        trainers.saveAndFlush(loaded);
+        assertThat(trainers.releaseSlot(t.getId())).isEqualTo(1);
+        em.clear();
+        assertThat(trainers.findById(t.getId()).get().getAssignedMemberCount()).isEqualTo(1);
+        assertThat(reqs.findByIdForUpdate(99L)).isEmpty();
+        var c = trainers.findMatchingCandidates("s", BigDecimal.valueOf(20));
+        assertThat(c).hasSize(1);
+        assertThat(c.get(0).getAssignedMemberCount()).isEqualTo(1);
+        assertThat(trainers.findMatchingCandidates(null, null)).hasSize(1);
+        assertThat(reqs.countPendingByTrainer()).isEmpty();
+        assertThat(members.findMemberIdsAwaitingTrainer(java.time.LocalDate.now())).isEmpty();
+        assertThat(trainers.findTrainersWithMemberCount().get(0).getMemberCount()).isEqualTo(1L);
+        assertThat(trainers.findMostBusyTrainers()).hasSize(1);
+        assertThat(trainers.findAvailableTrainersWithNoMembers()).isEmpty();
+        assertThat(trainers.findTrainersBySpecialtyOrderedByLoad("s")).hasSize(1);
+        assertThat(trainers.findLoadSnapshot()).hasSize(1);
+        assertThat(trainers.findLoadById(t.getId()).get().getAssignedMemberCount()).isEqualTo(1);
+    }
+}
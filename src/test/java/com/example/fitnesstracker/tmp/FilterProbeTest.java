@@ -0,0 +1,31 @@
+package com.example.fitnesstracker.tmp;
+
+import com.example.fitnesstracker.model.User;
+import com.example.fitnesstracker.repository.UserRepository;
+import com.example.fitnesstracker.util.SoftDeleteFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@Import(SoftDeleteFilter.class)
+@TestPropertySource(properties = {"spring.liquibase.enabled=false", "spring.jpa.hibernate.ddl-auto=create-drop", "spring.jpa.show-sql=true", "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"})
+class FilterProbeTest {
+    @Autowired UserRepository repo;
+    @Autowired SoftDeleteFilter f;
+    @Test
+    void probe() {
+        User a = repo.save(User.builder().username("a").email("a@x").password("p").build());
+        User b = User.builder().username("b").email("b@x").password("p").build();
+        b.softDelete();
+        repo.save(b);
+        repo.flush();
+        assertThat(repo.findAll()).hasSize(1);
+        assertThat(repo.findByUsername("b")).isEmpty();
+        assertThat(f.withDeleted(() -> repo.findAllDeleted())).hasSize(1);
+        assertThat(repo.findAll()).hasSize(1);
+    }
+}
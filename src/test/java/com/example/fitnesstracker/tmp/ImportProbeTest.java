@@ -0,0 +1,28 @@
+package com.example.fitnesstracker.tmp;
+
+import com.example.fitnesstracker.repository.MemberImportRepository;
+import com.example.fitnesstracker.repository.MemberImportRepository.NewMember;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import java.time.LocalDate;
+import java.util.List;
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@Import(MemberImportRepository.class)
+@TestPropertySource(properties = {"spring.liquibase.enabled=false", "spring.jpa.hibernate.ddl-auto=create-drop", "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"})
+class ImportProbeTest {
+    @Autowired MemberImportRepository repo;
+    @Test
+    void probe() {
+        LocalDate d = LocalDate.now();
+        assertThat(repo.insertMembers(List.of(new NewMember("u1","e1@x","h","A","B","123",LocalDate.of(1990,1,1)),
+                new NewMember("u2","e2@x","h","A","B","124",LocalDate.of(1990,1,1))), d, d.plusMonths(1))).isEqualTo(2);
+        assertThat(repo.findExistingUsernames(List.of("u1","zz"))).containsExactly("u1");
+        assertThat(repo.findExistingEmails(List.of("e2@x"))).containsExactly("e2@x");
+        assertThat(repo.findExistingPhones(List.of("124","1"))).containsExactly("124");
+    }
+}
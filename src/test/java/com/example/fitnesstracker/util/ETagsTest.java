@@ -0,0 +1,100 @@
+package com.example.fitnesstracker.util;
+
+import com.example.fitnesstracker.exception.PreconditionFailedException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ETags Unit Tests")
+class ETagsTest {
+
+    @Test
+    @DisplayName("matchesIfNoneMatch - Debería coincidir con el ETag fuerte y con el débil")
+    void matchesIfNoneMatch_StrongAndWeak() {
+        assertThat(ETags.matchesIfNoneMatch("\"3\"", 3L)).isTrue();
+        assertThat(ETags.matchesIfNoneMatch("W/\"3\"", 3L)).isTrue();
+        assertThat(ETags.matchesIfNoneMatch("W/\"4\"", 3L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("matchesIfNoneMatch - Debería buscar la versión en una lista de ETags")
+    void matchesIfNoneMatch_List() {
+        assertThat(ETags.matchesIfNoneMatch("\"1\", W/\"2\" ,\"3\"", 3L)).isTrue();
+        assertThat(ETags.matchesIfNoneMatch("W/\"1\", \"2\"", 2L)).isTrue();
+        assertThat(ETags.matchesIfNoneMatch("\"1\", \"2\"", 3L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("matchesIfNoneMatch - Debería coincidir siempre con * y nunca sin cabecera o sin versión")
+    void matchesIfNoneMatch_WildcardAndMissing() {
+        assertThat(ETags.matchesIfNoneMatch("*", 3L)).isTrue();
+        assertThat(ETags.matchesIfNoneMatch(null, 3L)).isFalse();
+        assertThat(ETags.matchesIfNoneMatch("\"3\"", null)).isFalse();
+        assertThat(ETags.matchesIfNoneMatch("\"33\"", 3L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("parseIfMatch - Debería leer la versión del ETag fuerte o débil")
+    void parseIfMatch_StrongAndWeak() {
+        assertThat(ETags.parseIfMatch("\"7\"")).isEqualTo(7L);
+        assertThat(ETags.parseIfMatch(" W/\"7\" ")).isEqualTo(7L);
+        assertThat(ETags.parseIfMatch("7")).isEqualTo(7L);
+    }
+
+    @Test
+    @DisplayName("parseIfMatch - Sin cabecera o con * no condiciona la escritura")
+    void parseIfMatch_Unconditional() {
+        assertThat(ETags.parseIfMatch(null)).isNull();
+        assertThat(ETags.parseIfMatch(" ")).isNull();
+        assertThat(ETags.parseIfMatch("*")).isNull();
+    }
+
+    @Test
+    @DisplayName("parseIfMatch - Debería rechazar una lista o un valor que no es versión")
+    void parseIfMatch_Invalid() {
+        assertThatThrownBy(() -> ETags.parseIfMatch("\"1\", \"2\""))
+                .isInstanceOf(PreconditionFailedException.class);
+        assertThatThrownBy(() -> ETags.parseIfMatch("\"abc\""))
+                .isInstanceOf(PreconditionFailedException.class);
+    }
+
+    @Test
+    @DisplayName("checkVersion - Debería fallar solo si la versión esperada no es la actual")
+    void checkVersion() {
+        ETags.checkVersion(null, 5L);
+        ETags.checkVersion(5L, 5L);
+        assertThatThrownBy(() -> ETags.checkVersion(4L, 5L))
+                .isInstanceOf(PreconditionFailedException.class);
+    }
+
+    @Test
+    @DisplayName("cacheControl - Borrador se revalida siempre, publicado se reusa durante maxAge")
+    void cacheControl_DraftAndPublished() {
+        assertThat(ETags.cacheControl(true, Duration.ofMinutes(5)).getHeaderValue()).isEqualTo("no-cache, private");
+        assertThat(ETags.cacheControl(false, Duration.ofMinutes(5)).getHeaderValue()).isEqualTo("max-age=300, private");
+    }
+
+    @Test
+    @DisplayName("ok/notModified - El GET cacheable lleva ETag débil; la respuesta de escritura, fuerte")
+    void responses_ETagStrength() {
+        CacheControl cacheControl = CacheControl.noCache();
+
+        ResponseEntity<String> cacheable = ETags.ok("plan", 3L, cacheControl);
+        ResponseEntity<Void> notModified = ETags.notModified(3L, cacheControl);
+        ResponseEntity<String> written = ETags.ok("plan", 3L);
+
+        assertThat(cacheable.getHeaders().getETag()).isEqualTo("W/\"3\"");
+        assertThat(cacheable.getHeaders().getVary()).containsExactly(HttpHeaders.ACCEPT);
+        assertThat(notModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(notModified.getHeaders().getETag()).isEqualTo("W/\"3\"");
+        assertThat(written.getHeaders().getETag()).isEqualTo("\"3\"");
+    }
+}